@@ -0,0 +1,239 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Hierarchical timing wheel with NUM_LEVELS levels of NUM_SLOTS slots each. Level 0 has a resolution of one tick,
+ * each higher level covers NUM_SLOTS times the range of the level below. Scheduling and cancellation are O(1).
+ * Entries of a higher level get moved to the lower levels when the wheel reaches the start of their slot.
+ *
+ * Time is passed in by the caller, so the wheel itself has no thread and can be tested deterministically.
+ * Not thread safe, the caller has to synchronize the access.
+ */
+class TimingWheel<T> {
+    static final int SLOT_BITS = 8;
+    static final int NUM_SLOTS = 1 << SLOT_BITS;
+    static final int NUM_LEVELS = 4;
+    private static final int SLOT_MASK = NUM_SLOTS - 1;
+
+    static final class Entry<T> {
+        private final T value;
+        private long deadlineTick;
+        @Nullable
+        private Bucket<T> bucket;
+        private Entry<T> prev;
+        private Entry<T> next;
+
+        Entry(T value) {
+            this.value = value;
+        }
+
+        T getValue() {
+            return value;
+        }
+
+        boolean isScheduled() {
+            return bucket != null;
+        }
+    }
+
+    // Doubly linked list with a sentinel so that entries can be removed in O(1)
+    private static final class Bucket<T> {
+        private final Entry<T> head = new Entry<>(null);
+
+        private Bucket() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        private boolean isEmpty() {
+            return head.next == head;
+        }
+
+        private void add(Entry<T> entry) {
+            entry.bucket = this;
+            entry.prev = head.prev;
+            entry.next = head;
+            head.prev.next = entry;
+            head.prev = entry;
+        }
+
+        private void remove(Entry<T> entry) {
+            entry.prev.next = entry.next;
+            entry.next.prev = entry.prev;
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+        }
+
+        private List<Entry<T>> drain() {
+            List<Entry<T>> entries = new ArrayList<>();
+            Entry<T> entry = head.next;
+            while (entry != head) {
+                Entry<T> next = entry.next;
+                entry.prev = null;
+                entry.next = null;
+                entry.bucket = null;
+                entries.add(entry);
+                entry = next;
+            }
+            head.prev = head;
+            head.next = head;
+            return entries;
+        }
+    }
+
+    private final long tickMs;
+    private final List<List<Bucket<T>>> levels = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long tickMs, long nowMs) {
+        checkArgument(tickMs > 0, "tickMs must be positive");
+        this.tickMs = tickMs;
+        currentTick = nowMs / tickMs;
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            List<Bucket<T>> buckets = new ArrayList<>(NUM_SLOTS);
+            for (int slot = 0; slot < NUM_SLOTS; slot++) {
+                buckets.add(new Bucket<>());
+            }
+            levels.add(buckets);
+        }
+    }
+
+    /**
+     * Returns false if the deadline is already reached. The entry is not added in that case and the caller is
+     * expected to execute it.
+     */
+    boolean schedule(Entry<T> entry, long deadlineMs, long nowMs) {
+        checkArgument(!entry.isScheduled(), "Entry is already scheduled");
+        if (size == 0)
+            currentTick = Math.max(currentTick, nowMs / tickMs);
+
+        entry.deadlineTick = (deadlineMs + tickMs - 1) / tickMs;
+        if (entry.deadlineTick <= currentTick)
+            return false;
+
+        insert(entry);
+        size++;
+        return true;
+    }
+
+    boolean cancel(Entry<T> entry) {
+        if (entry.bucket == null)
+            return false;
+
+        entry.bucket.remove(entry);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel to nowMs and returns the values of all expired entries.
+     */
+    List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        long nowTick = nowMs / tickMs;
+        while (currentTick < nowTick) {
+            // We skip the ticks where nothing happens, so an idle wheel costs nothing
+            long nextTick = getNextEventTick();
+            if (nextTick > nowTick) {
+                currentTick = nowTick;
+                break;
+            }
+            currentTick = nextTick;
+
+            // Higher levels first, so entries moved down can be moved further down at the same tick
+            for (int level = NUM_LEVELS - 1; level > 0; level--) {
+                int shift = SLOT_BITS * level;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    int slot = (int) ((currentTick >>> shift) & SLOT_MASK);
+                    for (Entry<T> entry : levels.get(level).get(slot).drain()) {
+                        if (entry.deadlineTick <= currentTick) {
+                            expired.add(entry.value);
+                            size--;
+                        } else {
+                            insert(entry);
+                        }
+                    }
+                }
+            }
+
+            List<Entry<T>> entries = levels.get(0).get((int) (currentTick & SLOT_MASK)).drain();
+            entries.forEach(entry -> expired.add(entry.value));
+            size -= entries.size();
+        }
+        return expired;
+    }
+
+    /**
+     * Returns the time when the next call to advance can return expired entries, or Long.MAX_VALUE if the wheel is
+     * empty.
+     */
+    long getNextEventTimeMs() {
+        long nextTick = getNextEventTick();
+        return nextTick == Long.MAX_VALUE ? Long.MAX_VALUE : nextTick * tickMs;
+    }
+
+    int size() {
+        return size;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void insert(Entry<T> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        int level = 0;
+        while (level < NUM_LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((entry.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        levels.get(level).get(slot).add(entry);
+    }
+
+    // The next tick at which a level 0 slot expires or a slot of a higher level gets moved down
+    private long getNextEventTick() {
+        if (size == 0)
+            return Long.MAX_VALUE;
+
+        long nextTick = Long.MAX_VALUE;
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            long block = currentTick >>> shift;
+            List<Bucket<T>> buckets = levels.get(level);
+            for (int i = 1; i <= NUM_SLOTS; i++) {
+                long candidate = block + i;
+                if (!buckets.get((int) (candidate & SLOT_MASK)).isEmpty()) {
+                    nextTick = Math.min(nextTick, candidate << shift);
+                    break;
+                }
+            }
+        }
+        return nextTick;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.time.Duration;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Timer for headless apps backed by a shared hierarchical TimingWheel. In contrast to the FrameRateTimer, which gets
+ * polled by the MasterTimer every 100 ms, scheduling and stopping a timer is O(1) and the single timer thread sleeps
+ * until the next timer is due. An idle node does not consume any CPU for its timers.
+ * The runnable is executed on the UserThread.
+ */
+@Slf4j
+public class TimingWheelTimer implements Timer {
+    private static final long TICK_MS = 10;
+
+    private static final Object LOCK = new Object();
+    private static final TimingWheel<TimingWheelTimer> WHEEL = new TimingWheel<>(TICK_MS, System.currentTimeMillis());
+    private static Thread timerThread;
+    private static long wakeUpTs = Long.MAX_VALUE;
+
+    // Drift is the time between the deadline and the execution on the UserThread
+    private static final AtomicLong numExecutions = new AtomicLong();
+    private static final AtomicLong totalDrift = new AtomicLong();
+    private static final AtomicLong maxDrift = new AtomicLong();
+
+    private final TimingWheel.Entry<TimingWheelTimer> entry = new TimingWheel.Entry<>(this);
+    private Runnable runnable;
+    private long interval;
+    private boolean isPeriodically;
+    private volatile long deadline;
+    private volatile boolean stopped;
+
+    public TimingWheelTimer() {
+    }
+
+    @Override
+    public Timer runLater(Duration delay, Runnable runnable) {
+        this.interval = delay.toMillis();
+        this.runnable = runnable;
+        schedule(System.currentTimeMillis() + interval);
+        return this;
+    }
+
+    @Override
+    public Timer runPeriodically(Duration interval, Runnable runnable) {
+        // A periodic timer needs a positive interval, otherwise it would reschedule itself forever
+        this.interval = Math.max(1, interval.toMillis());
+        isPeriodically = true;
+        this.runnable = runnable;
+        schedule(System.currentTimeMillis() + this.interval);
+        return this;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        synchronized (LOCK) {
+            WHEEL.cancel(entry);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Statistics
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static int getNumScheduledTimers() {
+        synchronized (LOCK) {
+            return WHEEL.size();
+        }
+    }
+
+    public static long getNumExecutions() {
+        return numExecutions.get();
+    }
+
+    public static double getAverageDriftMs() {
+        long executions = numExecutions.get();
+        return executions == 0 ? 0 : (double) totalDrift.get() / executions;
+    }
+
+    public static long getMaxDriftMs() {
+        return maxDrift.get();
+    }
+
+    public static String getStatistics() {
+        return "TimingWheelTimer{" +
+                "numScheduledTimers=" + getNumScheduledTimers() +
+                ", numExecutions=" + getNumExecutions() +
+                ", averageDriftMs=" + getAverageDriftMs() +
+                ", maxDriftMs=" + getMaxDriftMs() +
+                "}";
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void schedule(long deadline) {
+        this.deadline = deadline;
+        boolean scheduled;
+        synchronized (LOCK) {
+            if (stopped)
+                return;
+
+            scheduled = WHEEL.schedule(entry, deadline, System.currentTimeMillis());
+            if (scheduled) {
+                if (timerThread == null) {
+                    timerThread = new Thread(TimingWheelTimer::runTimerThread, "TimingWheelTimer");
+                    timerThread.setDaemon(true);
+                    timerThread.start();
+                } else if (deadline < wakeUpTs) {
+                    LOCK.notifyAll();
+                }
+            }
+        }
+        if (!scheduled)
+            UserThread.execute(this::execute);
+    }
+
+    private void execute() {
+        if (stopped)
+            return;
+
+        long now = System.currentTimeMillis();
+        long drift = Math.max(0, now - deadline);
+        numExecutions.incrementAndGet();
+        totalDrift.addAndGet(drift);
+        maxDrift.accumulateAndGet(drift, Math::max);
+
+        try {
+            runnable.run();
+        } catch (Throwable t) {
+            log.error("exception in TimingWheelTimer", t);
+            stop();
+            throw t;
+        }
+
+        if (isPeriodically) {
+            // We keep the period relative to the deadline to avoid accumulating the drift, unless we are behind
+            // by more than one interval.
+            long nextDeadline = deadline + interval;
+            schedule(nextDeadline > now ? nextDeadline : now + interval);
+        } else {
+            stopped = true;
+        }
+    }
+
+    private static void runTimerThread() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<TimingWheelTimer> expired;
+                synchronized (LOCK) {
+                    expired = WHEEL.advance(System.currentTimeMillis());
+                    if (expired.isEmpty()) {
+                        wakeUpTs = WHEEL.getNextEventTimeMs();
+                        long now = System.currentTimeMillis();
+                        if (wakeUpTs == Long.MAX_VALUE)
+                            LOCK.wait();
+                        else if (wakeUpTs > now)
+                            LOCK.wait(wakeUpTs - now);
+                        wakeUpTs = Long.MAX_VALUE;
+                        continue;
+                    }
+                }
+                expired.forEach(timer -> UserThread.execute(timer::execute));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                log.error("exception in TimingWheelTimer thread", t);
+            }
+        }
+    }
+}
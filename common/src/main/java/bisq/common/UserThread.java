@@ -37,7 +37,7 @@ import lombok.extern.slf4j.Slf4j;
  * For JavaFX it is usually the Platform::RunLater executor, for a headless application it is any single threaded
  * executor.
  * Additionally sets a timer class so JavaFX and headless applications can set different timers (UITimer for JavaFX
- * otherwise we use the default FrameRateTimer).
+ * otherwise we use the default TimingWheelTimer).
  * <p>
  * Provides also methods for delayed and periodic executions.
  */
@@ -55,7 +55,7 @@ public class UserThread {
     static {
         // If not defined we use same thread as caller thread
         executor = MoreExecutors.directExecutor();
-        timerClass = FrameRateTimer.class;
+        timerClass = TimingWheelTimer.class;
     }
 
     public static void execute(Runnable command) {
@@ -24,12 +24,15 @@ import bisq.common.config.Config;
 import bisq.common.file.CorruptedStorageFileHandler;
 import bisq.common.file.FileUtil;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.proto.persistable.AppendOnlyPersistableEnvelope;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.util.Utilities;
 
 import com.google.inject.Inject;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import javax.inject.Named;
 
 import java.nio.file.Path;
@@ -42,6 +45,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -69,6 +73,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * previously we wasted a lot of resources as way too many threads have been created without doing actual work as well
  * the write operations got triggered way too often specially for the very frequent changes at SequenceNumberMap
  *
+ * For persistables implementing {@link AppendOnlyPersistableEnvelope} new data can be written with
+ * {@link #appendToLog} to a log file next to the storage file instead of re-encoding and writing the whole
+ * persistable. The log is applied at reading and gets compacted into the storage file at the next full write, which
+ * we request once the log has reached {@link #MAX_NUM_LOG_ENTRIES} entries.
+ *
  *
  * @param <T>   The type of the {@link PersistableEnvelope} to be written or read from disk
  */
@@ -80,6 +89,8 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public static final Map<String, PersistenceManager<?>> ALL_PERSISTENCE_MANAGERS = new HashMap<>();
+    public static final String LOG_FILE_POSTFIX = "_log";
+    private static final int MAX_NUM_LOG_ENTRIES = 10000;
     private static boolean flushAtShutdownCalled;
     private static final AtomicBoolean allServicesInitialized = new AtomicBoolean(false);
 
@@ -95,6 +106,14 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         });
     }
 
+    // Resets the static state set by onAllServicesInitialized and flushAllDataToDiskAtShutdown so tests running in
+    // the same JVM do not see the state of previous tests.
+    @VisibleForTesting
+    static void resetStaticState() {
+        allServicesInitialized.set(false);
+        flushAtShutdownCalled = false;
+    }
+
     public static void flushAllDataToDiskAtBackup(ResultHandler completeHandler) {
         flushAllDataToDisk(completeHandler, false);
     }
@@ -207,6 +226,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final File dir;
+    @Getter
     private final PersistenceProtoResolver persistenceProtoResolver;
     private final CorruptedStorageFileHandler corruptedStorageFileHandler;
     private File storageFile;
@@ -218,6 +238,11 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     @Nullable
     private Timer timer;
     private ExecutorService writeToDiskExecutor;
+    private File logFile;
+    // Only accessed from the write thread
+    @Nullable
+    private FileOutputStream logOutputStream;
+    private final AtomicInteger numLogEntries = new AtomicInteger();
     public final AtomicBoolean initCalled = new AtomicBoolean(false);
     public final AtomicBoolean readCalled = new AtomicBoolean(false);
 
@@ -271,6 +296,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         this.fileName = fileName;
         this.source = source;
         storageFile = new File(dir, fileName);
+        logFile = new File(dir, fileName + LOG_FILE_POSTFIX);
         ALL_PERSISTENCE_MANAGERS.put(fileName, this);
     }
 
@@ -282,6 +308,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
 
         if (writeToDiskExecutor != null) {
+            writeToDiskExecutor.execute(this::closeLogOutputStream);
             writeToDiskExecutor.shutdown();
         }
     }
@@ -351,6 +378,9 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             protobuf.PersistableEnvelope proto = protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream);
             //noinspection unchecked
             T persistableEnvelope = (T) persistenceProtoResolver.fromProto(proto);
+            if (persistableEnvelope instanceof AppendOnlyPersistableEnvelope) {
+                applyLog(fileName, (AppendOnlyPersistableEnvelope) persistableEnvelope);
+            }
             log.info("Reading {} completed in {} ms", fileName, System.currentTimeMillis() - ts);
             return persistableEnvelope;
         } catch (Throwable t) {
@@ -411,6 +441,10 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             // persistable object. Keeping it on the user thread we are in a synchronize model.
             protobuf.PersistableEnvelope serialized = (protobuf.PersistableEnvelope) persistable.toPersistableMessage();
 
+            // The serialized data contains all log entries appended so far. The log file gets deleted after the
+            // storage file was written.
+            numLogEntries.set(0);
+
             // For the write to disk task we use a thread. We do not have any issues anymore if the persistable objects
             // gets mutated while the thread is running as we have serialized it already and do not operate on the
             // reference to the persistable object.
@@ -466,6 +500,9 @@ public class PersistenceManager<T extends PersistableEnvelope> {
 
             FileUtil.renameFile(tempFile, storageFile);
             usedTempFilePath = tempFile.toPath();
+
+            // All log entries got compacted into the storage file.
+            deleteLogFile();
         } catch (Throwable t) {
             // If an error occurred, don't attempt to reuse this path again, in case temp file cleanup fails.
             usedTempFilePath = null;
@@ -498,6 +535,122 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
     }
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Append-only log
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Appends the logEntry to the log file instead of writing the whole persistable. The logEntry must contain only
+     * the new data, which has been added to the persistable already. If the persistable does not support the log or
+     * we have no storage file yet we fall back to a full write.
+     *
+     * @param logEntry          Envelope of the same type as the persistable containing only the delta.
+     */
+    public void appendToLog(T logEntry) {
+        if (flushAtShutdownCalled) {
+            log.warn("We have started the shut down routine already. We ignore that appendToLog call.");
+            return;
+        }
+
+        // Before all services are initialized we do not write to disk. The data will be written with the full write
+        // triggered at onAllServicesInitialized.
+        if (!(persistable instanceof AppendOnlyPersistableEnvelope) ||
+                !allServicesInitialized.get() ||
+                !storageFile.exists()) {
+            requestPersistence();
+            return;
+        }
+
+        protobuf.PersistableEnvelope serialized = (protobuf.PersistableEnvelope) logEntry.toPersistableMessage();
+        getWriteToDiskExecutor().execute(() -> appendToLogFile(serialized));
+
+        if (numLogEntries.incrementAndGet() >= MAX_NUM_LOG_ENTRIES) {
+            // We compact the log into the storage file at the next full write.
+            requestPersistence();
+        }
+    }
+
+    private void appendToLogFile(protobuf.PersistableEnvelope serialized) {
+        try {
+            if (logOutputStream == null) {
+                logOutputStream = new FileOutputStream(logFile, true);
+            }
+            serialized.writeDelimitedTo(logOutputStream);
+            logOutputStream.flush();
+
+            // Data from the network can be recovered so we do not wait for the bits to hit the disk.
+            if (source != Source.NETWORK) {
+                logOutputStream.getFD().sync();
+            }
+        } catch (Throwable t) {
+            log.error("Error at appendToLogFile, logFile={}", logFile.getName(), t);
+            closeLogOutputStream();
+            // We fall back to a full write which compacts the log
+            UserThread.execute(this::requestPersistence);
+        }
+    }
+
+    private void deleteLogFile() {
+        closeLogOutputStream();
+        if (logFile != null && logFile.exists() && !logFile.delete()) {
+            log.error("Cannot delete log file {}", logFile.getName());
+        }
+    }
+
+    private void closeLogOutputStream() {
+        if (logOutputStream != null) {
+            try {
+                logOutputStream.close();
+            } catch (IOException e) {
+                // We swallow that
+                log.error("Cannot close log file {}. {}", logFile.getName(), e.getMessage());
+            }
+            logOutputStream = null;
+        }
+    }
+
+    private void applyLog(String fileName, AppendOnlyPersistableEnvelope persistableEnvelope) {
+        File logFile = new File(dir, fileName + LOG_FILE_POSTFIX);
+        if (!logFile.exists()) {
+            return;
+        }
+
+        long ts = System.currentTimeMillis();
+        int numEntries = 0;
+        try (FileInputStream fileInputStream = new FileInputStream(logFile)) {
+            protobuf.PersistableEnvelope proto;
+            while ((proto = protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream)) != null) {
+                persistableEnvelope.mergeLogEntry(persistenceProtoResolver.fromProto(proto));
+                numEntries++;
+            }
+            numLogEntries.set(numEntries);
+            log.info("Applying {} log entries to {} completed in {} ms",
+                    numEntries, fileName, System.currentTimeMillis() - ts);
+        } catch (Throwable t) {
+            // Expected if we got interrupted while appending. We keep the entries we have read so far and request a
+            // full write so that the corrupted log does not get appended to.
+            log.warn("Applying log of {} failed after {} entries with {}.", fileName, numEntries, t.getMessage());
+            try {
+                FileUtil.removeAndBackupFile(dir, logFile, fileName + LOG_FILE_POSTFIX, "backup_of_corrupted_data");
+            } catch (IOException e) {
+                log.error(e.getMessage());
+                // We swallow Exception if backup fails
+            }
+            // If we only read the file without being initialized there is no persistable we could write.
+            if (initCalled.get()) {
+                UserThread.execute(this::requestPersistence);
+            }
+        }
+    }
+
+    // Blocks until the write tasks submitted so far are completed.
+    @VisibleForTesting
+    void awaitPendingWrites() throws InterruptedException, ExecutionException {
+        getWriteToDiskExecutor().submit(() -> {
+        }).get();
+    }
+
     private ExecutorService getWriteToDiskExecutor() {
         if (writeToDiskExecutor == null) {
             String name = "Write-" + fileName + "_to-disk";
@@ -0,0 +1,29 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto.persistable;
+
+/**
+ * Interface for PersistableEnvelopes which support the append-only log of the PersistenceManager.
+ * New data is persisted as an instance of the same envelope type which contains only the delta. At reading, the
+ * log entries get merged into the envelope read from the storage file. Merging must be idempotent as an entry might
+ * be contained in both the storage file and the log in case we got interrupted at compaction.
+ */
+public interface AppendOnlyPersistableEnvelope extends PersistableEnvelope {
+
+    void mergeLogEntry(PersistableEnvelope logEntry);
+}
@@ -19,6 +19,12 @@ package bisq.common.taskrunner;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +45,42 @@ public abstract class Task<T extends Model> {
 
     protected abstract void run();
 
+    /**
+     * Blocking tasks, e.g. tasks doing wallet RPC calls, get run on the blocking task executor of the TaskRunner if it
+     * has one. Their run method may do the blocking calls and read the model there, but has to change the model with
+     * runOnModelThread or callOnModelThread.
+     */
+    protected boolean isBlocking() {
+        return false;
+    }
+
+    protected void runOnModelThread(Runnable runnable) {
+        taskHandler.runOnModelThread(runnable);
+    }
+
+    /**
+     * Runs the callable on the thread of the model and waits for its result, so blocking tasks can read and change
+     * the model between their blocking calls.
+     */
+    protected <R> R callOnModelThread(Callable<R> callable) throws Exception {
+        FutureTask<R> futureTask = new FutureTask<>(callable);
+        runOnModelThread(futureTask);
+        try {
+            return futureTask.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception)
+                throw (Exception) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Like callOnModelThread for changes without a result. Exceptions of the runnable get thrown to the caller.
+     */
+    protected void runOnModelThreadAndWait(Runnable runnable) throws Exception {
+        callOnModelThread(Executors.callable(runnable));
+    }
+
     protected void runInterceptHook() {
         if (getClass() == taskToIntercept)
             throw new InterceptTaskException("Task intercepted for testing purpose. Task = " + getClass().getSimpleName());
@@ -20,23 +20,51 @@ package bisq.common.taskrunner;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
 
+import java.lang.reflect.Constructor;
+
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
+/**
+ * Runs the tasks one after the other on the shared model.
+ *
+ * By default all tasks run on the thread which calls run or completes the previous task. If a blocking task executor
+ * is set, tasks which declare themselves as blocking (e.g. tasks doing wallet RPC calls) run on that executor and the
+ * runner resumes on the thread of the model once they complete or fail.
+ */
 @Slf4j
 public class TaskRunner<T extends Model> {
+    // Tasks get created by reflection for each run, so we cache the constructors per task and model class
+    private static final Map<List<Class<?>>, Constructor<?>> CONSTRUCTORS = new ConcurrentHashMap<>();
+    private static final TaskStatistics STATISTICS = new TaskStatistics();
+    private static final long SLOW_TASK_THRESHOLD_MS = TimeUnit.SECONDS.toMillis(1);
+
     private final Queue<Class<? extends Task<T>>> tasks = new LinkedBlockingQueue<>();
     private final T sharedModel;
     private final Class<T> sharedModelClass;
     private final ResultHandler resultHandler;
     private final ErrorMessageHandler errorMessageHandler;
-    private boolean failed = false;
-    private boolean isCanceled;
+    private volatile boolean failed = false;
+    private volatile boolean isCanceled;
+
+    @Nullable
+    private Executor blockingTaskExecutor;
+    @Nullable
+    private Executor modelThreadExecutor;
 
-    private Class<? extends Task<T>> currentTask;
+    private volatile Class<? extends Task<T>> currentTask;
+    private volatile boolean isCurrentTaskBlocking;
+    private volatile long currentTaskStartTs;
 
 
     public TaskRunner(T sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
@@ -51,6 +79,19 @@ public class TaskRunner<T extends Model> {
         this.sharedModelClass = sharedModelClass;
     }
 
+    public static TaskStatistics getStatistics() {
+        return STATISTICS;
+    }
+
+    /**
+     * Blocking tasks get run on blockingTaskExecutor. The next task and the result and error handlers get executed
+     * with modelThreadExecutor, which has to run them on the thread the model is used from.
+     */
+    public void setBlockingTaskExecutor(Executor blockingTaskExecutor, Executor modelThreadExecutor) {
+        this.blockingTaskExecutor = blockingTaskExecutor;
+        this.modelThreadExecutor = modelThreadExecutor;
+    }
+
     @SafeVarargs
     public final void addTasks(Class<? extends Task<T>>... items) {
         tasks.addAll(Arrays.asList(items));
@@ -66,12 +107,28 @@ public class TaskRunner<T extends Model> {
                 try {
                     currentTask = tasks.poll();
                     log.info("Run task: " + currentTask.getSimpleName());
-                    currentTask.getDeclaredConstructor(TaskRunner.class, sharedModelClass).newInstance(this, sharedModel).run();
+                    currentTaskStartTs = System.currentTimeMillis();
+                    Task<T> task = createTask(currentTask);
+                    isCurrentTaskBlocking = blockingTaskExecutor != null && task.isBlocking();
+                    if (isCurrentTaskBlocking) {
+                        blockingTaskExecutor.execute(() -> {
+                            try {
+                                task.run();
+                            } catch (Throwable throwable) {
+                                log.error("Blocking task {} failed", currentTask.getSimpleName(), throwable);
+                                handleErrorMessage("Error at taskRunner: " + throwable.getMessage());
+                            }
+                        });
+                    } else {
+                        task.run();
+                    }
                 } catch (Throwable throwable) {
                     throwable.printStackTrace();
                     handleErrorMessage("Error at taskRunner: " + throwable.getMessage());
                 }
             } else {
+                if (log.isDebugEnabled())
+                    log.debug(STATISTICS.getReport());
                 resultHandler.handleResult();
             }
         }
@@ -82,12 +139,51 @@ public class TaskRunner<T extends Model> {
     }
 
     void handleComplete() {
-        next();
+        recordDuration(false);
+        runOnModelThread(this::next);
     }
 
     void handleErrorMessage(String errorMessage) {
+        recordDuration(true);
         log.error("Task failed: " + currentTask.getSimpleName() + " / errorMessage: " + errorMessage);
         failed = true;
-        errorMessageHandler.handleErrorMessage(errorMessage);
+        runOnModelThread(() -> errorMessageHandler.handleErrorMessage(errorMessage));
+    }
+
+    /**
+     * Runs the runnable on the thread of the model if the current task is a blocking task, otherwise directly.
+     */
+    void runOnModelThread(Runnable runnable) {
+        if (isCurrentTaskBlocking && modelThreadExecutor != null)
+            modelThreadExecutor.execute(runnable);
+        else
+            runnable.run();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @SuppressWarnings("unchecked")
+    private Task<T> createTask(Class<? extends Task<T>> taskClass) throws ReflectiveOperationException {
+        List<Class<?>> key = List.of(taskClass, sharedModelClass);
+        Constructor<?> constructor = CONSTRUCTORS.get(key);
+        if (constructor == null) {
+            constructor = taskClass.getDeclaredConstructor(TaskRunner.class, sharedModelClass);
+            CONSTRUCTORS.put(key, constructor);
+        }
+        return (Task<T>) constructor.newInstance(this, sharedModel);
+    }
+
+    private void recordDuration(boolean failed) {
+        Class<? extends Task<T>> task = currentTask;
+        if (task == null)
+            return;
+
+        long durationMs = System.currentTimeMillis() - currentTaskStartTs;
+        STATISTICS.record(sharedModel.getClass().getSimpleName(), task.getSimpleName(), durationMs, failed);
+        if (durationMs > SLOW_TASK_THRESHOLD_MS)
+            log.info("Task {} of {} took {} ms", task.getSimpleName(), sharedModel.getClass().getSimpleName(), durationMs);
     }
 }
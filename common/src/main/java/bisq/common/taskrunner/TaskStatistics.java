@@ -0,0 +1,138 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Latency histograms of the tasks run by TaskRunners, per protocol and task. The protocol is the class of the shared
+ * model, e.g. BuyerAsMakerTrade, so the slow steps of each protocol can be found.
+ *
+ * Durations are counted in buckets with exponentially growing bounds of 1, 2, 4, ... ms, which keeps the memory per
+ * task constant and is precise enough to tell a 50 ms task from a 5 s task.
+ */
+public class TaskStatistics {
+    static final int NUM_BUCKETS = 20;
+
+    public static final class Histogram {
+        private final long[] buckets = new long[NUM_BUCKETS];
+        private long count;
+        private long numFailed;
+        private long totalMs;
+        private long maxMs;
+
+        private synchronized void add(long durationMs, boolean failed) {
+            buckets[getBucket(durationMs)]++;
+            count++;
+            if (failed)
+                numFailed++;
+            totalMs += durationMs;
+            maxMs = Math.max(maxMs, durationMs);
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized long getNumFailed() {
+            return numFailed;
+        }
+
+        public synchronized long getTotalMs() {
+            return totalMs;
+        }
+
+        public synchronized long getMaxMs() {
+            return maxMs;
+        }
+
+        public synchronized double getAverageMs() {
+            return count == 0 ? 0 : (double) totalMs / count;
+        }
+
+        /**
+         * Returns the upper bound of the bucket containing the given percentile (0 - 100), so the real value is at
+         * most that.
+         */
+        public synchronized long getPercentileMs(double percentile) {
+            long rank = (long) Math.ceil(count * percentile / 100);
+            long numSeen = 0;
+            for (int i = 0; i < NUM_BUCKETS; i++) {
+                numSeen += buckets[i];
+                if (numSeen >= rank && numSeen > 0)
+                    return Math.min(getUpperBoundMs(i), maxMs);
+            }
+            return maxMs;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "count=" + count +
+                    ", failed=" + numFailed +
+                    ", avg=" + Math.round(getAverageMs()) + " ms" +
+                    ", p50<=" + getPercentileMs(50) + " ms" +
+                    ", p90<=" + getPercentileMs(90) + " ms" +
+                    ", max=" + maxMs + " ms";
+        }
+    }
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    void record(String protocol, String task, long durationMs, boolean failed) {
+        histograms.computeIfAbsent(getKey(protocol, task), key -> new Histogram()).add(durationMs, failed);
+    }
+
+    public Optional<Histogram> getHistogram(String protocol, String task) {
+        return Optional.ofNullable(histograms.get(getKey(protocol, task)));
+    }
+
+    /**
+     * One line per protocol and task, sorted by the total time spent in the task.
+     */
+    public String getReport() {
+        return histograms.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Histogram> entry) -> entry.getValue().getTotalMs())
+                        .reversed())
+                .map(entry -> entry.getKey() + ": " + entry.getValue())
+                .collect(Collectors.joining("\n", "Task statistics:\n", ""));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static String getKey(String protocol, String task) {
+        return protocol + "/" + task;
+    }
+
+    // Bucket 0 holds durations < 1 ms, bucket i durations < 2^i ms, the last bucket everything above
+    private static int getBucket(long durationMs) {
+        if (durationMs <= 0)
+            return 0;
+        return Math.min(NUM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(durationMs));
+    }
+
+    private static long getUpperBoundMs(int bucket) {
+        return bucket == NUM_BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+    private static final long TICK_MS = 10;
+    private static final long START_MS = 1_000_000;
+
+    private TimingWheel<Long> wheel;
+
+    @Before
+    public void setUp() {
+        wheel = new TimingWheel<>(TICK_MS, START_MS);
+    }
+
+    @Test
+    public void testDueDeadlineIsNotScheduled() {
+        assertFalse(wheel.schedule(new TimingWheel.Entry<>(0L), START_MS, START_MS));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testExpiresNotBeforeDeadline() {
+        long deadline = START_MS + 95;
+        assertTrue(wheel.schedule(new TimingWheel.Entry<>(deadline), deadline, START_MS));
+
+        assertTrue(wheel.advance(deadline - 1).isEmpty());
+        assertEquals(List.of(deadline), wheel.advance(deadline));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCancel() {
+        TimingWheel.Entry<Long> entry = new TimingWheel.Entry<>(1L);
+        wheel.schedule(entry, START_MS + 1000, START_MS);
+
+        assertTrue(wheel.cancel(entry));
+        assertFalse(entry.isScheduled());
+        assertFalse(wheel.cancel(entry));
+        assertTrue(wheel.advance(START_MS + 2000).isEmpty());
+        assertEquals(Long.MAX_VALUE, wheel.getNextEventTimeMs());
+    }
+
+    // Deadlines spread over all levels must expire in the same advance step as their deadline is reached
+    @Test
+    public void testEntriesOnAllLevelsExpireInOrder() {
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        long maxDelay = TICK_MS << (TimingWheel.SLOT_BITS * TimingWheel.NUM_LEVELS - 4);
+        for (int i = 0; i < 2000; i++) {
+            long deadline = START_MS + TICK_MS + (long) (random.nextDouble() * maxDelay);
+            deadlines.add(deadline);
+            wheel.schedule(new TimingWheel.Entry<>(deadline), deadline, START_MS);
+        }
+        Collections.sort(deadlines);
+
+        long now = START_MS;
+        List<Long> expired = new ArrayList<>();
+        while (wheel.size() > 0) {
+            long next = wheel.getNextEventTimeMs();
+            assertTrue(next > now);
+            now = next;
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now);
+                assertTrue(deadline > now - TICK_MS);
+                expired.add(deadline);
+            }
+        }
+        Collections.sort(expired);
+        assertEquals(deadlines, expired);
+    }
+
+    @Test
+    public void testAdvanceOverLongIdlePeriod() {
+        long deadline = START_MS + 50;
+        wheel.schedule(new TimingWheel.Entry<>(deadline), deadline, START_MS);
+        assertEquals(List.of(deadline), wheel.advance(START_MS + 365L * 24 * 3600 * 1000));
+
+        // The wheel continues from the new time
+        long now = START_MS + 365L * 24 * 3600 * 1000;
+        long nextDeadline = now + 30;
+        assertTrue(wheel.schedule(new TimingWheel.Entry<>(nextDeadline), nextDeadline, now));
+        assertEquals(List.of(nextDeadline), wheel.advance(nextDeadline));
+    }
+}
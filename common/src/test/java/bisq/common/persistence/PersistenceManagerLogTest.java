@@ -0,0 +1,216 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.persistence;
+
+import bisq.common.Payload;
+import bisq.common.file.CorruptedStorageFileHandler;
+import bisq.common.proto.persistable.AppendOnlyPersistableEnvelope;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistablePayload;
+import bisq.common.proto.persistable.PersistenceProtoResolver;
+
+import com.google.protobuf.Message;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class PersistenceManagerLogTest {
+    private static final String FILE_NAME = "LogStub";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File dir;
+    private File storageFile;
+    private File logFile;
+    private LogStub store;
+    private PersistenceManager<LogStub> persistenceManager;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = temporaryFolder.newFolder();
+        storageFile = new File(dir, FILE_NAME);
+        logFile = new File(dir, FILE_NAME + PersistenceManager.LOG_FILE_POSTFIX);
+
+        PersistenceManager.onAllServicesInitialized();
+        store = new LogStub("a");
+        persistenceManager = createPersistenceManager();
+        persistenceManager.initialize(store, FILE_NAME, PersistenceManager.Source.PRIVATE_LOW_PRIO);
+    }
+
+    @After
+    public void tearDown() {
+        persistenceManager.shutdown();
+        PersistenceManager.resetStaticState();
+    }
+
+    @Test
+    public void testAppendWithoutStorageFileFallsBackToFullWrite() throws Exception {
+        append("b");
+        persistenceManager.awaitPendingWrites();
+
+        assertFalse(logFile.exists());
+    }
+
+    @Test
+    public void testAppendedEntriesAreAppliedAtReading() throws Exception {
+        persistAndWait();
+
+        append("b");
+        append("c");
+        persistenceManager.awaitPendingWrites();
+
+        assertTrue(logFile.exists());
+        assertEquals(Arrays.asList("a", "b", "c"), read().getEntries());
+    }
+
+    @Test
+    public void testReplayIsIdempotent() throws Exception {
+        persistAndWait();
+
+        // Simulates an interrupted compaction where the entry is in the storage file and in the log.
+        append("a");
+        append("b");
+        persistenceManager.awaitPendingWrites();
+
+        assertEquals(Arrays.asList("a", "b"), read().getEntries());
+    }
+
+    @Test
+    public void testCorruptedTailIsBackedUp() throws Exception {
+        persistAndWait();
+
+        append("b");
+        persistenceManager.awaitPendingWrites();
+
+        // A length prefix of 32 bytes followed by only 3 bytes as if we got interrupted while appending.
+        try (FileOutputStream outputStream = new FileOutputStream(logFile, true)) {
+            outputStream.write(new byte[]{32, 1, 2, 3});
+        }
+
+        assertEquals(Arrays.asList("a", "b"), read().getEntries());
+        assertFalse(logFile.exists());
+        assertTrue(new File(new File(dir, "backup_of_corrupted_data"), logFile.getName()).exists());
+    }
+
+    @Test
+    public void testFullWriteCompactsLog() throws Exception {
+        persistAndWait();
+
+        append("b");
+        append("c");
+        persistenceManager.awaitPendingWrites();
+        assertTrue(logFile.exists());
+
+        persistAndWait();
+
+        assertFalse(logFile.exists());
+        assertEquals(Arrays.asList("a", "b", "c"), read().getEntries());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void append(String entry) {
+        store.mergeLogEntry(new LogStub(entry));
+        persistenceManager.appendToLog(new LogStub(entry));
+    }
+
+    private void persistAndWait() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        persistenceManager.persistNow(latch::countDown);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(storageFile.exists());
+    }
+
+    private LogStub read() {
+        LogStub persisted = createPersistenceManager().getPersisted(FILE_NAME);
+        assertNotNull(persisted);
+        return persisted;
+    }
+
+    private PersistenceManager<LogStub> createPersistenceManager() {
+        return new PersistenceManager<>(dir, new LogStubProtoResolver(), new CorruptedStorageFileHandler());
+    }
+
+    private static class LogStub implements AppendOnlyPersistableEnvelope {
+        private final List<String> entries;
+
+        LogStub(String... entries) {
+            this(Arrays.asList(entries));
+        }
+
+        LogStub(List<String> entries) {
+            this.entries = new ArrayList<>(entries);
+        }
+
+        List<String> getEntries() {
+            return entries;
+        }
+
+        @Override
+        public void mergeLogEntry(PersistableEnvelope logEntry) {
+            ((LogStub) logEntry).entries.stream()
+                    .filter(entry -> !entries.contains(entry))
+                    .forEach(entries::add);
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            return protobuf.PersistableEnvelope.newBuilder()
+                    .setNavigationPath(protobuf.NavigationPath.newBuilder().addAllPath(entries))
+                    .build();
+        }
+    }
+
+    private static class LogStubProtoResolver implements PersistenceProtoResolver {
+        @Override
+        public PersistableEnvelope fromProto(protobuf.PersistableEnvelope proto) {
+            return new LogStub(proto.getNavigationPath().getPathList());
+        }
+
+        @Override
+        public Payload fromProto(protobuf.PaymentAccountPayload proto) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PersistablePayload fromProto(protobuf.PersistableNetworkPayload proto) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
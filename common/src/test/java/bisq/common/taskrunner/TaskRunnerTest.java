@@ -0,0 +1,181 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import bisq.common.util.Utilities;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TaskRunnerTest {
+    private static final String MODEL_THREAD = "model-thread";
+
+    public static class TestModel implements Model {
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    public static class NonBlockingTask extends Task<TestModel> {
+        public NonBlockingTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            model.threads.add(Thread.currentThread().getName());
+            complete();
+        }
+    }
+
+    public static class BlockingTask extends NonBlockingTask {
+        public BlockingTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected boolean isBlocking() {
+            return true;
+        }
+    }
+
+    public static class FailingBlockingTask extends BlockingTask {
+        public FailingBlockingTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            failed("failed for testing");
+        }
+    }
+
+    public static class ModelChangingBlockingTask extends BlockingTask {
+        public ModelChangingBlockingTask(TaskRunner taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            try {
+                model.threads.add(Thread.currentThread().getName());
+                int numThreads = callOnModelThread(() -> {
+                    model.threads.add(Thread.currentThread().getName());
+                    return model.threads.size();
+                });
+                model.threads.add("numThreads=" + numThreads);
+                complete();
+            } catch (Throwable t) {
+                failed(t);
+            }
+        }
+    }
+
+    private ExecutorService blockingTaskExecutor;
+    private ExecutorService modelThreadExecutor;
+
+    @Before
+    public void setUp() {
+        blockingTaskExecutor = Utilities.getSingleThreadExecutor("blocking-thread");
+        modelThreadExecutor = Utilities.getSingleThreadExecutor(MODEL_THREAD);
+    }
+
+    @After
+    public void tearDown() {
+        blockingTaskExecutor.shutdownNow();
+        modelThreadExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testBlockingTasksRunOnBlockingExecutor() throws InterruptedException {
+        TestModel model = new TestModel();
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> resultThread = new AtomicReference<>();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> {
+            resultThread.set(Thread.currentThread().getName());
+            latch.countDown();
+        }, errorMessage -> latch.countDown());
+        taskRunner.setBlockingTaskExecutor(blockingTaskExecutor, modelThreadExecutor);
+        taskRunner.addTasks(NonBlockingTask.class, BlockingTask.class, NonBlockingTask.class);
+        modelThreadExecutor.execute(taskRunner::run);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(MODEL_THREAD, "blocking-thread", MODEL_THREAD), model.threads);
+        assertEquals(MODEL_THREAD, resultThread.get());
+        assertTrue(TaskRunner.getStatistics().getHistogram("TestModel", "BlockingTask").get().getCount() > 0);
+    }
+
+    @Test
+    public void testFailedBlockingTaskCallsErrorHandlerOnModelThread() throws InterruptedException {
+        TestModel model = new TestModel();
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> errorThread = new AtomicReference<>();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, latch::countDown, errorMessage -> {
+            errorThread.set(Thread.currentThread().getName());
+            latch.countDown();
+        });
+        taskRunner.setBlockingTaskExecutor(blockingTaskExecutor, modelThreadExecutor);
+        taskRunner.addTasks(FailingBlockingTask.class, NonBlockingTask.class);
+        modelThreadExecutor.execute(taskRunner::run);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(MODEL_THREAD, errorThread.get());
+        assertTrue(model.threads.isEmpty());
+        assertEquals(1, TaskRunner.getStatistics().getHistogram("TestModel", "FailingBlockingTask").get().getNumFailed());
+    }
+
+    @Test
+    public void testBlockingTaskChangesModelOnModelThread() throws InterruptedException {
+        TestModel model = new TestModel();
+        CountDownLatch latch = new CountDownLatch(1);
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, latch::countDown, errorMessage -> latch.countDown());
+        taskRunner.setBlockingTaskExecutor(blockingTaskExecutor, modelThreadExecutor);
+        taskRunner.addTasks(ModelChangingBlockingTask.class);
+        modelThreadExecutor.execute(taskRunner::run);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("blocking-thread", MODEL_THREAD, "numThreads=2"), model.threads);
+    }
+
+    @Test
+    public void testWithoutBlockingExecutorAllTasksRunOnCallingThread() {
+        TestModel model = new TestModel();
+        AtomicReference<Boolean> completed = new AtomicReference<>(false);
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> completed.set(true), errorMessage -> {
+        });
+        taskRunner.addTasks(NonBlockingTask.class, BlockingTask.class);
+        taskRunner.run();
+
+        String thread = Thread.currentThread().getName();
+        assertTrue(completed.get());
+        assertEquals(List.of(thread, thread), model.threads);
+    }
+}
@@ -42,6 +42,8 @@ import javax.inject.Inject;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Charsets;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
 
 import java.security.PublicKey;
 import java.security.SignatureException;
@@ -49,26 +51,34 @@ import java.security.SignatureException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class SignedWitnessService {
     public static final long SIGNER_AGE_DAYS = 30;
     private static final long SIGNER_AGE = SIGNER_AGE_DAYS * ChronoUnit.DAYS.getDuration().toMillis();
     public static final Coin MINIMUM_TRADE_AMOUNT_FOR_SIGNING = Coin.parseCoin("0.0025");
+    // Prevent DoS attack: an attacker floods the SignedWitness db with a long chain that takes lots of time to verify.
+    private static final int MAX_SIGNER_CHAIN_LENGTH = 1000;
 
     private final KeyRing keyRing;
     private final P2PService p2PService;
@@ -88,6 +98,22 @@ public class SignedWitnessService {
     // access to the set of SignedWitness which match the ownerPubKey.
     private final Map<P2PDataStorage.ByteArray, Set<SignedWitness>> signedWitnessSetByOwnerPubKey = new HashMap<>();
 
+    // Used to find the SignedWitnesses signed by an owner, whose cached signer chains depend on the SignedWitnesses
+    // of that owner.
+    private final Map<P2PDataStorage.ByteArray, Set<SignedWitness>> signedWitnessSetBySignerPubKey = new HashMap<>();
+
+    // Finding a valid chain of signers is a recursive search over the signers, which is called at filtering the offer
+    // book many times. The chain does not depend on the time, so we cache it per SignedWitness (keyed by its hash).
+    // An empty Optional means there is no valid chain. The entries of a SignedWitness and of all SignedWitnesses
+    // signed directly or indirectly by its owner get removed if a SignedWitness is added or removed. All entries get
+    // removed if the banned signer pub keys change.
+    // The searches are also run from other threads than the UserThread, e.g. by the getOffers call of the gRPC API.
+    // Reads are lock free, writes are synchronized on the cache.
+    private final Map<P2PDataStorage.ByteArray, Optional<SignerChain>> signerChainCache = new ConcurrentHashMap<>();
+    // Incremented at each removal of cache entries, so that a search which started before does not add the results
+    // it found on the previous SignedWitnesses.
+    private volatile long signerChainCacheGeneration;
+
     // The signature verification calls are rather expensive and called at filtering the offer book many times,
     // so we cache the results using the hash as key. The hash is created from the accountAgeWitnessHash and the
     // signature.
@@ -129,6 +155,13 @@ public class SignedWitnessService {
                 addToMap((SignedWitness) payload);
         });
 
+        filterManager.filterProperty().addListener((observable, oldValue, newValue) -> {
+            List<String> oldBannedSignerPubKeys = oldValue != null ? oldValue.getBannedAccountWitnessSignerPubKeys() : null;
+            List<String> newBannedSignerPubKeys = newValue != null ? newValue.getBannedAccountWitnessSignerPubKeys() : null;
+            if (!Objects.equals(oldBannedSignerPubKeys, newBannedSignerPubKeys))
+                onBannedSignerPubKeysChanged();
+        });
+
         // At startup the P2PDataStorage initializes earlier, otherwise we get the listener called.
         signedWitnessStorageService.getMap().values().forEach(e -> {
             if (e instanceof SignedWitness)
@@ -220,9 +253,8 @@ public class SignedWitnessService {
 
     @VisibleForTesting
     public Set<SignedWitness> getSignedWitnessSetByOwnerPubKey(byte[] ownerPubKey) {
-        return getSignedWitnessMapValues().stream()
-                .filter(e -> Arrays.equals(e.getWitnessOwnerPubKey(), ownerPubKey))
-                .collect(Collectors.toSet());
+        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(ownerPubKey);
+        return new HashSet<>(signedWitnessSetByOwnerPubKey.getOrDefault(key, Collections.emptySet()));
     }
 
     public boolean publishOwnSignedWitness(SignedWitness signedWitness) {
@@ -399,7 +431,8 @@ public class SignedWitnessService {
 
     public Set<SignedWitness> getRootSignedWitnessSet(boolean includeSignedByArbitrator) {
         return getSignedWitnessMapValues().stream()
-                .filter(witness -> getSignedWitnessSetByOwnerPubKey(witness.getSignerPubKey(), new Stack<>()).isEmpty())
+                .filter(witness -> !signedWitnessSetByOwnerPubKey.containsKey(
+                        new P2PDataStorage.ByteArray(witness.getSignerPubKey())))
                 .filter(witness -> includeSignedByArbitrator ||
                         witness.getVerificationMethod() != SignedWitness.VerificationMethod.ARBITRATOR)
                 .collect(Collectors.toSet());
@@ -415,21 +448,6 @@ public class SignedWitnessService {
         return new HashSet<>(oldestUnsignedSigners.values());
     }
 
-    // We go one level up by using the signer Key to lookup for SignedWitness objects which contain the signerKey as
-    // witnessOwnerPubKey
-    private Set<SignedWitness> getSignedWitnessSetByOwnerPubKey(byte[] ownerPubKey,
-                                                                Stack<P2PDataStorage.ByteArray> excluded) {
-        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(ownerPubKey);
-        if (signedWitnessSetByOwnerPubKey.containsKey(key)) {
-            return signedWitnessSetByOwnerPubKey.get(key).stream()
-                    .filter(e -> !excluded.contains(new P2PDataStorage.ByteArray(e.getSignerPubKey())))
-                    .collect(Collectors.toSet());
-
-        } else {
-            return new HashSet<>();
-        }
-    }
-
     public boolean isSignedAccountAgeWitness(AccountAgeWitness accountAgeWitness) {
         return isSignerAccountAgeWitness(accountAgeWitness, new Date().getTime() + SIGNER_AGE);
     }
@@ -443,8 +461,8 @@ public class SignedWitnessService {
     }
 
     private boolean verifySigner(SignedWitness signedWitness) {
-        return getSignedWitnessSetByOwnerPubKey(signedWitness.getWitnessOwnerPubKey(), new Stack<>()).stream()
-                .anyMatch(w -> isValidSignerWitnessInternal(w, signedWitness.getDate(), new Stack<>()));
+        return getSignedWitnessSetByOwnerPubKey(signedWitness.getWitnessOwnerPubKey()).stream()
+                .anyMatch(w -> isValidSignerWitness(w, signedWitness.getDate()));
     }
 
     /**
@@ -456,10 +474,9 @@ public class SignedWitnessService {
      * @return true if accountAgeWitness is allowed to sign at time, false otherwise.
      */
     private boolean isSignerAccountAgeWitness(AccountAgeWitness accountAgeWitness, long time) {
-        Stack<P2PDataStorage.ByteArray> excludedPubKeys = new Stack<>();
         Set<SignedWitness> signedWitnessSet = getSignedWitnessSet(accountAgeWitness);
         for (SignedWitness signedWitness : signedWitnessSet) {
-            if (isValidSignerWitnessInternal(signedWitness, time, excludedPubKeys)) {
+            if (isValidSignerWitness(signedWitness, time)) {
                 return true;
             }
         }
@@ -468,47 +485,150 @@ public class SignedWitnessService {
     }
 
     /**
-     * Helper to isValidAccountAgeWitness(accountAgeWitness)
+     * Helper to isSignerAccountAgeWitness(accountAgeWitness, time)
      *
      * @param signedWitness                the signedWitness to validate
      * @param childSignedWitnessDateMillis the date the child SignedWitness was signed or current time if it is a leaf.
-     * @param excludedPubKeys              stack to prevent recursive loops
      * @return true if signedWitness is valid, false otherwise.
      */
-    private boolean isValidSignerWitnessInternal(SignedWitness signedWitness,
-                                                 long childSignedWitnessDateMillis,
-                                                 Stack<P2PDataStorage.ByteArray> excludedPubKeys) {
-        if (filterManager.isWitnessSignerPubKeyBanned(Utils.HEX.encode(signedWitness.getWitnessOwnerPubKey()))) {
-            return false;
-        }
-        if (!verifySignature(signedWitness)) {
+    private boolean isValidSignerWitness(SignedWitness signedWitness, long childSignedWitnessDateMillis) {
+        if (!isVerifiedAndNotBanned(signedWitness)) {
             return false;
         }
         if (signedWitness.isSignedByArbitrator()) {
             // If signed by an arbitrator we don't have to check anything else.
             return true;
-        } else {
-            if (!verifyDate(signedWitness, childSignedWitnessDateMillis)) {
-                return false;
+        }
+        if (!verifyDate(signedWitness, childSignedWitnessDateMillis)) {
+            return false;
+        }
+        return getSignerChain(signedWitness, HashMultiset.create(), 0,
+                new SignerChainSearch(signerChainCacheGeneration)) != null;
+    }
+
+    private boolean isVerifiedAndNotBanned(SignedWitness signedWitness) {
+        return !filterManager.isWitnessSignerPubKeyBanned(Utils.HEX.encode(signedWitness.getWitnessOwnerPubKey())) &&
+                verifySignature(signedWitness);
+    }
+
+    /**
+     * Returns a chain of valid signers of the signedWitness up to a SignedWitness signed by an arbitrator, or null if
+     * there is none.
+     *
+     * The signer of a SignedWitness in the chain must not be a signer or owner of a SignedWitness further down the
+     * chain. The excludedPubKeys are the signer and owner keys of the SignedWitnesses below signedWitness and depth is
+     * their number.
+     */
+    @Nullable
+    private SignerChain getSignerChain(SignedWitness signedWitness,
+                                       Multiset<P2PDataStorage.ByteArray> excludedPubKeys,
+                                       int depth,
+                                       SignerChainSearch search) {
+        P2PDataStorage.ByteArray hash = signedWitness.getHashAsByteArray();
+        Optional<SignerChain> cachedSignerChain = signerChainCache.get(hash);
+        if (cachedSignerChain == null) {
+            if (!search.inProgress.add(hash)) {
+                // We are in a loop of signers, so we fall back to the search along the current chain
+                return findSignerChain(signedWitness, excludedPubKeys, depth, search);
             }
-            if (excludedPubKeys.size() >= 2000) {
-                // Prevent DoS attack: an attacker floods the SignedWitness db with a long chain that takes lots of time to verify.
-                return false;
+            try {
+                int numTruncatedBefore = search.numTruncated;
+                cachedSignerChain = Optional.ofNullable(findSignerChain(signedWitness, HashMultiset.create(), 0,
+                        search));
+                // A truncated search might have missed a chain, so we do not cache that result
+                if (cachedSignerChain.isPresent() || search.numTruncated == numTruncatedBefore) {
+                    cacheSignerChain(hash, cachedSignerChain, search);
+                }
+            } finally {
+                search.inProgress.remove(hash);
             }
-            excludedPubKeys.push(new P2PDataStorage.ByteArray(signedWitness.getSignerPubKey()));
-            excludedPubKeys.push(new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey()));
-            // Iterate over signedWitness signers
-            Set<SignedWitness> signerSignedWitnessSet = getSignedWitnessSetByOwnerPubKey(signedWitness.getSignerPubKey(), excludedPubKeys);
+        }
+
+        // More excluded keys and a higher depth can only rule out chains
+        if (!cachedSignerChain.isPresent()) {
+            return null;
+        }
+
+        SignerChain signerChain = cachedSignerChain.get();
+        if (isUsableSignerChain(signerChain, excludedPubKeys, depth)) {
+            return signerChain;
+        }
+
+        // The cached chain conflicts with the SignedWitnesses below, but there might be another one
+        return findSignerChain(signedWitness, excludedPubKeys, depth, search);
+    }
+
+    @Nullable
+    private SignerChain findSignerChain(SignedWitness signedWitness,
+                                        Multiset<P2PDataStorage.ByteArray> excludedPubKeys,
+                                        int depth,
+                                        SignerChainSearch search) {
+        if (depth >= MAX_SIGNER_CHAIN_LENGTH) {
+            return null;
+        }
+        if (search.depth >= MAX_SIGNER_CHAIN_LENGTH) {
+            search.numTruncated++;
+            return null;
+        }
+
+        P2PDataStorage.ByteArray signerPubKey = new P2PDataStorage.ByteArray(signedWitness.getSignerPubKey());
+        P2PDataStorage.ByteArray ownerPubKey = new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey());
+        excludedPubKeys.add(signerPubKey);
+        excludedPubKeys.add(ownerPubKey);
+        search.depth++;
+        try {
+            // We go one level up by using the signer key to lookup for SignedWitness objects which contain the
+            // signer key as witnessOwnerPubKey
+            Set<SignedWitness> signerSignedWitnessSet = signedWitnessSetByOwnerPubKey.getOrDefault(signerPubKey,
+                    Collections.emptySet());
             for (SignedWitness signerSignedWitness : signerSignedWitnessSet) {
-                if (isValidSignerWitnessInternal(signerSignedWitness, signedWitness.getDate(), excludedPubKeys)) {
-                    return true;
+                if (excludedPubKeys.contains(new P2PDataStorage.ByteArray(signerSignedWitness.getSignerPubKey())) ||
+                        !isVerifiedAndNotBanned(signerSignedWitness)) {
+                    continue;
+                }
+                if (signerSignedWitness.isSignedByArbitrator()) {
+                    return new SignerChain(signerSignedWitness, null);
+                }
+                if (!verifyDate(signerSignedWitness, signedWitness.getDate())) {
+                    continue;
+                }
+                SignerChain next = getSignerChain(signerSignedWitness, excludedPubKeys, depth + 1, search);
+                if (next != null) {
+                    return new SignerChain(signerSignedWitness, next);
                 }
             }
-            excludedPubKeys.pop();
-            excludedPubKeys.pop();
+            // If we have not returned in the loop or it has been empty we have not found a valid signer.
+            return null;
+        } finally {
+            search.depth--;
+            excludedPubKeys.remove(signerPubKey);
+            excludedPubKeys.remove(ownerPubKey);
         }
-        // If we have not returned in the loops or they have been empty we have not found a valid signer.
-        return false;
+    }
+
+    private void cacheSignerChain(P2PDataStorage.ByteArray hash,
+                                  Optional<SignerChain> signerChain,
+                                  SignerChainSearch search) {
+        synchronized (signerChainCache) {
+            // The SignedWitnesses might have changed since the search started
+            if (search.cacheGeneration == signerChainCacheGeneration) {
+                signerChainCache.put(hash, signerChain);
+            }
+        }
+    }
+
+    private boolean isUsableSignerChain(SignerChain signerChain,
+                                        Multiset<P2PDataStorage.ByteArray> excludedPubKeys,
+                                        int depth) {
+        if (depth + signerChain.length - 1 >= MAX_SIGNER_CHAIN_LENGTH) {
+            return false;
+        }
+        for (SignerChain link = signerChain; link != null; link = link.next) {
+            if (excludedPubKeys.contains(new P2PDataStorage.ByteArray(link.signedWitness.getSignerPubKey()))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private boolean verifyDate(SignedWitness signedWitness, long childSignedWitnessDateMillis) {
@@ -533,6 +653,12 @@ public class SignedWitnessService {
         P2PDataStorage.ByteArray ownerPubKey = new P2PDataStorage.ByteArray(signedWitness.getWitnessOwnerPubKey());
         signedWitnessSetByOwnerPubKey.putIfAbsent(ownerPubKey, new HashSet<>());
         signedWitnessSetByOwnerPubKey.get(ownerPubKey).add(signedWitness);
+
+        P2PDataStorage.ByteArray signerPubKey = new P2PDataStorage.ByteArray(signedWitness.getSignerPubKey());
+        signedWitnessSetBySignerPubKey.putIfAbsent(signerPubKey, new HashSet<>());
+        signedWitnessSetBySignerPubKey.get(signerPubKey).add(signedWitness);
+
+        invalidateSignerChains(signedWitness);
     }
 
     private void publishSignedWitness(SignedWitness signedWitness) {
@@ -570,6 +696,48 @@ public class SignedWitnessService {
                 signedWitnessSetByOwnerPubKey.remove(ownerPubKey);
             }
         }
+
+        P2PDataStorage.ByteArray signerPubKey = new P2PDataStorage.ByteArray(signedWitness.getSignerPubKey());
+        if (signedWitnessSetBySignerPubKey.containsKey(signerPubKey)) {
+            Set<SignedWitness> set = signedWitnessSetBySignerPubKey.get(signerPubKey);
+            set.remove(signedWitness);
+            if (set.isEmpty()) {
+                signedWitnessSetBySignerPubKey.remove(signerPubKey);
+            }
+        }
+
+        invalidateSignerChains(signedWitness);
+    }
+
+    @VisibleForTesting
+    void onBannedSignerPubKeysChanged() {
+        synchronized (signerChainCache) {
+            signerChainCacheGeneration++;
+            signerChainCache.clear();
+        }
+    }
+
+    // Removes the cached signer chains which might pass through signedWitness: its own and those of all
+    // SignedWitnesses signed directly or indirectly by its owner.
+    private void invalidateSignerChains(SignedWitness signedWitness) {
+        synchronized (signerChainCache) {
+            signerChainCacheGeneration++;
+            if (signerChainCache.isEmpty()) {
+                return;
+            }
+
+            Set<P2PDataStorage.ByteArray> visitedOwnerPubKeys = new HashSet<>();
+            Deque<SignedWitness> queue = new ArrayDeque<>();
+            queue.add(signedWitness);
+            while (!queue.isEmpty()) {
+                SignedWitness witness = queue.poll();
+                signerChainCache.remove(witness.getHashAsByteArray());
+                P2PDataStorage.ByteArray ownerPubKey = new P2PDataStorage.ByteArray(witness.getWitnessOwnerPubKey());
+                if (visitedOwnerPubKeys.add(ownerPubKey)) {
+                    queue.addAll(signedWitnessSetBySignerPubKey.getOrDefault(ownerPubKey, Collections.emptySet()));
+                }
+            }
+        }
     }
 
     // Remove SignedWitnesses that are signed by TRADE that also have an ARBITRATOR signature
@@ -586,4 +754,38 @@ public class SignedWitnessService {
 //            }
 //        }));
 //    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // State of a single search for a valid signer chain, so that concurrent searches do not share it
+    private static final class SignerChainSearch {
+        private final long cacheGeneration;
+        // Hashes of the SignedWitnesses whose cache entry is being computed, so we do not restart it in a loop
+        private final Set<P2PDataStorage.ByteArray> inProgress = new HashSet<>();
+        // Number of active nested searches, to protect the call stack if searches for the cache of the signers get
+        // nested
+        private int depth;
+        private int numTruncated;
+
+        private SignerChainSearch(long cacheGeneration) {
+            this.cacheGeneration = cacheGeneration;
+        }
+    }
+
+    // Chain of SignedWitnesses from the SignedWitness of the signer up to a SignedWitness signed by an arbitrator
+    private static final class SignerChain {
+        private final SignedWitness signedWitness;
+        @Nullable
+        private final SignerChain next;
+        private final int length;
+
+        private SignerChain(SignedWitness signedWitness, @Nullable SignerChain next) {
+            this.signedWitness = signedWitness;
+            this.next = next;
+            this.length = next == null ? 1 : next.length + 1;
+        }
+    }
 }
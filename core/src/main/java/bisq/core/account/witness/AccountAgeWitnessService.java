@@ -125,6 +125,10 @@ public class AccountAgeWitnessService {
             return this;
         }
 
+        public long getDaysUntilLimitLifted() {
+            return daysUntilLimitLifted;
+        }
+
         public String getDisplayString() {
             if (!hash.isEmpty()) { // Only showing in DEBUG mode
                 return displayString + " " + hash;
@@ -19,6 +19,7 @@ package bisq.core.api;
 
 import bisq.core.api.model.AddressBalanceInfo;
 import bisq.core.api.model.BalancesInfo;
+import bisq.core.api.model.MarketCandleInfo;
 import bisq.core.api.model.MarketPriceInfo;
 import bisq.core.api.model.TxFeeRateInfo;
 import bisq.core.monetary.Price;
@@ -137,6 +138,13 @@ public class CoreApi {
         return coreOffersService.getOffers(direction, currencyCode);
     }
 
+    public Runnable subscribeOffers(String direction,
+                                    String currencyCode,
+                                    Consumer<Offer> addedHandler,
+                                    Consumer<Offer> removedHandler) {
+        return coreOffersService.subscribeOffers(direction, currencyCode, addedHandler, removedHandler);
+    }
+
     public List<Offer> getMyOffers(String direction, String currencyCode) {
         return coreOffersService.getMyOffers(direction, currencyCode);
     }
@@ -241,6 +249,14 @@ public class CoreApi {
         return corePriceService.getMarketPrices();
     }
 
+    public Runnable subscribeMarketPrices(Consumer<MarketPriceInfo> priceHandler) {
+        return corePriceService.subscribeMarketPrices(priceHandler);
+    }
+
+    public List<MarketCandleInfo> getMarketHistory(String currencyCode, String tickUnit, long fromDate, long toDate) {
+        return corePriceService.getMarketHistory(currencyCode, tickUnit, fromDate, toDate);
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Trades
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -284,6 +300,10 @@ public class CoreApi {
         return coreTradesService.getTrades();
     }
 
+    public Runnable subscribeTrades(Consumer<Trade> tradeChangedHandler) {
+        return coreTradesService.subscribeTrades(tradeChangedHandler);
+    }
+
     public String getTradeRole(String tradeId) {
         return coreTradesService.getTradeRole(tradeId);
     }
@@ -296,6 +316,10 @@ public class CoreApi {
         return walletsService.getBalances(currencyCode);
     }
 
+    public Runnable subscribeBalances(Consumer<BalancesInfo> balancesHandler) {
+        return walletsService.subscribeBalances(balancesHandler);
+    }
+
     public String getNewDepositSubaddress() {
         return walletsService.getNewDepositSubaddress();
     }
@@ -31,7 +31,9 @@ import bisq.core.offer.OpenOfferManager;
 import bisq.core.payment.PaymentAccount;
 import bisq.core.user.User;
 
+import bisq.common.UserThread;
 import bisq.common.crypto.KeyRing;
+import bisq.common.util.Utilities;
 
 import org.bitcoinj.core.Coin;
 import org.bitcoinj.core.Transaction;
@@ -40,15 +42,20 @@ import org.bitcoinj.utils.Fiat;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -59,17 +66,13 @@ import static bisq.common.util.MathUtils.roundDoubleToLong;
 import static bisq.common.util.MathUtils.scaleUpByPowerOf10;
 import static bisq.core.locale.CurrencyUtil.isCryptoCurrency;
 import static bisq.core.offer.OfferPayload.Direction;
-import static bisq.core.offer.OfferPayload.Direction.BUY;
 import static bisq.core.payment.PaymentAccountUtil.isPaymentAccountValidForOffer;
 import static java.lang.String.format;
-import static java.util.Comparator.comparing;
 
 @Singleton
 @Slf4j
 class CoreOffersService {
 
-    private final Supplier<Comparator<Offer>> priceComparator = () -> comparing(Offer::getPrice);
-    private final Supplier<Comparator<Offer>> reversePriceComparator = () -> comparing(Offer::getPrice).reversed();
 
     private final CoreContext coreContext;
     private final KeyRing keyRing;
@@ -85,6 +88,29 @@ class CoreOffersService {
     private final User user;
     private final XmrWalletService xmrWalletService;
 
+    // The subscriptions of subscribeOffers share one offer book listener, so the reserved funds of an added offer get
+    // checked once for all subscriptions. Only accessed on the UserThread.
+    private final Set<OfferSubscription> offerSubscriptions = new LinkedHashSet<>();
+    private final OfferBookService.OfferBookChangedListener offerSubscriptionsListener =
+            new OfferBookService.OfferBookChangedListener() {
+                @Override
+                public void onAdded(Offer offer) {
+                    onOfferAddedForSubscriptions(offer);
+                }
+
+                @Override
+                public void onRemoved(Offer offer) {
+                    if (!offer.isMyOffer(keyRing)) {
+                        new ArrayList<>(offerSubscriptions).stream()
+                                .filter(subscription -> subscription.matches(offer))
+                                .forEach(subscription -> subscription.removedHandler.accept(offer));
+                    }
+                }
+            };
+    // Checking whether the funds of an offer are spent is a call to the Monero daemon, so we do it off the UserThread
+    private final ListeningExecutorService spentKeyImagesExecutor =
+            Utilities.getSingleThreadListeningExecutor("CoreOffersService.spentKeyImages");
+
     @Inject
     public CoreOffersService(CoreContext coreContext,
                              KeyRing keyRing,
@@ -109,46 +135,98 @@ class CoreOffersService {
     }
 
     Offer getOffer(String id) {
-        return offerBookService.getOffers().stream()
-                .filter(o -> o.getId().equals(id))
+        return offerBookService.getOffer(id)
                 .filter(o -> !o.isMyOffer(keyRing))
                 .filter(o -> {
                     Result result = offerFilter.canTakeOffer(o, coreContext.isApiUser());
                     return result.isValid() || result == Result.HAS_NO_PAYMENT_ACCOUNT_VALID_FOR_OFFER;
                 })
-                .findAny().orElseThrow(() ->
+                .orElseThrow(() ->
                         new IllegalStateException(format("offer with id '%s' not found", id)));
     }
 
     Offer getMyOffer(String id) {
-        return offerBookService.getOffers().stream()
-                .filter(o -> o.getId().equals(id))
+        return offerBookService.getOffer(id)
                 .filter(o -> o.isMyOffer(keyRing))
-                .findAny().orElseThrow(() ->
+                .orElseThrow(() ->
                         new IllegalStateException(format("offer with id '%s' not found", id)));
     }
 
     List<Offer> getOffers(String direction, String currencyCode) {
-        List<Offer> offers = offerBookService.getOffers().stream()
-                .filter(o -> !o.isMyOffer(keyRing))
-                .filter(o -> offerMatchesDirectionAndCurrency(o, direction, currencyCode))
-                .filter(o -> {
-                    Result result = offerFilter.canTakeOffer(o, coreContext.isApiUser());
-                    return result.isValid() || result == Result.HAS_NO_PAYMENT_ACCOUNT_VALID_FOR_OFFER;
-                })
-                .sorted(priceComparator(direction))
-                .collect(Collectors.toList());
+        List<Offer> offers = getTakeableOffersOfMarket(direction, currencyCode);
         offers.removeAll(getUnreservedOffers(offers));
         return offers;
     }
 
+    /**
+     * Passes offers matching the filter of getOffers to addedHandler as they get added to the offer book and removed
+     * offers to removedHandler. Has to be called on the UserThread, the handlers are called on the UserThread.
+     * Added offers are passed once their reserved funds have been checked with the Monero daemon.
+     *
+     * @return Runnable to call on the UserThread to remove the subscription
+     */
+    Runnable subscribeOffers(String direction,
+                             String currencyCode,
+                             Consumer<Offer> addedHandler,
+                             Consumer<Offer> removedHandler) {
+        OfferSubscription subscription = new OfferSubscription(direction, currencyCode, addedHandler, removedHandler);
+        if (offerSubscriptions.isEmpty())
+            offerBookService.addOfferBookChangedListener(offerSubscriptionsListener);
+        offerSubscriptions.add(subscription);
+        return () -> {
+            offerSubscriptions.remove(subscription);
+            if (offerSubscriptions.isEmpty())
+                offerBookService.removeOfferBookChangedListener(offerSubscriptionsListener);
+        };
+    }
+
+    private void onOfferAddedForSubscriptions(Offer offer) {
+        if (offer.isMyOffer(keyRing))
+            return;
+
+        List<OfferSubscription> subscriptions = offerSubscriptions.stream()
+                .filter(subscription -> subscription.matches(offer))
+                .collect(Collectors.toList());
+        if (subscriptions.isEmpty() || !isTakeable(offer))
+            return;
+
+        List<String> keyImages = offer.getOfferPayload().getReserveTxKeyImages();
+        Futures.addCallback(spentKeyImagesExecutor.submit(() -> getSpentKeyImages(keyImages)),
+                new FutureCallback<>() {
+                    @Override
+                    public void onSuccess(List<String> spentKeyImages) {
+                        UserThread.execute(() -> {
+                            // The offer book might have changed while we checked the key images
+                            if (!spentKeyImages.isEmpty() ||
+                                    !offerBookService.getOffer(offer.getId()).isPresent() ||
+                                    hasDuplicateKeyImages(offer))
+                                return;
+
+                            subscriptions.stream()
+                                    .filter(offerSubscriptions::contains)
+                                    .forEach(subscription -> subscription.addedHandler.accept(offer));
+                        });
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        log.error("Could not check the key images of offer {}", offer.getId(), t);
+                    }
+                }, MoreExecutors.directExecutor());
+    }
+
+    // Applies the same check as getOffers does for the offers of the market of the offer
+    private boolean hasDuplicateKeyImages(Offer offer) {
+        List<Offer> offers = getTakeableOffersOfMarket(offer.getDirection().name(), offer.getCurrencyCode());
+        return getOffersWithDuplicateKeyImages(offers).stream()
+                .anyMatch(o -> o.getId().equals(offer.getId()));
+    }
+
     List<Offer> getMyOffers(String direction, String currencyCode) {
 
         // get my offers posted to books
-        List<Offer> offers = offerBookService.getOffers().stream()
+        List<Offer> offers = getOffersOfMarket(direction, currencyCode).stream()
                 .filter(o -> o.isMyOffer(keyRing))
-                .filter(o -> offerMatchesDirectionAndCurrency(o, direction, currencyCode))
-                .sorted(priceComparator(direction))
                 .collect(Collectors.toList());
 
         // remove unreserved offers
@@ -172,23 +250,16 @@ class CoreOffersService {
     }
     
     private Set<Offer> getUnreservedOffers(List<Offer> offers) {
-        Set<Offer> unreservedOffers = new HashSet<Offer>();
-        
-        // collect reserved key images and check for duplicate funds
-        List<String> allKeyImages = new ArrayList<String>();
-        for (Offer offer : offers) {
-          for (String keyImage : offer.getOfferPayload().getReserveTxKeyImages()) {
-            if (!allKeyImages.add(keyImage)) unreservedOffers.add(offer);
-          }
-        }
-        
+        // check for duplicate funds
+        Set<Offer> unreservedOffers = getOffersWithDuplicateKeyImages(offers);
+
         // get spent key images
         // TODO (woodser): paginate offers and only check key images of current page
-        List<String> spentKeyImages = new ArrayList<String>();
-        List<MoneroKeyImageSpentStatus> spentStatuses = allKeyImages.isEmpty() ? new ArrayList<MoneroKeyImageSpentStatus>() : xmrWalletService.getDaemon().getKeyImageSpentStatuses(allKeyImages);
-        for (int i = 0; i < spentStatuses.size(); i++) {
-          if (spentStatuses.get(i) != MoneroKeyImageSpentStatus.NOT_SPENT) spentKeyImages.add(allKeyImages.get(i));
+        List<String> allKeyImages = new ArrayList<String>();
+        for (Offer offer : offers) {
+          allKeyImages.addAll(offer.getOfferPayload().getReserveTxKeyImages());
         }
+        List<String> spentKeyImages = getSpentKeyImages(allKeyImages);
         
         // check for offers with spent key images
         for (Offer offer : offers) {
@@ -201,6 +272,28 @@ class CoreOffersService {
         return unreservedOffers;
     }
 
+    // Returns the offers reserving a key image which is reserved by a previous offer of the list
+    private Set<Offer> getOffersWithDuplicateKeyImages(List<Offer> offers) {
+        Set<Offer> offersWithDuplicateKeyImages = new HashSet<Offer>();
+        Set<String> allKeyImages = new HashSet<String>();
+        for (Offer offer : offers) {
+          for (String keyImage : offer.getOfferPayload().getReserveTxKeyImages()) {
+            if (!allKeyImages.add(keyImage)) offersWithDuplicateKeyImages.add(offer);
+          }
+        }
+        return offersWithDuplicateKeyImages;
+    }
+
+    // Calls the Monero daemon
+    private List<String> getSpentKeyImages(List<String> keyImages) {
+        List<String> spentKeyImages = new ArrayList<String>();
+        List<MoneroKeyImageSpentStatus> spentStatuses = keyImages.isEmpty() ? new ArrayList<MoneroKeyImageSpentStatus>() : xmrWalletService.getDaemon().getKeyImageSpentStatuses(keyImages);
+        for (int i = 0; i < spentStatuses.size(); i++) {
+          if (spentStatuses.get(i) != MoneroKeyImageSpentStatus.NOT_SPENT) spentKeyImages.add(keyImages.get(i));
+        }
+        return spentKeyImages;
+    }
+
     OpenOffer getMyOpenOffer(String id) {
         return openOfferManager.getOpenOfferById(id)
                 .filter(open -> open.getOffer().isMyOffer(keyRing))
@@ -322,17 +415,31 @@ class CoreOffersService {
                                                      String direction,
                                                      String currencyCode) {
         var offerOfWantedDirection = offer.getDirection().name().equalsIgnoreCase(direction);
-        var offerInWantedCurrency = offer.getOfferPayload().getCounterCurrencyCode()
-                .equalsIgnoreCase(currencyCode);
+        var offerInWantedCurrency = offer.getCurrencyCode().equalsIgnoreCase(currencyCode);
         return offerOfWantedDirection && offerInWantedCurrency;
     }
 
-    private Comparator<Offer> priceComparator(String direction) {
-        // A buyer probably wants to see sell orders in price ascending order.
-        // A seller probably wants to see buy orders in price descending order.
-        return direction.equalsIgnoreCase(BUY.name())
-                ? reversePriceComparator.get()
-                : priceComparator.get();
+    private List<Offer> getTakeableOffersOfMarket(String direction, String currencyCode) {
+        return getOffersOfMarket(direction, currencyCode).stream()
+                .filter(o -> !o.isMyOffer(keyRing))
+                .filter(this::isTakeable)
+                .collect(Collectors.toList());
+    }
+
+    private boolean isTakeable(Offer offer) {
+        Result result = offerFilter.canTakeOffer(offer, coreContext.isApiUser());
+        return result.isValid() || result == Result.HAS_NO_PAYMENT_ACCOUNT_VALID_FOR_OFFER;
+    }
+
+    // A buyer probably wants to see sell orders in price ascending order.
+    // A seller probably wants to see buy orders in price descending order.
+    // The offer book index delivers them in that order.
+    private List<Offer> getOffersOfMarket(String direction, String currencyCode) {
+        return Arrays.stream(Direction.values())
+                .filter(d -> d.name().equalsIgnoreCase(direction))
+                .findAny()
+                .map(d -> offerBookService.getOffers(d, currencyCode))
+                .orElse(new ArrayList<>());
     }
 
     private long priceStringToLong(String priceAsString, String currencyCode) {
@@ -341,4 +448,25 @@ class CoreOffersService {
         double scaled = scaleUpByPowerOf10(priceAsDouble, precision);
         return roundDoubleToLong(scaled);
     }
+
+    private class OfferSubscription {
+        private final String direction;
+        private final String currencyCode;
+        private final Consumer<Offer> addedHandler;
+        private final Consumer<Offer> removedHandler;
+
+        private OfferSubscription(String direction,
+                                  String currencyCode,
+                                  Consumer<Offer> addedHandler,
+                                  Consumer<Offer> removedHandler) {
+            this.direction = direction;
+            this.currencyCode = currencyCode;
+            this.addedHandler = addedHandler;
+            this.removedHandler = removedHandler;
+        }
+
+        private boolean matches(Offer offer) {
+            return offerMatchesDirectionAndCurrency(offer, direction, currencyCode);
+        }
+    }
 }
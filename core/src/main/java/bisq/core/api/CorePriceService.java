@@ -17,16 +17,25 @@
 
 package bisq.core.api;
 
+import bisq.core.api.model.MarketCandleInfo;
 import bisq.core.api.model.MarketPriceInfo;
 import bisq.core.locale.CurrencyUtil;
+import bisq.core.provider.price.MarketPrice;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.trade.statistics.TickUnit;
+import bisq.core.trade.statistics.TradeStatisticsCandleService;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import javafx.beans.value.ChangeListener;
+
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -36,10 +45,13 @@ import lombok.extern.slf4j.Slf4j;
 class CorePriceService {
 
     private final PriceFeedService priceFeedService;
+    private final TradeStatisticsCandleService tradeStatisticsCandleService;
 
     @Inject
-    public CorePriceService(PriceFeedService priceFeedService) {
+    public CorePriceService(PriceFeedService priceFeedService,
+                            TradeStatisticsCandleService tradeStatisticsCandleService) {
         this.priceFeedService = priceFeedService;
+        this.tradeStatisticsCandleService = tradeStatisticsCandleService;
     }
 
     /**
@@ -65,6 +77,58 @@ class CorePriceService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Passes the price of each currency to the handler, initially and whenever it changes. In contrast to
+     * getMarketPrices it uses the prices of the price feed service instead of requesting them.
+     * Has to be called on the UserThread, the handler is called on the UserThread.
+     *
+     * @return Runnable to call on the UserThread to remove the subscription
+     */
+    public Runnable subscribeMarketPrices(Consumer<MarketPriceInfo> priceHandler) {
+        Map<String, Double> lastPrices = new HashMap<>();
+        Runnable updateHandler = () -> priceFeedService.getMarketPrices().values().stream()
+                .filter(MarketPrice::isPriceAvailable)
+                .forEach(marketPrice -> {
+                    String currencyCode = marketPrice.getCurrencyCode();
+                    double price = mapPriceFeedServicePrice(marketPrice.getPrice(), currencyCode);
+                    Double lastPrice = lastPrices.put(currencyCode, price);
+                    if (lastPrice == null || lastPrice != price)
+                        priceHandler.accept(new MarketPriceInfo(currencyCode, price));
+                });
+        ChangeListener<Number> listener = (observable, oldValue, newValue) -> updateHandler.run();
+        priceFeedService.updateCounterProperty().addListener(listener);
+        updateHandler.run();
+        return () -> priceFeedService.updateCounterProperty().removeListener(listener);
+    }
+
+    /**
+     * @return Candles of the trade statistics of the currency with a tick start time within fromDate and toDate,
+     * toDate 0 means now. Ticks without trades are omitted.
+     */
+    public List<MarketCandleInfo> getMarketHistory(String currencyCode, String tickUnit, long fromDate, long toDate) {
+        TickUnit unit;
+        try {
+            unit = TickUnit.valueOf(tickUnit.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid tick unit: " + tickUnit); // message sent to client
+        }
+        String code = currencyCode.toUpperCase();
+        boolean isCryptoCurrency = CurrencyUtil.isCryptoCurrency(code);
+        long to = toDate == 0 ? System.currentTimeMillis() : toDate;
+        return tradeStatisticsCandleService.getCandles(code, unit, fromDate, to).stream()
+                .map(candle -> new MarketCandleInfo(candle.getTickStartTime(),
+                        candle.getOpen(),
+                        candle.getClose(),
+                        candle.getHigh(),
+                        candle.getLow(),
+                        candle.getAveragePrice(isCryptoCurrency),
+                        candle.getMedian(),
+                        candle.getAccumulatedAmount(),
+                        candle.getAccumulatedVolume(),
+                        candle.getNumTrades()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * PriceProvider returns different values for crypto and fiat,
      * e.g. 1 XMR = X USD
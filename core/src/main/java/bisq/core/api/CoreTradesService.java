@@ -38,8 +38,15 @@ import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+
+import javafx.beans.value.ChangeListener;
+
+import javafx.collections.ListChangeListener;
+
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 
@@ -237,6 +244,48 @@ class CoreTradesService {
         return trades;
     }
 
+    /**
+     * Passes pending trades to the handler when they get added, change their state or dispute state, and when they
+     * get removed from the pending trades. Has to be called on the UserThread, the handler is called on the UserThread.
+     *
+     * @return Runnable to call on the UserThread to remove the subscription
+     */
+    Runnable subscribeTrades(Consumer<Trade> tradeChangedHandler) {
+        Map<Trade, ChangeListener<Object>> tradeListeners = new HashMap<>();
+        Consumer<Trade> addTradeListener = trade -> {
+            ChangeListener<Object> listener = (observable, oldValue, newValue) -> tradeChangedHandler.accept(trade);
+            trade.stateProperty().addListener(listener);
+            trade.disputeStateProperty().addListener(listener);
+            tradeListeners.put(trade, listener);
+        };
+        Consumer<Trade> removeTradeListener = trade -> {
+            ChangeListener<Object> listener = tradeListeners.remove(trade);
+            if (listener != null) {
+                trade.stateProperty().removeListener(listener);
+                trade.disputeStateProperty().removeListener(listener);
+            }
+        };
+
+        ListChangeListener<Trade> listChangeListener = change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(trade -> {
+                    removeTradeListener.accept(trade);
+                    tradeChangedHandler.accept(trade);
+                });
+                change.getAddedSubList().forEach(trade -> {
+                    addTradeListener.accept(trade);
+                    tradeChangedHandler.accept(trade);
+                });
+            }
+        };
+        tradeManager.getObservableList().forEach(addTradeListener);
+        tradeManager.getObservableList().addListener(listChangeListener);
+        return () -> {
+            tradeManager.getObservableList().removeListener(listChangeListener);
+            new ArrayList<>(tradeListeners.keySet()).forEach(removeTradeListener);
+        };
+    }
+
     private boolean isFollowingBuyerProtocol(Trade trade) {
         return tradeManager.getTradeProtocol(trade) instanceof BuyerProtocol;
     }
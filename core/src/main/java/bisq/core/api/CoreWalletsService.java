@@ -64,9 +64,14 @@ import com.google.common.util.concurrent.MoreExecutors;
 
 import org.bouncycastle.crypto.params.KeyParameter;
 
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.value.ChangeListener;
+
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -157,6 +162,35 @@ class CoreWalletsService {
         }
     }
 
+    /**
+     * Passes the XMR balances to the handler whenever they change. Has to be called on the UserThread, the handler
+     * is called on the UserThread.
+     *
+     * @return Runnable to call on the UserThread to remove the subscription
+     */
+    Runnable subscribeBalances(Consumer<BalancesInfo> balancesHandler) {
+        AtomicBoolean updateScheduled = new AtomicBoolean();
+        ChangeListener<Coin> listener = (observable, oldValue, newValue) -> {
+            // The balances get updated one after another, so we report them once all are set
+            if (updateScheduled.compareAndSet(false, true)) {
+                UserThread.execute(() -> {
+                    updateScheduled.set(false);
+                    try {
+                        balancesHandler.accept(new BalancesInfo(BtcBalanceInfo.EMPTY, getXmrBalances()));
+                    } catch (IllegalStateException e) {
+                        log.debug("Balances not reported. {}", e.getMessage());
+                    }
+                });
+            }
+        };
+        List<ObjectProperty<Coin>> properties = List.of(balances.getAvailableBalance(),
+                balances.getLockedBalance(),
+                balances.getReservedOfferBalance(),
+                balances.getReservedTradeBalance());
+        properties.forEach(property -> property.addListener(listener));
+        return () -> properties.forEach(property -> property.removeListener(listener));
+    }
+
     String getNewDepositSubaddress() {
         return xmrWalletService.getWallet().createSubaddress(0).getAddress();
     }
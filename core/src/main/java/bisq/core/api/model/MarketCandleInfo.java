@@ -0,0 +1,75 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.api.model;
+
+import bisq.common.Payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@ToString
+@Getter
+@AllArgsConstructor
+public class MarketCandleInfo implements Payload {
+
+    private final long date;
+    private final long open;
+    private final long close;
+    private final long high;
+    private final long low;
+    private final long average;
+    private final long median;
+    private final long amount;
+    private final long volume;
+    private final long numTrades;
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public bisq.proto.grpc.MarketCandleInfo toProtoMessage() {
+        return bisq.proto.grpc.MarketCandleInfo.newBuilder()
+                .setDate(date)
+                .setOpen(open)
+                .setClose(close)
+                .setHigh(high)
+                .setLow(low)
+                .setAverage(average)
+                .setMedian(median)
+                .setAmount(amount)
+                .setVolume(volume)
+                .setNumTrades(numTrades)
+                .build();
+    }
+
+    public static MarketCandleInfo fromProto(bisq.proto.grpc.MarketCandleInfo proto) {
+        return new MarketCandleInfo(proto.getDate(),
+                proto.getOpen(),
+                proto.getClose(),
+                proto.getHigh(),
+                proto.getLow(),
+                proto.getAverage(),
+                proto.getMedian(),
+                proto.getAmount(),
+                proto.getVolume(),
+                proto.getNumTrades());
+    }
+}
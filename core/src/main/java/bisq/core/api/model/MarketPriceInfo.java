@@ -20,9 +20,11 @@ package bisq.core.api.model;
 import bisq.common.Payload;
 
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.ToString;
 
 @ToString
+@Getter
 @AllArgsConstructor
 public class MarketPriceInfo implements Payload {
 
@@ -0,0 +1,267 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.common.util.Utilities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+import monero.wallet.MoneroWallet;
+
+/**
+ * Runs the sync, import and save calls of the multisig wallets on a small pool of threads instead of each wallet
+ * syncing in the background and each trade task syncing on its own.
+ *
+ * Requests for the same wallet are coalesced: a request which has not been started yet is merged with new requests,
+ * so e.g. a sync requested by a trade task and the sync of a new block cause a single sync. The work for one wallet
+ * is done in the order import, sync, reads of the wallet state, save and never concurrently. At most
+ * MAX_PARALLEL_REQUESTS wallets are busy at the same time, so a new block does not cause a sync of all wallets at once.
+ *
+ * After shutDown all pending and new requests complete exceptionally.
+ */
+@Slf4j
+class XmrMultisigSyncCoordinator {
+    private static final int MAX_PARALLEL_REQUESTS = 4;
+
+    // A read of the wallet state, e.g. the multisig hex
+    private static class Read<R> {
+        private final Function<MoneroWallet, R> reader;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        private Read(Function<MoneroWallet, R> reader) {
+            this.reader = reader;
+        }
+
+        private void run(MoneroWallet wallet) {
+            future.complete(reader.apply(wallet));
+        }
+    }
+
+    // The work to do for one wallet. Gets merged with new requests until it is started.
+    private static class Request {
+        private final String tradeId;
+        // Background syncs do not open closed wallets
+        private boolean openWallet;
+        private final List<String> multisigHexes = new ArrayList<>();
+        private boolean sync;
+        private final List<Read<?>> reads = new ArrayList<>();
+        private boolean save;
+        // Completes with the number of outputs signed by the imported multisig hexes
+        private final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        private Request(String tradeId) {
+            this.tradeId = tradeId;
+        }
+
+        private void completeExceptionally(Throwable throwable) {
+            future.completeExceptionally(throwable);
+            reads.forEach(read -> read.future.completeExceptionally(throwable));
+        }
+    }
+
+    private final XmrMultisigWalletManager walletManager;
+    private final ExecutorService executor = Utilities.getListeningExecutorService("XmrMultisigSync-%d",
+            MAX_PARALLEL_REQUESTS, MAX_PARALLEL_REQUESTS, 60, new LinkedBlockingQueue<>());
+    private final Object lock = new Object();
+    private final Map<String, Request> pendingRequests = new HashMap<>();
+    private final Set<String> busyTradeIds = new HashSet<>();
+    // Requests which are submitted to the executor, but not done yet
+    private final Set<Request> submittedRequests = new HashSet<>();
+    private boolean isShutDown;
+    private final Map<String, Long> lastSyncTs = new ConcurrentHashMap<>();
+
+    XmrMultisigSyncCoordinator(XmrMultisigWalletManager walletManager) {
+        this.walletManager = walletManager;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    CompletableFuture<Void> requestSync(String tradeId) {
+        return toVoid(request(tradeId, true, request -> request.sync = true));
+    }
+
+    /**
+     * Imports the multisig hexes and syncs the wallet. Hexes of coalesced requests are imported with one call.
+     */
+    CompletableFuture<Integer> requestImport(String tradeId, List<String> multisigHexes) {
+        return request(tradeId, true, request -> {
+            request.multisigHexes.addAll(multisigHexes);
+            request.sync = true;
+        });
+    }
+
+    CompletableFuture<Void> requestSave(String tradeId) {
+        return toVoid(request(tradeId, true, request -> request.save = true));
+    }
+
+    CompletableFuture<Boolean> requestIsMultisigImportNeeded(String tradeId) {
+        return requestRead(tradeId, false, MoneroWallet::isMultisigImportNeeded);
+    }
+
+    /**
+     * Syncs the wallet and completes with its multisig hex.
+     */
+    CompletableFuture<String> requestMultisigHex(String tradeId) {
+        return requestRead(tradeId, true, MoneroWallet::getMultisigHex);
+    }
+
+    /**
+     * Syncs all open wallets, e.g. after a new block.
+     */
+    void syncOpenWallets() {
+        walletManager.getOpenWalletTradeIds().forEach(tradeId ->
+                request(tradeId, false, request -> request.sync = true));
+    }
+
+    /**
+     * Syncs the open wallets which have not been synced within their sync period.
+     */
+    void syncDueWallets() {
+        long now = System.currentTimeMillis();
+        walletManager.getOpenWalletTradeIds().stream()
+                .filter(tradeId -> now - lastSyncTs.getOrDefault(tradeId, 0L) >= walletManager.getSyncPeriod(tradeId))
+                .forEach(tradeId -> request(tradeId, false, request -> request.sync = true));
+    }
+
+    void onWalletDeleted(String tradeId) {
+        lastSyncTs.remove(tradeId);
+    }
+
+    void shutDown() {
+        List<Request> requests;
+        synchronized (lock) {
+            isShutDown = true;
+            requests = new ArrayList<>(pendingRequests.values());
+            requests.addAll(submittedRequests);
+            pendingRequests.clear();
+            submittedRequests.clear();
+        }
+        // The executor drops the submitted requests silently, so we complete them here to not block their callers
+        executor.shutdownNow();
+        IllegalStateException exception = new IllegalStateException("Multisig wallet requests are shut down");
+        requests.forEach(request -> request.completeExceptionally(exception));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private <R> CompletableFuture<R> requestRead(String tradeId, boolean sync, Function<MoneroWallet, R> reader) {
+        Read<R> read = new Read<>(reader);
+        CompletableFuture<Integer> future = request(tradeId, true, request -> {
+            request.sync |= sync;
+            request.reads.add(read);
+        });
+        // The request fails at once after shutDown, without adding the read
+        future.whenComplete((result, throwable) -> {
+            if (throwable != null)
+                read.future.completeExceptionally(throwable);
+        });
+        return read.future;
+    }
+
+    private CompletableFuture<Integer> request(String tradeId, boolean openWallet, Consumer<Request> merger) {
+        synchronized (lock) {
+            if (isShutDown) {
+                CompletableFuture<Integer> future = new CompletableFuture<>();
+                future.completeExceptionally(new IllegalStateException("Multisig wallet requests are shut down"));
+                return future;
+            }
+
+            Request request = pendingRequests.computeIfAbsent(tradeId, Request::new);
+            request.openWallet |= openWallet;
+            merger.accept(request);
+            if (!busyTradeIds.contains(tradeId))
+                submit(tradeId);
+            return request.future;
+        }
+    }
+
+    // Has to be called with the lock held
+    private void submit(String tradeId) {
+        if (isShutDown)
+            return;
+
+        Request request = pendingRequests.remove(tradeId);
+        if (request == null)
+            return;
+
+        busyTradeIds.add(tradeId);
+        submittedRequests.add(request);
+        executor.execute(() -> {
+            try {
+                request.future.complete(execute(request));
+            } catch (Throwable t) {
+                log.warn("Multisig wallet request for trade {} failed. {}", tradeId, t.toString());
+                request.completeExceptionally(t);
+            } finally {
+                synchronized (lock) {
+                    submittedRequests.remove(request);
+                    busyTradeIds.remove(tradeId);
+                    submit(tradeId);
+                }
+            }
+        });
+    }
+
+    private int execute(Request request) {
+        // Syncing might take longer than idle wallets are kept open, so we pin the wallet
+        MoneroWallet wallet = request.openWallet ?
+                walletManager.pinWallet(request.tradeId) :
+                walletManager.pinOpenWallet(request.tradeId);
+        if (wallet == null)
+            return 0;
+
+        try {
+            int numOutputsSigned = 0;
+            if (!request.multisigHexes.isEmpty())
+                numOutputsSigned = wallet.importMultisigHex(request.multisigHexes);
+            if (request.sync) {
+                wallet.sync();
+                lastSyncTs.put(request.tradeId, System.currentTimeMillis());
+            }
+            request.reads.forEach(read -> read.run(wallet));
+            if (request.save)
+                wallet.save();
+            return numOutputsSigned;
+        } finally {
+            walletManager.unpinWallet(request.tradeId);
+        }
+    }
+
+    private static CompletableFuture<Void> toVoid(CompletableFuture<Integer> future) {
+        return future.thenApply(numOutputsSigned -> null);
+    }
+}
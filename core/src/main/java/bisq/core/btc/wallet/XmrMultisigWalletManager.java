@@ -0,0 +1,277 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.btc.setup.WalletConfig;
+
+import com.google.common.util.concurrent.Striped;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import monero.wallet.MoneroWallet;
+import monero.wallet.model.MoneroWalletConfig;
+
+/**
+ * Keeps track of the open multisig wallets of the trades.
+ *
+ * Each multisig wallet runs in its own monero-wallet-rpc process, so we limit the number of open wallets. Wallets are
+ * opened lazily on first access and the least recently used wallets get closed if we exceed MAX_OPEN_WALLETS. Wallets
+ * with registered listeners (e.g. the deposit tx listener of a trade) or which are pinned by a caller are never closed
+ * that way.
+ *
+ * Instead of synchronizing on the whole service we use a lock per trade id, so that slow wallet RPC calls for one
+ * trade do not block the others.
+ *
+ * The wallets do not sync in the background. The XmrMultisigSyncCoordinator syncs them according to their sync
+ * period and on each new block.
+ */
+@Slf4j
+class XmrMultisigWalletManager {
+    private static final String WALLET_PREFIX = "xmr_multisig_trade_";
+    private static final String WALLET_PASSWORD = "abctesting123"; // TODO (woodser): wallet has single password
+    private static final int MAX_OPEN_WALLETS = 30;
+    // Wallets which have been accessed recently might still be in use by the caller, so we do not close them.
+    private static final long MIN_IDLE_TIME_BEFORE_CLOSE = TimeUnit.MINUTES.toMillis(2);
+    static final long DEFAULT_SYNC_PERIOD = 5000;
+
+    private static class OpenWallet {
+        private final MoneroWallet wallet;
+        // Written with the lock of the trade held
+        private volatile long lastAccessTs;
+        // Number of callers which use the wallet until they unpin it. Guarded by the lock of the trade.
+        private int numPins;
+
+        private OpenWallet(MoneroWallet wallet) {
+            this.wallet = wallet;
+            lastAccessTs = System.currentTimeMillis();
+        }
+    }
+
+    private final Supplier<WalletConfig> walletConfigSupplier;
+    private final Striped<Lock> locks = Striped.lock(64);
+    private final Map<String, OpenWallet> openWallets = new ConcurrentHashMap<>();
+    // Requested sync period per trade. Kept for closed wallets so that they use it when they get opened again.
+    private final Map<String, Long> syncPeriods = new ConcurrentHashMap<>();
+
+    XmrMultisigWalletManager(Supplier<WalletConfig> walletConfigSupplier) {
+        this.walletConfigSupplier = walletConfigSupplier;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    MoneroWallet createWallet(String tradeId) {
+        return getOrOpenWallet(tradeId, true, false);
+    }
+
+    /**
+     * The wallet is not closed for at least MIN_IDLE_TIME_BEFORE_CLOSE. Callers which use it longer have to use
+     * pinWallet instead.
+     */
+    MoneroWallet getWallet(String tradeId) {
+        return getOrOpenWallet(tradeId, false, false);
+    }
+
+    /**
+     * Opens the wallet if it is not open and keeps it open until unpinWallet gets called.
+     */
+    MoneroWallet pinWallet(String tradeId) {
+        return getOrOpenWallet(tradeId, false, true);
+    }
+
+    /**
+     * Returns null if the wallet is not open, otherwise keeps it open until unpinWallet gets called. Does not count as
+     * an access, so background work like syncing does not keep idle wallets open.
+     */
+    @Nullable
+    MoneroWallet pinOpenWallet(String tradeId) {
+        Lock lock = locks.get(tradeId);
+        lock.lock();
+        try {
+            OpenWallet openWallet = openWallets.get(tradeId);
+            if (openWallet == null)
+                return null;
+            openWallet.numPins++;
+            return openWallet.wallet;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void unpinWallet(String tradeId) {
+        Lock lock = locks.get(tradeId);
+        lock.lock();
+        try {
+            // The wallet might have been deleted in the meantime
+            OpenWallet openWallet = openWallets.get(tradeId);
+            if (openWallet != null && openWallet.numPins > 0)
+                openWallet.numPins--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean deleteWallet(String tradeId) {
+        String walletName = getWalletName(tradeId);
+        Lock lock = locks.get(tradeId);
+        lock.lock();
+        try {
+            syncPeriods.remove(tradeId);
+            if (!walletConfigSupplier.get().walletExists(walletName))
+                return false;
+            OpenWallet openWallet = openWallets.remove(tradeId);
+            if (openWallet != null) {
+                try {
+                    walletConfigSupplier.get().closeWallet(openWallet.wallet, false);
+                } catch (Exception e) {
+                    log.warn("Closing multisig wallet for trade {} failed. {}", tradeId, e.toString());
+                }
+            }
+            walletConfigSupplier.get().deleteWallet(walletName);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void setSyncPeriod(String tradeId, long syncPeriod) {
+        Long previous = syncPeriods.put(tradeId, syncPeriod);
+        if (previous != null && previous != syncPeriod)
+            log.info("Change sync period of multisig wallet for trade {} from {} ms to {} ms",
+                    tradeId, previous, syncPeriod);
+    }
+
+    long getSyncPeriod(String tradeId) {
+        return syncPeriods.getOrDefault(tradeId, DEFAULT_SYNC_PERIOD);
+    }
+
+    List<MoneroWallet> getOpenWallets() {
+        return openWallets.values().stream()
+                .map(openWallet -> openWallet.wallet)
+                .collect(Collectors.toList());
+    }
+
+    Set<String> getOpenWalletTradeIds() {
+        return new HashSet<>(openWallets.keySet());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We update the access time with the lock of the trade held, so maybeCloseIdleWallets either closes the wallet
+    // before and we open it again, or it sees the new access time and keeps it open.
+    private MoneroWallet getOrOpenWallet(String tradeId, boolean create, boolean pin) {
+        OpenWallet openWallet;
+        boolean opened = false;
+        Lock lock = locks.get(tradeId);
+        lock.lock();
+        try {
+            openWallet = openWallets.get(tradeId);
+            if (openWallet == null) {
+                MoneroWalletConfig config = new MoneroWalletConfig()
+                        .setPath(getWalletName(tradeId))
+                        .setPassword(WALLET_PASSWORD);
+                // auto-assign port
+                MoneroWallet wallet = create ?
+                        walletConfigSupplier.get().createWallet(config, null) :
+                        walletConfigSupplier.get().openWallet(config, null);
+                openWallet = new OpenWallet(wallet);
+                openWallets.put(tradeId, openWallet);
+                opened = true;
+                log.info("{} multisig wallet for trade {}. Num open multisig wallets={}",
+                        create ? "Created" : "Opened", tradeId, openWallets.size());
+            }
+            openWallet.lastAccessTs = System.currentTimeMillis();
+            if (pin)
+                openWallet.numPins++;
+        } finally {
+            lock.unlock();
+        }
+
+        if (opened)
+            maybeCloseIdleWallets(tradeId);
+        return openWallet.wallet;
+    }
+
+    private void maybeCloseIdleWallets(String excludedTradeId) {
+        int numToClose = openWallets.size() - MAX_OPEN_WALLETS;
+        if (numToClose <= 0)
+            return;
+
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, OpenWallet>> candidates = new ArrayList<>(openWallets.entrySet());
+        // The access times might change while sorting, so we sort a snapshot of them
+        Map<String, Long> lastAccessTsByTradeId = candidates.stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().lastAccessTs));
+        candidates.sort(Comparator.comparingLong(entry -> lastAccessTsByTradeId.get(entry.getKey())));
+        for (Map.Entry<String, OpenWallet> entry : candidates) {
+            if (numToClose <= 0)
+                break;
+
+            String tradeId = entry.getKey();
+            if (tradeId.equals(excludedTradeId))
+                continue;
+
+            Lock lock = locks.get(tradeId);
+            // We never wait for the lock of another trade to avoid blocking the caller or deadlocks
+            if (!lock.tryLock())
+                continue;
+            try {
+                OpenWallet openWallet = openWallets.get(tradeId);
+                if (openWallet == null ||
+                        openWallet.numPins > 0 ||
+                        now - openWallet.lastAccessTs < MIN_IDLE_TIME_BEFORE_CLOSE ||
+                        !openWallet.wallet.getListeners().isEmpty())
+                    continue;
+
+                openWallets.remove(tradeId);
+                numToClose--;
+                try {
+                    walletConfigSupplier.get().closeWallet(openWallet.wallet, true);
+                    log.info("Closed idle multisig wallet for trade {}", tradeId);
+                } catch (Exception e) {
+                    log.warn("Closing idle multisig wallet for trade {} failed. {}", tradeId, e.toString());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static String getWalletName(String tradeId) {
+        return WALLET_PREFIX + tradeId;
+    }
+}
@@ -14,6 +14,7 @@ import org.bitcoinj.core.InsufficientMoneyException;
 
 import javax.inject.Inject;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.FutureCallback;
 
 import java.math.BigInteger;
@@ -23,7 +24,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -51,7 +56,17 @@ public class XmrWalletService {
   private final XmrAddressEntryList addressEntryList;
   protected final CopyOnWriteArraySet<XmrBalanceListener> balanceListeners = new CopyOnWriteArraySet<>();
   protected final CopyOnWriteArraySet<MoneroWalletListenerI> walletListeners = new CopyOnWriteArraySet<>();
-  private Map<String, MoneroWallet> multisigWallets;
+  private final XmrMultisigWalletManager multisigWalletManager;
+  private final XmrMultisigSyncCoordinator multisigSyncCoordinator;
+
+  // Balances of the subaddresses of account 0. Loaded with a single wallet call and kept up to date by the wallet
+  // listener, so balance queries from the UI and API do not cause a wallet RPC per address entry. Updates build a new
+  // map and replace the reference, so readers never see a partially updated map.
+  private volatile ImmutableMap<Integer, BigInteger> subaddressBalances = ImmutableMap.of();
+  private final Object subaddressBalancesLock = new Object();
+  private final Set<Integer> dirtySubaddressIndices = ConcurrentHashMap.newKeySet();
+  private final AtomicLong subaddressBalancesVersion = new AtomicLong();
+  private volatile boolean subaddressBalancesLoaded;
 
   @Getter
   private MoneroDaemon daemon;
@@ -64,7 +79,8 @@ public class XmrWalletService {
     this.walletsSetup = walletsSetup;
 
     this.addressEntryList = addressEntryList;
-    this.multisigWallets = new HashMap<String, MoneroWallet>();
+    this.multisigWalletManager = new XmrMultisigWalletManager(walletsSetup::getWalletConfig);
+    this.multisigSyncCoordinator = new XmrMultisigSyncCoordinator(multisigWalletManager);
 
     walletsSetup.addSetupCompletedHandler(() -> {
         daemon = walletsSetup.getXmrDaemon();
@@ -74,56 +90,84 @@ public class XmrWalletService {
             public void onSyncProgress(long height, long startHeight, long endHeight, double percentDone, String message) { }
 
             @Override
-            public void onNewBlock(long height) { }
+            public void onNewBlock(long height) {
+              multisigSyncCoordinator.syncOpenWallets();
+            }
+
+            @Override
+            public void onOutputReceived(MoneroOutputWallet output) {
+              invalidateSubaddressBalance(output);
+            }
+
+            @Override
+            public void onOutputSpent(MoneroOutputWallet output) {
+              invalidateSubaddressBalance(output);
+            }
 
             @Override
             public void onBalancesChanged(BigInteger newBalance, BigInteger newUnlockedBalance) {
+              // If no output notification marked the changed subaddresses we reload all balances
+              if (dirtySubaddressIndices.isEmpty()) invalidateSubaddressBalances();
               notifyBalanceListeners();
             }
         });
+        UserThread.runPeriodically(multisigSyncCoordinator::syncDueWallets, 1);
     });
   }
 
   // TODO (woodser): wallet has single password which is passed here?
   // TODO (woodser): test retaking failed trade.  create new multisig wallet or replace?  cannot reuse
-  
-  public synchronized MoneroWallet createMultisigWallet(String tradeId) {
-      if (multisigWallets.containsKey(tradeId)) return multisigWallets.get(tradeId);
-      String path = "xmr_multisig_trade_" + tradeId;
-      MoneroWallet multisigWallet = null;
-      multisigWallet = walletsSetup.getWalletConfig().createWallet(new MoneroWalletConfig()
-              .setPath(path)
-              .setPassword("abctesting123"),
-              null); // auto-assign port
-      multisigWallets.put(tradeId, multisigWallet);
-      multisigWallet.startSyncing(5000l);
-      return multisigWallet;
-  }
-  
-  public synchronized MoneroWallet getMultisigWallet(String tradeId) {
-      if (multisigWallets.containsKey(tradeId)) return multisigWallets.get(tradeId);
-      String path = "xmr_multisig_trade_" + tradeId;
-      MoneroWallet multisigWallet = null;
-      multisigWallet = walletsSetup.getWalletConfig().openWallet(new MoneroWalletConfig()
-              .setPath(path)
-              .setPassword("abctesting123"),
-              null);
-      multisigWallets.put(tradeId, multisigWallet);
-      multisigWallet.startSyncing(5000l); // TODO (woodser): use sync period from config. apps stall if too many multisig wallets and too short sync period
-      return multisigWallet;
-  }
-  
-  public synchronized boolean deleteMultisigWallet(String tradeId) {
-      String walletName = "xmr_multisig_trade_" + tradeId;
-      if (!walletsSetup.getWalletConfig().walletExists(walletName)) return false;
-      try {
-          walletsSetup.getWalletConfig().closeWallet(getMultisigWallet(tradeId), false);
-      } catch (Exception err) {
-          // multisig wallet may not be open
-      }
-      walletsSetup.getWalletConfig().deleteWallet(walletName);
-      multisigWallets.remove(tradeId);
-      return true;
+
+  public MoneroWallet createMultisigWallet(String tradeId) {
+      return multisigWalletManager.createWallet(tradeId);
+  }
+
+  // Opens the wallet if it is not open. Idle wallets get closed again if too many multisig wallets are open.
+  public MoneroWallet getMultisigWallet(String tradeId) {
+      return multisigWalletManager.getWallet(tradeId);
+  }
+
+  // Keeps the multisig wallet open until unpinMultisigWallet gets called. Needs to be used instead of
+  // getMultisigWallet if the wallet is used longer than idle wallets are kept open.
+  public MoneroWallet pinMultisigWallet(String tradeId) {
+      return multisigWalletManager.pinWallet(tradeId);
+  }
+
+  public void unpinMultisigWallet(String tradeId) {
+      multisigWalletManager.unpinWallet(tradeId);
+  }
+
+  public boolean deleteMultisigWallet(String tradeId) {
+      multisigSyncCoordinator.onWalletDeleted(tradeId);
+      return multisigWalletManager.deleteWallet(tradeId);
+  }
+
+  // Multisig wallet work is coalesced per wallet and run on a bounded pool of threads, see XmrMultisigSyncCoordinator
+
+  public CompletableFuture<Void> syncMultisigWallet(String tradeId) {
+      return multisigSyncCoordinator.requestSync(tradeId);
+  }
+
+  // Imports the multisig hexes and syncs the wallet. Completes with the number of outputs signed.
+  public CompletableFuture<Integer> importMultisigHex(String tradeId, List<String> multisigHexes) {
+      return multisigSyncCoordinator.requestImport(tradeId, multisigHexes);
+  }
+
+  public CompletableFuture<Void> saveMultisigWallet(String tradeId) {
+      return multisigSyncCoordinator.requestSave(tradeId);
+  }
+
+  public CompletableFuture<Boolean> isMultisigImportNeeded(String tradeId) {
+      return multisigSyncCoordinator.requestIsMultisigImportNeeded(tradeId);
+  }
+
+  // Syncs the multisig wallet and completes with its multisig hex
+  public CompletableFuture<String> syncAndGetMultisigHex(String tradeId) {
+      return multisigSyncCoordinator.requestMultisigHex(tradeId);
+  }
+
+  public void setMultisigWalletSyncPeriod(String tradeId, long syncPeriodMs) {
+      multisigWalletManager.setSyncPeriod(tradeId, syncPeriodMs);
   }
 
   public XmrAddressEntry recoverAddressEntry(String offerId, String address, XmrAddressEntry.Context context) {
@@ -240,24 +284,56 @@ public class XmrWalletService {
   }
 
   public Coin getBalanceForSubaddress(int subaddressIndex) {
+    updateSubaddressBalances();
+    BigInteger balance = subaddressBalances.getOrDefault(subaddressIndex, BigInteger.ZERO);
+    return Coin.valueOf(balance.longValueExact());
+  }
 
-    // get subaddress balance
-    BigInteger balance = wallet.getBalance(0, subaddressIndex);
-
-//    // balance from xmr wallet does not include unconfirmed funds, so add them  // TODO: support lower in stack?
-//    for (MoneroTxWallet unconfirmedTx : wallet.getTxs(new MoneroTxQuery().setIsConfirmed(false))) {
-//      for (MoneroTransfer transfer : unconfirmedTx.getTransfers()) {
-//        if (transfer.getAccountIndex() == subaddressIndex) {
-//          balance = transfer.isIncoming() ? balance.add(transfer.getAmount()) : balance.subtract(transfer.getAmount());
-//        }
-//      }
-//    }
+  /**
+   * Returns a consistent snapshot of the balances of all subaddresses of account 0.
+   */
+  public Map<Integer, BigInteger> getSubaddressBalances() {
+    updateSubaddressBalances();
+    return subaddressBalances;
+  }
 
-    System.out.println("Returning balance for subaddress " + subaddressIndex + ": " + balance.longValueExact());
+  private void updateSubaddressBalances() {
+    if (subaddressBalancesLoaded && dirtySubaddressIndices.isEmpty()) return;
+    synchronized (subaddressBalancesLock) {
+      if (!subaddressBalancesLoaded) {
+        // Invalidations during the wallet call change the version and cause a reload at the next read
+        long version = subaddressBalancesVersion.get();
+        dirtySubaddressIndices.clear();
+        Map<Integer, BigInteger> balances = new HashMap<>();
+        for (MoneroSubaddress subaddress : wallet.getSubaddresses(0)) {
+          balances.put(subaddress.getIndex(), subaddress.getBalance());
+        }
+        subaddressBalances = ImmutableMap.copyOf(balances);
+        subaddressBalancesLoaded = version == subaddressBalancesVersion.get();
+      }
+      if (dirtySubaddressIndices.isEmpty()) return;
+      Map<Integer, BigInteger> balances = new HashMap<>(subaddressBalances);
+      for (Integer subaddressIndex : new ArrayList<>(dirtySubaddressIndices)) {
+        dirtySubaddressIndices.remove(subaddressIndex);
+        balances.put(subaddressIndex, wallet.getBalance(0, subaddressIndex));
+      }
+      subaddressBalances = ImmutableMap.copyOf(balances);
+    }
+  }
 
-    return Coin.valueOf(balance.longValueExact());
+  private void invalidateSubaddressBalance(MoneroOutputWallet output) {
+    if (output.getAccountIndex() != null && output.getAccountIndex() != 0) return;
+    if (output.getSubaddressIndex() == null) {
+      invalidateSubaddressBalances();
+    } else {
+      dirtySubaddressIndices.add(output.getSubaddressIndex());
+    }
   }
 
+  private void invalidateSubaddressBalances() {
+    subaddressBalancesVersion.incrementAndGet();
+    subaddressBalancesLoaded = false;
+  }
 
   public Coin getAvailableConfirmedBalance() {
     return wallet != null ? Coin.valueOf(wallet.getUnlockedBalance(0).longValueExact()) : Coin.ZERO;
@@ -291,13 +367,12 @@ public class XmrWalletService {
   }
 
   public void shutDown() {
+    multisigSyncCoordinator.shutDown();
 
     // collect wallets to shutdown
     List<MoneroWallet> openWallets = new ArrayList<MoneroWallet>();
     if (wallet != null) openWallets.add(wallet);
-    for (String multisigWalletKey : multisigWallets.keySet()) {
-      openWallets.add(multisigWallets.get(multisigWalletKey));
-    }
+    openWallets.addAll(multisigWalletManager.getOpenWallets());
 
     // create shutdown threads
     List<Thread> threads = new ArrayList<Thread>();
@@ -0,0 +1,219 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.account.witness.AccountAgeWitnessService;
+import bisq.core.filter.FilterManager;
+import bisq.core.payment.PaymentAccount;
+import bisq.core.payment.PaymentAccountUtil;
+import bisq.core.user.User;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import javafx.collections.SetChangeListener;
+
+import java.time.Clock;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches the values derived from the account age witnesses which are needed to display and filter the offer book:
+ * the maker's account age, sign age and sign state, whether the maker's trade limit covers the offer amount and our
+ * own trade limit per offer and payment account. Computing them requires several lookups in the large witness maps
+ * and a walk over the signer chain, which made large offer books slow in the UI and at the getOffers API call.
+ *
+ * Entries get removed when the offer is removed from the offer book, all entries when the filter or our payment
+ * accounts change and at the start of a new day, as the age dependent values change over time. The number of
+ * cached offers is limited so that the cache cannot grow with offers which never get removed.
+ *
+ * Used by the UI and the API threads, so access is synchronized.
+ */
+@Slf4j
+@Singleton
+public class OfferAccountAgeCache {
+    private static final int MAX_NUM_OFFERS = 5000;
+
+    private static class OfferEntry {
+        private Long accountAge;
+        private Long witnessSignAge;
+        private AccountAgeWitnessService.SignState signState;
+        // SignState is a shared enum which holds the days of the last getSignState call, so we keep our own values
+        private long daysUntilLimitLifted;
+        private String signStateDisplayString;
+        private Boolean isPeersTradeAmountValid;
+        private Optional<PaymentAccount> mostMaturePaymentAccount;
+        private final Map<String, Long> myTradeLimitByPaymentAccountId = new HashMap<>();
+    }
+
+    private final AccountAgeWitnessService accountAgeWitnessService;
+    private final User user;
+    private final Clock clock;
+
+    // Access ordered to evict the least recently used offers
+    private final Map<String, OfferEntry> entryByOfferId = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, OfferEntry> eldest) {
+            return size() > MAX_NUM_OFFERS;
+        }
+    };
+    private long day;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public OfferAccountAgeCache(AccountAgeWitnessService accountAgeWitnessService,
+                                OfferBookService offerBookService,
+                                FilterManager filterManager,
+                                User user,
+                                Clock clock) {
+        this.accountAgeWitnessService = accountAgeWitnessService;
+        this.user = user;
+        this.clock = clock;
+        day = getDay();
+
+        offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
+            @Override
+            public void onAdded(Offer offer) {
+            }
+
+            @Override
+            public void onRemoved(Offer offer) {
+                remove(offer.getId());
+            }
+        });
+        // The trade limits and sign states depend on the banned witnesses and signers
+        filterManager.filterProperty().addListener((observable, oldValue, newValue) -> clear());
+        // Our trade limits and the most mature account depend on our payment accounts
+        user.getPaymentAccountsAsObservable().addListener((SetChangeListener<PaymentAccount>) c -> clear());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Return -1 if no witness found
+    public synchronized long getAccountAge(Offer offer) {
+        OfferEntry entry = getEntry(offer);
+        if (entry.accountAge == null) {
+            entry.accountAge = accountAgeWitnessService.getAccountAge(offer);
+        }
+        return entry.accountAge;
+    }
+
+    // Return -1 if not signed
+    public synchronized long getWitnessSignAge(Offer offer) {
+        OfferEntry entry = getEntry(offer);
+        if (entry.witnessSignAge == null) {
+            entry.witnessSignAge = accountAgeWitnessService.getWitnessSignAge(offer, new Date());
+        }
+        return entry.witnessSignAge;
+    }
+
+    // Use getDaysUntilLimitLifted and getSignStateDisplayString instead of the values of the returned SignState
+    public synchronized AccountAgeWitnessService.SignState getSignState(Offer offer) {
+        return getEntryWithSignState(offer).signState;
+    }
+
+    public synchronized long getDaysUntilLimitLifted(Offer offer) {
+        return getEntryWithSignState(offer).daysUntilLimitLifted;
+    }
+
+    public synchronized String getSignStateDisplayString(Offer offer) {
+        return getEntryWithSignState(offer).signStateDisplayString;
+    }
+
+    // Whether the maker's current trade limit is not less than the offer amount
+    public synchronized boolean isPeersTradeAmountValid(Offer offer) {
+        OfferEntry entry = getEntry(offer);
+        if (entry.isPeersTradeAmountValid == null) {
+            entry.isPeersTradeAmountValid = accountAgeWitnessService.verifyPeersTradeAmount(offer,
+                    offer.getAmount(),
+                    errorMessage -> {
+                    });
+        }
+        return entry.isPeersTradeAmountValid;
+    }
+
+    public synchronized Optional<PaymentAccount> getMostMaturePaymentAccount(Offer offer) {
+        OfferEntry entry = getEntry(offer);
+        if (entry.mostMaturePaymentAccount == null) {
+            entry.mostMaturePaymentAccount = PaymentAccountUtil.getMostMaturePaymentAccountForOffer(offer,
+                    user.getPaymentAccounts(),
+                    accountAgeWitnessService);
+        }
+        return entry.mostMaturePaymentAccount;
+    }
+
+    public synchronized long getMyTradeLimit(Offer offer, PaymentAccount paymentAccount) {
+        return getEntry(offer).myTradeLimitByPaymentAccountId.computeIfAbsent(paymentAccount.getId(),
+                id -> accountAgeWitnessService.getMyTradeLimit(paymentAccount,
+                        offer.getCurrencyCode(),
+                        offer.getMirroredDirection()));
+    }
+
+    public synchronized void remove(String offerId) {
+        entryByOfferId.remove(offerId);
+    }
+
+    public synchronized void clear() {
+        entryByOfferId.clear();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private OfferEntry getEntry(Offer offer) {
+        long currentDay = getDay();
+        if (currentDay != day) {
+            log.debug("Clear offer account age cache with {} entries at new day", entryByOfferId.size());
+            entryByOfferId.clear();
+            day = currentDay;
+        }
+        return entryByOfferId.computeIfAbsent(offer.getId(), id -> new OfferEntry());
+    }
+
+    private OfferEntry getEntryWithSignState(Offer offer) {
+        OfferEntry entry = getEntry(offer);
+        if (entry.signState == null) {
+            // We read the values right away as another getSignState call might overwrite them
+            AccountAgeWitnessService.SignState signState = accountAgeWitnessService.getSignState(offer);
+            entry.daysUntilLimitLifted = signState.getDaysUntilLimitLifted();
+            entry.signStateDisplayString = signState.getDisplayString();
+            entry.signState = signState;
+        }
+        return entry;
+    }
+
+    private long getDay() {
+        return TimeUnit.MILLISECONDS.toDays(clock.millis());
+    }
+}
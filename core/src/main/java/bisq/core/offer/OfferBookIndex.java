@@ -0,0 +1,227 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.locale.CurrencyUtil;
+import bisq.core.monetary.Price;
+import bisq.core.provider.price.PriceFeedService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import javax.annotation.Nullable;
+
+/**
+ * Materialized view of the offer book, kept current by the add and remove events of the P2P data storage. Offers
+ * are indexed by id and per market (currency code and direction) in price order, so that queries for one market do
+ * not need to scan the whole data map and sort the result.
+ *
+ * Market based offers have no fixed price, but within one market their price is the market price multiplied by a
+ * factor which only depends on the margin. We keep them in a separate set ordered by that factor and merge them with
+ * the fixed price offers at query time, using the current market price.
+ *
+ * Only OfferPayloads are stored. Offer has mutable state which is used by the UI, so each query returns new Offer
+ * instances, but only for the offers in the result.
+ */
+class OfferBookIndex {
+    private static final Comparator<OfferPayload> FIXED_PRICE_COMPARATOR =
+            Comparator.comparingLong(OfferPayload::getPrice).thenComparing(OfferPayload::getId);
+
+    private static final class Market {
+        private final NavigableSet<OfferPayload> fixedPriceOffers = new TreeSet<>(FIXED_PRICE_COMPARATOR);
+        // Ordered by ascending price, which is the ascending or descending margin depending on the market
+        private final NavigableSet<OfferPayload> marketBasedOffers;
+
+        private Market(String currencyCode, OfferPayload.Direction direction) {
+            // See Offer.getPrice
+            boolean marginIncreasesPrice = CurrencyUtil.isCryptoCurrency(currencyCode) ?
+                    direction == OfferPayload.Direction.BUY :
+                    direction == OfferPayload.Direction.SELL;
+            Comparator<OfferPayload> marginComparator = Comparator.comparingDouble(OfferPayload::getMarketPriceMargin);
+            marketBasedOffers = new TreeSet<>((marginIncreasesPrice ? marginComparator : marginComparator.reversed())
+                    .thenComparing(OfferPayload::getId));
+        }
+
+        private NavigableSet<OfferPayload> getSet(OfferPayload offerPayload) {
+            return offerPayload.isUseMarketBasedPrice() ? marketBasedOffers : fixedPriceOffers;
+        }
+
+        private boolean isEmpty() {
+            return fixedPriceOffers.isEmpty() && marketBasedOffers.isEmpty();
+        }
+
+        private int size() {
+            return fixedPriceOffers.size() + marketBasedOffers.size();
+        }
+    }
+
+    private final PriceFeedService priceFeedService;
+    private final Map<String, OfferPayload> offerPayloadById = new HashMap<>();
+    private final Map<String, Market> markets = new HashMap<>();
+
+    OfferBookIndex(PriceFeedService priceFeedService) {
+        this.priceFeedService = priceFeedService;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Adds the offer or replaces an offer with the same id, e.g. an edited offer.
+     */
+    synchronized void add(OfferPayload offerPayload) {
+        OfferPayload previous = offerPayloadById.put(offerPayload.getId(), offerPayload);
+        if (previous != null) {
+            if (previous.equals(offerPayload))
+                return;
+            removeFromMarket(previous);
+        }
+        String currencyCode = offerPayload.getCurrencyCode();
+        OfferPayload.Direction direction = offerPayload.getDirection();
+        markets.computeIfAbsent(getMarketKey(direction, currencyCode), key -> new Market(currencyCode, direction))
+                .getSet(offerPayload)
+                .add(offerPayload);
+    }
+
+    /**
+     * Removes the offer if it has not been replaced by another offer with the same id in the meantime.
+     */
+    synchronized void remove(OfferPayload offerPayload) {
+        OfferPayload current = offerPayloadById.get(offerPayload.getId());
+        if (offerPayload.equals(current)) {
+            offerPayloadById.remove(offerPayload.getId());
+            removeFromMarket(current);
+        }
+    }
+
+    synchronized int size() {
+        return offerPayloadById.size();
+    }
+
+    synchronized List<Offer> getOffers() {
+        List<Offer> offers = new ArrayList<>(offerPayloadById.size());
+        offerPayloadById.values().forEach(offerPayload -> offers.add(toOffer(offerPayload)));
+        return offers;
+    }
+
+    synchronized Optional<Offer> getOffer(String id) {
+        return Optional.ofNullable(offerPayloadById.get(id)).map(this::toOffer);
+    }
+
+    /**
+     * Returns the offers of the market ordered from the best price for a taker to the worst, which is descending
+     * for buy offers and ascending for sell offers. Market based offers are placed at the end if the market price
+     * is not available.
+     */
+    synchronized List<Offer> getOffers(OfferPayload.Direction direction, String currencyCode) {
+        Market market = markets.get(getMarketKey(direction, currencyCode));
+        if (market == null)
+            return new ArrayList<>();
+
+        boolean ascending = direction == OfferPayload.Direction.SELL;
+        Iterator<OfferPayload> fixedPriceOffers = ascending ?
+                market.fixedPriceOffers.iterator() :
+                market.fixedPriceOffers.descendingIterator();
+        Iterator<OfferPayload> marketBasedOffers = ascending ?
+                market.marketBasedOffers.iterator() :
+                market.marketBasedOffers.descendingIterator();
+
+        List<Offer> offers = new ArrayList<>(market.size());
+        Offer fixedPriceOffer = next(fixedPriceOffers);
+        Offer marketBasedOffer = next(marketBasedOffers);
+        while (fixedPriceOffer != null || marketBasedOffer != null) {
+            if (marketBasedOffer == null ||
+                    (fixedPriceOffer != null && isBefore(fixedPriceOffer, marketBasedOffer, ascending))) {
+                offers.add(fixedPriceOffer);
+                fixedPriceOffer = next(fixedPriceOffers);
+            } else {
+                offers.add(marketBasedOffer);
+                marketBasedOffer = next(marketBasedOffers);
+            }
+        }
+        return offers;
+    }
+
+    /**
+     * Returns the offer with the best price for a taker, which is the highest buy offer (best bid) or the lowest
+     * sell offer (best ask).
+     */
+    synchronized Optional<Offer> getBestOffer(OfferPayload.Direction direction, String currencyCode) {
+        Market market = markets.get(getMarketKey(direction, currencyCode));
+        if (market == null)
+            return Optional.empty();
+
+        boolean ascending = direction == OfferPayload.Direction.SELL;
+        Offer fixedPriceOffer = market.fixedPriceOffers.isEmpty() ? null :
+                toOffer(ascending ? market.fixedPriceOffers.first() : market.fixedPriceOffers.last());
+        Offer marketBasedOffer = market.marketBasedOffers.isEmpty() ? null :
+                toOffer(ascending ? market.marketBasedOffers.first() : market.marketBasedOffers.last());
+        if (marketBasedOffer == null ||
+                (fixedPriceOffer != null && isBefore(fixedPriceOffer, marketBasedOffer, ascending)))
+            return Optional.ofNullable(fixedPriceOffer);
+        return Optional.of(marketBasedOffer);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void removeFromMarket(OfferPayload offerPayload) {
+        String key = getMarketKey(offerPayload.getDirection(), offerPayload.getCurrencyCode());
+        Market market = markets.get(key);
+        if (market != null) {
+            market.getSet(offerPayload).remove(offerPayload);
+            if (market.isEmpty())
+                markets.remove(key);
+        }
+    }
+
+    private Offer toOffer(OfferPayload offerPayload) {
+        Offer offer = new Offer(offerPayload);
+        offer.setPriceFeedService(priceFeedService);
+        return offer;
+    }
+
+    @Nullable
+    private Offer next(Iterator<OfferPayload> iterator) {
+        return iterator.hasNext() ? toOffer(iterator.next()) : null;
+    }
+
+    private static boolean isBefore(Offer fixedPriceOffer, Offer marketBasedOffer, boolean ascending) {
+        Price marketBasedPrice = marketBasedOffer.getPrice();
+        if (marketBasedPrice == null)
+            return true;
+
+        long fixedPrice = fixedPriceOffer.getOfferPayload().getPrice();
+        return ascending ? fixedPrice <= marketBasedPrice.getValue() : fixedPrice >= marketBasedPrice.getValue();
+    }
+
+    private static String getMarketKey(OfferPayload.Direction direction, String currencyCode) {
+        return currencyCode.toUpperCase() + "_" + direction.name();
+    }
+}
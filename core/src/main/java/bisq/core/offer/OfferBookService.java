@@ -42,6 +42,7 @@ import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -51,7 +52,8 @@ import javax.annotation.Nullable;
 
 /**
  * Handles storage and retrieval of offers.
- * Uses an invalidation flag to only request the full offer map in case there was a change (anyone has added or removed an offer).
+ * The offers are kept in an OfferBookIndex which gets updated with each added or removed offer, so queries do not
+ * need to scan the full data map.
  */
 public class OfferBookService {
     private static final Logger log = LoggerFactory.getLogger(OfferBookService.class);
@@ -67,6 +69,7 @@ public class OfferBookService {
     private final List<OfferBookChangedListener> offerBookChangedListeners = new LinkedList<>();
     private final FilterManager filterManager;
     private final JsonFileManager jsonFileManager;
+    private final OfferBookIndex offerBookIndex;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -83,10 +86,16 @@ public class OfferBookService {
         this.priceFeedService = priceFeedService;
         this.filterManager = filterManager;
         jsonFileManager = new JsonFileManager(storageDir);
+        offerBookIndex = new OfferBookIndex(priceFeedService);
 
         p2PService.addHashSetChangedListener(new HashMapChangedListener() {
             @Override
             public void onAdded(Collection<ProtectedStorageEntry> protectedStorageEntries) {
+                // The index has to be updated before the listeners get called, as they might query the offers
+                protectedStorageEntries.forEach(protectedStorageEntry -> {
+                    if (protectedStorageEntry.getProtectedStoragePayload() instanceof OfferPayload)
+                        offerBookIndex.add((OfferPayload) protectedStorageEntry.getProtectedStoragePayload());
+                });
                 protectedStorageEntries.forEach(protectedStorageEntry -> offerBookChangedListeners.forEach(listener -> {
                     if (protectedStorageEntry.getProtectedStoragePayload() instanceof OfferPayload) {
                         OfferPayload offerPayload = (OfferPayload) protectedStorageEntry.getProtectedStoragePayload();
@@ -99,6 +108,10 @@ public class OfferBookService {
 
             @Override
             public void onRemoved(Collection<ProtectedStorageEntry> protectedStorageEntries) {
+                protectedStorageEntries.forEach(protectedStorageEntry -> {
+                    if (protectedStorageEntry.getProtectedStoragePayload() instanceof OfferPayload)
+                        offerBookIndex.remove((OfferPayload) protectedStorageEntry.getProtectedStoragePayload());
+                });
                 protectedStorageEntries.forEach(protectedStorageEntry -> offerBookChangedListeners.forEach(listener -> {
                     if (protectedStorageEntry.getProtectedStoragePayload() instanceof OfferPayload) {
                         OfferPayload offerPayload = (OfferPayload) protectedStorageEntry.getProtectedStoragePayload();
@@ -109,6 +122,10 @@ public class OfferBookService {
                 }));
             }
         });
+        // In case entries have been added before we registered the listener
+        p2PService.getDataMap().values().stream()
+                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
+                .forEach(data -> offerBookIndex.add((OfferPayload) data.getProtectedStoragePayload()));
 
         if (dumpStatistics) {
             p2PService.addP2PServiceListener(new BootstrapListener() {
@@ -191,15 +208,26 @@ public class OfferBookService {
     }
 
     public List<Offer> getOffers() {
-        return p2PService.getDataMap().values().stream()
-                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
-                .map(data -> {
-                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                    Offer offer = new Offer(offerPayload);
-                    offer.setPriceFeedService(priceFeedService);
-                    return offer;
-                })
-                .collect(Collectors.toList());
+        return offerBookIndex.getOffers();
+    }
+
+    /**
+     * Returns the offers of the market ordered from the best price for a taker to the worst, which is descending
+     * for buy offers and ascending for sell offers.
+     */
+    public List<Offer> getOffers(OfferPayload.Direction direction, String currencyCode) {
+        return offerBookIndex.getOffers(direction, currencyCode);
+    }
+
+    public Optional<Offer> getOffer(String offerId) {
+        return offerBookIndex.getOffer(offerId);
+    }
+
+    /**
+     * Returns the highest buy offer (best bid) or the lowest sell offer (best ask) of the market.
+     */
+    public Optional<Offer> getBestOffer(OfferPayload.Direction direction, String currencyCode) {
+        return offerBookIndex.getBestOffer(direction, currencyCode);
     }
 
     public void removeOfferAtShutDown(OfferPayload offerPayload) {
@@ -214,6 +242,10 @@ public class OfferBookService {
         offerBookChangedListeners.add(offerBookChangedListener);
     }
 
+    public void removeOfferBookChangedListener(OfferBookChangedListener offerBookChangedListener) {
+        offerBookChangedListeners.remove(offerBookChangedListener);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
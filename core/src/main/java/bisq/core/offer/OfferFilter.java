@@ -17,7 +17,6 @@
 
 package bisq.core.offer;
 
-import bisq.core.account.witness.AccountAgeWitnessService;
 import bisq.core.filter.FilterManager;
 import bisq.core.locale.CurrencyUtil;
 import bisq.core.payment.PaymentAccount;
@@ -34,10 +33,6 @@ import org.bitcoinj.core.Coin;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import javafx.collections.SetChangeListener;
-
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 
 import lombok.Getter;
@@ -49,25 +44,17 @@ public class OfferFilter {
     private final User user;
     private final Preferences preferences;
     private final FilterManager filterManager;
-    private final AccountAgeWitnessService accountAgeWitnessService;
-    private final Map<String, Boolean> insufficientCounterpartyTradeLimitCache = new HashMap<>();
-    private final Map<String, Boolean> myInsufficientTradeLimitCache = new HashMap<>();
+    private final OfferAccountAgeCache offerAccountAgeCache;
 
     @Inject
     public OfferFilter(User user,
                        Preferences preferences,
                        FilterManager filterManager,
-                       AccountAgeWitnessService accountAgeWitnessService) {
+                       OfferAccountAgeCache offerAccountAgeCache) {
         this.user = user;
         this.preferences = preferences;
         this.filterManager = filterManager;
-        this.accountAgeWitnessService = accountAgeWitnessService;
-
-        if (user != null) {
-            // If our accounts have changed we reset our myInsufficientTradeLimitCache as it depends on account data
-            user.getPaymentAccountsAsObservable().addListener((SetChangeListener<PaymentAccount>) c ->
-                    myInsufficientTradeLimitCache.clear());
-        }
+        this.offerAccountAgeCache = offerAccountAgeCache;
     }
 
     public enum Result {
@@ -172,45 +159,26 @@ public class OfferFilter {
         return filterManager.requireUpdateToNewVersionForTrading();
     }
 
-    // This call is a bit expensive so we cache results
+    // This call is a bit expensive so the OfferAccountAgeCache caches the results
     public boolean isInsufficientCounterpartyTradeLimit(Offer offer) {
-        String offerId = offer.getId();
-        if (insufficientCounterpartyTradeLimitCache.containsKey(offerId)) {
-            return insufficientCounterpartyTradeLimitCache.get(offerId);
-        }
-
-        boolean result = CurrencyUtil.isFiatCurrency(offer.getCurrencyCode()) &&
-                !accountAgeWitnessService.verifyPeersTradeAmount(offer, offer.getAmount(),
-                        errorMessage -> {
-                        });
-        insufficientCounterpartyTradeLimitCache.put(offerId, result);
-        return result;
+        return CurrencyUtil.isFiatCurrency(offer.getCurrencyCode()) &&
+                !offerAccountAgeCache.isPeersTradeAmountValid(offer);
     }
 
-    // This call is a bit expensive so we cache results
+    // This call is a bit expensive so the OfferAccountAgeCache caches the results
     public boolean isMyInsufficientTradeLimit(Offer offer) {
-        String offerId = offer.getId();
-        if (myInsufficientTradeLimitCache.containsKey(offerId)) {
-            return myInsufficientTradeLimitCache.get(offerId);
-        }
-
-        Optional<PaymentAccount> accountOptional = PaymentAccountUtil.getMostMaturePaymentAccountForOffer(offer,
-                user.getPaymentAccounts(),
-                accountAgeWitnessService);
+        Optional<PaymentAccount> accountOptional = offerAccountAgeCache.getMostMaturePaymentAccount(offer);
         long myTradeLimit = accountOptional
-                .map(paymentAccount -> accountAgeWitnessService.getMyTradeLimit(paymentAccount,
-                        offer.getCurrencyCode(), offer.getMirroredDirection()))
+                .map(paymentAccount -> offerAccountAgeCache.getMyTradeLimit(offer, paymentAccount))
                 .orElse(0L);
         long offerMinAmount = offer.getMinAmount().value;
         log.debug("isInsufficientTradeLimit accountOptional={}, myTradeLimit={}, offerMinAmount={}, ",
                 accountOptional.isPresent() ? accountOptional.get().getAccountName() : "null",
                 Coin.valueOf(myTradeLimit).toFriendlyString(),
                 Coin.valueOf(offerMinAmount).toFriendlyString());
-        boolean result = CurrencyUtil.isFiatCurrency(offer.getCurrencyCode()) &&
+        return CurrencyUtil.isFiatCurrency(offer.getCurrencyCode()) &&
                 accountOptional.isPresent() &&
                 myTradeLimit < offerMinAmount;
-        myInsufficientTradeLimitCache.put(offerId, result);
-        return result;
     }
     
     public boolean hasValidSignature(Offer offer) {
@@ -18,7 +18,9 @@
 package bisq.core.offer;
 
 import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.storage.payload.CachedHash;
 import bisq.network.p2p.storage.payload.ExpirablePayload;
+import bisq.network.p2p.storage.payload.HashCachingPayload;
 import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 import bisq.network.p2p.storage.payload.RequiresOwnerIsOnlinePayload;
 
@@ -39,7 +41,6 @@ import java.util.concurrent.TimeUnit;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -53,7 +54,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @EqualsAndHashCode
 @Getter
 @Slf4j
-public final class OfferPayload implements ProtectedStoragePayload, ExpirablePayload, RequiresOwnerIsOnlinePayload {
+public final class OfferPayload implements ProtectedStoragePayload, ExpirablePayload, RequiresOwnerIsOnlinePayload,
+        HashCachingPayload {
     public static final long TTL = TimeUnit.MINUTES.toMillis(9);
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -123,7 +125,6 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
     private final String makerPaymentAccountId;
     // Mutable property. Has to be set before offer is save in P2P network as it changes the objects hash!
     @Nullable
-    @Setter
     private String offerFeePaymentTxId;
     @Nullable
     private final String countryCode;
@@ -168,15 +169,16 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
     private final int protocolVersion;
     
     // address and signature of signing arbitrator
-    @Setter
     private NodeAddress arbitratorSigner;
-    @Setter
     @Nullable
     private String arbitratorSignature;
-    @Setter
     @Nullable
     private List<String> reserveTxKeyImages;
 
+    // Hash used by the P2PDataStorage. The setters reset it as the mutable fields are part of the hash.
+    @JsonExclude
+    private final transient CachedHash cachedHash = new CachedHash();
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -372,6 +374,26 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
         return TTL;
     }
 
+    public void setOfferFeePaymentTxId(@Nullable String offerFeePaymentTxId) {
+        this.offerFeePaymentTxId = offerFeePaymentTxId;
+        cachedHash.reset();
+    }
+
+    public void setArbitratorSigner(NodeAddress arbitratorSigner) {
+        this.arbitratorSigner = arbitratorSigner;
+        cachedHash.reset();
+    }
+
+    public void setArbitratorSignature(@Nullable String arbitratorSignature) {
+        this.arbitratorSignature = arbitratorSignature;
+        cachedHash.reset();
+    }
+
+    public void setReserveTxKeyImages(@Nullable List<String> reserveTxKeyImages) {
+        this.reserveTxKeyImages = reserveTxKeyImages;
+        cachedHash.reset();
+    }
+
     @Override
     public PublicKey getOwnerPubKey() {
         return pubKeyRing.getSignaturePubKey();
@@ -26,8 +26,6 @@ import bisq.common.util.Tuple2;
 
 import com.google.common.annotations.VisibleForTesting;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -63,13 +61,7 @@ public class DisputeAgentSelection {
                                                                        DisputeAgentManager<T> disputeAgentManager,
                                                                        NodeAddress excludedDisputeAgent) {
         // We take last 100 entries from trade statistics
-        List<TradeStatistics3> list = new ArrayList<>(tradeStatisticsManager.getObservableTradeStatisticsSet());
-        list.sort(Comparator.comparing(TradeStatistics3::getDateAsLong));
-        Collections.reverse(list);
-        if (!list.isEmpty()) {
-            int max = Math.min(list.size(), LOOK_BACK_RANGE);
-            list = list.subList(0, max);
-        }
+        List<TradeStatistics3> list = tradeStatisticsManager.getTradeStatisticsIndex().getLatest(null, LOOK_BACK_RANGE);
 
         // We stored only first 4 chars of disputeAgents onion address
         List<String> lastAddressesUsedInTrades = list.stream()
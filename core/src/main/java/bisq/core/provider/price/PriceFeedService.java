@@ -22,7 +22,7 @@ import bisq.core.locale.TradeCurrency;
 import bisq.core.monetary.Price;
 import bisq.core.provider.PriceHttpClient;
 import bisq.core.provider.ProvidersRepository;
-import bisq.core.trade.statistics.TradeStatistics3;
+import bisq.core.trade.statistics.TradeStatisticsIndex;
 import bisq.core.user.Preferences;
 
 import bisq.network.http.HttpClient;
@@ -48,14 +48,10 @@ import javafx.beans.property.StringProperty;
 
 import java.time.Instant;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -259,6 +255,13 @@ public class PriceFeedService {
         return cache.getOrDefault(currencyCode, null);
     }
 
+    /**
+     * @return Copy of the cached prices of all currencies
+     */
+    public Map<String, MarketPrice> getMarketPrices() {
+        return new HashMap<>(cache);
+    }
+
     private void setBisqMarketPrice(String currencyCode, Price price) {
         if (!cache.containsKey(currencyCode) || !cache.get(currencyCode).isExternallyProvidedPrice()) {
             cache.put(currencyCode, new MarketPrice(currencyCode,
@@ -303,28 +306,10 @@ public class PriceFeedService {
         return new Date(epochInMillisAtLastRequest);
     }
 
-    public void applyLatestBisqMarketPrice(Set<TradeStatistics3> tradeStatisticsSet) {
-        // takes about 10 ms for 5000 items
-        Map<String, List<TradeStatistics3>> mapByCurrencyCode = new HashMap<>();
-        tradeStatisticsSet.forEach(e -> {
-            List<TradeStatistics3> list;
-            String currencyCode = e.getCurrency();
-            if (mapByCurrencyCode.containsKey(currencyCode)) {
-                list = mapByCurrencyCode.get(currencyCode);
-            } else {
-                list = new ArrayList<>();
-                mapByCurrencyCode.put(currencyCode, list);
-            }
-            list.add(e);
-        });
-
-        mapByCurrencyCode.values().stream()
-                .filter(list -> !list.isEmpty())
-                .forEach(list -> {
-                    list.sort(Comparator.comparing(TradeStatistics3::getDate));
-                    TradeStatistics3 tradeStatistics = list.get(list.size() - 1);
-                    setBisqMarketPrice(tradeStatistics.getCurrency(), tradeStatistics.getTradePrice());
-                });
+    public void applyLatestBisqMarketPrice(TradeStatisticsIndex tradeStatisticsIndex, String currencyCode) {
+        long latestPrice = tradeStatisticsIndex.getLatestPrice(currencyCode);
+        if (latestPrice > 0)
+            setBisqMarketPrice(currencyCode, Price.valueOf(currencyCode, latestPrice));
     }
 
     /**
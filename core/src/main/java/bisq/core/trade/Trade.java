@@ -62,10 +62,10 @@ import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -447,7 +447,8 @@ public abstract class Trade implements Tradable, Model {
 
 
     // Added in XMR integration
-    private transient List<TradeListener> tradeListeners; // notified on fully validated trade messages
+    // notified on fully validated trade messages, blocking trade tasks register listeners outside of the UserThread
+    private transient List<TradeListener> tradeListeners;
     @Getter
     @Setter
     private NodeAddress makerNodeAddress;
@@ -493,7 +494,7 @@ public abstract class Trade implements Tradable, Model {
         this.txFeeAsLong = txFee.value;
         this.takerFeeAsLong = takerFee.value;
         this.takeOfferDate = new Date().getTime();
-        this.tradeListeners = new ArrayList<TradeListener>();
+        this.tradeListeners = new CopyOnWriteArrayList<>();
         
         this.makerNodeAddress = makerNodeAddress;
         this.takerNodeAddress = takerNodeAddress;
@@ -866,14 +867,14 @@ public abstract class Trade implements Tradable, Model {
 
     // notified from TradeProtocol of verified trade messages
     public void onVerifiedTradeMessage(TradeMessage message, NodeAddress sender) {
-      for (TradeListener listener : new ArrayList<TradeListener>(tradeListeners)) {  // copy array to allow listener invocation to unregister listener without concurrent modification exception
+      for (TradeListener listener : tradeListeners) {
         listener.onVerifiedTradeMessage(message, sender);
       }
     }
     
     // notified from TradeProtocol of ack messages
     public void onAckMessage(AckMessage ackMessage, NodeAddress sender) {
-      for (TradeListener listener : new ArrayList<TradeListener>(tradeListeners)) {  // copy array to allow listener invocation to unregister listener without concurrent modification exception
+      for (TradeListener listener : tradeListeners) {
         listener.onAckMessage(ackMessage, sender);
       }
     }
@@ -341,16 +341,37 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
     private void initPersistedTrade(Trade trade) {
         initTradeAndProtocol(trade, getTradeProtocol(trade));
-        trade.updateDepositTxFromWallet(); // TODO (woodser): this re-opens all multisig wallets. only open active wallets
+        // We do not open the multisig wallets of trades which have the payout published already. They get opened
+        // lazily if needed.
+        if (trade.getState().getPhase().ordinal() < Trade.Phase.PAYOUT_PUBLISHED.ordinal())
+            trade.updateDepositTxFromWallet();
         requestPersistence();
     }
 
     private void initTradeAndProtocol(Trade trade, TradeProtocol tradeProtocol) {
         tradeProtocol.initialize(processModelServiceProvider, this, trade.getOffer());
         trade.initialize(processModelServiceProvider);
+        xmrWalletService.setMultisigWalletSyncPeriod(trade.getId(), getMultisigWalletSyncPeriod(trade.getState().getPhase()));
+        trade.statePhaseProperty().addListener((observable, oldValue, newValue) ->
+                xmrWalletService.setMultisigWalletSyncPeriod(trade.getId(), getMultisigWalletSyncPeriod(newValue)));
         requestPersistence(); // TODO requesting persistence twice with initPersistedTrade()
     }
 
+    // We sync the multisig wallet often while we wait for the deposit and payout txs and rarely while we wait for
+    // the traders, so that many concurrent trades do not stall the wallet RPC instances.
+    private static long getMultisigWalletSyncPeriod(Trade.Phase phase) {
+        switch (phase) {
+            case DEPOSIT_CONFIRMED:
+            case FIAT_SENT:
+                return TimeUnit.SECONDS.toMillis(30);
+            case PAYOUT_PUBLISHED:
+            case WITHDRAWN:
+                return TimeUnit.SECONDS.toMillis(60);
+            default:
+                return TimeUnit.SECONDS.toMillis(5);
+        }
+    }
+
     public void requestPersistence() {
         persistenceManager.requestPersistence();
     }
@@ -378,12 +399,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
           }
 
           // get offer associated with trade
-          Offer offer = null;
-          for (Offer anOffer : offerBookService.getOffers()) {
-              if (anOffer.getId().equals(request.getTradeId())) {
-                  offer = anOffer;
-              }
-          }
+          Offer offer = offerBookService.getOffer(request.getTradeId()).orElse(null);
           if (offer == null) {
               log.warn("Ignoring InitTradeRequest from {} with tradeId {} because no offer is on the books", sender, request.getTradeId());
               return;
@@ -19,14 +19,29 @@ package bisq.core.trade.protocol;
 
 import bisq.core.trade.Trade;
 
+import bisq.common.UserThread;
 import bisq.common.handlers.ErrorMessageHandler;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.taskrunner.TaskRunner;
+import bisq.common.util.Utilities;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 
 public class TradeTaskRunner extends TaskRunner<Trade> {
+    // Multisig wallet RPC calls can take seconds, so blocking trade tasks do not run on the UserThread. The wallets
+    // of different trades are independent, a few threads are enough that slow trades do not delay the others.
+    private static final int NUM_BLOCKING_TASK_THREADS = 4;
+    private static final ExecutorService BLOCKING_TASK_EXECUTOR = Utilities.getListeningExecutorService(
+            "TradeTaskRunner-%d",
+            NUM_BLOCKING_TASK_THREADS,
+            NUM_BLOCKING_TASK_THREADS,
+            60,
+            new LinkedBlockingQueue<>());
 
     public TradeTaskRunner(Trade sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         //noinspection unchecked
         super(sharedModel, (Class<Trade>) Trade.class, resultHandler, errorMessageHandler);
+        setBlockingTaskExecutor(BLOCKING_TASK_EXECUTOR, UserThread::execute);
     }
 }
@@ -47,6 +47,11 @@ public class ProcessDepositRequest extends TradeTask {
         super(taskHandler, trade);
     }
 
+    @Override
+    protected boolean isBlocking() {
+        return true;
+    }
+
     @Override
     protected void run() {
         try {
@@ -71,7 +76,7 @@ public class ProcessDepositRequest extends TradeTask {
           if (!Sig.verify(peerPubKeyRing.getSignaturePubKey(), contractAsJson, signature)) throw new RuntimeException("Peer's contract signature is invalid");
           
           // set peer's signature
-          peer.setContractSignature(signature);
+          runOnModelThread(() -> peer.setContractSignature(signature));
           
           // collect expected values of deposit tx
           Offer offer = trade.getOffer();
@@ -103,34 +108,35 @@ public class ProcessDepositRequest extends TradeTask {
                   null,
                   false);
           
-          // sychronize to send only one response
-          synchronized(processModel) {
-              
-              // set deposit info
+          // set deposit info on the model thread, so only the last of the maker and taker requests sees both
+          boolean depositTxsAvailable = callOnModelThread(() -> {
               trader.setDepositTxHex(request.getDepositTxHex());
               trader.setDepositTxKey(request.getDepositTxKey());
+              return processModel.getMaker().getDepositTxHex() != null && processModel.getTaker().getDepositTxHex() != null;
+          });
+          
+          // relay deposit txs when both available
+          // TODO (woodser): add small delay so tx has head start against double spend attempts?
+          if (depositTxsAvailable) {
+              
+              // relay txs
+              daemon.submitTxHex(processModel.getMaker().getDepositTxHex());
+              daemon.submitTxHex(processModel.getTaker().getDepositTxHex());
+              
+              // create deposit response
+              DepositResponse response = new DepositResponse(
+                      trade.getOffer().getId(),
+                      processModel.getMyNodeAddress(),
+                      processModel.getPubKeyRing(),
+                      UUID.randomUUID().toString(),
+                      Version.getP2PMessageVersion(),
+                      new Date().getTime());
               
-              // relay deposit txs when both available
-              // TODO (woodser): add small delay so tx has head start against double spend attempts?
-              if (processModel.getMaker().getDepositTxHex() != null && processModel.getTaker().getDepositTxHex() != null) {
-                  
-                  // relay txs
-                  daemon.submitTxHex(processModel.getMaker().getDepositTxHex());
-                  daemon.submitTxHex(processModel.getTaker().getDepositTxHex());
-                  
-                  // create deposit response
-                  DepositResponse response = new DepositResponse(
-                          trade.getOffer().getId(),
-                          processModel.getMyNodeAddress(),
-                          processModel.getPubKeyRing(),
-                          UUID.randomUUID().toString(),
-                          Version.getP2PMessageVersion(),
-                          new Date().getTime());
-                  
-                  // send deposit response to maker and taker
+              // send deposit response to maker and taker
+              runOnModelThreadAndWait(() -> {
                   sendDepositResponse(trade.getMakerNodeAddress(), trade.getMakerPubKeyRing(), response);
                   sendDepositResponse(trade.getTakerNodeAddress(), trade.getTakerPubKeyRing(), response);
-              }
+              });
           }
           
           // TODO (woodser): request persistence?
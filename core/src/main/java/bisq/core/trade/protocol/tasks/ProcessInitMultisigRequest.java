@@ -34,6 +34,7 @@ import bisq.common.taskrunner.TaskRunner;
 
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 import lombok.extern.slf4j.Slf4j;
@@ -60,6 +61,11 @@ public class ProcessInitMultisigRequest extends TradeTask {
         super(taskHandler, trade);
     }
 
+    @Override
+    protected boolean isBlocking() {
+        return true;
+    }
+
     @Override
     protected void run() {
         try {
@@ -81,110 +87,128 @@ public class ProcessInitMultisigRequest extends TradeTask {
           // synchronize access to wallet
           synchronized (lock) {
 
-            // get peer multisig participant
-            TradingPeer multisigParticipant;
-            if (request.getSenderNodeAddress().equals(trade.getMakerNodeAddress())) multisigParticipant = processModel.getMaker();
-            else if (request.getSenderNodeAddress().equals(trade.getTakerNodeAddress())) multisigParticipant = processModel.getTaker();
-            else if (request.getSenderNodeAddress().equals(trade.getArbitratorNodeAddress())) multisigParticipant = processModel.getArbitrator();
-            else throw new RuntimeException("Invalid sender to process init trade message: " + trade.getClass().getName());
-
             // reconcile peer's established multisig hex with message
-            if (multisigParticipant.getPreparedMultisigHex() == null) multisigParticipant.setPreparedMultisigHex(request.getPreparedMultisigHex());
-            else if (!multisigParticipant.getPreparedMultisigHex().equals(request.getPreparedMultisigHex())) throw new RuntimeException("Message's prepared multisig differs from previous messages, previous: " + multisigParticipant.getPreparedMultisigHex() + ", message: " + request.getPreparedMultisigHex());
-            if (multisigParticipant.getMadeMultisigHex() == null) multisigParticipant.setMadeMultisigHex(request.getMadeMultisigHex());
-            else if (!multisigParticipant.getMadeMultisigHex().equals(request.getMadeMultisigHex())) throw new RuntimeException("Message's made multisig differs from previous messages");
-            
+            boolean isMultisigPrepared = callOnModelThread(() -> {
+
+              // get peer multisig participant
+              TradingPeer multisigParticipant;
+              if (request.getSenderNodeAddress().equals(trade.getMakerNodeAddress())) multisigParticipant = processModel.getMaker();
+              else if (request.getSenderNodeAddress().equals(trade.getTakerNodeAddress())) multisigParticipant = processModel.getTaker();
+              else if (request.getSenderNodeAddress().equals(trade.getArbitratorNodeAddress())) multisigParticipant = processModel.getArbitrator();
+              else throw new RuntimeException("Invalid sender to process init trade message: " + trade.getClass().getName());
+
+              if (multisigParticipant.getPreparedMultisigHex() == null) multisigParticipant.setPreparedMultisigHex(request.getPreparedMultisigHex());
+              else if (!multisigParticipant.getPreparedMultisigHex().equals(request.getPreparedMultisigHex())) throw new RuntimeException("Message's prepared multisig differs from previous messages, previous: " + multisigParticipant.getPreparedMultisigHex() + ", message: " + request.getPreparedMultisigHex());
+              if (multisigParticipant.getMadeMultisigHex() == null) multisigParticipant.setMadeMultisigHex(request.getMadeMultisigHex());
+              else if (!multisigParticipant.getMadeMultisigHex().equals(request.getMadeMultisigHex())) throw new RuntimeException("Message's made multisig differs from previous messages");
+              return processModel.getPreparedMultisigHex() != null;
+            });
+
             // prepare multisig if applicable
             boolean updateParticipants = false;
-            if (processModel.getPreparedMultisigHex() == null) {
+            if (!isMultisigPrepared) {
               System.out.println("Preparing multisig wallet!");
               multisigWallet = processModel.getProvider().getXmrWalletService().createMultisigWallet(trade.getId());
-              processModel.setPreparedMultisigHex(multisigWallet.prepareMultisig());
+              String preparedMultisigHex = multisigWallet.prepareMultisig();
+              runOnModelThread(() -> processModel.setPreparedMultisigHex(preparedMultisigHex));
               updateParticipants = true;
             } else {
               multisigWallet = processModel.getProvider().getXmrWalletService().getMultisigWallet(trade.getId());
             }
 
             // make multisig if applicable
-            TradingPeer[] peers = getMultisigPeers();
-            if (processModel.getMadeMultisigHex() == null && peers[0].getPreparedMultisigHex() != null && peers[1].getPreparedMultisigHex() != null) {
+            List<String> preparedMultisigHexes = callOnModelThread(() -> {
+              TradingPeer[] peers = getMultisigPeers();
+              if (processModel.getMadeMultisigHex() == null && peers[0].getPreparedMultisigHex() != null && peers[1].getPreparedMultisigHex() != null) {
+                return Arrays.asList(peers[0].getPreparedMultisigHex(), peers[1].getPreparedMultisigHex());
+              }
+              return null;
+            });
+            if (preparedMultisigHexes != null) {
               System.out.println("Making multisig wallet!");
-              MoneroMultisigInitResult result = multisigWallet.makeMultisig(Arrays.asList(peers[0].getPreparedMultisigHex(), peers[1].getPreparedMultisigHex()), 2, "abctesting123"); // TODO (woodser): move this to config
-              processModel.setMadeMultisigHex(result.getMultisigHex());
+              MoneroMultisigInitResult result = multisigWallet.makeMultisig(preparedMultisigHexes, 2, "abctesting123"); // TODO (woodser): move this to config
+              runOnModelThread(() -> processModel.setMadeMultisigHex(result.getMultisigHex()));
               updateParticipants = true;
             }
 
             // exchange multisig keys if applicable
-            if (!processModel.isMultisigSetupComplete() && peers[0].getMadeMultisigHex() != null && peers[1].getMadeMultisigHex() != null) {
+            List<String> madeMultisigHexes = callOnModelThread(() -> {
+              TradingPeer[] peers = getMultisigPeers();
+              if (!processModel.isMultisigSetupComplete() && peers[0].getMadeMultisigHex() != null && peers[1].getMadeMultisigHex() != null) {
+                return Arrays.asList(peers[0].getMadeMultisigHex(), peers[1].getMadeMultisigHex());
+              }
+              return null;
+            });
+            if (madeMultisigHexes != null) {
               System.out.println("Exchanging multisig wallet!");
-              multisigWallet.exchangeMultisigKeys(Arrays.asList(peers[0].getMadeMultisigHex(), peers[1].getMadeMultisigHex()), "abctesting123");  // TODO (woodser): move this to config
-              processModel.setMultisigSetupComplete(true);
+              multisigWallet.exchangeMultisigKeys(madeMultisigHexes, "abctesting123");  // TODO (woodser): move this to config
+              runOnModelThread(() -> processModel.setMultisigSetupComplete(true));
             }
 
             // update multisig participants if new state to communicate
-            if (updateParticipants) {
-
-              // get destination addresses and pub key rings  // TODO: better way, use getMultisigPeers()
-              NodeAddress peer1Address;
-              PubKeyRing peer1PubKeyRing;
-              NodeAddress peer2Address;
-              PubKeyRing peer2PubKeyRing;
-              if (trade instanceof ArbitratorTrade) {
-                peer1Address = trade.getTakerNodeAddress();
-                peer1PubKeyRing = trade.getTakerPubKeyRing();
-                peer2Address = trade.getMakerNodeAddress();
-                peer2PubKeyRing = trade.getMakerPubKeyRing();
-              } else if (trade instanceof MakerTrade) {
-                peer1Address = trade.getTakerNodeAddress();
-                peer1PubKeyRing = trade.getTakerPubKeyRing();
-                peer2Address = trade.getArbitratorNodeAddress();
-                peer2PubKeyRing = trade.getArbitratorPubKeyRing();
-              } else {
-                peer1Address = trade.getMakerNodeAddress();
-                peer1PubKeyRing = trade.getMakerPubKeyRing();
-                peer2Address = trade.getArbitratorNodeAddress();
-                peer2PubKeyRing = trade.getArbitratorPubKeyRing();
-              }
-
-              if (peer1Address == null) throw new RuntimeException("Peer1 address is null");
-              if (peer1PubKeyRing == null) throw new RuntimeException("Peer1 pub key ring is null");
-              if (peer2Address == null) throw new RuntimeException("Peer2 address is null");
-              if (peer2PubKeyRing == null) throw new RuntimeException("Peer2 pub key ring null");
-
-              // complete on successful ack messages
-              TradeListener ackListener = new TradeListener() {
-                  @Override
-                  public void onAckMessage(AckMessage ackMessage, NodeAddress sender) {
-                      if (!ackMessage.getSourceMsgClassName().equals(InitMultisigRequest.class.getSimpleName())) return;
-                      if (ackMessage.isSuccess()) {
-                         if (sender.equals(peer1Address)) ack1 = true;
-                         if (sender.equals(peer2Address)) ack2 = true;
-                         if (ack1 && ack2) {
-                             trade.removeListener(this);
-                             completeAux();
-                         }
-                      } else {
-                          if (!failed) {
-                              failed = true;
-                              failed(ackMessage.getErrorMessage()); // TODO: (woodser): only fail once? build into task?
-                          }
-                      }
-                  }
-              };
-              trade.addListener(ackListener);
-
-              // send to peers
-              sendInitMultisigRequest(peer1Address, peer1PubKeyRing);
-              sendInitMultisigRequest(peer2Address, peer2PubKeyRing);
-            } else {
-              completeAux();
-            }
+            if (updateParticipants) runOnModelThreadAndWait(this::updateMultisigParticipants);
+            else completeAux();
           }
         } catch (Throwable t) {
           failed(t);
         }
     }
 
+    private void updateMultisigParticipants() {
+        // get destination addresses and pub key rings  // TODO: better way, use getMultisigPeers()
+        NodeAddress peer1Address;
+        PubKeyRing peer1PubKeyRing;
+        NodeAddress peer2Address;
+        PubKeyRing peer2PubKeyRing;
+        if (trade instanceof ArbitratorTrade) {
+          peer1Address = trade.getTakerNodeAddress();
+          peer1PubKeyRing = trade.getTakerPubKeyRing();
+          peer2Address = trade.getMakerNodeAddress();
+          peer2PubKeyRing = trade.getMakerPubKeyRing();
+        } else if (trade instanceof MakerTrade) {
+          peer1Address = trade.getTakerNodeAddress();
+          peer1PubKeyRing = trade.getTakerPubKeyRing();
+          peer2Address = trade.getArbitratorNodeAddress();
+          peer2PubKeyRing = trade.getArbitratorPubKeyRing();
+        } else {
+          peer1Address = trade.getMakerNodeAddress();
+          peer1PubKeyRing = trade.getMakerPubKeyRing();
+          peer2Address = trade.getArbitratorNodeAddress();
+          peer2PubKeyRing = trade.getArbitratorPubKeyRing();
+        }
+
+        if (peer1Address == null) throw new RuntimeException("Peer1 address is null");
+        if (peer1PubKeyRing == null) throw new RuntimeException("Peer1 pub key ring is null");
+        if (peer2Address == null) throw new RuntimeException("Peer2 address is null");
+        if (peer2PubKeyRing == null) throw new RuntimeException("Peer2 pub key ring null");
+
+        // complete on successful ack messages
+        TradeListener ackListener = new TradeListener() {
+            @Override
+            public void onAckMessage(AckMessage ackMessage, NodeAddress sender) {
+                if (!ackMessage.getSourceMsgClassName().equals(InitMultisigRequest.class.getSimpleName())) return;
+                if (ackMessage.isSuccess()) {
+                   if (sender.equals(peer1Address)) ack1 = true;
+                   if (sender.equals(peer2Address)) ack2 = true;
+                   if (ack1 && ack2) {
+                       trade.removeListener(this);
+                       completeAux();
+                   }
+                } else {
+                    if (!failed) {
+                        failed = true;
+                        failed(ackMessage.getErrorMessage()); // TODO: (woodser): only fail once? build into task?
+                    }
+                }
+            }
+        };
+        trade.addListener(ackListener);
+
+        // send to peers
+        sendInitMultisigRequest(peer1Address, peer1PubKeyRing);
+        sendInitMultisigRequest(peer2Address, peer2PubKeyRing);
+    }
+
     private TradingPeer[] getMultisigPeers() {
       TradingPeer[] peers = new TradingPeer[2];
       if (trade instanceof TakerTrade) {
@@ -229,7 +253,9 @@ public class ProcessInitMultisigRequest extends TradeTask {
     }
 
     private void completeAux() {
-      multisigWallet.save();
-      complete();
+      processModel.getProvider().getXmrWalletService().saveMultisigWallet(trade.getId()).whenComplete((result, throwable) -> {
+        if (throwable != null) failed(throwable);
+        else complete();
+      });
     }
 }
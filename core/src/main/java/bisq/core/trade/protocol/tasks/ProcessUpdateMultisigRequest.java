@@ -17,6 +17,7 @@
 
 package bisq.core.trade.protocol.tasks;
 
+import bisq.core.btc.wallet.XmrWalletService;
 import bisq.core.trade.Trade;
 import bisq.core.trade.messages.UpdateMultisigRequest;
 import bisq.core.trade.messages.UpdateMultisigResponse;
@@ -35,10 +36,6 @@ import lombok.extern.slf4j.Slf4j;
 import static bisq.core.util.Validator.checkTradeId;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-
-
-import monero.wallet.MoneroWallet;
-
 @Slf4j
 public class ProcessUpdateMultisigRequest extends TradeTask {
 
@@ -47,6 +44,11 @@ public class ProcessUpdateMultisigRequest extends TradeTask {
         super(taskHandler, trade);
     }
 
+    @Override
+    protected boolean isBlocking() {
+        return true;
+    }
+
     @Override
     protected void run() {
         try {
@@ -55,24 +57,23 @@ public class ProcessUpdateMultisigRequest extends TradeTask {
           UpdateMultisigRequest request = (UpdateMultisigRequest) processModel.getTradeMessage();
           checkNotNull(request);
           checkTradeId(processModel.getOfferId(), request);
-          MoneroWallet multisigWallet = processModel.getProvider().getXmrWalletService().getMultisigWallet(trade.getId());
+          XmrWalletService walletService = processModel.getProvider().getXmrWalletService();
 
           System.out.println("PROCESS UPDATE MULTISIG REQUEST");
           System.out.println(request);
 
           // check if multisig wallet needs updated
-          if (!multisigWallet.isMultisigImportNeeded()) {
+          if (!walletService.isMultisigImportNeeded(trade.getId()).get()) {
             log.warn("Multisig wallet does not need updated, so request is unexpected");
             failed(); // TODO (woodser): ignore instead fail
             return;
           }
 
           // get updated multisig hex
-          multisigWallet.sync();
-          String updatedMultisigHex = multisigWallet.getMultisigHex();
+          String updatedMultisigHex = walletService.syncAndGetMultisigHex(trade.getId()).get();
 
           // import the multisig hex
-          int numOutputsSigned = multisigWallet.importMultisigHex(Arrays.asList(request.getUpdatedMultisigHex()));
+          int numOutputsSigned = walletService.importMultisigHex(trade.getId(), Arrays.asList(request.getUpdatedMultisigHex())).get();
           System.out.println("Num outputs signed by imported multisig hex: " + numOutputsSigned);
 
           // respond with updated multisig hex
@@ -85,22 +86,28 @@ public class ProcessUpdateMultisigRequest extends TradeTask {
                   new Date().getTime(),
                   updatedMultisigHex);
 
-          log.info("Send {} with offerId {} and uid {} to peer {}", response.getClass().getSimpleName(), response.getTradeId(), response.getUid(), trade.getTradingPeerNodeAddress());
-          processModel.getP2PService().sendEncryptedDirectMessage(trade.getTradingPeerNodeAddress(), trade.getTradingPeerPubKeyRing(), response, new SendDirectMessageListener() {
-            @Override
-            public void onArrived() {
-                log.info("{} arrived at trading peer: offerId={}; uid={}", response.getClass().getSimpleName(), response.getTradeId(), response.getUid());
-
-                // save multisig wallet
-                multisigWallet.save();  // TODO (woodser): save on each step or after multisig wallets created?
-                complete();
-            }
-            @Override
-            public void onFault(String errorMessage) {
-                log.error("Sending {} failed: uid={}; peer={}; error={}", response.getClass().getSimpleName(), response.getUid(), trade.getArbitratorNodeAddress(), errorMessage);
-                appendToErrorMessage("Sending response failed: response=" + response + "\nerrorMessage=" + errorMessage);
-                failed();
-            }
+          // send the response on the model thread
+          runOnModelThreadAndWait(() -> {
+            log.info("Send {} with offerId {} and uid {} to peer {}", response.getClass().getSimpleName(), response.getTradeId(), response.getUid(), trade.getTradingPeerNodeAddress());
+            processModel.getP2PService().sendEncryptedDirectMessage(trade.getTradingPeerNodeAddress(), trade.getTradingPeerPubKeyRing(), response, new SendDirectMessageListener() {
+              @Override
+              public void onArrived() {
+                  log.info("{} arrived at trading peer: offerId={}; uid={}", response.getClass().getSimpleName(), response.getTradeId(), response.getUid());
+
+                  // save multisig wallet
+                  // TODO (woodser): save on each step or after multisig wallets created?
+                  walletService.saveMultisigWallet(trade.getId()).whenComplete((result, throwable) -> {
+                    if (throwable != null) failed(throwable);
+                    else complete();
+                  });
+              }
+              @Override
+              public void onFault(String errorMessage) {
+                  log.error("Sending {} failed: uid={}; peer={}; error={}", response.getClass().getSimpleName(), response.getUid(), trade.getArbitratorNodeAddress(), errorMessage);
+                  appendToErrorMessage("Sending response failed: response=" + response + "\nerrorMessage=" + errorMessage);
+                  failed();
+              }
+            });
           });
         } catch (Throwable t) {
             failed(t);
@@ -53,6 +53,11 @@ public class SendSignContractRequestAfterMultisig extends TradeTask {
         super(taskHandler, trade);
     }
 
+    @Override
+    protected boolean isBlocking() {
+        return true;
+    }
+
     @Override
     protected void run() {
         try {
@@ -84,35 +89,39 @@ public class SendSignContractRequestAfterMultisig extends TradeTask {
               wallet.freezeOutput(input.getKeyImage().getHex());
           }
           
-          // save process state
-          processModel.setDepositTxXmr(depositTx);
-          trade.getSelf().setDepositTxHash(depositTx.getHash());
+          // change the model and send the requests on the model thread
+          runOnModelThreadAndWait(() -> {
+
+            // save process state
+            processModel.setDepositTxXmr(depositTx);
+            trade.getSelf().setDepositTxHash(depositTx.getHash());
           
-          // complete on successful ack messages
-          TradeListener ackListener = new TradeListener() {
-              @Override
-              public void onAckMessage(AckMessage ackMessage, NodeAddress sender) {
-                  if (!ackMessage.getSourceMsgClassName().equals(SignContractRequest.class.getSimpleName())) return;
-                  if (ackMessage.isSuccess()) {
-                     if (sender.equals(trade.getTradingPeerNodeAddress())) ack1 = true;
-                     if (sender.equals(trade.getArbitratorNodeAddress())) ack2 = true;
-                     if (ack1 && ack2) {
-                         trade.removeListener(this);
-                         completeAux();
-                     }
-                  } else {
-                      if (!failed) {
-                          failed = true;
-                          failed(ackMessage.getErrorMessage()); // TODO: (woodser): only fail once? build into task?
-                      }
-                  }
-              }
-          };
-          trade.addListener(ackListener);
+            // complete on successful ack messages
+            TradeListener ackListener = new TradeListener() {
+                @Override
+                public void onAckMessage(AckMessage ackMessage, NodeAddress sender) {
+                    if (!ackMessage.getSourceMsgClassName().equals(SignContractRequest.class.getSimpleName())) return;
+                    if (ackMessage.isSuccess()) {
+                       if (sender.equals(trade.getTradingPeerNodeAddress())) ack1 = true;
+                       if (sender.equals(trade.getArbitratorNodeAddress())) ack2 = true;
+                       if (ack1 && ack2) {
+                           trade.removeListener(this);
+                           completeAux();
+                       }
+                    } else {
+                        if (!failed) {
+                            failed = true;
+                            failed(ackMessage.getErrorMessage()); // TODO: (woodser): only fail once? build into task?
+                        }
+                    }
+                }
+            };
+            trade.addListener(ackListener);
 
-          // send sign contract requests to peer and arbitrator
-          sendSignContractRequest(trade.getTradingPeerNodeAddress(), trade.getTradingPeerPubKeyRing(), offer, depositTx);
-          sendSignContractRequest(trade.getArbitratorNodeAddress(), trade.getArbitratorPubKeyRing(), offer, depositTx);
+            // send sign contract requests to peer and arbitrator
+            sendSignContractRequest(trade.getTradingPeerNodeAddress(), trade.getTradingPeerPubKeyRing(), offer, depositTx);
+            sendSignContractRequest(trade.getArbitratorNodeAddress(), trade.getArbitratorPubKeyRing(), offer, depositTx);
+          });
         } catch (Throwable t) {
           failed(t);
         }
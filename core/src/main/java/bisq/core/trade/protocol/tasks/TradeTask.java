@@ -37,37 +37,36 @@ public abstract class TradeTask extends Task<Trade> {
         processModel = trade.getProcessModel();
     }
 
+    // A blocking task completes or fails on another thread, but the trade has to be changed on the UserThread
     @Override
     protected void complete() {
-        processModel.getTradeManager().requestPersistence();
+        runOnModelThread(() -> {
+            processModel.getTradeManager().requestPersistence();
 
-        super.complete();
+            super.complete();
+        });
     }
 
     @Override
     protected void failed() {
-        trade.setErrorMessage(errorMessage);
-        processModel.getTradeManager().requestPersistence();
+        runOnModelThread(() -> {
+            trade.setErrorMessage(errorMessage);
+            processModel.getTradeManager().requestPersistence();
 
-        super.failed();
+            super.failed();
+        });
     }
 
     @Override
     protected void failed(String message) {
         appendToErrorMessage(message);
-        trade.setErrorMessage(errorMessage);
-        processModel.getTradeManager().requestPersistence();
-
-        super.failed();
+        failed();
     }
 
     @Override
     protected void failed(Throwable t) {
         t.printStackTrace();
         appendExceptionToErrorMessage(t);
-        trade.setErrorMessage(errorMessage);
-        processModel.getTradeManager().requestPersistence();
-
-        super.failed();
+        failed();
     }
 }
@@ -36,10 +36,6 @@ import java.util.UUID;
 
 import lombok.extern.slf4j.Slf4j;
 
-
-
-import monero.wallet.MoneroWallet;
-
 @Slf4j
 public class UpdateMultisigWithTradingPeer extends TradeTask {
 
@@ -50,6 +46,11 @@ public class UpdateMultisigWithTradingPeer extends TradeTask {
         super(taskHandler, trade);
     }
 
+    @Override
+    protected boolean isBlocking() {
+        return true;
+    }
+
     @Override
     protected void run() {
         try {
@@ -57,10 +58,9 @@ public class UpdateMultisigWithTradingPeer extends TradeTask {
 
             // fetch relevant trade info
             XmrWalletService walletService = processModel.getProvider().getXmrWalletService();
-            MoneroWallet multisigWallet = walletService.getMultisigWallet(trade.getId());
 
             // skip if multisig wallet does not need updated
-            if (!multisigWallet.isMultisigImportNeeded()) {
+            if (!walletService.isMultisigImportNeeded(trade.getId()).get()) {
               log.warn("Multisig wallet does not need updated, this should not happen");
               failed();
               return;
@@ -72,18 +72,19 @@ public class UpdateMultisigWithTradingPeer extends TradeTask {
               public void onVerifiedTradeMessage(TradeMessage message, NodeAddress sender) {
                 if (!(message instanceof UpdateMultisigResponse)) return;
                 UpdateMultisigResponse response = (UpdateMultisigResponse) message;
-                multisigWallet.importMultisigHex(Arrays.asList(response.getUpdatedMultisigHex()));
-                multisigWallet.sync();
-                multisigWallet.save();
                 trade.removeListener(updateMultisigResponseListener);
-                complete();
+                // The listener is called on the UserThread, so we do not wait for the wallet calls
+                walletService.importMultisigHex(trade.getId(), Arrays.asList(response.getUpdatedMultisigHex()))
+                        .thenCompose(numOutputsSigned -> walletService.saveMultisigWallet(trade.getId()))
+                        .whenComplete((result, throwable) -> {
+                          if (throwable != null) failed(throwable);
+                          else complete();
+                        });
               }
             };
-            trade.addListener(updateMultisigResponseListener);
 
             // get updated multisig hex
-            multisigWallet.sync();
-            String updatedMultisigHex = multisigWallet.getMultisigHex();
+            String updatedMultisigHex = walletService.syncAndGetMultisigHex(trade.getId()).get();
 
             // message trading peer with updated multisig hex
             UpdateMultisigRequest message = new UpdateMultisigRequest(
@@ -97,19 +98,24 @@ public class UpdateMultisigWithTradingPeer extends TradeTask {
 
             System.out.println("Sending message: " + message);
 
-            // TODO (woodser): trade.getTradingPeerNodeAddress() and/or trade.getTradingPeerPubKeyRing() are null on restart of application, so cannot send payment to complete trade
-            log.info("Send {} with offerId {} and uid {} to peer {}", message.getClass().getSimpleName(), message.getTradeId(), message.getUid(), trade.getTradingPeerNodeAddress());
-            processModel.getP2PService().sendEncryptedDirectMessage(trade.getTradingPeerNodeAddress(), trade.getTradingPeerPubKeyRing(), message, new SendDirectMessageListener() {
-              @Override
-              public void onArrived() {
-                  log.info("{} arrived at trading peer: offerId={}; uid={}", message.getClass().getSimpleName(), message.getTradeId(), message.getUid());
-              }
-              @Override
-              public void onFault(String errorMessage) {
-                  log.error("Sending {} failed: uid={}; peer={}; error={}", message.getClass().getSimpleName(), message.getUid(), trade.getArbitratorNodeAddress(), errorMessage);
-                  appendToErrorMessage("Sending message failed: message=" + message + "\nerrorMessage=" + errorMessage);
-                  failed();
-              }
+            // register the listener and send the message on the model thread
+            runOnModelThreadAndWait(() -> {
+              trade.addListener(updateMultisigResponseListener);
+
+              // TODO (woodser): trade.getTradingPeerNodeAddress() and/or trade.getTradingPeerPubKeyRing() are null on restart of application, so cannot send payment to complete trade
+              log.info("Send {} with offerId {} and uid {} to peer {}", message.getClass().getSimpleName(), message.getTradeId(), message.getUid(), trade.getTradingPeerNodeAddress());
+              processModel.getP2PService().sendEncryptedDirectMessage(trade.getTradingPeerNodeAddress(), trade.getTradingPeerPubKeyRing(), message, new SendDirectMessageListener() {
+                @Override
+                public void onArrived() {
+                    log.info("{} arrived at trading peer: offerId={}; uid={}", message.getClass().getSimpleName(), message.getTradeId(), message.getUid());
+                }
+                @Override
+                public void onFault(String errorMessage) {
+                    log.error("Sending {} failed: uid={}; peer={}; error={}", message.getClass().getSimpleName(), message.getUid(), trade.getArbitratorNodeAddress(), errorMessage);
+                    appendToErrorMessage("Sending message failed: message=" + message + "\nerrorMessage=" + errorMessage);
+                    failed();
+                }
+              });
             });
         } catch (Throwable t) {
             failed(t);
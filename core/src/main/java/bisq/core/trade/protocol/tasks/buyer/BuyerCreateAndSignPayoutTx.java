@@ -56,6 +56,11 @@ public class BuyerCreateAndSignPayoutTx extends TradeTask {
         super(taskHandler, trade);
     }
 
+    @Override
+    protected boolean isBlocking() {
+        return true;
+    }
+
     @Override
     protected void run() {
         try {
@@ -69,49 +74,54 @@ public class BuyerCreateAndSignPayoutTx extends TradeTask {
 
             // gather relevant trade info
             XmrWalletService walletService = processModel.getProvider().getXmrWalletService();
-            MoneroWallet multisigWallet = walletService.getMultisigWallet(trade.getId());
-            String sellerPayoutAddress = trade.getTradingPeer().getPayoutAddressString();
-            String buyerPayoutAddress = trade instanceof MakerTrade ? trade.getContract().getMakerPayoutAddressString() : trade.getContract().getTakerPayoutAddressString();
-            Preconditions.checkNotNull(sellerPayoutAddress, "sellerPayoutAddress must not be null");
-            Preconditions.checkNotNull(buyerPayoutAddress, "buyerPayoutAddress must not be null");
-            BigInteger sellerDepositAmount = multisigWallet.getTx(trade instanceof MakerTrade ? processModel.getTaker().getDepositTxHash() : processModel.getMaker().getDepositTxHash()).getIncomingAmount();
-            BigInteger buyerDepositAmount = multisigWallet.getTx(trade instanceof MakerTrade ? processModel.getMaker().getDepositTxHash() : processModel.getTaker().getDepositTxHash()).getIncomingAmount();
-            BigInteger tradeAmount = ParsingUtils.coinToAtomicUnits(trade.getTradeAmount());
-            BigInteger buyerPayoutAmount = buyerDepositAmount.add(tradeAmount);
-            BigInteger sellerPayoutAmount = sellerDepositAmount.subtract(tradeAmount);
-
-            // create transaction to get fee estimate
-            if (multisigWallet.isMultisigImportNeeded()) throw new RuntimeException("Multisig import is still needed!!!");
-            MoneroTxWallet feeEstimateTx = multisigWallet.createTx(new MoneroTxConfig()
-                    .setAccountIndex(0)
-                    .addDestination(buyerPayoutAddress, buyerPayoutAmount.multiply(BigInteger.valueOf(4)).divide(BigInteger.valueOf(5))) // reduce payment amount to compute fee of similar tx
-                    .addDestination(sellerPayoutAddress, sellerPayoutAmount.multiply(BigInteger.valueOf(4)).divide(BigInteger.valueOf(5)))
-                    .setRelay(false)
-            );
-
-            // attempt to create payout tx by increasing estimated fee until successful
-            MoneroTxWallet payoutTx = null;
-            int numAttempts = 0;
-            while (payoutTx == null && numAttempts < 50) {
-              BigInteger feeEstimate = feeEstimateTx.getFee().add(feeEstimateTx.getFee().multiply(BigInteger.valueOf(numAttempts)).divide(BigInteger.valueOf(10))); // add 1/10 of fee until tx is successful
-              try {
-                numAttempts++;
-                payoutTx = multisigWallet.createTx(new MoneroTxConfig()
+            MoneroWallet multisigWallet = walletService.pinMultisigWallet(trade.getId());
+            try {
+                String sellerPayoutAddress = trade.getTradingPeer().getPayoutAddressString();
+                String buyerPayoutAddress = trade instanceof MakerTrade ? trade.getContract().getMakerPayoutAddressString() : trade.getContract().getTakerPayoutAddressString();
+                Preconditions.checkNotNull(sellerPayoutAddress, "sellerPayoutAddress must not be null");
+                Preconditions.checkNotNull(buyerPayoutAddress, "buyerPayoutAddress must not be null");
+                BigInteger sellerDepositAmount = multisigWallet.getTx(trade instanceof MakerTrade ? processModel.getTaker().getDepositTxHash() : processModel.getMaker().getDepositTxHash()).getIncomingAmount();
+                BigInteger buyerDepositAmount = multisigWallet.getTx(trade instanceof MakerTrade ? processModel.getMaker().getDepositTxHash() : processModel.getTaker().getDepositTxHash()).getIncomingAmount();
+                BigInteger tradeAmount = ParsingUtils.coinToAtomicUnits(trade.getTradeAmount());
+                BigInteger buyerPayoutAmount = buyerDepositAmount.add(tradeAmount);
+                BigInteger sellerPayoutAmount = sellerDepositAmount.subtract(tradeAmount);
+
+                // create transaction to get fee estimate
+                if (multisigWallet.isMultisigImportNeeded()) throw new RuntimeException("Multisig import is still needed!!!");
+                MoneroTxWallet feeEstimateTx = multisigWallet.createTx(new MoneroTxConfig()
                         .setAccountIndex(0)
-                        .addDestination(new MoneroDestination(buyerPayoutAddress, buyerPayoutAmount.subtract(feeEstimate.divide(BigInteger.valueOf(2))))) // split fee subtracted from each payout amount
-                        .addDestination(new MoneroDestination(sellerPayoutAddress, sellerPayoutAmount.subtract(feeEstimate.divide(BigInteger.valueOf(2))))) // TODO (woodser): support addDestination(addr, amt) without new
-                        .setRelay(false));
-              } catch (MoneroError e) {
-                //e.printStackTrace();
-                //System.out.println("FAILED TO CREATE PAYOUT TX, ITERATING...");
-              }
+                        .addDestination(buyerPayoutAddress, buyerPayoutAmount.multiply(BigInteger.valueOf(4)).divide(BigInteger.valueOf(5))) // reduce payment amount to compute fee of similar tx
+                        .addDestination(sellerPayoutAddress, sellerPayoutAmount.multiply(BigInteger.valueOf(4)).divide(BigInteger.valueOf(5)))
+                        .setRelay(false)
+                );
+
+                // attempt to create payout tx by increasing estimated fee until successful
+                MoneroTxWallet payoutTx = null;
+                int numAttempts = 0;
+                while (payoutTx == null && numAttempts < 50) {
+                  BigInteger feeEstimate = feeEstimateTx.getFee().add(feeEstimateTx.getFee().multiply(BigInteger.valueOf(numAttempts)).divide(BigInteger.valueOf(10))); // add 1/10 of fee until tx is successful
+                  try {
+                    numAttempts++;
+                    payoutTx = multisigWallet.createTx(new MoneroTxConfig()
+                            .setAccountIndex(0)
+                            .addDestination(new MoneroDestination(buyerPayoutAddress, buyerPayoutAmount.subtract(feeEstimate.divide(BigInteger.valueOf(2))))) // split fee subtracted from each payout amount
+                            .addDestination(new MoneroDestination(sellerPayoutAddress, sellerPayoutAmount.subtract(feeEstimate.divide(BigInteger.valueOf(2))))) // TODO (woodser): support addDestination(addr, amt) without new
+                            .setRelay(false));
+                  } catch (MoneroError e) {
+                    //e.printStackTrace();
+                    //System.out.println("FAILED TO CREATE PAYOUT TX, ITERATING...");
+                  }
+                }
+
+                if (payoutTx == null) throw new RuntimeException("Failed to generate payout tx");
+                System.out.println("PAYOUT TX GENERATED ON ATTEMPT " + numAttempts);
+                System.out.println(payoutTx);
+                MoneroTxWallet buyerSignedPayoutTx = payoutTx;
+                runOnModelThread(() -> processModel.setBuyerSignedPayoutTx(buyerSignedPayoutTx));
+                complete();
+            } finally {
+                walletService.unpinMultisigWallet(trade.getId());
             }
-
-            if (payoutTx == null) throw new RuntimeException("Failed to generate payout tx");
-            System.out.println("PAYOUT TX GENERATED ON ATTEMPT " + numAttempts);
-            System.out.println(payoutTx);
-            processModel.setBuyerSignedPayoutTx(payoutTx);
-            complete();
         } catch (Throwable t) {
             failed(t);
         }
@@ -0,0 +1,68 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import java.util.Date;
+
+/**
+ * Time interval of a candle in the trade statistics charts. The ordinal is persisted in the preferences, so new
+ * units must only be appended.
+ */
+public enum TickUnit {
+    YEAR,
+    MONTH,
+    WEEK,
+    DAY,
+    HOUR,
+    MINUTE_10;
+
+    private static final ZoneId ZONE_ID = ZoneId.systemDefault();
+
+    public Date roundToTick(Date time) {
+        return roundToTick(time.toInstant().atZone(ZONE_ID).toLocalDateTime());
+    }
+
+    /**
+     * @return Start of the tick containing the given local date time, using the system time zone
+     */
+    public Date roundToTick(LocalDateTime localDate) {
+        switch (this) {
+            case YEAR:
+                return Date.from(localDate.withMonth(1).withDayOfYear(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
+            case MONTH:
+                return Date.from(localDate.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
+            case WEEK:
+                int dayOfWeek = localDate.getDayOfWeek().getValue();
+                LocalDateTime firstDayOfWeek = ChronoUnit.DAYS.addTo(localDate, 1 - dayOfWeek);
+                return Date.from(firstDayOfWeek.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
+            case DAY:
+                return Date.from(localDate.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
+            case HOUR:
+                return Date.from(localDate.withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
+            case MINUTE_10:
+                return Date.from(localDate.withMinute(localDate.getMinute() - localDate.getMinute() % 10).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
+            default:
+                return Date.from(localDate.atZone(ZONE_ID).toInstant());
+        }
+    }
+}
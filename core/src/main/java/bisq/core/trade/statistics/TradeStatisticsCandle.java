@@ -0,0 +1,63 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.core.monetary.Altcoin;
+
+import bisq.common.util.MathUtils;
+
+import org.bitcoinj.core.Coin;
+
+import lombok.Value;
+
+/**
+ * Immutable OHLC and volume aggregate of the trade statistics of one tick.
+ * Prices and volumes are in the smallest unit of the currency as in TradeStatistics3, the amount is in atomic units.
+ */
+@Value
+public class TradeStatisticsCandle {
+    TickUnit tickUnit;
+    long tickStartTime;
+    long open;
+    long close;
+    long high;
+    long low;
+    long median;
+    long accumulatedAmount;
+    long accumulatedVolume;
+    long numTrades;
+
+    /**
+     * The price of cryptocurrencies is inverted (XMR per altcoin), so we need to know the currency type to get the
+     * volume weighted average price.
+     */
+    public long getAveragePrice(boolean isCryptoCurrency) {
+        if (isCryptoCurrency) {
+            double accumulatedAmountAsDouble = MathUtils.scaleUpByPowerOf10((double) accumulatedAmount, Altcoin.SMALLEST_UNIT_EXPONENT);
+            return MathUtils.roundDoubleToLong(accumulatedAmountAsDouble / (double) accumulatedVolume);
+        } else {
+            double accumulatedVolumeAsDouble = MathUtils.scaleUpByPowerOf10((double) accumulatedVolume, Coin.SMALLEST_UNIT_EXPONENT);
+            return MathUtils.roundDoubleToLong(accumulatedVolumeAsDouble / (double) accumulatedAmount);
+        }
+    }
+
+    public boolean isBullish(boolean isCryptoCurrency) {
+        return isCryptoCurrency ? close < open : close > open;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.common.util.MathUtils;
+
+import javax.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the candles of all currencies and tick units up to date as new trade statistics arrive, so that charts and
+ * the API can look up a candle by its tick start time instead of aggregating all trade statistics again.
+ *
+ * Adding a trade statistic updates one bucket per tick unit in O(1), only the median needs a sort of the prices of
+ * the bucket, which is done lazily when the candle is requested. The candles of all currencies are merged from the
+ * buckets of the currencies when first requested and kept until a trade statistic of that tick gets added.
+ */
+@Singleton
+@Slf4j
+public class TradeStatisticsCandleService {
+
+    // Mutable aggregate of the trades of one currency within one tick
+    private static class Bucket {
+        private long openDate = Long.MAX_VALUE;
+        private long open;
+        private long closeDate = Long.MIN_VALUE;
+        private long close;
+        private long high;
+        private long low;
+        private long accumulatedAmount;
+        private long accumulatedVolume;
+        private long numTrades;
+        private long[] prices = new long[4];
+        private boolean pricesSorted = true;
+        @Nullable
+        private TradeStatisticsCandle candle;
+
+        private void add(long date, long price, long amount, long volume) {
+            if (date < openDate) {
+                openDate = date;
+                open = price;
+            }
+            if (date >= closeDate) {
+                closeDate = date;
+                close = price;
+            }
+            high = numTrades == 0 ? price : Math.max(high, price);
+            low = numTrades == 0 ? price : Math.min(low, price);
+            accumulatedAmount += amount;
+            accumulatedVolume += volume;
+
+            if (numTrades == prices.length)
+                prices = Arrays.copyOf(prices, prices.length * 2);
+            prices[(int) numTrades] = price;
+            pricesSorted = false;
+            numTrades++;
+            candle = null;
+        }
+
+        private void merge(Bucket other) {
+            if (other.numTrades == 0)
+                return;
+
+            if (other.openDate < openDate) {
+                openDate = other.openDate;
+                open = other.open;
+            }
+            if (other.closeDate >= closeDate) {
+                closeDate = other.closeDate;
+                close = other.close;
+            }
+            high = numTrades == 0 ? other.high : Math.max(high, other.high);
+            low = numTrades == 0 ? other.low : Math.min(low, other.low);
+            accumulatedAmount += other.accumulatedAmount;
+            accumulatedVolume += other.accumulatedVolume;
+
+            int size = (int) (numTrades + other.numTrades);
+            if (size > prices.length)
+                prices = Arrays.copyOf(prices, size);
+            System.arraycopy(other.prices, 0, prices, (int) numTrades, (int) other.numTrades);
+            pricesSorted = false;
+            numTrades = size;
+            candle = null;
+        }
+
+        private TradeStatisticsCandle toCandle(TickUnit tickUnit, long tickStartTime) {
+            if (candle == null) {
+                candle = new TradeStatisticsCandle(tickUnit, tickStartTime, open, close, high, low, getMedian(),
+                        accumulatedAmount, accumulatedVolume, numTrades);
+            }
+            return candle;
+        }
+
+        private long getMedian() {
+            if (numTrades == 0)
+                return 0;
+
+            int size = (int) numTrades;
+            if (!pricesSorted) {
+                Arrays.sort(prices, 0, size);
+                pricesSorted = true;
+            }
+            int middle = size / 2;
+            return size % 2 == 1 ?
+                    prices[middle] :
+                    MathUtils.roundDoubleToLong((prices[middle - 1] + prices[middle]) / 2.0);
+        }
+    }
+
+    // Buckets of the trades within one tick
+    private static class Tick {
+        private final Map<String, Bucket> bucketsPerCurrency = new HashMap<>();
+        // Merged buckets of all currencies, created when first requested and reset when a trade gets added
+        @Nullable
+        private Bucket bucketOfAllCurrencies;
+
+        private void add(String currencyCode, long date, long price, long amount, long volume) {
+            bucketsPerCurrency.computeIfAbsent(currencyCode, key -> new Bucket())
+                    .add(date, price, amount, volume);
+            bucketOfAllCurrencies = null;
+        }
+
+        private Bucket getBucketOfAllCurrencies() {
+            if (bucketsPerCurrency.size() == 1)
+                return bucketsPerCurrency.values().iterator().next();
+
+            if (bucketOfAllCurrencies == null) {
+                bucketOfAllCurrencies = new Bucket();
+                bucketsPerCurrency.values().forEach(bucketOfAllCurrencies::merge);
+            }
+            return bucketOfAllCurrencies;
+        }
+    }
+
+    // Ticks per tick start time, per tick unit
+    private final Map<TickUnit, NavigableMap<Long, Tick>> ticksPerTickUnit = new EnumMap<>(TickUnit.class);
+
+    public TradeStatisticsCandleService() {
+        for (TickUnit tickUnit : TickUnit.values()) {
+            ticksPerTickUnit.put(tickUnit, new TreeMap<>());
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * The caller is responsible to not add the same trade statistic twice.
+     */
+    public synchronized void addAll(Collection<TradeStatistics3> tradeStatisticsList) {
+        for (TradeStatistics3 tradeStatistics : tradeStatisticsList) {
+            long date = tradeStatistics.getDateAsLong();
+            long price = tradeStatistics.getTradePrice().getValue();
+            long amount = tradeStatistics.getAmount();
+            long volume = tradeStatistics.getTradeVolume().getValue();
+            ticksPerTickUnit.forEach((tickUnit, ticks) -> {
+                long tickStartTime = tickUnit.roundToTick(tradeStatistics.getLocalDateTime()).getTime();
+                ticks.computeIfAbsent(tickStartTime, key -> new Tick())
+                        .add(tradeStatistics.getCurrency(), date, price, amount, volume);
+            });
+        }
+    }
+
+    @Nullable
+    public synchronized TradeStatisticsCandle getCandle(String currencyCode, TickUnit tickUnit, long tickStartTime) {
+        Tick tick = ticksPerTickUnit.get(tickUnit).get(tickStartTime);
+        if (tick == null)
+            return null;
+
+        Bucket bucket = tick.bucketsPerCurrency.get(currencyCode);
+        return bucket != null ? bucket.toCandle(tickUnit, tickStartTime) : null;
+    }
+
+    /**
+     * @return The candle combining the trades of all currencies. Only the amount and number of trades are
+     * meaningful across currencies.
+     */
+    @Nullable
+    public synchronized TradeStatisticsCandle getCandleOfAllCurrencies(TickUnit tickUnit, long tickStartTime) {
+        Tick tick = ticksPerTickUnit.get(tickUnit).get(tickStartTime);
+        return tick != null ? tick.getBucketOfAllCurrencies().toCandle(tickUnit, tickStartTime) : null;
+    }
+
+    /**
+     * @return The candles of the currency with a tick start time within fromTime (inclusive) and toTime (exclusive),
+     * sorted by the tick start time. Ticks without trades are omitted.
+     */
+    public synchronized List<TradeStatisticsCandle> getCandles(String currencyCode,
+                                                               TickUnit tickUnit,
+                                                               long fromTime,
+                                                               long toTime) {
+        List<TradeStatisticsCandle> candles = new ArrayList<>();
+        if (fromTime >= toTime)
+            return candles;
+
+        ticksPerTickUnit.get(tickUnit).subMap(fromTime, true, toTime, false).forEach((tickStartTime, tick) -> {
+            Bucket bucket = tick.bucketsPerCurrency.get(currencyCode);
+            if (bucket != null)
+                candles.add(bucket.toCandle(tickUnit, tickStartTime));
+        });
+        return candles;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.Nullable;
+
+/**
+ * Columnar index of the trade statistics sorted by date. Besides the series of all trade statistics we keep one series
+ * per currency, so that queries for one currency do not need to filter the others.
+ *
+ * The columns are primitive arrays, so range scans, latest price lookups and the VWAP computation do not allocate
+ * objects. New trade statistics are usually the most recent ones, so adding them is an append in most cases.
+ */
+public class TradeStatisticsIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    public interface TradeConsumer {
+        void accept(long date, long price, long amount);
+    }
+
+    private static class Series {
+        private long[] dates = new long[INITIAL_CAPACITY];
+        private long[] prices = new long[INITIAL_CAPACITY];
+        private long[] amounts = new long[INITIAL_CAPACITY];
+        private TradeStatistics3[] items = new TradeStatistics3[INITIAL_CAPACITY];
+        private int size;
+
+        private void add(TradeStatistics3 tradeStatistics) {
+            if (size == dates.length) {
+                int capacity = size * 2;
+                dates = Arrays.copyOf(dates, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+                items = Arrays.copyOf(items, capacity);
+            }
+
+            long date = tradeStatistics.getDateAsLong();
+            // Items with the same date keep the order in which they got added
+            int index = size == 0 || date >= dates[size - 1] ? size : upperBound(date);
+            if (index < size) {
+                int length = size - index;
+                System.arraycopy(dates, index, dates, index + 1, length);
+                System.arraycopy(prices, index, prices, index + 1, length);
+                System.arraycopy(amounts, index, amounts, index + 1, length);
+                System.arraycopy(items, index, items, index + 1, length);
+            }
+            dates[index] = date;
+            prices[index] = tradeStatistics.getPrice();
+            amounts[index] = tradeStatistics.getAmount();
+            items[index] = tradeStatistics;
+            size++;
+        }
+
+        // Index of the first item with a date >= date
+        private int lowerBound(long date) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (dates[middle] < date)
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+            return low;
+        }
+
+        // Index of the first item with a date > date
+        private int upperBound(long date) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (dates[middle] <= date)
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+            return low;
+        }
+    }
+
+    private final Series allSeries = new Series();
+    private final Map<String, Series> seriesByCurrency = new HashMap<>();
+
+    public TradeStatisticsIndex() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * The caller is responsible to not add the same trade statistic twice.
+     */
+    public synchronized void addAll(Collection<TradeStatistics3> tradeStatisticsList) {
+        List<TradeStatistics3> sorted = new ArrayList<>(tradeStatisticsList);
+        sorted.sort(Comparator.comparingLong(TradeStatistics3::getDateAsLong));
+        for (TradeStatistics3 tradeStatistics : sorted) {
+            allSeries.add(tradeStatistics);
+            seriesByCurrency.computeIfAbsent(tradeStatistics.getCurrency(), key -> new Series()).add(tradeStatistics);
+        }
+    }
+
+    public synchronized int size() {
+        return allSeries.size;
+    }
+
+    public synchronized int size(String currencyCode) {
+        Series series = seriesByCurrency.get(currencyCode);
+        return series != null ? series.size : 0;
+    }
+
+    public synchronized Set<String> getCurrencyCodes() {
+        return new TreeSet<>(seriesByCurrency.keySet());
+    }
+
+    /**
+     * @return Price of the most recent trade of the currency or 0 if there are no trades
+     */
+    public synchronized long getLatestPrice(String currencyCode) {
+        Series series = seriesByCurrency.get(currencyCode);
+        return series != null && series.size > 0 ? series.prices[series.size - 1] : 0;
+    }
+
+    /**
+     * @return Date of the most recent trade of the currency or 0 if there are no trades
+     */
+    public synchronized long getLatestDate(String currencyCode) {
+        Series series = seriesByCurrency.get(currencyCode);
+        return series != null && series.size > 0 ? series.dates[series.size - 1] : 0;
+    }
+
+    /**
+     * Passes the trades of the currency, or of all currencies if currencyCode is null, with a date within fromDate
+     * (inclusive) and toDate (exclusive) in ascending order of the date to the consumer. The consumer must not call
+     * back into the index.
+     */
+    public synchronized void forEachInRange(@Nullable String currencyCode,
+                                            long fromDate,
+                                            long toDate,
+                                            TradeConsumer consumer) {
+        Series series = getSeries(currencyCode);
+        if (series == null)
+            return;
+
+        int to = series.lowerBound(toDate);
+        for (int i = series.lowerBound(fromDate); i < to; i++) {
+            consumer.accept(series.dates[i], series.prices[i], series.amounts[i]);
+        }
+    }
+
+    /**
+     * @return Amount weighted average price of the trades of the currency with a date within fromDate (inclusive) and
+     * toDate (exclusive), or 0 if there are no trades in the range
+     */
+    public synchronized long getVwap(String currencyCode, long fromDate, long toDate) {
+        Series series = seriesByCurrency.get(currencyCode);
+        if (series == null)
+            return 0;
+
+        // We use doubles as the product of price and amount can overflow a long
+        double accumulatedPriceTimesAmount = 0;
+        long accumulatedAmount = 0;
+        int to = series.lowerBound(toDate);
+        for (int i = series.lowerBound(fromDate); i < to; i++) {
+            accumulatedPriceTimesAmount += (double) series.prices[i] * series.amounts[i];
+            accumulatedAmount += series.amounts[i];
+        }
+        return accumulatedAmount > 0 ? Math.round(accumulatedPriceTimesAmount / accumulatedAmount) : 0;
+    }
+
+    /**
+     * @return Up to numItems of the most recent trade statistics of the currency, or of all currencies if
+     * currencyCode is null, the most recent first
+     */
+    public synchronized List<TradeStatistics3> getLatest(@Nullable String currencyCode, int numItems) {
+        Series series = getSeries(currencyCode);
+        if (series == null)
+            return new ArrayList<>();
+
+        int from = Math.max(0, series.size - numItems);
+        List<TradeStatistics3> result = new ArrayList<>(series.size - from);
+        for (int i = series.size - 1; i >= from; i--) {
+            result.add(series.items[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @return The trade statistics of the currency, or of all currencies if currencyCode is null, with a date within
+     * fromDate (inclusive) and toDate (exclusive) in ascending order of the date
+     */
+    public synchronized List<TradeStatistics3> getTradeStatistics(@Nullable String currencyCode,
+                                                                  long fromDate,
+                                                                  long toDate) {
+        Series series = getSeries(currencyCode);
+        if (series == null)
+            return new ArrayList<>();
+
+        int from = series.lowerBound(fromDate);
+        int to = series.lowerBound(toDate);
+        return new ArrayList<>(Arrays.asList(series.items).subList(from, Math.max(from, to)));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    private Series getSeries(@Nullable String currencyCode) {
+        return currencyCode == null ? allSeries : seriesByCurrency.get(currencyCode);
+    }
+}
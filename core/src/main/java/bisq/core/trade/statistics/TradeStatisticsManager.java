@@ -61,9 +61,11 @@ public class TradeStatisticsManager {
     private final PriceFeedService priceFeedService;
     private final TradeStatistics3StorageService tradeStatistics3StorageService;
     private final TradeStatisticsConverter tradeStatisticsConverter;
+    private final TradeStatisticsCandleService tradeStatisticsCandleService;
     private final File storageDir;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics3> observableTradeStatisticsSet = FXCollections.observableSet();
+    private final TradeStatisticsIndex tradeStatisticsIndex = new TradeStatisticsIndex();
     private JsonFileManager jsonFileManager;
 
     @Inject
@@ -72,12 +74,14 @@ public class TradeStatisticsManager {
                                   TradeStatistics3StorageService tradeStatistics3StorageService,
                                   AppendOnlyDataStoreService appendOnlyDataStoreService,
                                   TradeStatisticsConverter tradeStatisticsConverter,
+                                  TradeStatisticsCandleService tradeStatisticsCandleService,
                                   @Named(Config.STORAGE_DIR) File storageDir,
                                   @Named(Config.DUMP_STATISTICS) boolean dumpStatistics) {
         this.p2PService = p2PService;
         this.priceFeedService = priceFeedService;
         this.tradeStatistics3StorageService = tradeStatistics3StorageService;
         this.tradeStatisticsConverter = tradeStatisticsConverter;
+        this.tradeStatisticsCandleService = tradeStatisticsCandleService;
         this.storageDir = storageDir;
         this.dumpStatistics = dumpStatistics;
 
@@ -96,11 +100,14 @@ public class TradeStatisticsManager {
         p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(payload -> {
             if (payload instanceof TradeStatistics3) {
                 TradeStatistics3 tradeStatistics = (TradeStatistics3) payload;
-                if (!tradeStatistics.isValid()) {
+                if (!tradeStatistics.isValid() || observableTradeStatisticsSet.contains(tradeStatistics)) {
                     return;
                 }
+                // We update the index and candles before the set so that listeners of the set see the new data
+                tradeStatisticsIndex.addAll(List.of(tradeStatistics));
+                tradeStatisticsCandleService.addAll(List.of(tradeStatistics));
                 observableTradeStatisticsSet.add(tradeStatistics);
-                priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
+                priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsIndex, tradeStatistics.getCurrency());
                 maybeDumpStatistics();
             }
         });
@@ -109,9 +116,13 @@ public class TradeStatisticsManager {
                 .filter(e -> e instanceof TradeStatistics3)
                 .map(e -> (TradeStatistics3) e)
                 .filter(TradeStatistics3::isValid)
+                .filter(e -> !observableTradeStatisticsSet.contains(e))
                 .collect(Collectors.toSet());
+        tradeStatisticsIndex.addAll(set);
+        tradeStatisticsCandleService.addAll(set);
         observableTradeStatisticsSet.addAll(set);
-        priceFeedService.applyLatestBisqMarketPrice(observableTradeStatisticsSet);
+        tradeStatisticsIndex.getCurrencyCodes().forEach(currencyCode ->
+                priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsIndex, currencyCode));
         maybeDumpStatistics();
     }
 
@@ -119,6 +130,14 @@ public class TradeStatisticsManager {
         return observableTradeStatisticsSet;
     }
 
+    /**
+     * Index of the trade statistics sorted by date for range and latest trade queries. Prefer it to streaming the
+     * observable set.
+     */
+    public TradeStatisticsIndex getTradeStatisticsIndex() {
+        return tradeStatisticsIndex;
+    }
+
     private void maybeDumpStatistics() {
         if (!dumpStatistics) {
             return;
@@ -139,10 +158,9 @@ public class TradeStatisticsManager {
             cryptoCurrencyList.add(0, new CurrencyTuple(Res.getBaseCurrencyCode(), Res.getBaseCurrencyName(), 8));
             jsonFileManager.writeToDiscThreaded(Utilities.objectToJson(cryptoCurrencyList), "crypto_currency_list");
 
-            Instant yearAgo = Instant.ofEpochSecond(Instant.now().getEpochSecond() - TimeUnit.DAYS.toSeconds(365));
-            Set<String> activeCurrencies = observableTradeStatisticsSet.stream()
-                    .filter(e -> e.getDate().toInstant().isAfter(yearAgo))
-                    .map(p -> p.getCurrency())
+            long yearAgo = Instant.ofEpochSecond(Instant.now().getEpochSecond() - TimeUnit.DAYS.toSeconds(365)).toEpochMilli();
+            Set<String> activeCurrencies = tradeStatisticsIndex.getCurrencyCodes().stream()
+                    .filter(currencyCode -> tradeStatisticsIndex.getLatestDate(currencyCode) > yearAgo)
                     .collect(Collectors.toSet());
 
             ArrayList<CurrencyTuple> activeFiatCurrencyList = fiatCurrencyList.stream()
@@ -158,9 +176,9 @@ public class TradeStatisticsManager {
             jsonFileManager.writeToDiscThreaded(Utilities.objectToJson(activeCryptoCurrencyList), "active_crypto_currency_list");
         }
 
-        List<TradeStatisticsForJson> list = observableTradeStatisticsSet.stream()
+        // The index returns the most recent first
+        List<TradeStatisticsForJson> list = tradeStatisticsIndex.getLatest(null, Integer.MAX_VALUE).stream()
                 .map(TradeStatisticsForJson::new)
-                .sorted((o1, o2) -> (Long.compare(o2.tradeDate, o1.tradeDate)))
                 .collect(Collectors.toList());
         TradeStatisticsForJson[] array = new TradeStatisticsForJson[list.size()];
         list.toArray(array);
@@ -171,7 +189,7 @@ public class TradeStatisticsManager {
                                               @Nullable String referralId,
                                               boolean isTorNetworkNode) {
         long ts = System.currentTimeMillis();
-        Set<P2PDataStorage.ByteArray> hashes = tradeStatistics3StorageService.getMapOfAllData().keySet();
+        Set<P2PDataStorage.ByteArray> hashes = tradeStatistics3StorageService.getKeySetOfAllData();
         trades.forEach(trade -> {
             if (trade instanceof BuyerTrade) {
                 log.debug("Trade: {} is a buyer trade, we only republish we have been seller.",
@@ -398,6 +398,7 @@ public class SignedWitnessServiceTest {
 
         // Second account is banned, first account is still a signer but the other two are no longer signers
         when(filterManager.isWitnessSignerPubKeyBanned(Utilities.bytesAsHexString(witnessOwner2PubKey))).thenReturn(true);
+        signedWitnessService.onBannedSignerPubKeysChanged();
         assertTrue(signedWitnessService.isSignerAccountAgeWitness(aew1));
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew2));
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew3));
@@ -405,6 +406,7 @@ public class SignedWitnessServiceTest {
         // First account is banned, no accounts in the tree below it are signers
         when(filterManager.isWitnessSignerPubKeyBanned(Utilities.bytesAsHexString(witnessOwner1PubKey))).thenReturn(true);
         when(filterManager.isWitnessSignerPubKeyBanned(Utilities.bytesAsHexString(witnessOwner2PubKey))).thenReturn(false);
+        signedWitnessService.onBannedSignerPubKeysChanged();
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew1));
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew2));
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew3));
@@ -435,6 +437,7 @@ public class SignedWitnessServiceTest {
 
         // Only second account is banned, first account is still a signer but the other two are no longer signers
         when(filterManager.isWitnessSignerPubKeyBanned(Utilities.bytesAsHexString(witnessOwner2PubKey))).thenReturn(true);
+        signedWitnessService.onBannedSignerPubKeysChanged();
         assertTrue(signedWitnessService.isSignerAccountAgeWitness(aew1));
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew2));
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew3));
@@ -442,6 +445,7 @@ public class SignedWitnessServiceTest {
         // Only first account is banned, account2 and account3 are still signers
         when(filterManager.isWitnessSignerPubKeyBanned(Utilities.bytesAsHexString(witnessOwner1PubKey))).thenReturn(true);
         when(filterManager.isWitnessSignerPubKeyBanned(Utilities.bytesAsHexString(witnessOwner2PubKey))).thenReturn(false);
+        signedWitnessService.onBannedSignerPubKeysChanged();
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew1));
         assertTrue(signedWitnessService.isSignerAccountAgeWitness(aew2));
         assertTrue(signedWitnessService.isSignerAccountAgeWitness(aew3));
@@ -485,6 +489,7 @@ public class SignedWitnessServiceTest {
 
         // First account is banned, the other two are still signers
         when(filterManager.isWitnessSignerPubKeyBanned(Utilities.bytesAsHexString(witnessOwner1PubKey))).thenReturn(true);
+        signedWitnessService.onBannedSignerPubKeysChanged();
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew1));
         assertTrue(signedWitnessService.isSignerAccountAgeWitness(aew2));
         assertTrue(signedWitnessService.isSignerAccountAgeWitness(aew3));
@@ -492,6 +497,7 @@ public class SignedWitnessServiceTest {
         // Second account is banned, the other two are still signers
         when(filterManager.isWitnessSignerPubKeyBanned(Utilities.bytesAsHexString(witnessOwner1PubKey))).thenReturn(false);
         when(filterManager.isWitnessSignerPubKeyBanned(Utilities.bytesAsHexString(witnessOwner2PubKey))).thenReturn(true);
+        signedWitnessService.onBannedSignerPubKeysChanged();
         assertTrue(signedWitnessService.isSignerAccountAgeWitness(aew1));
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew2));
         assertTrue(signedWitnessService.isSignerAccountAgeWitness(aew3));
@@ -499,6 +505,42 @@ public class SignedWitnessServiceTest {
         // First and second account is banned, the third is no longer a signer
         when(filterManager.isWitnessSignerPubKeyBanned(Utilities.bytesAsHexString(witnessOwner1PubKey))).thenReturn(true);
         when(filterManager.isWitnessSignerPubKeyBanned(Utilities.bytesAsHexString(witnessOwner2PubKey))).thenReturn(true);
+        signedWitnessService.onBannedSignerPubKeysChanged();
+        assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew1));
+        assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew2));
+        assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew3));
+    }
+
+    /* Signed witness tree
+     Each edge in the graph represents one signature
+
+     Arbitrator
+      |
+     sw1
+      |
+     sw2
+      |
+     sw3
+    */
+    @Test
+    public void testSignerChainsAreUpdatedIfWitnessesAreAddedOrRemoved() {
+        SignedWitness sw1 = new SignedWitness(ARBITRATOR, account1DataHash, signature1, signer1PubKey, witnessOwner1PubKey, date1, tradeAmount1);
+        SignedWitness sw2 = new SignedWitness(TRADE, account2DataHash, signature2, signer2PubKey, witnessOwner2PubKey, date2, tradeAmount2);
+        SignedWitness sw3 = new SignedWitness(TRADE, account3DataHash, signature3, signer3PubKey, witnessOwner3PubKey, date3, tradeAmount3);
+
+        // sw2, which links sw3 to sw1, is missing
+        signedWitnessService.addToMap(sw1);
+        signedWitnessService.addToMap(sw3);
+        assertTrue(signedWitnessService.isSignerAccountAgeWitness(aew1));
+        assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew2));
+        assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew3));
+
+        signedWitnessService.addToMap(sw2);
+        assertTrue(signedWitnessService.isSignerAccountAgeWitness(aew1));
+        assertTrue(signedWitnessService.isSignerAccountAgeWitness(aew2));
+        assertTrue(signedWitnessService.isSignerAccountAgeWitness(aew3));
+
+        signedWitnessService.removeSignedWitness(sw1);
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew1));
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew2));
         assertFalse(signedWitnessService.isSignerAccountAgeWitness(aew3));
@@ -0,0 +1,176 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.InOrder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+
+import monero.wallet.MoneroWallet;
+
+public class XmrMultisigSyncCoordinatorTest {
+    private XmrMultisigWalletManager walletManager;
+    private MoneroWallet wallet;
+    private XmrMultisigSyncCoordinator coordinator;
+
+    @Before
+    public void setUp() {
+        walletManager = mock(XmrMultisigWalletManager.class);
+        wallet = mock(MoneroWallet.class);
+        when(walletManager.pinWallet("trade")).thenReturn(wallet);
+        coordinator = new XmrMultisigSyncCoordinator(walletManager);
+    }
+
+    @After
+    public void tearDown() {
+        coordinator.shutDown();
+    }
+
+    @Test
+    public void testRequestsAreCoalescedWhileWalletIsBusy() throws Exception {
+        CountDownLatch syncStarted = new CountDownLatch(1);
+        CountDownLatch releaseSync = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            syncStarted.countDown();
+            releaseSync.await(5, TimeUnit.SECONDS);
+            return null;
+        }).doReturn(null).when(wallet).sync();
+        when(wallet.importMultisigHex(List.of("hex1", "hex2"))).thenReturn(2);
+
+        CompletableFuture<Void> firstSync = coordinator.requestSync("trade");
+        assertTrue(syncStarted.await(5, TimeUnit.SECONDS));
+
+        // The wallet is busy, so these requests get merged into one
+        CompletableFuture<Void> secondSync = coordinator.requestSync("trade");
+        CompletableFuture<Integer> firstImport = coordinator.requestImport("trade", List.of("hex1"));
+        CompletableFuture<Integer> secondImport = coordinator.requestImport("trade", List.of("hex2"));
+        CompletableFuture<Void> save = coordinator.requestSave("trade");
+        releaseSync.countDown();
+
+        firstSync.get(5, TimeUnit.SECONDS);
+        secondSync.get(5, TimeUnit.SECONDS);
+        assertEquals(2, (int) firstImport.get(5, TimeUnit.SECONDS));
+        assertEquals(2, (int) secondImport.get(5, TimeUnit.SECONDS));
+        save.get(5, TimeUnit.SECONDS);
+
+        verify(wallet, times(2)).sync();
+        verify(wallet).importMultisigHex(List.of("hex1", "hex2"));
+        verify(wallet).save();
+        verify(walletManager, times(2)).pinWallet("trade");
+        verify(walletManager, times(2)).unpinWallet("trade");
+    }
+
+    @Test
+    public void testSyncOfOpenWalletsDoesNotOpenClosedWallets() throws Exception {
+        MoneroWallet otherWallet = mock(MoneroWallet.class);
+        when(walletManager.getOpenWalletTradeIds()).thenReturn(Set.of("trade", "closed"));
+        when(walletManager.pinOpenWallet("trade")).thenReturn(otherWallet);
+        when(walletManager.pinOpenWallet("closed")).thenReturn(null);
+
+        coordinator.syncOpenWallets();
+        // Requests for a wallet are run in order, so this completes after the sync of the open wallets
+        coordinator.requestSave("trade").get(5, TimeUnit.SECONDS);
+
+        verify(otherWallet).sync();
+        verify(walletManager, never()).pinWallet("closed");
+        verify(walletManager, never()).unpinWallet("closed");
+    }
+
+    @Test
+    public void testReadsRunAfterSync() throws Exception {
+        when(wallet.isMultisigImportNeeded()).thenReturn(true);
+        when(wallet.getMultisigHex()).thenReturn("hex");
+
+        assertTrue(coordinator.requestIsMultisigImportNeeded("trade").get(5, TimeUnit.SECONDS));
+        assertEquals("hex", coordinator.requestMultisigHex("trade").get(5, TimeUnit.SECONDS));
+
+        InOrder inOrder = inOrder(wallet);
+        inOrder.verify(wallet).sync();
+        inOrder.verify(wallet).getMultisigHex();
+    }
+
+    @Test
+    public void testShutDownCompletesPendingRequestsExceptionally() throws Exception {
+        CountDownLatch syncStarted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            syncStarted.countDown();
+            // Returns when the thread gets interrupted at shutDown
+            new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(wallet).sync();
+
+        CompletableFuture<Void> runningSync = coordinator.requestSync("trade");
+        assertTrue(syncStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> pendingRead = coordinator.requestMultisigHex("trade");
+
+        coordinator.shutDown();
+
+        assertFailsWith(IllegalStateException.class, runningSync);
+        assertFailsWith(IllegalStateException.class, pendingRead);
+        assertFailsWith(IllegalStateException.class, coordinator.requestSave("trade"));
+        assertFailsWith(IllegalStateException.class, coordinator.requestIsMultisigImportNeeded("trade"));
+    }
+
+    @Test
+    public void testFailedRequestCompletesExceptionally() {
+        when(walletManager.pinWallet(anyString())).thenThrow(new IllegalStateException("wallet not found"));
+
+        CompletableFuture<Void> sync = coordinator.requestSync("unknown");
+        try {
+            sync.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            return;
+        }
+        throw new AssertionError("Expected the request to fail");
+    }
+
+    private static void assertFailsWith(Class<? extends Throwable> expected, CompletableFuture<?> future) {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(expected.isInstance(e.getCause()));
+            return;
+        } catch (Exception e) {
+            throw new AssertionError("Expected the request to fail with " + expected.getSimpleName(), e);
+        }
+        throw new AssertionError("Expected the request to fail with " + expected.getSimpleName());
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.account.witness.AccountAgeWitnessService;
+import bisq.core.filter.Filter;
+import bisq.core.filter.FilterManager;
+import bisq.core.payment.PaymentAccount;
+import bisq.core.user.User;
+
+import javafx.beans.property.SimpleObjectProperty;
+
+import javafx.collections.FXCollections;
+
+import java.time.Clock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.id;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OfferAccountAgeCacheTest {
+    private static final long NOW = TimeUnit.DAYS.toMillis(18000) + TimeUnit.HOURS.toMillis(12);
+
+    private AccountAgeWitnessService accountAgeWitnessService;
+    private SimpleObjectProperty<Filter> filterProperty;
+    private Clock clock;
+    private OfferBookService.OfferBookChangedListener offerBookChangedListener;
+    private OfferAccountAgeCache cache;
+    private Offer offer;
+
+    @Before
+    public void setUp() {
+        accountAgeWitnessService = mock(AccountAgeWitnessService.class);
+        when(accountAgeWitnessService.verifyPeersTradeAmount(any(), any(), any())).thenReturn(true);
+        when(accountAgeWitnessService.getMyTradeLimit(any(), anyString(), any())).thenReturn(1000L);
+
+        OfferBookService offerBookService = mock(OfferBookService.class);
+        FilterManager filterManager = mock(FilterManager.class);
+        filterProperty = new SimpleObjectProperty<>();
+        when(filterManager.filterProperty()).thenReturn(filterProperty);
+        User user = mock(User.class);
+        when(user.getPaymentAccountsAsObservable()).thenReturn(FXCollections.observableSet());
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(NOW);
+
+        cache = new OfferAccountAgeCache(accountAgeWitnessService, offerBookService, filterManager, user, clock);
+
+        ArgumentCaptor<OfferBookService.OfferBookChangedListener> listenerCaptor =
+                ArgumentCaptor.forClass(OfferBookService.OfferBookChangedListener.class);
+        verify(offerBookService).addOfferBookChangedListener(listenerCaptor.capture());
+        offerBookChangedListener = listenerCaptor.getValue();
+
+        offer = make(btcUsdOffer.but(with(id, "offer-1")));
+    }
+
+    @Test
+    public void testValuesAreComputedOncePerOffer() {
+        assertTrue(cache.isPeersTradeAmountValid(offer));
+        assertTrue(cache.isPeersTradeAmountValid(offer));
+        verify(accountAgeWitnessService, times(1)).verifyPeersTradeAmount(eq(offer), any(), any());
+
+        cache.isPeersTradeAmountValid(make(btcUsdOffer.but(with(id, "offer-2"))));
+        verify(accountAgeWitnessService, times(2)).verifyPeersTradeAmount(any(), any(), any());
+    }
+
+    @Test
+    public void testMyTradeLimitIsCachedPerPaymentAccount() {
+        PaymentAccount account1 = mock(PaymentAccount.class);
+        when(account1.getId()).thenReturn("account-1");
+        PaymentAccount account2 = mock(PaymentAccount.class);
+        when(account2.getId()).thenReturn("account-2");
+
+        assertEquals(1000L, cache.getMyTradeLimit(offer, account1));
+        assertEquals(1000L, cache.getMyTradeLimit(offer, account1));
+        assertEquals(1000L, cache.getMyTradeLimit(offer, account2));
+        verify(accountAgeWitnessService, times(1)).getMyTradeLimit(eq(account1), anyString(), any());
+        verify(accountAgeWitnessService, times(1)).getMyTradeLimit(eq(account2), anyString(), any());
+    }
+
+    @Test
+    public void testDaysUntilLimitLiftedAreKeptPerOffer() {
+        Offer offer2 = make(btcUsdOffer.but(with(id, "offer-2")));
+        when(accountAgeWitnessService.getSignState(offer))
+                .thenAnswer(invocation -> AccountAgeWitnessService.SignState.PEER_INITIAL.setDaysUntilLimitLifted(5));
+        when(accountAgeWitnessService.getSignState(offer2))
+                .thenAnswer(invocation -> AccountAgeWitnessService.SignState.PEER_INITIAL.setDaysUntilLimitLifted(20));
+
+        assertEquals(AccountAgeWitnessService.SignState.PEER_INITIAL, cache.getSignState(offer));
+        assertEquals(AccountAgeWitnessService.SignState.PEER_INITIAL, cache.getSignState(offer2));
+
+        assertEquals(5, cache.getDaysUntilLimitLifted(offer));
+        assertEquals(20, cache.getDaysUntilLimitLifted(offer2));
+        // Reading from the cache does not change the shared enum
+        assertEquals(20, AccountAgeWitnessService.SignState.PEER_INITIAL.getDaysUntilLimitLifted());
+        verify(accountAgeWitnessService, times(1)).getSignState(offer);
+    }
+
+    @Test
+    public void testOfferRemovalEvictsEntry() {
+        cache.isPeersTradeAmountValid(offer);
+        offerBookChangedListener.onRemoved(offer);
+        cache.isPeersTradeAmountValid(offer);
+        verify(accountAgeWitnessService, times(2)).verifyPeersTradeAmount(eq(offer), any(), any());
+    }
+
+    @Test
+    public void testFilterChangeClearsCache() {
+        cache.isPeersTradeAmountValid(offer);
+        filterProperty.set(mock(Filter.class));
+        cache.isPeersTradeAmountValid(offer);
+        verify(accountAgeWitnessService, times(2)).verifyPeersTradeAmount(eq(offer), any(), any());
+    }
+
+    @Test
+    public void testNewDayClearsCache() {
+        cache.isPeersTradeAmountValid(offer);
+        when(clock.millis()).thenReturn(NOW + TimeUnit.HOURS.toMillis(6));
+        cache.isPeersTradeAmountValid(offer);
+        verify(accountAgeWitnessService, times(1)).verifyPeersTradeAmount(eq(offer), any(), any());
+
+        when(clock.millis()).thenReturn(NOW + TimeUnit.HOURS.toMillis(13));
+        cache.isPeersTradeAmountValid(offer);
+        verify(accountAgeWitnessService, times(2)).verifyPeersTradeAmount(eq(offer), any(), any());
+    }
+}
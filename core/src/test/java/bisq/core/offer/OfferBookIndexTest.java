@@ -0,0 +1,130 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.provider.price.MarketPrice;
+import bisq.core.provider.price.PriceFeedService;
+
+import java.time.Instant;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.direction;
+import static bisq.core.offer.OfferMaker.id;
+import static bisq.core.offer.OfferMaker.marketPriceMargin;
+import static bisq.core.offer.OfferMaker.price;
+import static bisq.core.offer.OfferMaker.useMarketBasedPrice;
+import static bisq.core.offer.OfferPayload.Direction.BUY;
+import static bisq.core.offer.OfferPayload.Direction.SELL;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OfferBookIndexTest {
+    private PriceFeedService priceFeedService;
+    private OfferBookIndex index;
+
+    @Before
+    public void setUp() {
+        priceFeedService = mock(PriceFeedService.class);
+        // 100.0000 USD, fiat prices have a precision of 4
+        when(priceFeedService.getMarketPrice("USD"))
+                .thenReturn(new MarketPrice("USD", 100, Instant.now().getEpochSecond(), true));
+        index = new OfferBookIndex(priceFeedService);
+    }
+
+    @Test
+    public void testOffersAreOrderedFromBestPrice() {
+        index.add(fixedPriceOffer("sell-990", SELL, 990000));
+        index.add(fixedPriceOffer("sell-1020", SELL, 1020000));
+        // 1% above market price -> 101
+        index.add(marketBasedOffer("sell-1010", SELL, 0.01));
+        // 1% below market price -> 99
+        index.add(marketBasedOffer("sell-990-market", SELL, -0.01));
+        index.add(fixedPriceOffer("buy-950", BUY, 950000));
+        index.add(fixedPriceOffer("buy-980", BUY, 980000));
+        // 1% below market price -> 99
+        index.add(marketBasedOffer("buy-990", BUY, 0.01));
+
+        assertEquals(List.of("sell-990", "sell-990-market", "sell-1010", "sell-1020"), getIds(SELL, "USD"));
+        assertEquals(List.of("buy-990", "buy-980", "buy-950"), getIds(BUY, "USD"));
+        assertEquals("sell-990", index.getBestOffer(SELL, "USD").get().getId());
+        assertEquals("buy-990", index.getBestOffer(BUY, "USD").get().getId());
+        assertEquals(7, index.size());
+        assertTrue(index.getOffers(SELL, "EUR").isEmpty());
+    }
+
+    @Test
+    public void testMarketBasedOffersAreLastWithoutMarketPrice() {
+        when(priceFeedService.getMarketPrice("USD")).thenReturn(null);
+        index.add(marketBasedOffer("sell-market", SELL, -0.5));
+        index.add(fixedPriceOffer("sell-2000", SELL, 20000000));
+
+        assertEquals(List.of("sell-2000", "sell-market"), getIds(SELL, "USD"));
+        assertEquals("sell-2000", index.getBestOffer(SELL, "USD").get().getId());
+    }
+
+    @Test
+    public void testEditedOfferReplacesOldOne() {
+        OfferPayload offer = fixedPriceOffer("a", SELL, 1000000);
+        OfferPayload editedOffer = fixedPriceOffer("a", SELL, 900000);
+        index.add(offer);
+        index.add(fixedPriceOffer("b", SELL, 950000));
+        index.add(editedOffer);
+
+        assertEquals(List.of("a", "b"), getIds(SELL, "USD"));
+        assertEquals(900000, index.getOffer("a").get().getOfferPayload().getPrice());
+
+        // A late remove of the old offer must not remove the edited one
+        index.remove(offer);
+        assertEquals(2, index.size());
+
+        index.remove(editedOffer);
+        assertFalse(index.getOffer("a").isPresent());
+        assertEquals(List.of("b"), getIds(SELL, "USD"));
+    }
+
+    private List<String> getIds(OfferPayload.Direction direction, String currencyCode) {
+        return index.getOffers(direction, currencyCode).stream()
+                .map(Offer::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static OfferPayload fixedPriceOffer(String offerId, OfferPayload.Direction offerDirection, long offerPrice) {
+        return make(btcUsdOffer.but(with(id, offerId),
+                with(direction, offerDirection),
+                with(price, offerPrice))).getOfferPayload();
+    }
+
+    private static OfferPayload marketBasedOffer(String offerId, OfferPayload.Direction offerDirection, double margin) {
+        return make(btcUsdOffer.but(with(id, offerId),
+                with(direction, offerDirection),
+                with(price, 0L),
+                with(useMarketBasedPrice, true),
+                with(marketPriceMargin, margin))).getOfferPayload();
+    }
+}
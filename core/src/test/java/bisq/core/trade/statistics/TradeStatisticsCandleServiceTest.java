@@ -0,0 +1,133 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.core.monetary.Price;
+import bisq.core.payment.payload.PaymentMethod;
+
+import org.bitcoinj.core.Coin;
+
+import java.time.LocalDateTime;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TradeStatisticsCandleServiceTest {
+    private TradeStatisticsCandleService service;
+    private long noon;
+
+    @Before
+    public void setUp() {
+        service = new TradeStatisticsCandleService();
+        noon = TickUnit.HOUR.roundToTick(LocalDateTime.of(2021, 3, 10, 12, 30)).getTime();
+    }
+
+    @Test
+    public void testCandleOfOneCurrency() {
+        service.addAll(List.of(
+                tradeStatistics("EUR", "520", "1", noon),
+                tradeStatistics("EUR", "600", "1", noon + 200),
+                tradeStatistics("EUR", "500", "1", noon + 100),
+                tradeStatistics("EUR", "580", "1", noon + 300),
+                tradeStatistics("USD", "700", "1", noon)));
+
+        long day = TickUnit.DAY.roundToTick(LocalDateTime.of(2021, 3, 10, 0, 0)).getTime();
+        TradeStatisticsCandle candle = service.getCandle("EUR", TickUnit.DAY, day);
+        assertEquals(Price.parse("EUR", "520").getValue(), candle.getOpen());
+        assertEquals(Price.parse("EUR", "580").getValue(), candle.getClose());
+        assertEquals(Price.parse("EUR", "600").getValue(), candle.getHigh());
+        assertEquals(Price.parse("EUR", "500").getValue(), candle.getLow());
+        assertEquals(Price.parse("EUR", "550").getValue(), candle.getMedian());
+        assertEquals(Price.parse("EUR", "550").getValue(), candle.getAveragePrice(false));
+        assertEquals(Coin.parseCoin("4").value, candle.getAccumulatedAmount());
+        assertEquals(4, candle.getNumTrades());
+
+        assertNull(service.getCandle("EUR", TickUnit.DAY, day - 1));
+        assertNull(service.getCandle("CHF", TickUnit.DAY, day));
+        assertEquals(5, service.getCandleOfAllCurrencies(TickUnit.DAY, day).getNumTrades());
+    }
+
+    @Test
+    public void testCandleIsUpdatedIncrementally() {
+        service.addAll(List.of(tradeStatistics("EUR", "500", "1", noon)));
+        TradeStatisticsCandle candle = service.getCandle("EUR", TickUnit.HOUR, noon);
+        assertEquals(1, candle.getNumTrades());
+
+        service.addAll(List.of(tradeStatistics("EUR", "400", "2", noon + 500),
+                tradeStatistics("EUR", "450", "1", noon - 1)));
+        TradeStatisticsCandle updated = service.getCandle("EUR", TickUnit.HOUR, noon);
+        assertNotSame(candle, updated);
+        assertEquals(2, updated.getNumTrades());
+        assertEquals(Price.parse("EUR", "500").getValue(), updated.getOpen());
+        assertEquals(Price.parse("EUR", "400").getValue(), updated.getClose());
+        assertEquals(Coin.parseCoin("3").value, updated.getAccumulatedAmount());
+
+        // The trade before noon belongs to the previous hour but to the same day
+        assertEquals(1, service.getCandle("EUR", TickUnit.HOUR, noon - 3600_000).getNumTrades());
+        assertEquals(3, service.getCandle("EUR", TickUnit.DAY, TickUnit.DAY.roundToTick(
+                LocalDateTime.of(2021, 3, 10, 0, 0)).getTime()).getNumTrades());
+    }
+
+    @Test
+    public void testCandleOfAllCurrenciesIsCachedUntilTradeGetsAdded() {
+        service.addAll(List.of(tradeStatistics("EUR", "500", "1", noon),
+                tradeStatistics("USD", "600", "2", noon + 100)));
+        TradeStatisticsCandle candle = service.getCandleOfAllCurrencies(TickUnit.HOUR, noon);
+        assertEquals(2, candle.getNumTrades());
+        assertEquals(Coin.parseCoin("3").value, candle.getAccumulatedAmount());
+        assertSame(candle, service.getCandleOfAllCurrencies(TickUnit.HOUR, noon));
+
+        service.addAll(List.of(tradeStatistics("EUR", "400", "1", noon + 200)));
+        TradeStatisticsCandle updated = service.getCandleOfAllCurrencies(TickUnit.HOUR, noon);
+        assertNotSame(candle, updated);
+        assertEquals(3, updated.getNumTrades());
+        assertEquals(Coin.parseCoin("4").value, updated.getAccumulatedAmount());
+    }
+
+    @Test
+    public void testGetCandles() {
+        for (int hour = 0; hour < 5; hour++) {
+            service.addAll(List.of(tradeStatistics("EUR", "500", "1", noon + hour * 3600_000L + 10)));
+        }
+
+        List<TradeStatisticsCandle> candles = service.getCandles("EUR", TickUnit.HOUR, noon + 3600_000, noon + 4 * 3600_000);
+        assertEquals(3, candles.size());
+        assertEquals(noon + 3600_000, candles.get(0).getTickStartTime());
+        assertEquals(noon + 3 * 3600_000, candles.get(2).getTickStartTime());
+        assertEquals(0, service.getCandles("USD", TickUnit.HOUR, noon, noon + 5 * 3600_000).size());
+    }
+
+    private static TradeStatistics3 tradeStatistics(String currencyCode, String price, String amount, long date) {
+        return new TradeStatistics3(currencyCode,
+                Price.parse(currencyCode, price).getValue(),
+                Coin.parseCoin(amount).getValue(),
+                PaymentMethod.BLOCK_CHAINS_ID,
+                date,
+                null,
+                null,
+                null);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.core.trade.statistics;
+
+import bisq.core.monetary.Price;
+import bisq.core.payment.payload.PaymentMethod;
+
+import org.bitcoinj.core.Coin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatisticsIndexTest {
+    private static final long START = 1_600_000_000_000L;
+
+    private TradeStatisticsIndex index;
+
+    @Before
+    public void setUp() {
+        index = new TradeStatisticsIndex();
+    }
+
+    @Test
+    public void testItemsAreSortedByDate() {
+        TradeStatistics3 first = tradeStatistics("EUR", "500", "1", START);
+        TradeStatistics3 second = tradeStatistics("USD", "600", "1", START + 10);
+        TradeStatistics3 third = tradeStatistics("EUR", "520", "1", START + 20);
+        index.addAll(List.of(third, first));
+        // Added out of order
+        index.addAll(List.of(second));
+
+        assertEquals(3, index.size());
+        assertEquals(2, index.size("EUR"));
+        assertEquals(List.of(third, second, first), index.getLatest(null, 10));
+        assertEquals(List.of(third), index.getLatest("EUR", 1));
+        assertEquals(List.of(second, third), index.getTradeStatistics(null, START + 1, START + 21));
+        assertTrue(index.getTradeStatistics("CHF", 0, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void testLatestPrice() {
+        index.addAll(List.of(tradeStatistics("EUR", "500", "1", START + 10),
+                tradeStatistics("EUR", "520", "1", START)));
+
+        assertEquals(Price.parse("EUR", "500").getValue(), index.getLatestPrice("EUR"));
+        assertEquals(START + 10, index.getLatestDate("EUR"));
+        assertEquals(0, index.getLatestPrice("USD"));
+    }
+
+    @Test
+    public void testForEachInRange() {
+        for (int i = 0; i < 10; i++) {
+            index.addAll(List.of(tradeStatistics("EUR", "500", "1", START + i)));
+        }
+
+        List<Long> dates = new ArrayList<>();
+        index.forEachInRange("EUR", START + 3, START + 6, (date, price, amount) -> dates.add(date));
+        assertEquals(List.of(START + 3, START + 4, START + 5), dates);
+    }
+
+    @Test
+    public void testVwap() {
+        TradeStatistics3 tradeStatistics = tradeStatistics("EUR", "500", "1", START);
+        index.addAll(List.of(tradeStatistics,
+                tradeStatistics("EUR", "600", "3", START + 1),
+                tradeStatistics("EUR", "1000", "1", START + 2)));
+
+        assertEquals(Price.parse("EUR", "575").getValue(), index.getVwap("EUR", START, START + 2));
+        assertEquals(0, index.getVwap("EUR", START + 3, START + 10));
+        assertSame(tradeStatistics, index.getLatest("EUR", 3).get(2));
+    }
+
+    private static TradeStatistics3 tradeStatistics(String currencyCode, String price, String amount, long date) {
+        return new TradeStatistics3(currencyCode,
+                Price.parse(currencyCode, price).getValue(),
+                Coin.parseCoin(amount).getValue(),
+                PaymentMethod.BLOCK_CHAINS_ID,
+                date,
+                null,
+                null,
+                null);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.daemon.grpc;
+
+import bisq.common.UserThread;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server side of a streaming subscription with per client backpressure.
+ *
+ * Events are only sent while the transport of the client is ready, otherwise they are kept as pending. A new event
+ * replaces a pending event with the same key (e.g. the offer id), so a slow client skips intermediate states and gets
+ * the latest one. If a client still falls more than maxPendingEvents distinct keys behind, the stream is closed with
+ * RESOURCE_EXHAUSTED and the client is expected to resubscribe.
+ */
+@Slf4j
+class GrpcEventStream<K, T> {
+    private final ServerCallStreamObserver<T> responseObserver;
+    private final int maxPendingEvents;
+    private final Map<K, T> pendingEvents = new LinkedHashMap<>();
+    private final List<Runnable> closeHandlers = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * Has to be called from the rpc method, before the call returns.
+     */
+    GrpcEventStream(StreamObserver<T> responseObserver, int maxPendingEvents) {
+        this.responseObserver = (ServerCallStreamObserver<T>) responseObserver;
+        this.maxPendingEvents = maxPendingEvents;
+        this.responseObserver.setOnReadyHandler(this::drain);
+        this.responseObserver.setOnCancelHandler(this::close);
+    }
+
+    /**
+     * The handler is executed on the UserThread when the client cancels the call or the stream gets closed.
+     */
+    synchronized void addCloseHandler(Runnable closeHandler) {
+        if (closed)
+            UserThread.execute(closeHandler);
+        else
+            closeHandlers.add(closeHandler);
+    }
+
+    synchronized void publish(K key, T event) {
+        if (closed)
+            return;
+
+        // We remove it first so that the replaced event moves to the end of the queue
+        pendingEvents.remove(key);
+        pendingEvents.put(key, event);
+        if (pendingEvents.size() > maxPendingEvents) {
+            log.warn("Client of stream {} is too slow. We close the stream. numPendingEvents={}",
+                    event.getClass().getSimpleName(), pendingEvents.size());
+            close();
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                    .withDescription("too many pending events, resubscribe")
+                    .asRuntimeException());
+            return;
+        }
+        drain();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized void drain() {
+        Iterator<T> iterator = pendingEvents.values().iterator();
+        while (!closed && iterator.hasNext() && responseObserver.isReady()) {
+            T event = iterator.next();
+            iterator.remove();
+            responseObserver.onNext(event);
+        }
+    }
+
+    private synchronized void close() {
+        if (closed)
+            return;
+
+        closed = true;
+        pendingEvents.clear();
+        // The close handlers remove listeners, which must not happen while the listeners get iterated, e.g. if we
+        // close the stream in publish.
+        closeHandlers.forEach(UserThread::execute);
+        closeHandlers.clear();
+    }
+}
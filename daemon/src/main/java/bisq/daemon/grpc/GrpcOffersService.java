@@ -34,6 +34,8 @@ import bisq.proto.grpc.GetOfferReply;
 import bisq.proto.grpc.GetOfferRequest;
 import bisq.proto.grpc.GetOffersReply;
 import bisq.proto.grpc.GetOffersRequest;
+import bisq.proto.grpc.SubscribeOffersReply;
+import bisq.proto.grpc.SubscribeOffersRequest;
 
 import io.grpc.ServerInterceptor;
 import io.grpc.stub.StreamObserver;
@@ -59,6 +61,7 @@ import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
 
 @Slf4j
 class GrpcOffersService extends OffersImplBase {
+    private static final int MAX_PENDING_OFFER_EVENTS = 10_000;
 
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
@@ -138,6 +141,24 @@ class GrpcOffersService extends OffersImplBase {
         }
     }
 
+    @Override
+    public void subscribeOffers(SubscribeOffersRequest req,
+                                StreamObserver<SubscribeOffersReply> responseObserver) {
+        try {
+            var stream = new GrpcEventStream<String, SubscribeOffersReply>(responseObserver, MAX_PENDING_OFFER_EVENTS);
+            // The call and the offer book changes are handled on the UserThread, so no change gets lost between
+            // publishing the current offers and subscribing.
+            coreApi.getOffers(req.getDirection(), req.getCurrencyCode())
+                    .forEach(offer -> stream.publish(offer.getId(), toOfferEvent(SubscribeOffersReply.EventType.ADDED, offer)));
+            stream.addCloseHandler(coreApi.subscribeOffers(req.getDirection(),
+                    req.getCurrencyCode(),
+                    offer -> stream.publish(offer.getId(), toOfferEvent(SubscribeOffersReply.EventType.ADDED, offer)),
+                    offer -> stream.publish(offer.getId(), toOfferEvent(SubscribeOffersReply.EventType.REMOVED, offer))));
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
     @Override
     public void createOffer(CreateOfferRequest req,
                             StreamObserver<CreateOfferReply> responseObserver) {
@@ -181,6 +202,13 @@ class GrpcOffersService extends OffersImplBase {
         }
     }
 
+    private static SubscribeOffersReply toOfferEvent(SubscribeOffersReply.EventType eventType, Offer offer) {
+        return SubscribeOffersReply.newBuilder()
+                .setEventType(eventType)
+                .setOffer(toOfferInfo(offer).toProtoMessage())
+                .build();
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -195,6 +223,7 @@ class GrpcOffersService extends OffersImplBase {
                             put(getGetMyOfferMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                             put(getGetOffersMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                             put(getGetMyOffersMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
+                            put(getSubscribeOffersMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getCreateOfferMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getCancelOfferMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                         }}
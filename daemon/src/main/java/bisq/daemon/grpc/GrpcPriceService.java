@@ -18,12 +18,17 @@
 package bisq.daemon.grpc;
 
 import bisq.core.api.CoreApi;
+import bisq.core.api.model.MarketCandleInfo;
 import bisq.core.api.model.MarketPriceInfo;
 
+import bisq.proto.grpc.MarketHistoryReply;
+import bisq.proto.grpc.MarketHistoryRequest;
 import bisq.proto.grpc.MarketPriceReply;
 import bisq.proto.grpc.MarketPriceRequest;
 import bisq.proto.grpc.MarketPricesReply;
 import bisq.proto.grpc.MarketPricesRequest;
+import bisq.proto.grpc.SubscribeMarketPricesReply;
+import bisq.proto.grpc.SubscribeMarketPricesRequest;
 
 import io.grpc.ServerInterceptor;
 import io.grpc.stub.StreamObserver;
@@ -38,7 +43,9 @@ import lombok.extern.slf4j.Slf4j;
 
 import static bisq.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
 import static bisq.proto.grpc.PriceGrpc.PriceImplBase;
+import static bisq.proto.grpc.PriceGrpc.getGetMarketHistoryMethod;
 import static bisq.proto.grpc.PriceGrpc.getGetMarketPriceMethod;
+import static bisq.proto.grpc.PriceGrpc.getSubscribeMarketPricesMethod;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 
@@ -48,6 +55,7 @@ import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
 
 @Slf4j
 class GrpcPriceService extends PriceImplBase {
+    private static final int MAX_PENDING_PRICE_EVENTS = 1000;
 
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
@@ -81,6 +89,39 @@ class GrpcPriceService extends PriceImplBase {
         }
     }
 
+    @Override
+    public void subscribeMarketPrices(SubscribeMarketPricesRequest req,
+                                      StreamObserver<SubscribeMarketPricesReply> responseObserver) {
+        try {
+            var stream = new GrpcEventStream<String, SubscribeMarketPricesReply>(responseObserver, MAX_PENDING_PRICE_EVENTS);
+            stream.addCloseHandler(coreApi.subscribeMarketPrices(marketPriceInfo ->
+                    stream.publish(marketPriceInfo.getCurrencyCode(), SubscribeMarketPricesReply.newBuilder()
+                            .setMarketPrice(marketPriceInfo.toProtoMessage())
+                            .build())));
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    @Override
+    public void getMarketHistory(MarketHistoryRequest req,
+                                 StreamObserver<MarketHistoryReply> responseObserver) {
+        try {
+            List<MarketCandleInfo> candles = coreApi.getMarketHistory(req.getCurrencyCode(),
+                    req.getTickUnit(),
+                    req.getFromDate(),
+                    req.getToDate());
+            MarketHistoryReply.Builder builder = MarketHistoryReply.newBuilder();
+            candles.stream()
+                    .map(MarketCandleInfo::toProtoMessage)
+                    .forEach(builder::addCandles);
+            responseObserver.onNext(builder.build());
+            responseObserver.onCompleted();
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
     private MarketPricesReply mapMarketPricesReply(List<MarketPriceInfo> marketPrices) {
         MarketPricesReply.Builder builder = MarketPricesReply.newBuilder();
         marketPrices.stream()
@@ -100,6 +141,8 @@ class GrpcPriceService extends PriceImplBase {
                 .or(() -> Optional.of(CallRateMeteringInterceptor.valueOf(
                         new HashMap<>() {{
                             put(getGetMarketPriceMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
+                            put(getGetMarketHistoryMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
+                            put(getSubscribeMarketPricesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                         }}
                 )));
     }
@@ -31,6 +31,8 @@ import bisq.proto.grpc.GetTradesReply;
 import bisq.proto.grpc.GetTradesRequest;
 import bisq.proto.grpc.KeepFundsReply;
 import bisq.proto.grpc.KeepFundsRequest;
+import bisq.proto.grpc.SubscribeTradesReply;
+import bisq.proto.grpc.SubscribeTradesRequest;
 import bisq.proto.grpc.TakeOfferReply;
 import bisq.proto.grpc.TakeOfferRequest;
 import bisq.proto.grpc.WithdrawFundsReply;
@@ -60,6 +62,7 @@ import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
 
 @Slf4j
 class GrpcTradesService extends TradesImplBase {
+    private static final int MAX_PENDING_TRADE_EVENTS = 1000;
 
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
@@ -109,6 +112,20 @@ class GrpcTradesService extends TradesImplBase {
         }
     }
 
+    @Override
+    public void subscribeTrades(SubscribeTradesRequest req,
+                                StreamObserver<SubscribeTradesReply> responseObserver) {
+        try {
+            var stream = new GrpcEventStream<String, SubscribeTradesReply>(responseObserver, MAX_PENDING_TRADE_EVENTS);
+            // The call and the trade changes are handled on the UserThread, so no change gets lost between
+            // publishing the pending trades and subscribing.
+            coreApi.getTrades().forEach(trade -> stream.publish(trade.getId(), toTradeEvent(trade)));
+            stream.addCloseHandler(coreApi.subscribeTrades(trade -> stream.publish(trade.getId(), toTradeEvent(trade))));
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
     @Override
     public void takeOffer(TakeOfferRequest req,
                           StreamObserver<TakeOfferReply> responseObserver) {
@@ -185,6 +202,12 @@ class GrpcTradesService extends TradesImplBase {
         }
     }
 
+    private static SubscribeTradesReply toTradeEvent(Trade trade) {
+        return SubscribeTradesReply.newBuilder()
+                .setTrade(toTradeInfo(trade).toProtoMessage())
+                .build();
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -197,6 +220,7 @@ class GrpcTradesService extends TradesImplBase {
                         new HashMap<>() {{
                             put(getGetTradeMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                             put(getGetTradesMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
+                            put(getSubscribeTradesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getTakeOfferMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                             put(getConfirmPaymentStartedMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getConfirmPaymentReceivedMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
@@ -19,6 +19,7 @@ package bisq.daemon.grpc;
 
 import bisq.core.api.CoreApi;
 import bisq.core.api.model.AddressBalanceInfo;
+import bisq.core.api.model.BalancesInfo;
 import bisq.core.api.model.TxFeeRateInfo;
 
 import bisq.proto.grpc.GetAddressBalanceReply;
@@ -49,6 +50,8 @@ import bisq.proto.grpc.SetTxFeeRatePreferenceReply;
 import bisq.proto.grpc.SetTxFeeRatePreferenceRequest;
 import bisq.proto.grpc.SetWalletPasswordReply;
 import bisq.proto.grpc.SetWalletPasswordRequest;
+import bisq.proto.grpc.SubscribeBalancesReply;
+import bisq.proto.grpc.SubscribeBalancesRequest;
 import bisq.proto.grpc.UnlockWalletReply;
 import bisq.proto.grpc.UnlockWalletRequest;
 import bisq.proto.grpc.UnsetTxFeeRatePreferenceReply;
@@ -90,6 +93,8 @@ import monero.wallet.model.MoneroTxWallet;
 
 @Slf4j
 class GrpcWalletsService extends WalletsImplBase {
+    // All balance events share one key, so a slow client only gets the latest balances
+    private static final String BALANCES_KEY = "XMR";
 
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
@@ -114,6 +119,24 @@ class GrpcWalletsService extends WalletsImplBase {
         }
     }
 
+    @Override
+    public void subscribeBalances(SubscribeBalancesRequest req,
+                                  StreamObserver<SubscribeBalancesReply> responseObserver) {
+        try {
+            var stream = new GrpcEventStream<String, SubscribeBalancesReply>(responseObserver, 1);
+            try {
+                stream.publish(BALANCES_KEY, toBalancesEvent(coreApi.getBalances(BALANCES_KEY)));
+            } catch (IllegalStateException e) {
+                // The balances get sent as soon as they are available
+                log.info("Balances are not available yet. {}", e.getMessage());
+            }
+            stream.addCloseHandler(coreApi.subscribeBalances(balances ->
+                    stream.publish(BALANCES_KEY, toBalancesEvent(balances))));
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
     @Override
     public void getNewDepositSubaddress(GetNewDepositSubaddressRequest req,
                                     StreamObserver<GetNewDepositSubaddressReply> responseObserver) {
@@ -370,6 +393,12 @@ class GrpcWalletsService extends WalletsImplBase {
         }
     }
 
+    private static SubscribeBalancesReply toBalancesEvent(BalancesInfo balances) {
+        return SubscribeBalancesReply.newBuilder()
+                .setBalances(balances.toProtoMessage())
+                .build();
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -381,6 +410,7 @@ class GrpcWalletsService extends WalletsImplBase {
                 .or(() -> Optional.of(CallRateMeteringInterceptor.valueOf(
                         new HashMap<>() {{
                             put(getGetBalancesMethod().getFullMethodName(), new GrpcCallRateMeter(20, SECONDS));
+                            put(getSubscribeBalancesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getGetAddressBalanceMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getGetFundingAddressesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getSendBtcMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
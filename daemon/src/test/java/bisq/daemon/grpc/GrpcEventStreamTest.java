@@ -0,0 +1,206 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// UserThread runs the close handlers on the calling thread, as no executor is set in the tests.
+public class GrpcEventStreamTest {
+    private static final int MAX_PENDING_EVENTS = 3;
+
+    private FakeServerCallStreamObserver responseObserver;
+    private GrpcEventStream<String, String> stream;
+
+    @Before
+    public void setUp() {
+        responseObserver = new FakeServerCallStreamObserver();
+        stream = new GrpcEventStream<>(responseObserver, MAX_PENDING_EVENTS);
+    }
+
+    @Test
+    public void testEventsAreSentWhileReady() {
+        stream.publish("a", "a1");
+        stream.publish("b", "b1");
+
+        assertEquals(Arrays.asList("a1", "b1"), responseObserver.sentEvents);
+    }
+
+    @Test
+    public void testEventsAreOnlyDrainedWhileReady() {
+        responseObserver.ready = false;
+        stream.publish("a", "a1");
+        stream.publish("b", "b1");
+        assertTrue(responseObserver.sentEvents.isEmpty());
+
+        // The transport gets ready for a single event
+        responseObserver.numReadyEvents = 1;
+        responseObserver.becomeReady();
+        assertEquals(Arrays.asList("a1"), responseObserver.sentEvents);
+
+        responseObserver.becomeReady();
+        assertEquals(Arrays.asList("a1", "b1"), responseObserver.sentEvents);
+    }
+
+    @Test
+    public void testPendingEventsAreCoalescedByKey() {
+        responseObserver.ready = false;
+        stream.publish("a", "a1");
+        stream.publish("b", "b1");
+        stream.publish("a", "a2");
+
+        responseObserver.becomeReady();
+
+        // The replaced event moves to the end of the queue
+        assertEquals(Arrays.asList("b1", "a2"), responseObserver.sentEvents);
+    }
+
+    @Test
+    public void testTooManyPendingEventsCloseTheStream() {
+        AtomicInteger numCloseHandlerCalls = new AtomicInteger();
+        stream.addCloseHandler(numCloseHandlerCalls::incrementAndGet);
+
+        responseObserver.ready = false;
+        for (int i = 0; i < MAX_PENDING_EVENTS; i++) {
+            stream.publish("key" + i, "event" + i);
+        }
+        assertNull(responseObserver.error);
+
+        stream.publish("key" + MAX_PENDING_EVENTS, "event" + MAX_PENDING_EVENTS);
+
+        assertNotNull(responseObserver.error);
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(responseObserver.error).getCode());
+        assertEquals(1, numCloseHandlerCalls.get());
+
+        // A closed stream neither sends nor fails again
+        responseObserver.becomeReady();
+        stream.publish("a", "a1");
+        assertTrue(responseObserver.sentEvents.isEmpty());
+        assertEquals(1, responseObserver.numErrors);
+    }
+
+    @Test
+    public void testCloseHandlersRunOnce() {
+        AtomicInteger numCloseHandlerCalls = new AtomicInteger();
+        stream.addCloseHandler(numCloseHandlerCalls::incrementAndGet);
+
+        responseObserver.cancel();
+        responseObserver.cancel();
+        assertEquals(1, numCloseHandlerCalls.get());
+
+        // Handlers added after the stream got closed are run immediately
+        stream.addCloseHandler(numCloseHandlerCalls::incrementAndGet);
+        assertEquals(2, numCloseHandlerCalls.get());
+
+        stream.publish("a", "a1");
+        assertTrue(responseObserver.sentEvents.isEmpty());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Fake transport
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class FakeServerCallStreamObserver extends ServerCallStreamObserver<String> {
+        private final List<String> sentEvents = new ArrayList<>();
+        private boolean ready = true;
+        // If not negative the transport is not ready anymore after that number of events
+        private int numReadyEvents = -1;
+        private Runnable onReadyHandler;
+        private Runnable onCancelHandler;
+        private Throwable error;
+        private int numErrors;
+
+        void becomeReady() {
+            ready = true;
+            onReadyHandler.run();
+        }
+
+        void cancel() {
+            onCancelHandler.run();
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void onNext(String event) {
+            sentEvents.add(event);
+            if (numReadyEvents > 0 && --numReadyEvents == 0) {
+                ready = false;
+                numReadyEvents = -1;
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            numErrors++;
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+            this.onReadyHandler = onReadyHandler;
+        }
+
+        @Override
+        public void setOnCancelHandler(Runnable onCancelHandler) {
+            this.onCancelHandler = onCancelHandler;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void setCompression(String compression) {
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+        }
+
+        @Override
+        public void request(int count) {
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+        }
+    }
+}
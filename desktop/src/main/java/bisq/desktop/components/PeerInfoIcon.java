@@ -25,6 +25,7 @@ import bisq.core.alert.PrivateNotificationManager;
 import bisq.core.locale.CurrencyUtil;
 import bisq.core.locale.Res;
 import bisq.core.offer.Offer;
+import bisq.core.offer.OfferAccountAgeCache;
 import bisq.core.payment.payload.PaymentMethod;
 import bisq.core.trade.Trade;
 import bisq.core.user.Preferences;
@@ -65,6 +66,8 @@ public class PeerInfoIcon extends Group {
     private final String tooltipText;
     private final int numTrades;
     private final AccountAgeWitnessService accountAgeWitnessService;
+    @Nullable
+    private final OfferAccountAgeCache offerAccountAgeCache;
     private final Map<String, String> peerTagMap;
     private final Label numTradesLabel;
     private final Label tagLabel;
@@ -79,6 +82,7 @@ public class PeerInfoIcon extends Group {
                         Offer offer,
                         Preferences preferences,
                         AccountAgeWitnessService accountAgeWitnessService,
+                        OfferAccountAgeCache offerAccountAgeCache,
                         boolean useDevPrivilegeKeys) {
         this(nodeAddress,
                 role,
@@ -88,6 +92,7 @@ public class PeerInfoIcon extends Group {
                 null,
                 preferences,
                 accountAgeWitnessService,
+                offerAccountAgeCache,
                 useDevPrivilegeKeys);
 
     }
@@ -108,6 +113,7 @@ public class PeerInfoIcon extends Group {
                 trade,
                 preferences,
                 accountAgeWitnessService,
+                null,
                 useDevPrivilegeKeys);
     }
 
@@ -119,9 +125,11 @@ public class PeerInfoIcon extends Group {
                          @Nullable Trade trade,
                          Preferences preferences,
                          AccountAgeWitnessService accountAgeWitnessService,
+                         @Nullable OfferAccountAgeCache offerAccountAgeCache,
                          boolean useDevPrivilegeKeys) {
         this.numTrades = numTrades;
         this.accountAgeWitnessService = accountAgeWitnessService;
+        this.offerAccountAgeCache = offerAccountAgeCache;
 
         double scaleFactor = getScaleFactor();
         fullAddress = nodeAddress != null ? nodeAddress.getFullAddress() : "";
@@ -258,6 +266,7 @@ public class PeerInfoIcon extends Group {
     private Tuple5<Long, Long, String, String, String> getPeersAccountAge(@Nullable Trade trade,
                                                                           @Nullable Offer offer) {
         AccountAgeWitnessService.SignState signState;
+        String signStateDisplayString;
         long signAge = -1L;
         long accountAge = -1L;
 
@@ -268,18 +277,21 @@ public class PeerInfoIcon extends Group {
                 return new Tuple5<>(signAge, accountAge, Res.get("peerInfo.age.noRisk"), null, null);
             }
             signState = accountAgeWitnessService.getSignState(trade);
+            signStateDisplayString = signState.getDisplayString();
             signAge = accountAgeWitnessService.getWitnessSignAge(trade, new Date());
             accountAge = accountAgeWitnessService.getAccountAge(trade);
         } else {
             checkNotNull(offer, "Offer must not be null if trade is null.");
-            signState = accountAgeWitnessService.getSignState(offer);
-            signAge = accountAgeWitnessService.getWitnessSignAge(offer, new Date());
-            accountAge = accountAgeWitnessService.getAccountAge(offer);
+            checkNotNull(offerAccountAgeCache, "OfferAccountAgeCache must not be null if trade is null.");
+            signState = offerAccountAgeCache.getSignState(offer);
+            signStateDisplayString = offerAccountAgeCache.getSignStateDisplayString(offer);
+            signAge = offerAccountAgeCache.getWitnessSignAge(offer);
+            accountAge = offerAccountAgeCache.getAccountAge(offer);
         }
 
         if (hasChargebackRisk(trade, offer)) {
             String signAgeInfo = Res.get("peerInfo.age.chargeBackRisk");
-            String accountSigningState = StringUtils.capitalize(signState.getDisplayString());
+            String accountSigningState = StringUtils.capitalize(signStateDisplayString);
             if (signState.equals(AccountAgeWitnessService.SignState.UNSIGNED))
                 signAgeInfo = null;
 
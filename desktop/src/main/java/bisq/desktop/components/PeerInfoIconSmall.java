@@ -3,6 +3,7 @@ package bisq.desktop.components;
 import bisq.core.account.witness.AccountAgeWitnessService;
 import bisq.core.alert.PrivateNotificationManager;
 import bisq.core.offer.Offer;
+import bisq.core.offer.OfferAccountAgeCache;
 import bisq.core.trade.Trade;
 import bisq.core.user.Preferences;
 
@@ -16,6 +17,7 @@ public class PeerInfoIconSmall extends PeerInfoIcon {
                              Offer offer,
                              Preferences preferences,
                              AccountAgeWitnessService accountAgeWitnessService,
+                             OfferAccountAgeCache offerAccountAgeCache,
                              boolean useDevPrivilegeKeys) {
         // We don't want to show number of trades in that case as it would be unreadable.
         // Also we don't need the privateNotificationManager as no interaction will take place with this icon.
@@ -25,6 +27,7 @@ public class PeerInfoIconSmall extends PeerInfoIcon {
                 offer,
                 preferences,
                 accountAgeWitnessService,
+                offerAccountAgeCache,
                 useDevPrivilegeKeys);
     }
 
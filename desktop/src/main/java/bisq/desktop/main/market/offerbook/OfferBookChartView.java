@@ -37,6 +37,7 @@ import bisq.desktop.util.GUIUtil;
 import bisq.core.locale.CurrencyUtil;
 import bisq.core.locale.Res;
 import bisq.core.offer.Offer;
+import bisq.core.offer.OfferAccountAgeCache;
 import bisq.core.offer.OfferPayload;
 import bisq.core.util.FormattingUtils;
 import bisq.core.util.coin.CoinFormatter;
@@ -109,6 +110,7 @@ public class OfferBookChartView extends ActivatableViewAndModel<VBox, OfferBookC
     private XYChart.Series<Number, Number> seriesBuy, seriesSell;
     private final Navigation navigation;
     private final CoinFormatter formatter;
+    private final OfferAccountAgeCache offerAccountAgeCache;
     private TableView<OfferListItem> buyOfferTableView;
     private TableView<OfferListItem> sellOfferTableView;
     private AreaChart<Number, Number> areaChart;
@@ -141,10 +143,12 @@ public class OfferBookChartView extends ActivatableViewAndModel<VBox, OfferBookC
 
     @Inject
     public OfferBookChartView(OfferBookChartViewModel model, Navigation navigation, @Named(FormattingUtils.BTC_FORMATTER_KEY) CoinFormatter formatter,
-                              @Named(Config.USE_DEV_PRIVILEGE_KEYS) boolean useDevPrivilegeKeys) {
+                              @Named(Config.USE_DEV_PRIVILEGE_KEYS) boolean useDevPrivilegeKeys,
+                              OfferAccountAgeCache offerAccountAgeCache) {
         super(model);
         this.navigation = navigation;
         this.formatter = formatter;
+        this.offerAccountAgeCache = offerAccountAgeCache;
         this.useDevPrivilegeKeys = useDevPrivilegeKeys;
     }
 
@@ -630,6 +634,7 @@ public class OfferBookChartView extends ActivatableViewAndModel<VBox, OfferBookC
                                             offer,
                                             model.preferences,
                                             model.accountAgeWitnessService,
+                                            offerAccountAgeCache,
                                             useDevPrivilegeKeys);
 //                                    setAlignment(Pos.CENTER);
                                     setGraphic(peerInfoIcon);
@@ -40,7 +40,6 @@ import bisq.core.payment.PaymentAccount;
 import bisq.core.provider.fee.FeeService;
 import bisq.core.provider.price.PriceFeedService;
 import bisq.core.trade.handlers.TransactionResultHandler;
-import bisq.core.trade.statistics.TradeStatistics3;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.user.Preferences;
 import bisq.core.user.User;
@@ -80,12 +79,9 @@ import javafx.collections.SetChangeListener;
 
 import java.math.BigInteger;
 
-import java.util.Comparator;
-import java.util.Date;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import lombok.Getter;
 
@@ -348,21 +344,16 @@ public abstract class MutableOfferDataModel extends OfferDataModel {
             }
             // Get average historic prices over for the prior trade period equaling the lock time
             var blocksRange = Restrictions.getLockTime(paymentAccount.getPaymentMethod().isAsset());
-            var startDate = new Date(System.currentTimeMillis() - blocksRange * 10 * 60000);
-            var sortedRangeData = tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                    .filter(e -> e.getCurrency().equals(getTradeCurrency().getCode()))
-                    .filter(e -> e.getDate().compareTo(startDate) >= 0)
-                    .sorted(Comparator.comparing(TradeStatistics3::getDate))
-                    .collect(Collectors.toList());
+            var startDate = System.currentTimeMillis() - blocksRange * 10 * 60000;
             var movingAverage = new MathUtils.MovingAverage(10, 0.2);
             double[] extremes = {Double.MAX_VALUE, Double.MIN_VALUE};
-            sortedRangeData.forEach(e -> {
-                var price = e.getTradePrice().getValue();
-                movingAverage.next(price).ifPresent(val -> {
-                    if (val < extremes[0]) extremes[0] = val;
-                    if (val > extremes[1]) extremes[1] = val;
-                });
-            });
+            tradeStatisticsManager.getTradeStatisticsIndex().forEachInRange(getTradeCurrency().getCode(),
+                    startDate,
+                    Long.MAX_VALUE,
+                    (date, price, amount) -> movingAverage.next(price).ifPresent(val -> {
+                        if (val < extremes[0]) extremes[0] = val;
+                        if (val > extremes[1]) extremes[1] = val;
+                    }));
             var min = extremes[0];
             var max = extremes[1];
             if (min == 0d || max == 0d) {
@@ -25,12 +25,12 @@ import bisq.core.account.witness.AccountAgeWitnessService;
 import bisq.core.locale.CurrencyUtil;
 import bisq.core.locale.Res;
 import bisq.core.offer.Offer;
+import bisq.core.offer.OfferAccountAgeCache;
 import bisq.core.payment.payload.PaymentMethod;
 
 import de.jensd.fx.glyphs.GlyphIcons;
 import de.jensd.fx.glyphs.materialdesignicons.MaterialDesignIcon;
 
-import java.util.Date;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -52,7 +52,8 @@ public class OfferBookListItem {
         this.offer = offer;
     }
 
-    public WitnessAgeData getWitnessAgeData(AccountAgeWitnessService accountAgeWitnessService,
+    public WitnessAgeData getWitnessAgeData(OfferAccountAgeCache offerAccountAgeCache,
+                                            AccountAgeWitnessService accountAgeWitnessService,
                                             SignedWitnessService signedWitnessService) {
         if (witnessAgeData == null) {
             long ageInMs;
@@ -71,22 +72,20 @@ public class OfferBookListItem {
             } else if (PaymentMethod.hasChargebackRisk(offer.getPaymentMethod(), offer.getCurrencyCode())) {
                 // Fiat and signed witness required
                 Optional<AccountAgeWitness> optionalWitness = accountAgeWitnessService.findWitness(offer);
-                AccountAgeWitnessService.SignState signState = optionalWitness.map(accountAgeWitnessService::getSignState)
-                        .orElse(AccountAgeWitnessService.SignState.UNSIGNED);
+                AccountAgeWitnessService.SignState signState = offerAccountAgeCache.getSignState(offer);
                 boolean isSignedAccountAgeWitness = optionalWitness.map(signedWitnessService::isSignedAccountAgeWitness)
                         .orElse(false);
                 if (isSignedAccountAgeWitness || !signState.equals(AccountAgeWitnessService.SignState.UNSIGNED)) {
                     // either signed & limits lifted, or waiting for limits to be lifted
                     // Or banned
-                    daysSinceSignedAsLong = TimeUnit.MILLISECONDS.toDays(optionalWitness.map(witness ->
-                            accountAgeWitnessService.getWitnessSignAge(witness, new Date()))
-                            .orElse(0L));
+                    daysSinceSignedAsLong = TimeUnit.MILLISECONDS.toDays(optionalWitness.isPresent() ?
+                            offerAccountAgeCache.getWitnessSignAge(offer) :
+                            0L);
                     displayString = Res.get("offerbook.timeSinceSigning.daysSinceSigning", daysSinceSignedAsLong);
-                    info = Res.get("offerbook.timeSinceSigning.info", signState.getDisplayString());
+                    info = Res.get("offerbook.timeSinceSigning.info", offerAccountAgeCache.getSignStateDisplayString(offer));
                 } else {
                     // Unsigned case
-                    ageInMs = optionalWitness.map(e -> accountAgeWitnessService.getAccountAge(e, new Date()))
-                            .orElse(-1L);
+                    ageInMs = offerAccountAgeCache.getAccountAge(offer);
                     accountAgeDaysNotYetSignedAsLong = ageInMs > -1 ? TimeUnit.MILLISECONDS.toDays(ageInMs) : 0;
                     displayString = Res.get("offerbook.timeSinceSigning.notSigned");
                     info = Res.get("shared.notSigned", accountAgeDaysNotYetSignedAsLong);
@@ -95,7 +94,7 @@ public class OfferBookListItem {
                 icon = GUIUtil.getIconForSignState(signState);
             } else {
                 // Fiat, no signed witness required, we show account age
-                ageInMs = accountAgeWitnessService.getAccountAge(offer);
+                ageInMs = offerAccountAgeCache.getAccountAge(offer);
                 accountAgeDaysAsLong = ageInMs > -1 ? TimeUnit.MILLISECONDS.toDays(ageInMs) : 0;
                 displayString = Res.get("offerbook.timeSinceSigning.notSigned.ageDays", accountAgeDaysAsLong);
                 info = Res.get("shared.notSigned.noNeedDays", accountAgeDaysAsLong);
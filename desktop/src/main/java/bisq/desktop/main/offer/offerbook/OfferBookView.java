@@ -52,6 +52,7 @@ import bisq.core.locale.Res;
 import bisq.core.locale.TradeCurrency;
 import bisq.core.monetary.Price;
 import bisq.core.offer.Offer;
+import bisq.core.offer.OfferAccountAgeCache;
 import bisq.core.offer.OfferFilter;
 import bisq.core.offer.OfferPayload;
 import bisq.core.offer.OfferRestrictions;
@@ -127,6 +128,7 @@ public class OfferBookView extends ActivatableViewAndModel<GridPane, OfferBookVi
     private final boolean useDevPrivilegeKeys;
     private final AccountAgeWitnessService accountAgeWitnessService;
     private final SignedWitnessService signedWitnessService;
+    private final OfferAccountAgeCache offerAccountAgeCache;
 
     private AutocompleteComboBox<TradeCurrency> currencyComboBox;
     private AutocompleteComboBox<PaymentMethod> paymentMethodComboBox;
@@ -156,7 +158,8 @@ public class OfferBookView extends ActivatableViewAndModel<GridPane, OfferBookVi
                   PrivateNotificationManager privateNotificationManager,
                   @Named(Config.USE_DEV_PRIVILEGE_KEYS) boolean useDevPrivilegeKeys,
                   AccountAgeWitnessService accountAgeWitnessService,
-                  SignedWitnessService signedWitnessService) {
+                  SignedWitnessService signedWitnessService,
+                  OfferAccountAgeCache offerAccountAgeCache) {
         super(model);
 
         this.navigation = navigation;
@@ -166,6 +169,7 @@ public class OfferBookView extends ActivatableViewAndModel<GridPane, OfferBookVi
         this.useDevPrivilegeKeys = useDevPrivilegeKeys;
         this.accountAgeWitnessService = accountAgeWitnessService;
         this.signedWitnessService = signedWitnessService;
+        this.offerAccountAgeCache = offerAccountAgeCache;
     }
 
     @Override
@@ -290,9 +294,9 @@ public class OfferBookView extends ActivatableViewAndModel<GridPane, OfferBookVi
 
         }, Comparator.nullsFirst(Comparator.naturalOrder())));
 
-        Comparator<OfferBookListItem> comparator = Comparator.comparing(e -> e.getWitnessAgeData(accountAgeWitnessService, signedWitnessService).getType(), Comparator.nullsFirst(Comparator.naturalOrder()));
+        Comparator<OfferBookListItem> comparator = Comparator.comparing(e -> e.getWitnessAgeData(offerAccountAgeCache, accountAgeWitnessService, signedWitnessService).getType(), Comparator.nullsFirst(Comparator.naturalOrder()));
         signingStateColumn.setComparator(comparator.
-                thenComparing(e -> e.getWitnessAgeData(accountAgeWitnessService, signedWitnessService).getDays(),
+                thenComparing(e -> e.getWitnessAgeData(offerAccountAgeCache, accountAgeWitnessService, signedWitnessService).getDays(),
                         Comparator.nullsFirst(Comparator.naturalOrder())));
 
         nrOfOffersLabel = new AutoTooltipLabel("");
@@ -1138,7 +1142,7 @@ public class OfferBookView extends ActivatableViewAndModel<GridPane, OfferBookVi
                         super.updateItem(item, empty);
 
                         if (item != null && !empty) {
-                            var witnessAgeData = item.getWitnessAgeData(accountAgeWitnessService, signedWitnessService);
+                            var witnessAgeData = item.getWitnessAgeData(offerAccountAgeCache, accountAgeWitnessService, signedWitnessService);
                             InfoAutoTooltipLabel label = new InfoAutoTooltipLabel(witnessAgeData.getDisplayString(),
                                     witnessAgeData.getIcon(),
                                     ContentDisplay.RIGHT,
@@ -1185,6 +1189,7 @@ public class OfferBookView extends ActivatableViewAndModel<GridPane, OfferBookVi
                                             offer,
                                             model.preferences,
                                             model.accountAgeWitnessService,
+                                            offerAccountAgeCache,
                                             useDevPrivilegeKeys);
                                     setGraphic(peerInfoIcon);
                                 } else {
@@ -35,6 +35,7 @@ import bisq.core.locale.CurrencyUtil;
 import bisq.core.locale.Res;
 import bisq.core.monetary.Price;
 import bisq.core.offer.Offer;
+import bisq.core.offer.OfferAccountAgeCache;
 import bisq.core.offer.OfferPayload;
 import bisq.core.offer.OfferRestrictions;
 import bisq.core.offer.OfferUtil;
@@ -86,6 +87,7 @@ class TakeOfferViewModel extends ActivatableWithDataModel<TakeOfferDataModel> im
     private final BtcValidator btcValidator;
     private final P2PService p2PService;
     private final AccountAgeWitnessService accountAgeWitnessService;
+    private final OfferAccountAgeCache offerAccountAgeCache;
     private final Navigation navigation;
     private final CoinFormatter btcFormatter;
 
@@ -143,6 +145,7 @@ class TakeOfferViewModel extends ActivatableWithDataModel<TakeOfferDataModel> im
                               BtcValidator btcValidator,
                               P2PService p2PService,
                               AccountAgeWitnessService accountAgeWitnessService,
+                              OfferAccountAgeCache offerAccountAgeCache,
                               Navigation navigation,
                               @Named(FormattingUtils.BTC_FORMATTER_KEY) CoinFormatter btcFormatter) {
         super(dataModel);
@@ -151,6 +154,7 @@ class TakeOfferViewModel extends ActivatableWithDataModel<TakeOfferDataModel> im
         this.btcValidator = btcValidator;
         this.p2PService = p2PService;
         this.accountAgeWitnessService = accountAgeWitnessService;
+        this.offerAccountAgeCache = offerAccountAgeCache;
         this.navigation = navigation;
         this.btcFormatter = btcFormatter;
         createListeners();
@@ -633,9 +637,10 @@ class TakeOfferViewModel extends ActivatableWithDataModel<TakeOfferDataModel> im
         if (offer.getDirection() == OfferPayload.Direction.BUY &&
                 PaymentMethod.hasChargebackRisk(offer.getPaymentMethod(), offer.getCurrencyCode())) {
             // considered risky when either UNSIGNED, PEER_INITIAL, or BANNED (see #5343)
-            return accountAgeWitnessService.getSignState(offer) == AccountAgeWitnessService.SignState.UNSIGNED ||
-                    accountAgeWitnessService.getSignState(offer) == AccountAgeWitnessService.SignState.PEER_INITIAL ||
-                    accountAgeWitnessService.getSignState(offer) == AccountAgeWitnessService.SignState.BANNED;
+            AccountAgeWitnessService.SignState signState = offerAccountAgeCache.getSignState(offer);
+            return signState == AccountAgeWitnessService.SignState.UNSIGNED ||
+                    signState == AccountAgeWitnessService.SignState.PEER_INITIAL ||
+                    signState == AccountAgeWitnessService.SignState.BANNED;
         }
         return false;
     }
@@ -25,7 +25,10 @@ import bisq.core.monetary.Price;
 import bisq.core.offer.OfferPayload;
 import bisq.core.payment.payload.PaymentMethod;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.trade.statistics.TickUnit;
 import bisq.core.trade.statistics.TradeStatistics3;
+import bisq.core.trade.statistics.TradeStatisticsCandle;
+import bisq.core.trade.statistics.TradeStatisticsCandleService;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.user.Preferences;
 
@@ -39,6 +42,8 @@ import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 
+import java.time.LocalDateTime;
+
 import java.io.File;
 import java.io.IOException;
 
@@ -57,6 +62,7 @@ import static org.mockito.Mockito.mock;
 public class TradesChartsViewModelTest {
     TradesChartsViewModel model;
     TradeStatisticsManager tradeStatisticsManager;
+    TradeStatisticsCandleService tradeStatisticsCandleService;
 
     DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
     private File dir;
@@ -103,8 +109,9 @@ public class TradesChartsViewModelTest {
     @Before
     public void setup() throws IOException {
         tradeStatisticsManager = mock(TradeStatisticsManager.class);
-        model = new TradesChartsViewModel(tradeStatisticsManager, mock(Preferences.class), mock(PriceFeedService.class),
-                mock(Navigation.class));
+        tradeStatisticsCandleService = new TradeStatisticsCandleService();
+        model = new TradesChartsViewModel(tradeStatisticsManager, tradeStatisticsCandleService, mock(Preferences.class),
+                mock(PriceFeedService.class), mock(Navigation.class));
         dir = File.createTempFile("temp_tests1", "");
         //noinspection ResultOfMethodCallIgnored
         dir.delete();
@@ -128,7 +135,8 @@ public class TradesChartsViewModelTest {
         boolean isBullish = true;
 
         Set<TradeStatistics3> set = new HashSet<>();
-        final Date now = new Date();
+        // Noon, so that all trades are within the same day
+        final Date now = TickUnit.HOUR.roundToTick(LocalDateTime.now().withHour(12));
 
         set.add(new TradeStatistics3(offer.getCurrencyCode(),
                 Price.parse("EUR", "520").getValue(),
@@ -163,7 +171,10 @@ public class TradesChartsViewModelTest {
                 null,
                 null));
 
-        CandleData candleData = model.getCandleData(model.roundToTick(now, TradesChartsViewModel.TickUnit.DAY).getTime(), set, 0);
+        tradeStatisticsCandleService.addAll(set);
+        TradeStatisticsCandle candle = tradeStatisticsCandleService.getCandle("EUR", TickUnit.DAY,
+                model.roundToTick(now, TickUnit.DAY).getTime());
+        CandleData candleData = model.getCandleData(0, candle, 0);
         assertEquals(open, candleData.open);
         assertEquals(close, candleData.close);
         assertEquals(high, candleData.high);
@@ -228,7 +239,7 @@ public class TradesChartsViewModelTest {
         ObservableSet<TradeStatistics3> tradeStats = FXCollections.observableSet(set);
 
         // Run test for each tick type
-        for (TradesChartsViewModel.TickUnit tick : TradesChartsViewModel.TickUnit.values()) {
+        for (TickUnit tick : TickUnit.values()) {
 /*            new Expectations() {{
                 tradeStatisticsManager.getObservableTradeStatisticsSet();
                 result = tradeStats;
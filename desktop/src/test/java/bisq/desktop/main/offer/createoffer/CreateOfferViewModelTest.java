@@ -37,6 +37,7 @@ import bisq.core.payment.payload.PaymentMethod;
 import bisq.core.provider.fee.FeeService;
 import bisq.core.provider.price.MarketPrice;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.trade.statistics.TradeStatisticsIndex;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.user.Preferences;
 import bisq.core.user.User;
@@ -114,6 +115,7 @@ public class CreateOfferViewModelTest {
         when(preferences.getUserCountry()).thenReturn(new Country("ES", "Spain", null));
         when(createOfferService.getRandomOfferId()).thenReturn(UUID.randomUUID().toString());
         when(tradeStats.getObservableTradeStatisticsSet()).thenReturn(FXCollections.observableSet());
+        when(tradeStats.getTradeStatisticsIndex()).thenReturn(new TradeStatisticsIndex());
 
         CreateOfferDataModel dataModel = new CreateOfferDataModel(createOfferService,
             null,
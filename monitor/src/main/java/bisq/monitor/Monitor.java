@@ -27,6 +27,7 @@ import bisq.monitor.metric.TorHiddenServiceStartupTime;
 import bisq.monitor.metric.TorRoundTripTime;
 import bisq.monitor.metric.TorStartupTime;
 import bisq.monitor.reporter.ConsoleReporter;
+import bisq.monitor.reporter.FileReporter;
 import bisq.monitor.reporter.GraphiteReporter;
 
 import bisq.common.app.Capabilities;
@@ -71,6 +72,8 @@ public class Monitor {
      */
     private final List<Metric> metrics = new ArrayList<>();
 
+    private Reporter reporter;
+
     /**
      * Starts up all configured Metrics.
      *
@@ -101,6 +104,10 @@ public class Monitor {
         Properties properties = getProperties();
         if ("true".equals(properties.getProperty("System.useConsoleReporter", "false")))
             graphiteReporter = new ConsoleReporter();
+        // or write the reports to a local file (for testing for example)
+        else if ("true".equals(properties.getProperty("System.useFileReporter", "false")))
+            graphiteReporter = new FileReporter();
+        reporter = graphiteReporter;
 
         // - add available metrics with their reporters
         metrics.add(new TorStartupTime(graphiteReporter));
@@ -136,6 +143,9 @@ public class Monitor {
                     log.info("shutting down active metrics...");
                     Metric.haltAllMetrics();
 
+                    log.info("delivering pending reports...");
+                    reporter.shutDown();
+
                     try {
                         log.info("shutting down tor...");
                         Tor tor = Tor.getDefault();
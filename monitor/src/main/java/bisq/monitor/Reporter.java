@@ -71,4 +71,9 @@ public abstract class Reporter extends Configurable {
      */
     public abstract void report(String key, String value, String timestamp, String prefix);
 
+    /**
+     * Deliver pending reports, if any, and release resources.
+     */
+    public void shutDown() {
+    }
 }
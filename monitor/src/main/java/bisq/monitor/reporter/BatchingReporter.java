@@ -0,0 +1,195 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.monitor.reporter;
+
+import bisq.monitor.Reporter;
+
+import bisq.common.app.Version;
+import bisq.common.config.BaseCurrencyNetwork;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Base class for reporters which deliver the metrics in the Graphite plaintext format.
+ * <p>
+ * Reporting only formats the metric and adds it to a bounded queue, so the metrics never
+ * wait for the network. A single sender thread drains the queue and writes up to
+ * {@link #MAX_BATCH_SIZE} metrics at once. If writing fails, the connection gets closed
+ * and the same batch is retried with an increasing delay. If the queue is full because
+ * the target is not reachable for a long time, new metrics are dropped.
+ *
+ * @see <a href="https://graphite.readthedocs.io/en/latest/feeding-carbon.html">feeding carbon</a>
+ */
+@Slf4j
+public abstract class BatchingReporter extends Reporter {
+    static final int MAX_QUEUE_SIZE = 100_000;
+    static final int MAX_BATCH_SIZE = 1000;
+    private static final long MIN_RETRY_DELAY_MS = 1000;
+    private static final long MAX_RETRY_DELAY_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long SHUTDOWN_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>(MAX_QUEUE_SIZE);
+    private final AtomicLong numDropped = new AtomicLong();
+    private Thread senderThread;
+    private volatile boolean shutDownRequested;
+
+    @Override
+    public void report(long value, String prefix) {
+        report("", String.valueOf(value), String.valueOf(System.currentTimeMillis()), prefix);
+    }
+
+    @Override
+    public void report(long value) {
+        report(value, "");
+    }
+
+    @Override
+    public void report(Map<String, String> values, String prefix) {
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        values.forEach((key, value) -> report(key, value, timestamp, prefix));
+    }
+
+    @Override
+    public void report(Map<String, String> values) {
+        report(values, "");
+    }
+
+    @Override
+    public void report(String key, String value, String timeInMilliseconds, String prefix) {
+        String line = "bisq" + (Version.getBaseCurrencyNetwork() != 0 ? "-" + BaseCurrencyNetwork.values()[Version.getBaseCurrencyNetwork()].getNetwork() : "")
+                + (prefix.isEmpty() ? "" : "." + prefix)
+                + (key.isEmpty() ? "" : "." + key)
+                + " " + value + " " + Long.parseLong(timeInMilliseconds) / 1000 + "\n";
+
+        if (!queue.offer(line)) {
+            if (numDropped.getAndIncrement() % MAX_BATCH_SIZE == 0)
+                log.warn("{} queue is full. Dropped {} metrics so far.", getName(), numDropped.get());
+            return;
+        }
+        startSenderThreadIfNeeded();
+    }
+
+    /**
+     * Delivers the pending metrics and stops the sender thread. Waits at most
+     * {@link #SHUTDOWN_TIMEOUT_MS}.
+     */
+    @Override
+    public void shutDown() {
+        Thread thread;
+        synchronized (this) {
+            shutDownRequested = true;
+            thread = senderThread;
+        }
+        if (thread == null)
+            return;
+
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("{} could not deliver {} metrics before shutdown", getName(), queue.size());
+            thread.interrupt();
+        }
+    }
+
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Writes a batch of Graphite plaintext lines. Only called from the sender thread.
+     *
+     * @param lines newline terminated lines
+     * @throws IOException if the batch could not be written. It will be retried.
+     */
+    protected abstract void write(List<String> lines) throws IOException;
+
+    /**
+     * Closes a connection kept open by {@link #write(List)}. Called from the sender
+     * thread after a failed write and when the sender thread stops.
+     */
+    protected void closeConnection() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized void startSenderThreadIfNeeded() {
+        if (senderThread != null || shutDownRequested)
+            return;
+
+        senderThread = new Thread(this::runSender, getName() + " sender");
+        senderThread.setDaemon(true);
+        senderThread.start();
+    }
+
+    private void runSender() {
+        List<String> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        long retryDelay = MIN_RETRY_DELAY_MS;
+        try {
+            while (!shutDownRequested || !queue.isEmpty() || !batch.isEmpty()) {
+                if (batch.isEmpty()) {
+                    String first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null)
+                        continue;
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                }
+
+                try {
+                    write(batch);
+                    batch.clear();
+                    retryDelay = MIN_RETRY_DELAY_MS;
+                } catch (IOException e) {
+                    closeConnection();
+                    if (shutDownRequested) {
+                        log.warn("{} dropped {} metrics at shutdown. {}", getName(), batch.size() + queue.size(), e.toString());
+                        return;
+                    }
+                    log.warn("{} failed to write {} metrics. Retry in {} ms. {}", getName(), batch.size(), retryDelay, e.toString());
+                    Thread.sleep(retryDelay);
+                    retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            log.error("{} sender thread failed", getName(), t);
+        } finally {
+            closeConnection();
+            synchronized (this) {
+                senderThread = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.monitor.reporter;
+
+import com.google.common.base.Charsets;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import java.io.IOException;
+
+import java.util.List;
+
+/**
+ * Appends our findings in the Graphite plaintext format to a local file, for testing
+ * a setup without a graphite service. The file can be replayed to a graphite service
+ * later, e.g. with <code>nc host 2003 &lt; file</code>.
+ */
+public class FileReporter extends BatchingReporter {
+
+    @Override
+    protected void write(List<String> lines) throws IOException {
+        String path = configuration.getProperty("path", "monitor/work/metrics.txt");
+        StringBuilder batch = new StringBuilder();
+        lines.forEach(batch::append);
+        Files.write(Paths.get(path), batch.toString().getBytes(Charsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
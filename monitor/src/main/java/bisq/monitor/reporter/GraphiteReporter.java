@@ -18,89 +18,83 @@
 package bisq.monitor.reporter;
 
 import bisq.monitor.OnionParser;
-import bisq.monitor.Reporter;
 
 import bisq.network.p2p.NodeAddress;
 
-import bisq.common.app.Version;
-import bisq.common.config.BaseCurrencyNetwork;
-
 import org.berndpruenster.netlayer.tor.TorSocket;
 
 import com.google.common.base.Charsets;
 
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 /**
  * Reports our findings to a graphite service.
+ * <p>
+ * All metrics are sent over one persistent connection in batches of plaintext lines,
+ * instead of opening a new connection, through Tor for onion services, per metric.
  *
  * @author Florian Reimair
  */
-public class GraphiteReporter extends Reporter {
-
-    @Override
-    public void report(long value, String prefix) {
-        HashMap<String, String> result = new HashMap<>();
-        result.put("", String.valueOf(value));
-        report(result, prefix);
-
-    }
+public class GraphiteReporter extends BatchingReporter {
 
-    @Override
-    public void report(long value) {
-        report(value, "");
-    }
+    private Socket socket;
+    private String connectedServiceUrl;
 
     @Override
-    public void report(Map<String, String> values, String prefix) {
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        values.forEach((key, value) -> {
-
-            report(key, value, timestamp, prefix);
-            try {
-                // give Tor some slack
-                // TODO maybe use the pickle protocol?
-                // https://graphite.readthedocs.io/en/latest/feeding-carbon.html
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
-            }
-        });
-    }
+    protected void write(List<String> lines) throws IOException {
+        String serviceUrl = configuration.getProperty("serviceUrl");
+        if (serviceUrl == null)
+            throw new IOException("serviceUrl is not configured");
 
-    @Override
-    public void report(String key, String value, String timeInMilliseconds, String prefix) {
-        // https://graphite.readthedocs.io/en/latest/feeding-carbon.html
-        String report = "bisq" + (Version.getBaseCurrencyNetwork() != 0 ? "-" + BaseCurrencyNetwork.values()[Version.getBaseCurrencyNetwork()].getNetwork() : "")
-                + (prefix.isEmpty() ? "" : "." + prefix)
-                + (key.isEmpty() ? "" : "." + key)
-                + " " + value + " " + Long.parseLong(timeInMilliseconds) / 1000 + "\n";
+        // the service url can change on a configuration reload
+        if (socket != null && (!serviceUrl.equals(connectedServiceUrl) || isClosedByPeer(socket)))
+            closeConnection();
 
-        try {
-            NodeAddress nodeAddress = OnionParser.getNodeAddress(configuration.getProperty("serviceUrl"));
-            Socket socket;
+        if (socket == null) {
+            NodeAddress nodeAddress = OnionParser.getNodeAddress(serviceUrl);
             if (nodeAddress.getFullAddress().contains(".onion"))
                 socket = new TorSocket(nodeAddress.getHostName(), nodeAddress.getPort());
             else
                 socket = new Socket(nodeAddress.getHostName(), nodeAddress.getPort());
+            connectedServiceUrl = serviceUrl;
+        }
 
-            socket.getOutputStream().write(report.getBytes(Charsets.UTF_8));
-            socket.close();
+        StringBuilder batch = new StringBuilder();
+        lines.forEach(batch::append);
+        OutputStream outputStream = socket.getOutputStream();
+        outputStream.write(batch.toString().getBytes(Charsets.UTF_8));
+        outputStream.flush();
+    }
+
+    // Carbon never sends data, so end of stream means that it closed the connection.
+    // Writing to such a socket might still succeed once, but the data would be lost.
+    private static boolean isClosedByPeer(Socket socket) {
+        try {
+            socket.setSoTimeout(1);
+            return socket.getInputStream().read() == -1;
+        } catch (SocketTimeoutException e) {
+            return false;
         } catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+            return true;
         }
-
     }
 
     @Override
-    public void report(Map<String, String> values) {
-        report(values, "");
+    protected void closeConnection() {
+        if (socket == null)
+            return;
+
+        try {
+            socket.close();
+        } catch (IOException ignore) {
+        }
+        socket = null;
+        connectedServiceUrl = null;
     }
 }
@@ -0,0 +1,96 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.monitor.reporter;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GraphiteReporterTest {
+
+    private ServerSocket serverSocket;
+    private GraphiteReporter reporter;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        serverSocket = new ServerSocket(0);
+        serverSocket.setSoTimeout(10_000);
+
+        Properties properties = new Properties();
+        properties.put("GraphiteReporter.serviceUrl", "127.0.0.1:" + serverSocket.getLocalPort());
+        reporter = new GraphiteReporter();
+        reporter.configure(properties);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        reporter.shutDown();
+        serverSocket.close();
+    }
+
+    @Test
+    public void reportsAllMetricsOverOneConnection() throws Exception {
+        int numMetrics = BatchingReporter.MAX_BATCH_SIZE * 2 + 1;
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < numMetrics; i++) {
+            values.put("metric" + i, String.valueOf(i));
+        }
+        reporter.report(values, "test");
+
+        try (Socket socket = serverSocket.accept();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()))) {
+            for (int i = 0; i < numMetrics; i++) {
+                String[] parts = reader.readLine().split(" ");
+                assertEquals(3, parts.length);
+                assertTrue(parts[0].contains(".test.metric"));
+                assertEquals(parts[0].substring(parts[0].lastIndexOf("metric") + "metric".length()), parts[1]);
+            }
+        }
+    }
+
+    @Test
+    public void reconnectsAfterConnectionGotClosed() throws Exception {
+        reporter.report(1, "first");
+        try (Socket socket = serverSocket.accept();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()))) {
+            assertTrue(reader.readLine().contains(".first "));
+        }
+        // give the reporter time to receive the close
+        Thread.sleep(200);
+
+        reporter.report(2, "second");
+        try (Socket socket = serverSocket.accept();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()))) {
+            assertTrue(reader.readLine().contains(".second "));
+        }
+    }
+}
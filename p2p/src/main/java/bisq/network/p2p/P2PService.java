@@ -202,6 +202,10 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             p2PDataStorage.shutDown();
         }
 
+        if (mailboxMessageService != null) {
+            mailboxMessageService.shutDown();
+        }
+
         if (peerManager != null) {
             peerManager.shutDown();
         }
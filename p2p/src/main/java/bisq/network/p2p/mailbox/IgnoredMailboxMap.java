@@ -23,6 +23,7 @@ import bisq.common.util.CollectionUtils;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -34,8 +35,10 @@ public class IgnoredMailboxMap implements PersistableEnvelope {
     @Getter
     private final Map<String, Long> dataMap;
 
+    // We get read from the threads decrypting mailbox messages while written on the user thread, so we use a
+    // ConcurrentHashMap.
     public IgnoredMailboxMap() {
-        this.dataMap = new HashMap<>();
+        this.dataMap = new ConcurrentHashMap<>();
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
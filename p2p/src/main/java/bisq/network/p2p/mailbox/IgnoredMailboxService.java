@@ -25,6 +25,8 @@ import bisq.common.proto.persistable.PersistedDataHost;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import java.util.Map;
+
 /**
  * We persist failed attempts to decrypt mailbox messages (expected if mailbox message was not addressed to us).
  * This improves performance at processing mailbox messages.
@@ -64,8 +66,12 @@ public class IgnoredMailboxService implements PersistedDataHost {
         return ignoredMailboxMap.containsKey(uid);
     }
 
-    public void ignore(String uid, long creationTimeStamp) {
-        ignoredMailboxMap.put(uid, creationTimeStamp);
+    // Called on the user thread with all entries of a batch we failed to decrypt, so we request persistence only once.
+    public void ignore(Map<String, Long> creationTimeStampByUid) {
+        if (creationTimeStampByUid.isEmpty()) {
+            return;
+        }
+        ignoredMailboxMap.putAll(creationTimeStampByUid);
         persistenceManager.requestPersistence();
     }
 }
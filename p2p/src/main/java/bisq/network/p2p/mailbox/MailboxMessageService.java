@@ -54,6 +54,7 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -74,11 +75,13 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
-import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -112,12 +115,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
 @Slf4j
 public class MailboxMessageService implements HashMapChangedListener, PersistedDataHost {
     private static final long REPUBLISH_DELAY_SEC = TimeUnit.MINUTES.toSeconds(2);
+    // Decryption is CPU bound, so we use at max one thread per core but leave one core for the user thread.
+    private static final int DECRYPTION_POOL_SIZE = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final int MIN_DECRYPTION_CHUNK_SIZE = 50;
 
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
     private final P2PDataStorage p2PDataStorage;
     private final EncryptionService encryptionService;
     private final IgnoredMailboxService ignoredMailboxService;
+    private final MailboxReceiverIndex mailboxReceiverIndex;
     private final PersistenceManager<MailboxMessageList> persistenceManager;
     private final KeyRing keyRing;
     private final Clock clock;
@@ -128,6 +135,8 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     private final Map<String, MailboxItem> mailboxItemsByUid = new HashMap<>();
 
     private boolean isBootstrapped;
+    @Nullable
+    private ListeningExecutorService decryptionExecutor;
 
     @Inject
     public MailboxMessageService(NetworkNode networkNode,
@@ -149,6 +158,8 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         this.clock = clock;
         this.republishMailboxEntries = republishMailboxEntries;
 
+        mailboxReceiverIndex = new MailboxReceiverIndex(keyRing.getPubKeyRing());
+
         this.persistenceManager.initialize(mailboxMessageList, PersistenceManager.Source.PRIVATE_LOW_PRIO);
     }
 
@@ -340,6 +351,12 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         decryptedMailboxListeners.add(listener);
     }
 
+    public void shutDown() {
+        if (decryptionExecutor != null) {
+            decryptionExecutor.shutdownNow();
+        }
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // HashMapChangedListener implementation for ProtectedStorageEntry items
@@ -385,28 +402,64 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
 
     private void processSingleMailboxEntry(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries) {
         checkArgument(protectedMailboxStorageEntries.size() == 1);
-        var mailboxItems = new ArrayList<>(getMailboxItems(protectedMailboxStorageEntries));
+        Map<String, Long> ignoredCreationTimeStampByUid = new HashMap<>();
+        var mailboxItems = new ArrayList<>(getMailboxItems(protectedMailboxStorageEntries, ignoredCreationTimeStampByUid));
+        ignoredMailboxService.ignore(ignoredCreationTimeStampByUid);
         if (mailboxItems.size() == 1) {
             handleMailboxItem(mailboxItems.get(0));
         }
     }
 
-    // We run the batch processing of all mailbox messages we have received at startup in a thread to not block the UI.
-    // For about 1000 messages decryption takes about 1 sec.
+    // We run the batch processing of all mailbox messages we have received at startup in a thread pool to not block
+    // the UI. For about 1000 messages decryption takes about 1 sec on a single core, so we split the entries into
+    // chunks which get processed in parallel. As the chunks are small compared to the number of threads, idle threads
+    // pick up the remaining chunks and the results get applied as soon as a chunk is done instead of waiting for the
+    // whole batch. The entries of a chunk we failed to decrypt get marked as ignored in the same user thread task.
     private void threadedBatchProcessMailboxEntries(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries) {
-        ListeningExecutorService executor = Utilities.getSingleThreadListeningExecutor("processMailboxEntry-" + new Random().nextInt(1000));
+        ListeningExecutorService executor = getDecryptionExecutor();
+        List<ProtectedMailboxStorageEntry> entries = new ArrayList<>(protectedMailboxStorageEntries);
+        int chunkSize = Math.max(MIN_DECRYPTION_CHUNK_SIZE, entries.size() / (DECRYPTION_POOL_SIZE * 4) + 1);
+        AtomicInteger numMine = new AtomicInteger();
         long ts = System.currentTimeMillis();
-        ListenableFuture<Set<MailboxItem>> future = executor.submit(() -> {
-            var mailboxItems = getMailboxItems(protectedMailboxStorageEntries);
-            log.info("Batch processing of {} mailbox entries took {} ms",
-                    protectedMailboxStorageEntries.size(),
-                    System.currentTimeMillis() - ts);
-            return mailboxItems;
+
+        List<ListenableFuture<Set<MailboxItem>>> futures = new ArrayList<>();
+        Lists.partition(entries, chunkSize).forEach(chunk -> {
+            // Only written by the task of that chunk and read after it has completed
+            Map<String, Long> ignoredCreationTimeStampByUid = new HashMap<>();
+            ListenableFuture<Set<MailboxItem>> future = executor.submit(() ->
+                    getMailboxItems(chunk, ignoredCreationTimeStampByUid));
+            Futures.addCallback(future, new FutureCallback<>() {
+                public void onSuccess(Set<MailboxItem> decryptedMailboxMessageWithEntries) {
+                    decryptedMailboxMessageWithEntries.stream()
+                            .filter(MailboxItem::isMine)
+                            .forEach(e -> numMine.incrementAndGet());
+                    UserThread.execute(() -> {
+                        ignoredMailboxService.ignore(ignoredCreationTimeStampByUid);
+                        decryptedMailboxMessageWithEntries.forEach(e -> handleMailboxItem(e));
+                    });
+                }
+
+                public void onFailure(@NotNull Throwable throwable) {
+                    log.error(throwable.toString());
+                }
+            }, MoreExecutors.directExecutor());
+            futures.add(future);
         });
 
-        Futures.addCallback(future, new FutureCallback<>() {
-            public void onSuccess(Set<MailboxItem> decryptedMailboxMessageWithEntries) {
-                UserThread.execute(() -> decryptedMailboxMessageWithEntries.forEach(e -> handleMailboxItem(e)));
+        int numChunks = futures.size();
+        Futures.addCallback(Futures.successfulAsList(futures), new FutureCallback<>() {
+            public void onSuccess(List<Set<MailboxItem>> result) {
+                long duration = Math.max(1, System.currentTimeMillis() - ts);
+                long numFailedChunks = result.stream().filter(Objects::isNull).count();
+                log.info("Batch processing of {} mailbox entries in {} chunks using {} threads took {} ms " +
+                                "({} entries/sec). Found {} mailbox messages for us. {} chunks failed.",
+                        entries.size(),
+                        numChunks,
+                        DECRYPTION_POOL_SIZE,
+                        duration,
+                        entries.size() * 1000L / duration,
+                        numMine.get(),
+                        numFailedChunks);
             }
 
             public void onFailure(@NotNull Throwable throwable) {
@@ -415,20 +468,41 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         }, MoreExecutors.directExecutor());
     }
 
-    private Set<MailboxItem> getMailboxItems(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries) {
+    private ListeningExecutorService getDecryptionExecutor() {
+        if (decryptionExecutor == null) {
+            // We use an unbounded queue as a rejected chunk would lead to lost mailbox messages. The number of threads
+            // is bounded and the threads time out if idle.
+            decryptionExecutor = Utilities.getListeningExecutorService("MailboxDecryption-%d",
+                    DECRYPTION_POOL_SIZE,
+                    DECRYPTION_POOL_SIZE,
+                    30,
+                    new LinkedBlockingQueue<>());
+        }
+        return decryptionExecutor;
+    }
+
+    // The uids of the entries we failed to decrypt get added to ignoredCreationTimeStampByUid
+    private Set<MailboxItem> getMailboxItems(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries,
+                                             Map<String, Long> ignoredCreationTimeStampByUid) {
         Set<MailboxItem> mailboxItems = new HashSet<>();
         protectedMailboxStorageEntries.stream()
-                .map(this::tryDecryptProtectedMailboxStorageEntry)
+                .map(entry -> tryDecryptProtectedMailboxStorageEntry(entry, ignoredCreationTimeStampByUid))
                 .forEach(mailboxItems::add);
         return mailboxItems;
     }
 
-    private MailboxItem tryDecryptProtectedMailboxStorageEntry(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+    private MailboxItem tryDecryptProtectedMailboxStorageEntry(ProtectedMailboxStorageEntry protectedMailboxStorageEntry,
+                                                               Map<String, Long> ignoredCreationTimeStampByUid) {
         PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = protectedMailboxStorageEntry
                 .getMailboxStoragePayload()
                 .getPrefixedSealedAndSignedMessage();
         SealedAndSigned sealedAndSigned = prefixedSealedAndSignedMessage.getSealedAndSigned();
         String uid = prefixedSealedAndSignedMessage.getUid();
+        if (!mailboxReceiverIndex.isCandidate(protectedMailboxStorageEntry)) {
+            // The receiver key of the entry is not ours, so we would fail to decrypt it. We skip the decryption and
+            // don't need to persist it as ignored as the lookup is cheap.
+            return new MailboxItem(protectedMailboxStorageEntry, null);
+        }
         if (ignoredMailboxService.isIgnored(uid)) {
             // We had persisted a past failed decryption attempt on that message so we don't try again and return early
             return new MailboxItem(protectedMailboxStorageEntry, null);
@@ -440,7 +514,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         } catch (CryptoException ignore) {
             // Expected if message was not intended for us
             // We persist those entries so at the next startup we do not need to try to decrypt it anymore
-            ignoredMailboxService.ignore(uid, protectedMailboxStorageEntry.getCreationTimeStamp());
+            ignoredCreationTimeStampByUid.put(uid, protectedMailboxStorageEntry.getCreationTimeStamp());
         } catch (ProtobufferException e) {
             log.error(e.toString());
             e.getStackTrace();
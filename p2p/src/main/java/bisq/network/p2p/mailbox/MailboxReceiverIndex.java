@@ -0,0 +1,57 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.mailbox;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+
+import bisq.common.crypto.Hash;
+import bisq.common.crypto.PubKeyRing;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of short hashes of the receiver keys we can decrypt mailbox messages for.
+ * The ProtectedMailboxStorageEntry carries the signature pub key of the receiver, so we can look up if an entry is a
+ * candidate for us before we try the expensive decryption and signature verification. A false positive from a hash
+ * collision only leads to a decryption attempt which fails as before.
+ */
+public class MailboxReceiverIndex {
+    static final int RECEIVER_HINT_LENGTH = 8;
+
+    // Can be read from the mailbox decryption threads.
+    private final Set<P2PDataStorage.ByteArray> receiverHints = ConcurrentHashMap.newKeySet();
+
+    public MailboxReceiverIndex(PubKeyRing pubKeyRing) {
+        add(pubKeyRing);
+    }
+
+    public void add(PubKeyRing pubKeyRing) {
+        receiverHints.add(getReceiverHint(pubKeyRing.getSignaturePubKeyBytes()));
+    }
+
+    public boolean isCandidate(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        return receiverHints.contains(getReceiverHint(protectedMailboxStorageEntry.getReceiversPubKeyBytes()));
+    }
+
+    public static P2PDataStorage.ByteArray getReceiverHint(byte[] receiversPubKeyBytes) {
+        return new P2PDataStorage.ByteArray(Arrays.copyOf(Hash.getSha256Hash(receiversPubKeyBytes), RECEIVER_HINT_LENGTH));
+    }
+}
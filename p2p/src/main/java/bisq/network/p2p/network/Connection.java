@@ -76,11 +76,15 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import java.lang.ref.WeakReference;
 
@@ -113,6 +117,25 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     //TODO decrease limits again after testing
     private static final int SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(180);
 
+    // Shared by all connections. Reading from the socket is blocking as the SOCKS sockets used for Tor do not support
+    // non-blocking channels, so each open connection occupies one thread for its InputHandler. Idle threads are reused
+    // for new connections instead of creating and tearing down an executor per connection.
+    // The pool is intentionally unbounded: a bound would reject the InputHandler of a new connection while the socket
+    // is already open. The number of threads is limited by the number of open connections, which the PeerManager keeps
+    // below maxConnectionsAbsolute, plus the short-lived tasks sending the CloseConnectionMessage and writing pending
+    // bundles. Each connection writes its bundles on a sequential executor, so it adds at most one such task at a time.
+    private static final ExecutorService CONNECTION_EXECUTOR = Utilities.getListeningExecutorService("Connection-%d",
+            0, Integer.MAX_VALUE, 60, new SynchronousQueue<>());
+    // Triggers the sending of the bundled envelopes of all connections once their throttle delay has passed. It only
+    // hands the write over to the bundle writer of the connection, so a slow socket does not block other connections.
+    private static final ScheduledExecutorService BUNDLE_SCHEDULER = Utilities.getScheduledThreadPoolExecutor(
+            "Connection.bundleScheduler-%d", 1, 1, 60);
+    // Runs the thread safe message listeners of all connections. Each connection uses a sequential executor on top
+    // of it so that its messages are processed in order while different connections are processed in parallel.
+    private static final ExecutorService DISPATCHER_EXECUTOR = Utilities.getListeningExecutorService(
+            "Connection.dispatcher-%d", Runtime.getRuntime().availableProcessors(),
+            Runtime.getRuntime().availableProcessors(), 60, new LinkedBlockingQueue<>());
+
     public static int getPermittedMessageSize() {
         return PERMITTED_MESSAGE_SIZE;
     }
@@ -129,7 +152,11 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     private final NetworkFilter networkFilter;
     @Getter
     private final String uid;
-    private final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "Connection.java executor-service"));
+    @Nullable
+    private Future<?> inputHandlerFuture;
+    private final Executor dispatcher = MoreExecutors.newSequentialExecutor(DISPATCHER_EXECUTOR);
+    // Writes the pending bundles of this connection in the order they got scheduled.
+    private final Executor bundleWriter = MoreExecutors.newSequentialExecutor(CONNECTION_EXECUTOR);
     // holder of state shared between InputHandler and Connection
     @Getter
     private final Statistic statistic;
@@ -197,8 +224,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             // It will not return until that header has been read.
             protoOutputStream = new SynchronizedProtoOutputStream(socket.getOutputStream(), statistic);
             protoInputStream = socket.getInputStream();
-            // We create a thread for handling inputStream data
-            singleThreadExecutor.submit(this);
+            // We use a thread of the shared executor for handling inputStream data
+            inputHandlerFuture = CONNECTION_EXECUTOR.submit(this);
 
             if (peersNodeAddress != null) {
                 setPeersNodeAddress(peersNodeAddress);
@@ -221,12 +248,38 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         return capabilities;
     }
 
+    // Envelopes collected while throttled, which get sent together as BundleOfEnvelopes. We track the size of the
+    // bundle as envelopes get added instead of serializing the whole bundle again for each added envelope.
+    private static class PendingBundle {
+        private final List<EncodedEnvelope> envelopes = new ArrayList<>();
+        private int size = EncodedEnvelope.getEmptyBundleSize();
+
+        private void add(EncodedEnvelope envelope) {
+            envelopes.add(envelope);
+            size += envelope.getBundledSize();
+        }
+    }
+
     private final Object lock = new Object();
-    private final Queue<BundleOfEnvelopes> queueOfBundles = new ConcurrentLinkedQueue<>();
-    private final ScheduledExecutorService bundleSender = Executors.newSingleThreadScheduledExecutor();
+    private final Queue<PendingBundle> queueOfBundles = new ConcurrentLinkedQueue<>();
 
     // Called from various threads
     public void sendMessage(NetworkEnvelope networkEnvelope) {
+        doSendMessage(networkEnvelope, () -> EncodedEnvelope.of(networkEnvelope));
+    }
+
+    /**
+     * Sends an envelope which is already serialized, so that the same encoding can be shared by many connections,
+     * e.g. in a broadcast.
+     */
+    // Called from various threads
+    public void sendMessage(EncodedEnvelope encodedEnvelope) {
+        doSendMessage(encodedEnvelope.getEnvelope(), () -> encodedEnvelope);
+    }
+
+    // We only serialize the networkEnvelope once it passed the checks, so we do not serialize it for nothing if we
+    // are stopped or the peer does not support it.
+    private void doSendMessage(NetworkEnvelope networkEnvelope, Supplier<EncodedEnvelope> encodedEnvelopeSupplier) {
         long ts = System.currentTimeMillis();
         log.debug(">> Send networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
 
@@ -246,7 +299,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             log.debug("Capability for networkEnvelope is required but not supported");
             return;
         }
-        int networkEnvelopeSize = networkEnvelope.toProtoNetworkEnvelope().getSerializedSize();
+        EncodedEnvelope encodedEnvelope = encodedEnvelopeSupplier.get();
+        int networkEnvelopeSize = encodedEnvelope.getSerializedSize();
         try {
             // Throttle outbound network_messages
             long now = System.currentTimeMillis();
@@ -263,48 +317,20 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         // check if current envelope fits size
                         // - no? create new envelope
 
-                        int size = !queueOfBundles.isEmpty() ? queueOfBundles.element().toProtoNetworkEnvelope().getSerializedSize() + networkEnvelopeSize : 0;
+                        int size = !queueOfBundles.isEmpty() ? queueOfBundles.element().size + encodedEnvelope.getBundledSize() : 0;
                         if (queueOfBundles.isEmpty() || size > MAX_PERMITTED_MESSAGE_SIZE * 0.9) {
                             // - no? create a bucket
-                            queueOfBundles.add(new BundleOfEnvelopes());
+                            queueOfBundles.add(new PendingBundle());
 
                             // - and schedule it for sending
                             lastSendTimeStamp += getSendMsgThrottleSleep();
 
-                            bundleSender.schedule(() -> {
-                                if (!stopped) {
-                                    synchronized (lock) {
-                                        BundleOfEnvelopes bundle = queueOfBundles.poll();
-                                        if (bundle != null && !stopped) {
-                                            NetworkEnvelope envelope;
-                                            int msgSize;
-                                            if (bundle.getEnvelopes().size() == 1) {
-                                                envelope = bundle.getEnvelopes().get(0);
-                                                msgSize = envelope.toProtoNetworkEnvelope().getSerializedSize();
-                                            } else {
-                                                envelope = bundle;
-                                                msgSize = networkEnvelopeSize;
-                                            }
-                                            try {
-                                                protoOutputStream.writeEnvelope(envelope);
-                                                UserThread.execute(() -> messageListeners.forEach(e -> e.onMessageSent(envelope, this)));
-                                                UserThread.execute(() -> connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, msgSize));
-                                            } catch (Throwable t) {
-                                                log.error("Sending envelope of class {} to address {} " +
-                                                                "failed due {}",
-                                                        envelope.getClass().getSimpleName(),
-                                                        this.getPeersNodeAddressOptional(),
-                                                        t.toString());
-                                                log.error("envelope: {}", envelope);
-                                            }
-                                        }
-                                    }
-                                }
-                            }, lastSendTimeStamp - now, TimeUnit.MILLISECONDS);
+                            BUNDLE_SCHEDULER.schedule(() -> bundleWriter.execute(() -> sendPendingBundle(ts)),
+                                    lastSendTimeStamp - now, TimeUnit.MILLISECONDS);
                         }
 
                         // - yes? add to bucket
-                        queueOfBundles.element().add(networkEnvelope);
+                        queueOfBundles.element().add(encodedEnvelope);
                     }
                     return;
                 }
@@ -315,15 +341,47 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             lastSendTimeStamp = now;
 
             if (!stopped) {
-                protoOutputStream.writeEnvelope(networkEnvelope);
-                UserThread.execute(() -> messageListeners.forEach(e -> e.onMessageSent(networkEnvelope, this)));
-                UserThread.execute(() -> connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, networkEnvelopeSize));
+                protoOutputStream.writeEnvelope(encodedEnvelope);
+                onMessageSent(networkEnvelope);
+                connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, networkEnvelopeSize);
             }
         } catch (Throwable t) {
             handleException(t);
         }
     }
 
+    // Called on the bundleWriter. We only take the bundle under the lock, so that threads adding envelopes to the
+    // next bundle are not blocked by a slow socket write.
+    private void sendPendingBundle(long ts) {
+        if (stopped) {
+            return;
+        }
+
+        PendingBundle bundle;
+        synchronized (lock) {
+            bundle = queueOfBundles.poll();
+        }
+        if (bundle == null || stopped) {
+            return;
+        }
+
+        EncodedEnvelope envelope = bundle.envelopes.size() == 1 ?
+                bundle.envelopes.get(0) :
+                EncodedEnvelope.bundle(bundle.envelopes);
+        try {
+            protoOutputStream.writeEnvelope(envelope);
+            onMessageSent(envelope.getEnvelope());
+            connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, envelope.getSerializedSize());
+        } catch (Throwable t) {
+            log.error("Sending envelope of class {} to address {} " +
+                            "failed due {}",
+                    envelope.getEnvelope().getClass().getSimpleName(),
+                    this.getPeersNodeAddressOptional(),
+                    t.toString());
+            log.error("envelope: {}", envelope.getEnvelope());
+        }
+    }
+
     // TODO: If msg is BundleOfEnvelopes we should check each individual message for capability and filter out those
     //  which fail.
     public boolean noCapabilityRequiredOrCapabilityIsSupported(Proto msg) {
@@ -433,10 +491,39 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         if (networkEnvelope instanceof BundleOfEnvelopes) {
             onBundleOfEnvelopes((BundleOfEnvelopes) networkEnvelope, connection);
         } else {
-            UserThread.execute(() -> messageListeners.forEach(e -> e.onMessage(networkEnvelope, connection)));
+            dispatchMessage(networkEnvelope, connection);
         }
     }
 
+    // Thread safe listeners are called on the dispatcher of this connection, all others on the UserThread. We collect
+    // the UserThread work of all listeners and run it in a single UserThread task per message, so the listeners see
+    // the messages of a connection in the order we received them and in the order the listeners got added.
+    private void dispatchMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+        dispatcher.execute(() -> {
+            List<Runnable> userThreadHandlers = new ArrayList<>();
+            MessageListener.dispatch(messageListeners, networkEnvelope, connection, userThreadHandlers::add);
+            executeOnUserThread(userThreadHandlers);
+        });
+    }
+
+    private void onMessageSent(NetworkEnvelope networkEnvelope) {
+        dispatcher.execute(() -> {
+            List<Runnable> userThreadHandlers = new ArrayList<>();
+            messageListeners.forEach(listener -> {
+                if (listener.isThreadSafe())
+                    listener.onMessageSent(networkEnvelope, this);
+                else
+                    userThreadHandlers.add(() -> listener.onMessageSent(networkEnvelope, this));
+            });
+            executeOnUserThread(userThreadHandlers);
+        });
+    }
+
+    private void executeOnUserThread(List<Runnable> handlers) {
+        if (!handlers.isEmpty())
+            UserThread.execute(() -> handlers.forEach(Runnable::run));
+    }
+
     private void onBundleOfEnvelopes(BundleOfEnvelopes bundleOfEnvelopes, Connection connection) {
         Map<P2PDataStorage.ByteArray, Set<NetworkEnvelope>> itemsByHash = new HashMap<>();
         Set<NetworkEnvelope> envelopesToProcess = new HashSet<>();
@@ -466,8 +553,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                 envelopesToProcess.add(networkEnvelope);
             }
         }
-        envelopesToProcess.forEach(envelope -> UserThread.execute(() ->
-                messageListeners.forEach(listener -> listener.onMessage(envelope, connection))));
+        envelopesToProcess.forEach(envelope -> dispatchMessage(envelope, connection));
     }
 
 
@@ -523,7 +609,9 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                     + "\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n");
 
             if (closeConnectionReason.sendCloseMessage) {
-                new Thread(() -> {
+                CONNECTION_EXECUTOR.execute(() -> {
+                    String threadName = Thread.currentThread().getName();
+                    Thread.currentThread().setName("Connection:SendCloseConnectionMessage-" + this.uid);
                     try {
                         String reason = closeConnectionReason == CloseConnectionReason.RULE_VIOLATION ?
                                 getRuleViolation().name() : closeConnectionReason.name();
@@ -539,8 +627,9 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                     } finally {
                         stopped = true;
                         UserThread.execute(() -> doShutDown(closeConnectionReason, shutDownCompleteHandler));
+                        Thread.currentThread().setName(threadName);
                     }
-                }, "Connection:SendCloseConnectionMessage-" + this.uid).start();
+                });
             } else {
                 stopped = true;
                 doShutDown(closeConnectionReason, shutDownCompleteHandler);
@@ -574,10 +663,10 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                 e.printStackTrace();
             }
 
-            //noinspection UnstableApiUsage
-            MoreExecutors.shutdownAndAwaitTermination(singleThreadExecutor, 500, TimeUnit.MILLISECONDS);
-            //noinspection UnstableApiUsage
-            MoreExecutors.shutdownAndAwaitTermination(bundleSender, 500, TimeUnit.MILLISECONDS);
+            // The InputHandler thread is returned to the shared executor. Pending bundles are dropped by the
+            // bundle writer as we are stopped.
+            if (inputHandlerFuture != null)
+                inputHandlerFuture.cancel(true);
 
             log.debug("Connection shutdown complete {}", this.toString());
             // Use UserThread.execute as its not clear if that is called from a non-UserThread
@@ -749,6 +838,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
 
     @Override
     public void run() {
+        // The thread is pooled, so we restore its name when we are done.
+        String threadName = Thread.currentThread().getName();
         try {
             Thread.currentThread().setName("InputHandler");
             while (!stopped && !Thread.currentThread().isInterrupted()) {
@@ -880,7 +971,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         }
 
                         onMessage(networkEnvelope, this);
-                        UserThread.execute(() -> connectionStatistics.addReceivedMsgMetrics(System.currentTimeMillis() - ts, size));
+                        connectionStatistics.addReceivedMsgMetrics(System.currentTimeMillis() - ts, size);
                     }
                 } catch (InvalidClassException e) {
                     log.error(e.getMessage());
@@ -896,6 +987,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             }
         } catch (Throwable t) {
             handleException(t);
+        } finally {
+            Thread.currentThread().setName(threadName);
         }
     }
 
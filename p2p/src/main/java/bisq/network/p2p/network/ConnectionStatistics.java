@@ -41,16 +41,17 @@ public class ConnectionStatistics implements MessageListener {
     private final Map<String, Long> rrtMap = new HashMap<>();
     @Getter
     private final long connectionCreationTimeStamp;
+    // Updated from the dispatcher and send threads of the connection, read from the UserThread
     @Getter
-    private long lastMessageTimestamp;
+    private volatile long lastMessageTimestamp;
     @Getter
-    private long timeOnSendMsg = 0;
+    private volatile long timeOnSendMsg = 0;
     @Getter
-    private long timeOnReceivedMsg = 0;
+    private volatile long timeOnReceivedMsg = 0;
     @Getter
-    private int sentBytes = 0;
+    private volatile int sentBytes = 0;
     @Getter
-    private int receivedBytes = 0;
+    private volatile int receivedBytes = 0;
 
     public ConnectionStatistics(Connection connection, ConnectionState connectionState) {
         this.connection = connection;
@@ -65,7 +66,7 @@ public class ConnectionStatistics implements MessageListener {
         connection.removeMessageListener(this);
     }
 
-    public String getInfo() {
+    public synchronized String getInfo() {
         String ls = System.lineSeparator();
         long now = System.currentTimeMillis();
         String conInstance = connection instanceof InboundConnection ? "Inbound" : "Outbound";
@@ -122,8 +123,8 @@ public class ConnectionStatistics implements MessageListener {
     }
 
     @Override
-    public void onMessage(NetworkEnvelope networkEnvelope,
-                          Connection connection) {
+    public synchronized void onMessage(NetworkEnvelope networkEnvelope,
+                                       Connection connection) {
         lastMessageTimestamp = System.currentTimeMillis();
         if (networkEnvelope instanceof BundleOfEnvelopes) {
             ((BundleOfEnvelopes) networkEnvelope).getEnvelopes().forEach(e -> addToMap(e, receivedDataMap));
@@ -135,7 +136,7 @@ public class ConnectionStatistics implements MessageListener {
     }
 
     @Override
-    public void onMessageSent(NetworkEnvelope networkEnvelope, Connection connection) {
+    public synchronized void onMessageSent(NetworkEnvelope networkEnvelope, Connection connection) {
         lastMessageTimestamp = System.currentTimeMillis();
         if (networkEnvelope instanceof BundleOfEnvelopes) {
             ((BundleOfEnvelopes) networkEnvelope).getEnvelopes().forEach(e -> addToMap(e, sentDataMap));
@@ -161,12 +162,17 @@ public class ConnectionStatistics implements MessageListener {
         }
     }
 
-    public void addSendMsgMetrics(long timeSpent, int bytes) {
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    public synchronized void addSendMsgMetrics(long timeSpent, int bytes) {
         this.timeOnSendMsg += timeSpent;
         this.sentBytes += bytes;
     }
 
-    public void addReceivedMsgMetrics(long timeSpent, int bytes) {
+    public synchronized void addReceivedMsgMetrics(long timeSpent, int bytes) {
         this.timeOnReceivedMsg += timeSpent;
         this.receivedBytes += bytes;
     }
@@ -0,0 +1,137 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.BundleOfEnvelopes;
+
+import bisq.common.app.Version;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A NetworkEnvelope together with its length delimited protobuf encoding, ready to be written to a connection.
+ * The envelope is serialized only once, so the same instance can be sent to many peers, e.g. in a broadcast.
+ *
+ * Bundles are composed from the already encoded envelopes by concatenating their bytes, so the contained envelopes
+ * are not serialized again. The encoding is identical to the one of BundleOfEnvelopes.toProtoNetworkEnvelope().
+ *
+ * Immutable, the bytes are never exposed.
+ */
+public final class EncodedEnvelope {
+    private final NetworkEnvelope envelope;
+    // Varint length prefix followed by the serialized protobuf.NetworkEnvelope
+    private final byte[] bytes;
+    private final int serializedSize;
+
+    public static EncodedEnvelope of(NetworkEnvelope envelope) {
+        protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
+        int serializedSize = proto.getSerializedSize();
+        byte[] bytes = new byte[CodedOutputStream.computeUInt32SizeNoTag(serializedSize) + serializedSize];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            output.writeUInt32NoTag(serializedSize);
+            proto.writeTo(output);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // Cannot happen when writing to an array of the computed size
+            throw new IllegalStateException("Encoding of " + envelope.getClass().getSimpleName() + " failed", e);
+        }
+        return new EncodedEnvelope(envelope, bytes, serializedSize);
+    }
+
+    public static EncodedEnvelope bundle(List<EncodedEnvelope> encodedEnvelopes) {
+        BundleOfEnvelopes bundle = new BundleOfEnvelopes(encodedEnvelopes.stream()
+                .map(EncodedEnvelope::getEnvelope)
+                .collect(Collectors.toList()));
+        // Same as bundle.getMessageVersion(), which does not accept 0
+        int messageVersion = Version.getP2PMessageVersion();
+        int bundleBodySize = encodedEnvelopes.stream().mapToInt(EncodedEnvelope::getBundledSize).sum();
+        // Like protobuf we do not write the message version field if it has the default value
+        int serializedSize = (messageVersion != 0 ?
+                CodedOutputStream.computeInt32Size(protobuf.NetworkEnvelope.MESSAGE_VERSION_FIELD_NUMBER, messageVersion) : 0) +
+                CodedOutputStream.computeTagSize(protobuf.NetworkEnvelope.BUNDLE_OF_ENVELOPES_FIELD_NUMBER) +
+                CodedOutputStream.computeUInt32SizeNoTag(bundleBodySize) +
+                bundleBodySize;
+
+        byte[] bytes = new byte[CodedOutputStream.computeUInt32SizeNoTag(serializedSize) + serializedSize];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            output.writeUInt32NoTag(serializedSize);
+            if (messageVersion != 0)
+                output.writeInt32(protobuf.NetworkEnvelope.MESSAGE_VERSION_FIELD_NUMBER, messageVersion);
+            output.writeTag(protobuf.NetworkEnvelope.BUNDLE_OF_ENVELOPES_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(bundleBodySize);
+            for (EncodedEnvelope encodedEnvelope : encodedEnvelopes) {
+                output.writeTag(protobuf.BundleOfEnvelopes.ENVELOPES_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                // The length prefix of the encoded envelope is the same as required for the repeated field
+                output.writeRawBytes(encodedEnvelope.bytes);
+            }
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new IllegalStateException("Encoding of BundleOfEnvelopes failed", e);
+        }
+        return new EncodedEnvelope(bundle, bytes, serializedSize);
+    }
+
+    /**
+     * Returns the serialized size of a BundleOfEnvelopes without the envelopes.
+     */
+    public static int getEmptyBundleSize() {
+        // The length prefix of the bundle field grows with the content, we use the max. size of a varint32
+        return CodedOutputStream.computeInt32Size(protobuf.NetworkEnvelope.MESSAGE_VERSION_FIELD_NUMBER, Integer.MAX_VALUE) +
+                CodedOutputStream.computeTagSize(protobuf.NetworkEnvelope.BUNDLE_OF_ENVELOPES_FIELD_NUMBER) +
+                5;
+    }
+
+    private EncodedEnvelope(NetworkEnvelope envelope, byte[] bytes, int serializedSize) {
+        this.envelope = envelope;
+        this.bytes = bytes;
+        this.serializedSize = serializedSize;
+    }
+
+    public NetworkEnvelope getEnvelope() {
+        return envelope;
+    }
+
+    /**
+     * Returns the size of the serialized protobuf.NetworkEnvelope, without the length prefix.
+     */
+    public int getSerializedSize() {
+        return serializedSize;
+    }
+
+    /**
+     * Returns the number of bytes the envelope adds to the serialized size of a BundleOfEnvelopes.
+     */
+    public int getBundledSize() {
+        return CodedOutputStream.computeTagSize(protobuf.BundleOfEnvelopes.ENVELOPES_FIELD_NUMBER) + bytes.length;
+    }
+
+    void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(bytes);
+    }
+}
@@ -19,9 +19,40 @@ package bisq.network.p2p.network;
 
 import bisq.common.proto.network.NetworkEnvelope;
 
+import java.util.Collection;
+import java.util.concurrent.Executor;
+
 public interface MessageListener {
     void onMessage(NetworkEnvelope networkEnvelope, Connection connection);
 
+    // Called instead of onMessage(networkEnvelope, connection) for thread safe listeners. All work which needs to run
+    // on the UserThread has to be passed to userThreadExecutor, which runs it in the same UserThread task as the
+    // handlers of all other listeners for that message.
+    default void onMessage(NetworkEnvelope networkEnvelope, Connection connection, Executor userThreadExecutor) {
+        onMessage(networkEnvelope, connection);
+    }
+
     default void onMessageSent(NetworkEnvelope networkEnvelope, Connection connection) {
     }
+
+    // If true the listener gets called on the dispatcher thread of the connection. Messages of one connection are
+    // delivered in order, but messages of different connections in parallel. Otherwise it gets called on the
+    // UserThread.
+    default boolean isThreadSafe() {
+        return false;
+    }
+
+    // Thread safe listeners are called directly, all others are passed to userThreadExecutor. The order of the
+    // listeners is kept.
+    static void dispatch(Collection<? extends MessageListener> listeners,
+                         NetworkEnvelope networkEnvelope,
+                         Connection connection,
+                         Executor userThreadExecutor) {
+        listeners.forEach(listener -> {
+            if (listener.isThreadSafe())
+                listener.onMessage(networkEnvelope, connection, userThreadExecutor);
+            else
+                userThreadExecutor.execute(() -> listener.onMessage(networkEnvelope, connection));
+        });
+    }
 }
@@ -49,6 +49,7 @@ import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -279,11 +280,23 @@ public abstract class NetworkNode implements MessageListener {
 
 
     public SettableFuture<Connection> sendMessage(Connection connection, NetworkEnvelope networkEnvelope) {
+        return sendMessage(connection, () -> connection.sendMessage(networkEnvelope));
+    }
+
+    /**
+     * Sends an already serialized envelope, so the serialization can be shared if the same envelope is sent to
+     * many connections.
+     */
+    public SettableFuture<Connection> sendMessage(Connection connection, EncodedEnvelope encodedEnvelope) {
+        return sendMessage(connection, () -> connection.sendMessage(encodedEnvelope));
+    }
+
+    private SettableFuture<Connection> sendMessage(Connection connection, Runnable sendTask) {
         // connection.sendMessage might take a bit (compression, write to stream), so we use a thread to not block
         ListenableFuture<Connection> future = executorService.submit(() -> {
             String id = connection.getPeersNodeAddressOptional().isPresent() ? connection.getPeersNodeAddressOptional().get().getFullAddress() : connection.getUid();
             Thread.currentThread().setName("NetworkNode:SendMessage-to-" + id);
-            connection.sendMessage(networkEnvelope);
+            sendTask.run();
             return connection;
         });
         final SettableFuture<Connection> resultFuture = SettableFuture.create();
@@ -389,7 +402,19 @@ public abstract class NetworkNode implements MessageListener {
 
     @Override
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
-        messageListeners.stream().forEach(e -> e.onMessage(networkEnvelope, connection));
+        onMessage(networkEnvelope, connection, UserThread::execute);
+    }
+
+    // Called on the dispatcher thread of the connection. Listeners which are not thread safe get the message in the
+    // same UserThread task as the connection level listeners.
+    @Override
+    public void onMessage(NetworkEnvelope networkEnvelope, Connection connection, Executor userThreadExecutor) {
+        MessageListener.dispatch(messageListeners, networkEnvelope, connection, userThreadExecutor);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
     }
 
 
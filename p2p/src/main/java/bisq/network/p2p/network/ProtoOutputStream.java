@@ -41,7 +41,7 @@ class ProtoOutputStream {
         this.statistic = statistic;
     }
 
-    void writeEnvelope(NetworkEnvelope envelope) {
+    void writeEnvelope(EncodedEnvelope envelope) {
         try {
             writeEnvelopeOrThrow(envelope);
         } catch (IOException e) {
@@ -58,12 +58,12 @@ class ProtoOutputStream {
         }
     }
 
-    private void writeEnvelopeOrThrow(NetworkEnvelope envelope) throws IOException {
-        protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
-        proto.writeDelimitedTo(delegate);
+    private void writeEnvelopeOrThrow(EncodedEnvelope encodedEnvelope) throws IOException {
+        encodedEnvelope.writeTo(delegate);
         delegate.flush();
 
-        statistic.addSentBytes(proto.getSerializedSize());
+        NetworkEnvelope envelope = encodedEnvelope.getEnvelope();
+        statistic.addSentBytes(encodedEnvelope.getSerializedSize());
         statistic.addSentMessage(envelope);
 
         if (!(envelope instanceof KeepAliveMessage)) {
@@ -17,11 +17,10 @@
 
 package bisq.network.p2p.peers;
 
-import bisq.network.p2p.BundleOfEnvelopes;
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.EncodedEnvelope;
 import bisq.network.p2p.network.NetworkNode;
-import bisq.network.p2p.storage.messages.BroadcastMessage;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
@@ -33,7 +32,9 @@ import com.google.common.util.concurrent.SettableFuture;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -42,6 +43,8 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class BroadcastHandler implements PeerManager.Listener {
     private static final long BASE_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(120);
@@ -75,6 +78,13 @@ public class BroadcastHandler implements PeerManager.Listener {
     private int numOfCompletedBroadcasts, numOfFailedBroadcasts, numPeersForBroadcast;
     private Timer timeoutTimer;
 
+    // Each message gets serialized only once and the encoding is shared by all peers we send to. Only accessed from
+    // the UserThread.
+    private final Map<Broadcaster.BroadcastRequest, EncodedEnvelope> encodedMessages = new IdentityHashMap<>();
+    private List<Broadcaster.BroadcastRequest> broadcastRequests = Collections.emptyList();
+    @Nullable
+    private EncodedEnvelope encodedBundleOfAllRequests;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -95,6 +105,7 @@ public class BroadcastHandler implements PeerManager.Listener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void broadcast(List<Broadcaster.BroadcastRequest> broadcastRequests, boolean shutDownRequested) {
+        this.broadcastRequests = broadcastRequests;
         List<Connection> confirmedConnections = new ArrayList<>(networkNode.getConfirmedConnections());
         Collections.shuffle(confirmedConnections);
 
@@ -237,8 +248,8 @@ public class BroadcastHandler implements PeerManager.Listener {
 
     private void sendToPeer(Connection connection, List<Broadcaster.BroadcastRequest> broadcastRequestsForConnection) {
         // Can be BundleOfEnvelopes or a single BroadcastMessage
-        BroadcastMessage broadcastMessage = getMessage(broadcastRequestsForConnection);
-        SettableFuture<Connection> future = networkNode.sendMessage(connection, broadcastMessage);
+        EncodedEnvelope encodedEnvelope = getEncodedMessage(broadcastRequestsForConnection);
+        SettableFuture<Connection> future = networkNode.sendMessage(connection, encodedEnvelope);
 
         Futures.addCallback(future, new FutureCallback<>() {
             @Override
@@ -269,15 +280,30 @@ public class BroadcastHandler implements PeerManager.Listener {
         }, MoreExecutors.directExecutor());
     }
 
-    private BroadcastMessage getMessage(List<Broadcaster.BroadcastRequest> broadcastRequests) {
-        if (broadcastRequests.size() == 1) {
+    private EncodedEnvelope getEncodedMessage(List<Broadcaster.BroadcastRequest> broadcastRequestsForConnection) {
+        if (broadcastRequestsForConnection.size() == 1) {
             // If we only have 1 message we avoid the overhead of the BundleOfEnvelopes and send the message directly
-            return broadcastRequests.get(0).getMessage();
-        } else {
-            return new BundleOfEnvelopes(broadcastRequests.stream()
-                    .map(Broadcaster.BroadcastRequest::getMessage)
-                    .collect(Collectors.toList()));
+            return getEncodedMessage(broadcastRequestsForConnection.get(0));
+        }
+
+        // The requests for a connection are a filtered list of all requests, so if the size is the same it is the same
+        // list. That is the case for most connections, so we compose the bundle for all requests only once.
+        if (broadcastRequestsForConnection.size() == broadcastRequests.size()) {
+            if (encodedBundleOfAllRequests == null)
+                encodedBundleOfAllRequests = getEncodedBundle(broadcastRequests);
+            return encodedBundleOfAllRequests;
         }
+        return getEncodedBundle(broadcastRequestsForConnection);
+    }
+
+    private EncodedEnvelope getEncodedBundle(List<Broadcaster.BroadcastRequest> broadcastRequests) {
+        return EncodedEnvelope.bundle(broadcastRequests.stream()
+                .map(this::getEncodedMessage)
+                .collect(Collectors.toList()));
+    }
+
+    private EncodedEnvelope getEncodedMessage(Broadcaster.BroadcastRequest broadcastRequest) {
+        return encodedMessages.computeIfAbsent(broadcastRequest, request -> EncodedEnvelope.of(request.getMessage()));
     }
 
     private void maybeNotifyListeners(List<Broadcaster.BroadcastRequest> broadcastRequests) {
@@ -318,6 +344,8 @@ public class BroadcastHandler implements PeerManager.Listener {
             timeoutTimer.stop();
             timeoutTimer = null;
         }
+        encodedMessages.clear();
+        encodedBundleOfAllRequests = null;
         peerManager.removeListener(this);
         resultHandler.onCompleted(this);
     }
@@ -45,6 +45,7 @@ import com.google.common.annotations.VisibleForTesting;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
@@ -52,6 +53,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -113,10 +115,11 @@ public final class PeerManager implements ConnectionListener, PersistedDataHost
     // Persistable peerList
     private final PeerList peerList = new PeerList();
     // Peers we got reported from other peers
+    // The peer sets are concurrent as findPeersCapabilities gets called from outside the UserThread as well.
     @Getter
-    private final Set<Peer> reportedPeers = new HashSet<>();
-    // Most recent peers with activity date of last 30 min.
-    private final Set<Peer> latestLivePeers = new HashSet<>();
+    private final Set<Peer> reportedPeers = ConcurrentHashMap.newKeySet();
+    // Most recent peers with activity date of last 30 min. We replace the whole set at each update.
+    private volatile Set<Peer> latestLivePeers = Collections.emptySet();
 
     private Timer checkMaxConnectionsTimer;
     private boolean stopped;
@@ -407,11 +410,9 @@ public final class PeerManager implements ConnectionListener, PersistedDataHost
         peers.addAll(currentLivePeers);
 
         long maxAge = new Date().getTime() - MAX_AGE_LIVE_PEERS;
-        latestLivePeers.clear();
-        Set<Peer> recentPeers = peers.stream()
+        latestLivePeers = Collections.unmodifiableSet(peers.stream()
                 .filter(peer -> peer.getDateAsLong() > maxAge)
-                .collect(Collectors.toSet());
-        latestLivePeers.addAll(recentPeers);
+                .collect(Collectors.toSet()));
 
         if (oldNumLatestLivePeers != latestLivePeers.size())
             log.info("Num of latestLivePeers={}", latestLivePeers.size());
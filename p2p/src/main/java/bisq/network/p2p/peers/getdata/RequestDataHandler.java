@@ -31,6 +31,8 @@ import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkPayload;
 import bisq.common.util.Tuple2;
@@ -43,6 +45,7 @@ import com.google.common.util.concurrent.SettableFuture;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -91,6 +94,7 @@ class RequestDataHandler implements MessageListener {
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
     private boolean stopped;
+    private boolean knownHashesFilterSent;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -121,10 +125,13 @@ class RequestDataHandler implements MessageListener {
         if (!stopped) {
             GetDataRequest getDataRequest;
 
+            boolean useKnownHashesFilter = useKnownHashesFilter(nodeAddress);
+            knownHashesFilterSent = useKnownHashesFilter;
             if (isPreliminaryDataRequest)
-                getDataRequest = dataStorage.buildPreliminaryGetDataRequest(nonce);
+                getDataRequest = dataStorage.buildPreliminaryGetDataRequest(nonce, useKnownHashesFilter);
             else
-                getDataRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce);
+                getDataRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce,
+                        useKnownHashesFilter);
 
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -191,6 +198,11 @@ class RequestDataHandler implements MessageListener {
                     logContents(getDataResponse);
                     if (getDataResponse.getRequestNonce() == nonce) {
                         stopTimeoutTimer();
+                        if (knownHashesFilterSent &&
+                                !getDataResponse.getSupportedCapabilities().contains(Capability.KNOWN_HASHES_FILTER)) {
+                            log.warn("Peer {} does not support the KnownHashesFilter we sent. It has ignored the " +
+                                    "filter and delivered all PersistableNetworkPayload data.", peersNodeAddress);
+                        }
                         if (!connection.getPeersNodeAddressOptional().isPresent()) {
                             log.error("RequestDataHandler.onMessage: connection.getPeersNodeAddressOptional() must be present " +
                                     "at that moment");
@@ -268,6 +280,19 @@ class RequestDataHandler implements MessageListener {
         numPayloadsByClassName.get(className).second.getAndAdd(networkPayload.toProtoMessage().getSerializedSize());
     }
 
+    // Peers which do not support the filter would ignore it and send us all PersistableNetworkPayload data, so we
+    // send it only if the peer has advertised the capability. If we do not know the capabilities of the peer yet,
+    // which is usually the case for our first request to a seed node, we fall back to the plain list of hashes.
+    private boolean useKnownHashesFilter(NodeAddress nodeAddress) {
+        Optional<Capabilities> capabilities = peerManager.findPeersCapabilities(nodeAddress);
+        if (capabilities.isPresent() && !capabilities.get().isEmpty()) {
+            return capabilities.get().contains(Capability.KNOWN_HASHES_FILTER);
+        }
+
+        log.info("We do not know the capabilities of peer {} yet. We send the plain list of known hashes.", nodeAddress);
+        return false;
+    }
+
     @SuppressWarnings("UnusedParameters")
     private void handleFault(String errorMessage,
                              NodeAddress nodeAddress,
@@ -44,13 +44,20 @@ public abstract class GetDataRequest extends NetworkEnvelope implements Extended
     @Nullable
     protected final String version;
 
+    // Only set if the peer has the KNOWN_HASHES_FILTER capability. The hashes of the PersistableNetworkPayload
+    // items are then not added to excludedKeys but encoded in the filter.
+    @Nullable
+    protected final KnownHashesFilter knownPayloadHashesFilter;
+
     public GetDataRequest(int messageVersion,
                           int nonce,
                           Set<byte[]> excludedKeys,
-                          @Nullable String version) {
+                          @Nullable String version,
+                          @Nullable KnownHashesFilter knownPayloadHashesFilter) {
         super(messageVersion);
         this.nonce = nonce;
         this.excludedKeys = excludedKeys;
         this.version = version;
+        this.knownPayloadHashesFilter = knownPayloadHashesFilter;
     }
 }
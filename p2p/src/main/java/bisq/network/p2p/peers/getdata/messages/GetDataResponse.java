@@ -32,6 +32,7 @@ import bisq.common.proto.network.NetworkProtoResolver;
 import bisq.common.util.Utilities;
 
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
@@ -40,6 +41,8 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 @EqualsAndHashCode(callSuper = true)
 @Value
@@ -56,16 +59,33 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     private final boolean isGetUpdatedDataResponse;
     private final Capabilities supportedCapabilities;
 
+    // Only used by the sender. Allows to use cached protobuf messages of the PersistableNetworkPayloads.
+    @Nullable
+    private final transient Function<PersistableNetworkPayload, protobuf.PersistableNetworkPayload> payloadEncoder;
+
     public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
                            @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
                            int requestNonce,
                            boolean isGetUpdatedDataResponse) {
+        this(dataSet,
+                persistableNetworkPayloadSet,
+                requestNonce,
+                isGetUpdatedDataResponse,
+                null);
+    }
+
+    public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
+                           @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
+                           int requestNonce,
+                           boolean isGetUpdatedDataResponse,
+                           @Nullable Function<PersistableNetworkPayload, protobuf.PersistableNetworkPayload> payloadEncoder) {
         this(dataSet,
                 persistableNetworkPayloadSet,
                 requestNonce,
                 isGetUpdatedDataResponse,
                 Capabilities.app,
-                Version.getP2PMessageVersion());
+                Version.getP2PMessageVersion(),
+                payloadEncoder);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -77,7 +97,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                             int requestNonce,
                             boolean isGetUpdatedDataResponse,
                             @NotNull Capabilities supportedCapabilities,
-                            int messageVersion) {
+                            int messageVersion,
+                            @Nullable Function<PersistableNetworkPayload, protobuf.PersistableNetworkPayload> payloadEncoder) {
         super(messageVersion);
 
         this.dataSet = dataSet;
@@ -85,10 +106,14 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
         this.requestNonce = requestNonce;
         this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
         this.supportedCapabilities = supportedCapabilities;
+        this.payloadEncoder = payloadEncoder;
     }
 
     @Override
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        Function<PersistableNetworkPayload, protobuf.PersistableNetworkPayload> encoder = payloadEncoder != null ?
+                payloadEncoder :
+                PersistableNetworkPayload::toProtoMessage;
         final protobuf.GetDataResponse.Builder builder = protobuf.GetDataResponse.newBuilder()
                 .addAllDataSet(dataSet.stream()
                         .map(protectedStorageEntry -> protectedStorageEntry instanceof ProtectedMailboxStorageEntry ?
@@ -101,7 +126,7 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                                         .build())
                         .collect(Collectors.toList()))
                 .addAllPersistableNetworkPayloadItems(persistableNetworkPayloadSet.stream()
-                        .map(PersistableNetworkPayload::toProtoMessage)
+                        .map(encoder)
                         .collect(Collectors.toList()))
                 .setRequestNonce(requestNonce)
                 .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse)
@@ -127,7 +152,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 proto.getRequestNonce(),
                 proto.getIsGetUpdatedDataResponse(),
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
-                messageVersion);
+                messageVersion,
+                null);
     }
 
     @Override
@@ -46,9 +46,17 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
     public GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                  int nonce,
                                  Set<byte[]> excludedKeys) {
+        this(senderNodeAddress, nonce, excludedKeys, null);
+    }
+
+    public GetUpdatedDataRequest(NodeAddress senderNodeAddress,
+                                 int nonce,
+                                 Set<byte[]> excludedKeys,
+                                 @Nullable KnownHashesFilter knownPayloadHashesFilter) {
         this(senderNodeAddress,
                 nonce,
                 excludedKeys,
+                knownPayloadHashesFilter,
                 Version.VERSION,
                 Version.getP2PMessageVersion());
     }
@@ -61,12 +69,14 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
     private GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                   int nonce,
                                   Set<byte[]> excludedKeys,
+                                  @Nullable KnownHashesFilter knownPayloadHashesFilter,
                                   @Nullable String version,
                                   int messageVersion) {
         super(messageVersion,
                 nonce,
                 excludedKeys,
-                version);
+                version,
+                knownPayloadHashesFilter);
         this.senderNodeAddress = senderNodeAddress;
     }
 
@@ -79,22 +89,31 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
                         .map(ByteString::copyFrom)
                         .collect(Collectors.toList()));
         Optional.ofNullable(version).ifPresent(builder::setVersion);
+        Optional.ofNullable(knownPayloadHashesFilter).ifPresent(filter ->
+                builder.setKnownPayloadHashesFilter(filter.toProtoMessage()));
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setGetUpdatedDataRequest(builder)
                 .build();
         log.info("Sending a GetUpdatedDataRequest with {} kB and {} excluded key entries. Requesters version={}",
                 proto.getSerializedSize() / 1000d, excludedKeys.size(), version);
+        if (knownPayloadHashesFilter != null)
+            log.info("{} contains a KnownHashesFilter with {} kB", getClass().getSimpleName(),
+                    knownPayloadHashesFilter.getNumBytes() / 1000d);
         return proto;
     }
 
     public static GetUpdatedDataRequest fromProto(protobuf.GetUpdatedDataRequest proto, int messageVersion) {
         Set<byte[]> excludedKeys = ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList());
         String requestersVersion = ProtoUtil.stringOrNullFromProto(proto.getVersion());
+        KnownHashesFilter knownPayloadHashesFilter = proto.hasKnownPayloadHashesFilter() ?
+                KnownHashesFilter.fromProto(proto.getKnownPayloadHashesFilter()) :
+                null;
         log.info("Received a GetUpdatedDataRequest with {} kB and {} excluded key entries. Requesters version={}",
                 proto.getSerializedSize() / 1000d, excludedKeys.size(), requestersVersion);
         return new GetUpdatedDataRequest(NodeAddress.fromProto(proto.getSenderNodeAddress()),
                 proto.getNonce(),
                 excludedKeys,
+                knownPayloadHashesFilter,
                 requestersVersion,
                 messageVersion);
     }
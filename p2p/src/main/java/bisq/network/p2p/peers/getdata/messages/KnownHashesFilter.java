@@ -0,0 +1,216 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata.messages;
+
+import bisq.common.proto.network.NetworkPayload;
+
+import com.google.protobuf.ByteString;
+
+import java.security.SecureRandom;
+
+import java.util.Collection;
+
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Compact Bloom filter encoding of the PersistableNetworkPayload hashes a requester already knows. Sent instead of the
+ * full list of 32 byte hashes to peers supporting Capability.KNOWN_HASHES_FILTER, which reduces the request size by
+ * about a factor of 10.
+ *
+ * A false positive means the responder does not deliver a payload the requester is missing. To avoid that the same
+ * payload is always skipped, each filter uses a new random seed, so the missing payload gets delivered with the next
+ * request to another peer with a probability of 1 - FALSE_POSITIVE_RATE.
+ */
+@Slf4j
+@EqualsAndHashCode
+public final class KnownHashesFilter implements NetworkPayload {
+    private static final double FALSE_POSITIVE_RATE = 0.0001;
+    // Optimal number of hash functions for FALSE_POSITIVE_RATE is -ln(p) / ln(2) = 13.3
+    private static final int NUM_HASH_FUNCTIONS = 13;
+    private static final int MIN_NUM_BITS = 64;
+    // Limits the memory a malicious peer can make us allocate. 8 MB covers about 3.5 million hashes.
+    private static final int MAX_NUM_BYTES = 8 * 1024 * 1024;
+    private static final int MAX_NUM_HASH_FUNCTIONS = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final long[] bits;
+    private final long numBits;
+    private final int numHashFunctions;
+    private final long seed;
+
+    public static KnownHashesFilter of(Collection<byte[]> hashes) {
+        double numBitsPerEntry = -Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2));
+        long numBits = Math.max(MIN_NUM_BITS, (long) Math.ceil(hashes.size() * numBitsPerEntry));
+        int numLongs = (int) Math.min((numBits + 63) / 64, MAX_NUM_BYTES / 8);
+        int numHashFunctions = NUM_HASH_FUNCTIONS;
+        if (numLongs * 64L < numBits) {
+            // The filter got truncated by MAX_NUM_BYTES. We use the optimal number of hash functions for the available
+            // bits, which keeps the false positive rate as low as possible, but it is higher than FALSE_POSITIVE_RATE.
+            double numBitsPerHash = numLongs * 64d / hashes.size();
+            numHashFunctions = (int) Math.max(1, Math.min(NUM_HASH_FUNCTIONS, Math.round(numBitsPerHash * Math.log(2))));
+            log.warn("KnownHashesFilter for {} hashes is truncated to {} bytes. The false positive rate increases " +
+                            "from {} to {}, so some missing payloads might only be delivered with later requests.",
+                    hashes.size(), MAX_NUM_BYTES, FALSE_POSITIVE_RATE,
+                    getFalsePositiveRate(numLongs * 64L, hashes.size(), numHashFunctions));
+        }
+        KnownHashesFilter filter = new KnownHashesFilter(new long[numLongs], numHashFunctions, RANDOM.nextLong());
+        hashes.forEach(filter::put);
+        return filter;
+    }
+
+    private static double getFalsePositiveRate(long numBits, int numHashes, int numHashFunctions) {
+        return Math.pow(1 - Math.exp(-(double) numHashFunctions * numHashes / numBits), numHashFunctions);
+    }
+
+    private KnownHashesFilter(long[] bits, int numHashFunctions, long seed) {
+        this.bits = bits;
+        this.numBits = (long) bits.length * 64;
+        this.numHashFunctions = numHashFunctions;
+        this.seed = seed;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public protobuf.KnownHashesFilter toProtoMessage() {
+        byte[] bytes = new byte[bits.length * 8];
+        for (int i = 0; i < bits.length; i++) {
+            long word = bits[i];
+            for (int j = 0; j < 8; j++) {
+                bytes[i * 8 + j] = (byte) (word >>> (j * 8));
+            }
+        }
+        return protobuf.KnownHashesFilter.newBuilder()
+                .setBits(ByteString.copyFrom(bytes))
+                .setNumHashFunctions(numHashFunctions)
+                .setSeed(seed)
+                .build();
+    }
+
+    /**
+     * Returns null if the proto does not contain a filter or the filter is malformed. In both cases the responder
+     * treats the request as if no filter was sent.
+     */
+    @Nullable
+    public static KnownHashesFilter fromProto(protobuf.KnownHashesFilter proto) {
+        byte[] bytes = proto.getBits().toByteArray();
+        int numHashFunctions = proto.getNumHashFunctions();
+        if (bytes.length == 0 ||
+                bytes.length % 8 != 0 ||
+                bytes.length > MAX_NUM_BYTES ||
+                numHashFunctions <= 0 ||
+                numHashFunctions > MAX_NUM_HASH_FUNCTIONS) {
+            if (bytes.length != 0)
+                log.warn("Received invalid KnownHashesFilter. numBytes={}, numHashFunctions={}",
+                        bytes.length, numHashFunctions);
+            return null;
+        }
+
+        long[] bits = new long[bytes.length / 8];
+        for (int i = 0; i < bits.length; i++) {
+            long word = 0;
+            for (int j = 0; j < 8; j++) {
+                word |= (bytes[i * 8 + j] & 0xFFL) << (j * 8);
+            }
+            bits[i] = word;
+        }
+        return new KnownHashesFilter(bits, numHashFunctions, proto.getSeed());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean mightContain(byte[] hash) {
+        long hash1 = hash1(hash);
+        long hash2 = hash2(hash);
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = index(hash1, hash2, i);
+            if ((bits[(int) (index >>> 6)] & (1L << index)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    public int getNumBytes() {
+        return bits.length * 8;
+    }
+
+    @Override
+    public String toString() {
+        return "KnownHashesFilter{" +
+                "\n     numBytes=" + getNumBytes() +
+                ",\n     numHashFunctions=" + numHashFunctions +
+                "\n}";
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void put(byte[] hash) {
+        long hash1 = hash1(hash);
+        long hash2 = hash2(hash);
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = index(hash1, hash2, i);
+            bits[(int) (index >>> 6)] |= 1L << index;
+        }
+    }
+
+    // The payload hashes are already uniformly distributed, so we use double hashing over two 8 byte words of the
+    // hash, mixed with the seed so that each filter has different false positives.
+    private long hash1(byte[] hash) {
+        return mix(readLong(hash, 0) ^ seed);
+    }
+
+    private long hash2(byte[] hash) {
+        return mix(readLong(hash, 8) + seed) | 1;
+    }
+
+    private long index(long hash1, long hash2, int i) {
+        return Long.remainderUnsigned(hash1 + i * hash2, numBits);
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long result = 0;
+        for (int i = 0; i < 8; i++) {
+            int pos = offset + i;
+            result = (result << 8) | (pos < bytes.length ? bytes[pos] & 0xFFL : 0);
+        }
+        return result;
+    }
+
+    // fmix64 finalizer of MurmurHash3
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb93fe1a85394L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
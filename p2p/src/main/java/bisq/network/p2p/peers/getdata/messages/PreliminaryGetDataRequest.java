@@ -45,8 +45,15 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
     private final Capabilities supportedCapabilities;
 
     public PreliminaryGetDataRequest(int nonce, Set<byte[]> excludedKeys) {
+        this(nonce, excludedKeys, null);
+    }
+
+    public PreliminaryGetDataRequest(int nonce,
+                                     Set<byte[]> excludedKeys,
+                                     @Nullable KnownHashesFilter knownPayloadHashesFilter) {
         this(nonce,
                 excludedKeys,
+                knownPayloadHashesFilter,
                 Version.VERSION,
                 Capabilities.app,
                 Version.getP2PMessageVersion());
@@ -59,10 +66,11 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     private PreliminaryGetDataRequest(int nonce,
                                       Set<byte[]> excludedKeys,
+                                      @Nullable KnownHashesFilter knownPayloadHashesFilter,
                                       @Nullable String version,
                                       Capabilities supportedCapabilities,
                                       int messageVersion) {
-        super(messageVersion, nonce, excludedKeys, version);
+        super(messageVersion, nonce, excludedKeys, version, knownPayloadHashesFilter);
 
         this.supportedCapabilities = supportedCapabilities;
     }
@@ -76,21 +84,30 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
                         .map(ByteString::copyFrom)
                         .collect(Collectors.toList()));
         Optional.ofNullable(version).ifPresent(builder::setVersion);
+        Optional.ofNullable(knownPayloadHashesFilter).ifPresent(filter ->
+                builder.setKnownPayloadHashesFilter(filter.toProtoMessage()));
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setPreliminaryGetDataRequest(builder)
                 .build();
         log.info("Sending a PreliminaryGetDataRequest with {} kB and {} excluded key entries. Requesters version={}",
                 proto.getSerializedSize() / 1000d, excludedKeys.size(), version);
+        if (knownPayloadHashesFilter != null)
+            log.info("{} contains a KnownHashesFilter with {} kB", getClass().getSimpleName(),
+                    knownPayloadHashesFilter.getNumBytes() / 1000d);
         return proto;
     }
 
     public static PreliminaryGetDataRequest fromProto(protobuf.PreliminaryGetDataRequest proto, int messageVersion) {
         Set<byte[]> excludedKeys = ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList());
         String requestersVersion = ProtoUtil.stringOrNullFromProto(proto.getVersion());
+        KnownHashesFilter knownPayloadHashesFilter = proto.hasKnownPayloadHashesFilter() ?
+                KnownHashesFilter.fromProto(proto.getKnownPayloadHashesFilter()) :
+                null;
         log.info("Received a PreliminaryGetDataRequest with {} kB and {} excluded key entries. Requesters version={}",
                 proto.getSerializedSize() / 1000d, excludedKeys.size(), requestersVersion);
         return new PreliminaryGetDataRequest(proto.getNonce(),
                 excludedKeys,
+                knownPayloadHashesFilter,
                 requestersVersion,
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
                 messageVersion);
@@ -22,8 +22,8 @@ import bisq.common.proto.persistable.PersistableEnvelope;
 import com.google.protobuf.Message;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
@@ -33,8 +33,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @EqualsAndHashCode
 public class PeerList implements PersistableEnvelope {
+    // Concurrent as PeerManager reads it from outside the UserThread as well.
     @Getter
-    private final Set<Peer> set = new HashSet<>();
+    private final Set<Peer> set = ConcurrentHashMap.newKeySet();
 
     public PeerList() {
     }
@@ -0,0 +1,247 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.storage.payload.DateSortedTruncatablePayload;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.persistence.MergedMapView;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Snapshots of the PersistableNetworkPayloads we deliver at GetDataResponses.
+ * All requesters with the same version get the same payloads before they get filtered by their known hashes.
+ * Instead of collecting them from all stores at each request we keep a snapshot per requesters version and add
+ * new payloads to it. The snapshot keeps the maps as delivered by the storeMapsBuilder, which are expected to be views
+ * on the stores, so we do not hold decoded copies of the historical data on the heap. Instead the snapshot holds the
+ * keys of the payloads, split into the keys of the DateSortedTruncatablePayloads sorted by date and all other keys.
+ * So a response needs to decode only the payloads which are not known by the requester.
+ * As PersistableNetworkPayloads are immutable we also keep their protobuf messages once they have been created for a
+ * response, so further responses do not need to convert the payloads again. That cache is limited in size and entries
+ * expire like the snapshots.
+ * <p>
+ * Snapshots get rebuilt after MAX_SNAPSHOT_AGE to cover changes to the stores which do not pass P2PDataStorage.
+ */
+@Slf4j
+class DataResponseSnapshotCache {
+    private static final int MAX_NUM_SNAPSHOTS = 10;
+    private static final long MAX_SNAPSHOT_AGE = TimeUnit.MINUTES.toMillis(10);
+    private static final int MAX_NUM_PROTO_MESSAGES = 50_000;
+
+    private static class DatedKey {
+        private final P2PDataStorage.ByteArray key;
+        private final long date;
+
+        private DatedKey(P2PDataStorage.ByteArray key, DateSortedTruncatablePayload payload) {
+            this.key = key;
+            this.date = payload.getDate().getTime();
+        }
+    }
+
+    private static final Comparator<DatedKey> BY_DATE = Comparator.comparingLong(datedKey -> datedKey.date);
+
+    // Payloads added after the snapshot got created. We replace it instead of mutating it as views of the snapshot
+    // might have been handed out already.
+    private static class Added {
+        private static final Added EMPTY = new Added(Map.of(), List.of(), List.of());
+
+        private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map;
+        private final List<P2PDataStorage.ByteArray> keys;
+        private final List<DatedKey> datedKeys;
+
+        private Added(Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map,
+                      List<P2PDataStorage.ByteArray> keys,
+                      List<DatedKey> datedKeys) {
+            this.map = map;
+            this.keys = keys;
+            this.datedKeys = datedKeys;
+        }
+
+        private Added add(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
+            Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> newMap = new HashMap<>(map);
+            newMap.put(hash, payload);
+            List<P2PDataStorage.ByteArray> newKeys = keys;
+            List<DatedKey> newDatedKeys = datedKeys;
+            if (payload instanceof DateSortedTruncatablePayload) {
+                newDatedKeys = new ArrayList<>(datedKeys);
+                newDatedKeys.add(new DatedKey(hash, (DateSortedTruncatablePayload) payload));
+            } else {
+                newKeys = new ArrayList<>(keys);
+                newKeys.add(hash);
+            }
+            return new Added(newMap, newKeys, newDatedKeys);
+        }
+    }
+
+    static class Snapshot {
+        private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map;
+        private final List<P2PDataStorage.ByteArray> keys;
+        private final List<DatedKey> dateSortedTruncatableKeys;
+        private volatile Added added = Added.EMPTY;
+        private final long creationTs = System.currentTimeMillis();
+
+        private Snapshot(List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> storeMaps) {
+            map = new MergedMapView<>(storeMaps);
+            keys = new ArrayList<>();
+            dateSortedTruncatableKeys = new ArrayList<>();
+            storeMaps.forEach(storeMap -> {
+                // All payloads of a store have the same type, so we only decode the payloads of the stores holding
+                // DateSortedTruncatablePayloads, which we need to sort by date.
+                Iterator<PersistableNetworkPayload> values = storeMap.values().iterator();
+                if (values.hasNext() && values.next() instanceof DateSortedTruncatablePayload) {
+                    storeMap.forEach((key, payload) -> {
+                        if (payload instanceof DateSortedTruncatablePayload) {
+                            dateSortedTruncatableKeys.add(new DatedKey(key, (DateSortedTruncatablePayload) payload));
+                        } else {
+                            keys.add(key);
+                        }
+                    });
+                } else {
+                    keys.addAll(storeMap.keySet());
+                }
+            });
+            dateSortedTruncatableKeys.sort(BY_DATE);
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - creationTs > MAX_SNAPSHOT_AGE;
+        }
+
+        private void add(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
+            added = added.add(hash, payload);
+        }
+
+        private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMap() {
+            Added added = this.added;
+            return Collections.unmodifiableMap(added.map.isEmpty() ?
+                    map :
+                    new MergedMapView<>(List.of(added.map, map)));
+        }
+
+        int size() {
+            Added added = this.added;
+            return keys.size() + dateSortedTruncatableKeys.size() + added.keys.size() + added.datedKeys.size();
+        }
+
+        // Keys of all payloads which are not DateSortedTruncatablePayloads
+        Iterable<P2PDataStorage.ByteArray> getKeys() {
+            Added added = this.added;
+            return added.keys.isEmpty() ? keys : Iterables.concat(keys, added.keys);
+        }
+
+        // Keys of the DateSortedTruncatablePayloads sorted by date, so the most recent payload is the last one
+        List<P2PDataStorage.ByteArray> getDateSortedTruncatableKeys() {
+            Added added = this.added;
+            List<DatedKey> datedKeys = dateSortedTruncatableKeys;
+            if (!added.datedKeys.isEmpty()) {
+                // The snapshot keys are sorted already, which the sort detects, so merging the added keys is cheap
+                datedKeys = new ArrayList<>(dateSortedTruncatableKeys.size() + added.datedKeys.size());
+                datedKeys.addAll(dateSortedTruncatableKeys);
+                datedKeys.addAll(added.datedKeys);
+                datedKeys.sort(BY_DATE);
+            }
+            return Lists.transform(datedKeys, datedKey -> datedKey.key);
+        }
+
+        @Nullable
+        PersistableNetworkPayload get(P2PDataStorage.ByteArray key) {
+            PersistableNetworkPayload payload = added.map.get(key);
+            return payload != null ? payload : map.get(key);
+        }
+    }
+
+    private final Function<String, List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>>> storeMapsBuilder;
+
+    // Access ordered to evict the least recently requested version. Only accessed from the user thread.
+    private final Map<String, Snapshot> snapshotsByVersion = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+            return size() > MAX_NUM_SNAPSHOTS;
+        }
+    };
+
+    // Accessed at serialisation of the GetDataResponse which might happen outside the user thread.
+    private final Cache<P2PDataStorage.ByteArray, protobuf.PersistableNetworkPayload> protoMessageByHash = CacheBuilder.newBuilder()
+            .maximumSize(MAX_NUM_PROTO_MESSAGES)
+            .expireAfterAccess(MAX_SNAPSHOT_AGE, TimeUnit.MILLISECONDS)
+            .build();
+
+    /**
+     * @param storeMapsBuilder Delivers the map of each store for a requesters version. All payloads of a map are
+     *                         expected to have the same type and a key must not be contained in more than one map.
+     */
+    DataResponseSnapshotCache(Function<String, List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>>> storeMapsBuilder) {
+        this.storeMapsBuilder = storeMapsBuilder;
+    }
+
+    /**
+     * @param requestersVersion The version of the requester. Is null for pre v 1.4.0 requests.
+     * @return The snapshot for the requesters version.
+     */
+    Snapshot getSnapshot(@Nullable String requestersVersion) {
+        Snapshot snapshot = snapshotsByVersion.get(requestersVersion);
+        if (snapshot == null || snapshot.isExpired()) {
+            long ts = System.currentTimeMillis();
+            snapshot = new Snapshot(storeMapsBuilder.apply(requestersVersion));
+            snapshotsByVersion.put(requestersVersion, snapshot);
+            log.info("Creating the data response snapshot with {} entries for version {} took {} ms",
+                    snapshot.size(), requestersVersion, System.currentTimeMillis() - ts);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param requestersVersion The version of the requester. Is null for pre v 1.4.0 requests.
+     * @return Unmodifiable view of the snapshot for the requesters version. Payloads added later are not contained.
+     */
+    Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMap(@Nullable String requestersVersion) {
+        return getSnapshot(requestersVersion).getMap();
+    }
+
+    // New live data gets delivered to requesters of all versions.
+    void onAdded(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
+        snapshotsByVersion.values().forEach(snapshot -> snapshot.add(hash, payload));
+    }
+
+    protobuf.PersistableNetworkPayload toProtoMessage(PersistableNetworkPayload payload) {
+        P2PDataStorage.ByteArray hash = new P2PDataStorage.ByteArray(payload.getHash());
+        protobuf.PersistableNetworkPayload protoMessage = protoMessageByHash.getIfPresent(hash);
+        if (protoMessage == null) {
+            protoMessage = payload.toProtoMessage();
+            protoMessageByHash.put(hash, protoMessage);
+        }
+        return protoMessage;
+    }
+}
@@ -28,6 +28,7 @@ import bisq.network.p2p.peers.Broadcaster;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
 import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
+import bisq.network.p2p.peers.getdata.messages.KnownHashesFilter;
 import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
 import bisq.network.p2p.storage.messages.AddDataMessage;
 import bisq.network.p2p.storage.messages.AddOncePayload;
@@ -39,6 +40,7 @@ import bisq.network.p2p.storage.messages.RemoveMailboxDataMessage;
 import bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
 import bisq.network.p2p.storage.payload.DateSortedTruncatablePayload;
 import bisq.network.p2p.storage.payload.DateTolerantPayload;
+import bisq.network.p2p.storage.payload.HashCachingPayload;
 import bisq.network.p2p.storage.payload.MailboxStoragePayload;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.network.p2p.storage.payload.ProcessOncePersistableNetworkPayload;
@@ -77,7 +79,12 @@ import com.google.inject.name.Named;
 import javax.inject.Inject;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 
 import org.fxmisc.easybind.EasyBind;
 import org.fxmisc.easybind.monadic.MonadicBinding;
@@ -100,12 +107,18 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
@@ -126,6 +139,12 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @VisibleForTesting
     public static final int CHECK_TTL_INTERVAL_SEC = 60;
 
+    // Hashing and signature verification of the ProtectedStorageEntries of a GetDataResponse is done in parallel.
+    // Below MIN_PARALLEL_VERIFICATION_SIZE entries the overhead of the thread handoff is not worth it.
+    private static final int VERIFICATION_POOL_SIZE = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    @VisibleForTesting
+    static final int MIN_PARALLEL_VERIFICATION_SIZE = 50;
+
     private boolean initialRequestApplied = false;
 
     private final Broadcaster broadcaster;
@@ -144,6 +163,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     final SequenceNumberMap sequenceNumberMap = new SequenceNumberMap();
 
     private final Set<AppendOnlyDataStoreListener> appendOnlyDataStoreListeners = new CopyOnWriteArraySet<>();
+    private final DataResponseSnapshotCache dataResponseSnapshotCache = new DataResponseSnapshotCache(this::buildStoreMapsForDataResponse);
     private final RemovedPayloadsService removedPayloadsService;
     private final Clock clock;
 
@@ -154,6 +174,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // Don't convert to local variable as it might get GC'ed.
     private MonadicBinding<Boolean> readFromResourcesCompleteBinding;
 
+    // Created lazily as seed nodes and most tests never process a large GetDataResponse
+    @Nullable
+    private ListeningExecutorService verificationExecutor;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -259,14 +283,44 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * Returns a PreliminaryGetDataRequest that can be sent to a peer node to request missing Payload data.
      */
     public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce) {
-        return new PreliminaryGetDataRequest(nonce, getKnownPayloadHashes());
+        return buildPreliminaryGetDataRequest(nonce, false);
+    }
+
+    /**
+     * Returns a PreliminaryGetDataRequest that can be sent to a peer node to request missing Payload data.
+     * If useKnownHashesFilter is set the hashes of the PersistableNetworkPayload items are sent as KnownHashesFilter.
+     * Must only be used if the peer has the KNOWN_HASHES_FILTER capability.
+     */
+    public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce, boolean useKnownHashesFilter) {
+        if (useKnownHashesFilter) {
+            return new PreliminaryGetDataRequest(nonce, getKnownProtectedStorageEntryHashes(),
+                    getKnownPayloadHashesFilter());
+        } else {
+            return new PreliminaryGetDataRequest(nonce, getKnownPayloadHashes());
+        }
     }
 
     /**
      * Returns a GetUpdatedDataRequest that can be sent to a peer node to request missing Payload data.
      */
     public GetUpdatedDataRequest buildGetUpdatedDataRequest(NodeAddress senderNodeAddress, int nonce) {
-        return new GetUpdatedDataRequest(senderNodeAddress, nonce, getKnownPayloadHashes());
+        return buildGetUpdatedDataRequest(senderNodeAddress, nonce, false);
+    }
+
+    /**
+     * Returns a GetUpdatedDataRequest that can be sent to a peer node to request missing Payload data.
+     * If useKnownHashesFilter is set the hashes of the PersistableNetworkPayload items are sent as KnownHashesFilter.
+     * Must only be used if the peer has the KNOWN_HASHES_FILTER capability.
+     */
+    public GetUpdatedDataRequest buildGetUpdatedDataRequest(NodeAddress senderNodeAddress,
+                                                            int nonce,
+                                                            boolean useKnownHashesFilter) {
+        if (useKnownHashesFilter) {
+            return new GetUpdatedDataRequest(senderNodeAddress, nonce, getKnownProtectedStorageEntryHashes(),
+                    getKnownPayloadHashesFilter());
+        } else {
+            return new GetUpdatedDataRequest(senderNodeAddress, nonce, getKnownPayloadHashes());
+        }
     }
 
     /**
@@ -284,13 +338,29 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 printPersistableNetworkPayloadMap(mapForDataRequest),
                 excludedKeys.stream().map(Utilities::encodeToHex).toArray());
 
+        excludedKeys.addAll(getKnownProtectedStorageEntryHashes());
+        return excludedKeys;
+    }
+
+    private Set<byte[]> getKnownProtectedStorageEntryHashes() {
         Set<byte[]> excludedKeysFromProtectedStorageEntryMap = getKeysAsByteSet(map);
         log.trace("## getKnownPayloadHashes map of ProtectedStorageEntrys={}, excludedKeys={}",
                 printMap(),
                 excludedKeysFromProtectedStorageEntryMap.stream().map(Utilities::encodeToHex).toArray());
+        return excludedKeysFromProtectedStorageEntryMap;
+    }
 
-        excludedKeys.addAll(excludedKeysFromProtectedStorageEntryMap);
-        return excludedKeys;
+    // ProtectedStorageEntry keys stay in the exact excludedKeys set as false positives would suppress offers and
+    // other data which can change. PersistableNetworkPayload items are the bulk of the data and a false positive only
+    // delays the delivery until the next request.
+    private KnownHashesFilter getKnownPayloadHashesFilter() {
+        Map<ByteArray, PersistableNetworkPayload> mapForDataRequest = getMapForDataRequest();
+        KnownHashesFilter filter = KnownHashesFilter.of(mapForDataRequest.keySet().stream()
+                .map(e -> e.bytes)
+                .collect(Collectors.toList()));
+        log.info("Created KnownHashesFilter for {} PersistableNetworkPayload hashes with {} kB",
+                mapForDataRequest.size(), filter.getNumBytes() / 1000d);
+        return filter;
     }
 
     /**
@@ -305,23 +375,31 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray =
                 P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
+        log.info("Num knownHashes {}", excludedKeysAsByteArray.size());
+
+        KnownHashesFilter knownPayloadHashesFilter = getDataRequest.getKnownPayloadHashesFilter();
+        Predicate<ByteArray> isKnownPayloadHash = knownPayloadHashesFilter == null ?
+                excludedKeysAsByteArray::contains :
+                hash -> excludedKeysAsByteArray.contains(hash) || knownPayloadHashesFilter.mightContain(hash.bytes);
 
         // Pre v 1.4.0 requests do not have set the requesters version field so it is null.
         // The methods in HistoricalDataStoreService will return all historical data in that case.
-        // mapForDataResponse contains the filtered by version data from HistoricalDataStoreService as well as all other
-        // maps of the remaining appendOnlyDataStoreServices.
-        Map<ByteArray, PersistableNetworkPayload> mapForDataResponse = getMapForDataResponse(getDataRequest.getVersion());
+        // The snapshot contains the filtered by version data from HistoricalDataStoreService as well as all other
+        // data of the remaining appendOnlyDataStoreServices.
+        DataResponseSnapshotCache.Snapshot snapshot = dataResponseSnapshotCache.getSnapshot(getDataRequest.getVersion());
         Set<PersistableNetworkPayload> filteredPersistableNetworkPayloads =
                 filterKnownHashes(
-                        mapForDataResponse,
+                        snapshot.getKeys(),
+                        snapshot.getDateSortedTruncatableKeys(),
+                        snapshot::get,
                         Function.identity(),
-                        excludedKeysAsByteArray,
+                        isKnownPayloadHash,
                         peerCapabilities,
                         maxEntriesPerType,
                         wasPersistableNetworkPayloadsTruncated);
         log.info("{} PersistableNetworkPayload entries remained after filtered by excluded keys. " +
                         "Original map had {} entries.",
-                filteredPersistableNetworkPayloads.size(), mapForDataResponse.size());
+                filteredPersistableNetworkPayloads.size(), snapshot.size());
         log.trace("## buildGetDataResponse filteredPersistableNetworkPayloadHashes={}",
                 filteredPersistableNetworkPayloads.stream()
                         .map(e -> Utilities.encodeToHex(e.getHash()))
@@ -329,9 +407,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         Set<ProtectedStorageEntry> filteredProtectedStorageEntries =
                 filterKnownHashes(
-                        map,
+                        map.keySet(),
+                        List.of(),
+                        map::get,
                         ProtectedStorageEntry::getProtectedStoragePayload,
-                        excludedKeysAsByteArray,
+                        excludedKeysAsByteArray::contains,
                         peerCapabilities,
                         maxEntriesPerType,
                         wasProtectedStorageEntriesTruncated);
@@ -347,7 +427,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 filteredProtectedStorageEntries,
                 filteredPersistableNetworkPayloads,
                 getDataRequest.getNonce(),
-                getDataRequest instanceof GetUpdatedDataRequest);
+                getDataRequest instanceof GetUpdatedDataRequest,
+                dataResponseSnapshotCache::toProtoMessage);
     }
 
 
@@ -376,64 +457,79 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
     public Map<ByteArray, PersistableNetworkPayload> getMapForDataResponse(String requestersVersion) {
-        Map<ByteArray, PersistableNetworkPayload> map = new HashMap<>();
+        return dataResponseSnapshotCache.getMap(requestersVersion);
+    }
+
+    // We do not copy the data of the HistoricalDataStoreServices as their historical payloads would get decoded.
+    private List<Map<ByteArray, PersistableNetworkPayload>> buildStoreMapsForDataResponse(String requestersVersion) {
+        List<Map<ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
         appendOnlyDataStoreService.getServices()
                 .forEach(service -> {
-                    Map<ByteArray, PersistableNetworkPayload> serviceMap;
                     if (service instanceof HistoricalDataStoreService) {
                         var historicalDataStoreService = (HistoricalDataStoreService<? extends PersistableNetworkPayloadStore>) service;
-                        serviceMap = historicalDataStoreService.getMapSinceVersion(requestersVersion);
+                        maps.add(historicalDataStoreService.getMapSinceVersion(requestersVersion));
                     } else {
-                        serviceMap = service.getMap();
+                        Map<ByteArray, PersistableNetworkPayload> serviceMap = new HashMap<>(service.getMap());
+                        maps.add(serviceMap);
+                        log.info("We added {} entries from {} to be filtered by excluded keys",
+                                serviceMap.size(), service.getClass().getSimpleName());
                     }
-                    map.putAll(serviceMap);
-                    log.info("We added {} entries from {} to be filtered by excluded keys",
-                            serviceMap.size(), service.getClass().getSimpleName());
                 });
-        return map;
+        return maps;
     }
 
     /**
-     * Generic function that can be used to filter a Map<ByteArray, ProtectedStorageEntry || PersistableNetworkPayload>
-     * by a given set of keys and peer capabilities.
+     * Generic function that can be used to filter the keys of a
+     * Map<ByteArray, ProtectedStorageEntry || PersistableNetworkPayload> by a given predicate for known keys and peer
+     * capabilities. The values get only looked up for unknown keys, as they might need to be decoded.
+     *
+     * @param keys                      The keys of all values which are not DateSortedTruncatablePayloads
+     * @param dateSortedTruncatableKeys The keys of the DateSortedTruncatablePayloads sorted by date
      */
     static private <T extends NetworkPayload> Set<T> filterKnownHashes(
-            Map<ByteArray, T> toFilter,
+            Iterable<ByteArray> keys,
+            List<ByteArray> dateSortedTruncatableKeys,
+            Function<ByteArray, T> valueOfKey,
             Function<T, ? extends NetworkPayload> objToPayload,
-            Set<ByteArray> knownHashes,
+            Predicate<ByteArray> isKnownHash,
             Capabilities peerCapabilities,
             int maxEntries,
             AtomicBoolean outTruncated) {
 
-        log.info("Num knownHashes {}", knownHashes.size());
-
-        Set<Map.Entry<ByteArray, T>> entries = toFilter.entrySet();
-        List<T> dateSortedTruncatablePayloads = entries.stream()
-                .filter(entry -> entry.getValue() instanceof DateSortedTruncatablePayload)
-                .filter(entry -> !knownHashes.contains(entry.getKey()))
-                .map(Map.Entry::getValue)
-                .filter(payload -> shouldTransmitPayloadToPeer(peerCapabilities, objToPayload.apply(payload)))
-                .sorted(Comparator.comparing(payload -> ((DateSortedTruncatablePayload) payload).getDate()))
-                .collect(Collectors.toList());
-        log.info("Num filtered dateSortedTruncatablePayloads {}", dateSortedTruncatablePayloads.size());
-        if (!dateSortedTruncatablePayloads.isEmpty()) {
-            int maxItems = ((DateSortedTruncatablePayload) dateSortedTruncatablePayloads.get(0)).maxItems();
-            if (dateSortedTruncatablePayloads.size() > maxItems) {
-                int fromIndex = dateSortedTruncatablePayloads.size() - maxItems;
-                int toIndex = dateSortedTruncatablePayloads.size();
-                dateSortedTruncatablePayloads = dateSortedTruncatablePayloads.subList(fromIndex, toIndex);
-                log.info("Num truncated dateSortedTruncatablePayloads {}", dateSortedTruncatablePayloads.size());
+        List<T> filteredResults = new ArrayList<>();
+        for (ByteArray key : keys) {
+            // The non-dateSortedTruncatablePayloads have higher prio, so if we exceed maxEntries already we do not
+            // need to look at further payloads.
+            if (filteredResults.size() > maxEntries) {
+                break;
+            }
+            T value = isKnownHash.test(key) ? null : valueOfKey.apply(key);
+            if (value != null && shouldTransmitPayloadToPeer(peerCapabilities, objToPayload.apply(value))) {
+                filteredResults.add(value);
             }
         }
-
-        List<T> filteredResults = entries.stream()
-                .filter(entry -> !(entry.getValue() instanceof DateSortedTruncatablePayload))
-                .filter(entry -> !knownHashes.contains(entry.getKey()))
-                .map(Map.Entry::getValue)
-                .filter(payload -> shouldTransmitPayloadToPeer(peerCapabilities, objToPayload.apply(payload)))
-                .collect(Collectors.toList());
         log.info("Num filtered non-dateSortedTruncatablePayloads {}", filteredResults.size());
 
+        // We start with the most recent payload, so we can stop once we have the max items of that type.
+        List<T> dateSortedTruncatablePayloads = new ArrayList<>();
+        int maxItems = Integer.MAX_VALUE;
+        for (int i = dateSortedTruncatableKeys.size() - 1;
+             i >= 0 &&
+                     dateSortedTruncatablePayloads.size() < maxItems &&
+                     filteredResults.size() + dateSortedTruncatablePayloads.size() <= maxEntries;
+             i--) {
+            ByteArray key = dateSortedTruncatableKeys.get(i);
+            T value = isKnownHash.test(key) ? null : valueOfKey.apply(key);
+            if (value != null && shouldTransmitPayloadToPeer(peerCapabilities, objToPayload.apply(value))) {
+                if (dateSortedTruncatablePayloads.isEmpty()) {
+                    maxItems = ((DateSortedTruncatablePayload) value).maxItems();
+                }
+                dateSortedTruncatablePayloads.add(value);
+            }
+        }
+        Collections.reverse(dateSortedTruncatablePayloads);
+        log.info("Num filtered dateSortedTruncatablePayloads {}", dateSortedTruncatablePayloads.size());
+
         // The non-dateSortedTruncatablePayloads have higher prio, so we added dateSortedTruncatablePayloads
         // after those so in case we need to truncate we first truncate the dateSortedTruncatablePayloads.
         filteredResults.addAll(dateSortedTruncatablePayloads);
@@ -489,11 +585,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         Set<PersistableNetworkPayload> persistableNetworkPayloadSet = getDataResponse.getPersistableNetworkPayloadSet();
 
         long ts2 = System.currentTimeMillis();
-        dataSet.forEach(e -> {
-            // We don't broadcast here (last param) as we are only connected to the seed node and would be pointless
-            addProtectedStorageEntry(e, sender, null, false);
-
-        });
+        // We don't broadcast here as we are only connected to the seed node and would be pointless
+        addProtectedStorageEntriesFromGetDataResponse(dataSet, sender);
         log.info("Processing {} protectedStorageEntries took {} ms.", dataSet.size(), this.clock.millis() - ts2);
 
         ts2 = this.clock.millis();
@@ -531,6 +624,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public void shutDown() {
         if (removeExpiredEntriesTimer != null)
             removeExpiredEntriesTimer.stop();
+
+        if (verificationExecutor != null) {
+            verificationExecutor.shutdownNow();
+            verificationExecutor = null;
+        }
     }
 
     @VisibleForTesting
@@ -577,6 +675,27 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // MessageListener implementation
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // We get called on the dispatcher thread of the connection. We hash and verify the signature of added entries
+    // there and only apply the result on the UserThread. The checks against our state are done on the UserThread as
+    // the state can change until the entry gets applied. All other messages are handled completely on the UserThread.
+    @Override
+    public void onMessage(NetworkEnvelope networkEnvelope, Connection connection, Executor userThreadExecutor) {
+        Optional<NodeAddress> peersNodeAddressOptional = connection.getPeersNodeAddressOptional();
+        if (networkEnvelope instanceof AddDataMessage && peersNodeAddressOptional.isPresent()) {
+            ProtectedStorageEntry protectedStorageEntry = ((AddDataMessage) networkEnvelope).getProtectedStorageEntry();
+            VerifiedEntry verifiedEntry = verifyEntry(protectedStorageEntry);
+            userThreadExecutor.execute(() -> addProtectedStorageEntry(protectedStorageEntry,
+                    verifiedEntry.hashOfPayload,
+                    peersNodeAddressOptional.get(),
+                    null,
+                    true,
+                    () -> verifiedEntry.isValidForAddOperation));
+        } else {
+            userThreadExecutor.execute(() -> onMessage(networkEnvelope, connection));
+        }
+    }
+
+    // Needs to be called on the UserThread
     @Override
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
         if (networkEnvelope instanceof BroadcastMessage) {
@@ -597,6 +716,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // ConnectionListener implementation
@@ -676,7 +800,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
 
         ByteArray hashAsByteArray = new ByteArray(payload.getHash());
-        boolean payloadHashAlreadyInStore = appendOnlyDataStoreService.getMap().containsKey(hashAsByteArray);
+        boolean payloadHashAlreadyInStore = appendOnlyDataStoreService.containsKey(hashAsByteArray);
 
         // Store already knows about this payload. Ignore it unless the caller specifically requests a republish.
         if (payloadHashAlreadyInStore && !reBroadcast) {
@@ -695,6 +819,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         // Add the payload and publish the state update to the appendOnlyDataStoreListeners
         if (!payloadHashAlreadyInStore) {
             appendOnlyDataStoreService.put(hashAsByteArray, payload);
+            maybeAddToDataResponseSnapshots(hashAsByteArray, payload);
             appendOnlyDataStoreListeners.forEach(e -> e.onAdded(payload));
         }
 
@@ -715,11 +840,24 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         if (payload.verifyHashSize()) {
             ByteArray hashAsByteArray = new ByteArray(hash);
             appendOnlyDataStoreService.put(hashAsByteArray, payload);
+            maybeAddToDataResponseSnapshots(hashAsByteArray, payload);
         } else {
             log.warn("We got a hash exceeding our permitted size");
         }
     }
 
+    // New data is added to the live data of HistoricalDataStoreServices which is delivered to all requesters. Other
+    // services might not deliver the data at getMap (e.g. TradeStatistics2StorageService).
+    private void maybeAddToDataResponseSnapshots(ByteArray hashAsByteArray, PersistableNetworkPayload payload) {
+        boolean isDelivered = appendOnlyDataStoreService.getServices().stream()
+                .filter(service -> service.canHandle(payload))
+                .anyMatch(service -> service instanceof HistoricalDataStoreService ||
+                        service.getMap().containsKey(hashAsByteArray));
+        if (isDelivered) {
+            dataResponseSnapshotCache.onAdded(hashAsByteArray, payload);
+        }
+    }
+
     public boolean addProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry,
                                             @Nullable NodeAddress sender,
                                             @Nullable BroadcastHandler.Listener listener) {
@@ -739,11 +877,94 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                                              @Nullable NodeAddress sender,
                                              @Nullable BroadcastHandler.Listener listener,
                                              boolean allowBroadcast) {
+        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStorageEntry.getProtectedStoragePayload());
+        return addProtectedStorageEntry(protectedStorageEntry, hashOfPayload, sender, listener, allowBroadcast,
+                protectedStorageEntry::isValidForAddOperation);
+    }
+
+    // The signature verification is passed in as isValidForAddOperation, so that onMessage can verify it on the
+    // dispatcher thread.
+    private boolean addProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry,
+                                             ByteArray hashOfPayload,
+                                             @Nullable NodeAddress sender,
+                                             @Nullable BroadcastHandler.Listener listener,
+                                             boolean allowBroadcast,
+                                             BooleanSupplier isValidForAddOperation) {
         ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
 
         log.trace("## call addProtectedStorageEntry hash={}, map={}", hashOfPayload, printMap());
 
+        if (!canAddProtectedStorageEntry(protectedStorageEntry, hashOfPayload, sender, isValidForAddOperation))
+            return false;
+
+        // This is an updated entry. Record it and signal listeners.
+        map.put(hashOfPayload, protectedStorageEntry);
+        hashMapChangedListeners.forEach(e -> e.onAdded(Collections.singletonList(protectedStorageEntry)));
+
+        // Record the updated sequence number and persist it. Higher delay so we can batch more items.
+        sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), this.clock.millis()));
+        requestPersistence();
+
+        log.trace("## ProtectedStorageEntry added to map. hash={}, map={}", hashOfPayload, printMap());
+
+        // Optionally, broadcast the add/update depending on the calling environment
+        if (allowBroadcast) {
+            broadcaster.broadcast(new AddDataMessage(protectedStorageEntry), sender, listener);
+            log.trace("## broadcasted ProtectedStorageEntry. hash={}", hashOfPayload);
+        }
+        // Persist ProtectedStorageEntries carrying PersistablePayload payloads
+        if (protectedStoragePayload instanceof PersistablePayload)
+            protectedDataStoreService.put(hashOfPayload, protectedStorageEntry);
+
+        return true;
+    }
+
+    /**
+     * Bulk version of addProtectedStorageEntry for the entries of a GetDataResponse. Does not broadcast.
+     *
+     * The expensive part, hashing the payloads and verifying the signatures, is done in parallel for all entries.
+     * The checks against our state and the updates of the map and the sequence number map are then applied in the
+     * order of the entries on the calling thread, so the result is the same as adding the entries one by one. The
+     * listeners get notified once with all added entries.
+     */
+    private void addProtectedStorageEntriesFromGetDataResponse(Collection<ProtectedStorageEntry> protectedStorageEntries,
+                                                               @Nullable NodeAddress sender) {
+        List<VerifiedEntry> verifiedEntries = verifyProtectedStorageEntries(new ArrayList<>(protectedStorageEntries));
+
+        List<ProtectedStorageEntry> addedEntries = new ArrayList<>();
+        verifiedEntries.forEach(verifiedEntry -> {
+            ProtectedStorageEntry protectedStorageEntry = verifiedEntry.protectedStorageEntry;
+            ByteArray hashOfPayload = verifiedEntry.hashOfPayload;
+            if (!canAddProtectedStorageEntry(protectedStorageEntry, hashOfPayload, sender,
+                    () -> verifiedEntry.isValidForAddOperation))
+                return;
+
+            map.put(hashOfPayload, protectedStorageEntry);
+            sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), this.clock.millis()));
+            if (protectedStorageEntry.getProtectedStoragePayload() instanceof PersistablePayload)
+                protectedDataStoreService.put(hashOfPayload, protectedStorageEntry);
+
+            addedEntries.add(protectedStorageEntry);
+        });
+
+        if (addedEntries.isEmpty())
+            return;
+
+        List<ProtectedStorageEntry> unmodifiableAddedEntries = Collections.unmodifiableList(addedEntries);
+        hashMapChangedListeners.forEach(e -> e.onAdded(unmodifiableAddedEntries));
+        requestPersistence();
+    }
+
+    /**
+     * Runs all checks of an add operation. The signature verification is passed in as isValidForAddOperation, so that
+     * onMessage and the bulk path of processGetDataResponse can use the result they have computed off the UserThread.
+     */
+    private boolean canAddProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry,
+                                                ByteArray hashOfPayload,
+                                                @Nullable NodeAddress sender,
+                                                BooleanSupplier isValidForAddOperation) {
+        ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
+
         // We do that check early as it is a very common case for returning, so we return early
         // If we have seen a more recent operation for this payload and we have a payload locally, ignore it
         ProtectedStorageEntry storedEntry = map.get(hashOfPayload);
@@ -776,7 +997,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
 
         // Verify the ProtectedStorageEntry is well formed and valid for the add operation
-        if (!protectedStorageEntry.isValidForAddOperation()) {
+        if (!isValidForAddOperation.getAsBoolean()) {
             log.trace("## !isValidForAddOperation hash={}", hashOfPayload);
             return false;
         }
@@ -787,25 +1008,6 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             return false;
         }
 
-        // This is an updated entry. Record it and signal listeners.
-        map.put(hashOfPayload, protectedStorageEntry);
-        hashMapChangedListeners.forEach(e -> e.onAdded(Collections.singletonList(protectedStorageEntry)));
-
-        // Record the updated sequence number and persist it. Higher delay so we can batch more items.
-        sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), this.clock.millis()));
-        requestPersistence();
-
-        log.trace("## ProtectedStorageEntry added to map. hash={}, map={}", hashOfPayload, printMap());
-
-        // Optionally, broadcast the add/update depending on the calling environment
-        if (allowBroadcast) {
-            broadcaster.broadcast(new AddDataMessage(protectedStorageEntry), sender, listener);
-            log.trace("## broadcasted ProtectedStorageEntry. hash={}", hashOfPayload);
-        }
-        // Persist ProtectedStorageEntries carrying PersistablePayload payloads
-        if (protectedStoragePayload instanceof PersistablePayload)
-            protectedDataStoreService.put(hashOfPayload, protectedStorageEntry);
-
         return true;
     }
 
@@ -1010,6 +1212,67 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Blocks the calling thread until all entries are verified. The caller does not change our state in the meantime.
+    private List<VerifiedEntry> verifyProtectedStorageEntries(List<ProtectedStorageEntry> protectedStorageEntries) {
+        if (protectedStorageEntries.size() < MIN_PARALLEL_VERIFICATION_SIZE || VERIFICATION_POOL_SIZE == 1)
+            return verifyChunk(protectedStorageEntries);
+
+        ListeningExecutorService executor = getVerificationExecutor();
+        // A few chunks per thread so that a slow chunk does not leave the other threads idle
+        int chunkSize = protectedStorageEntries.size() / (VERIFICATION_POOL_SIZE * 4) + 1;
+        List<ListenableFuture<List<VerifiedEntry>>> futures = Lists.partition(protectedStorageEntries, chunkSize).stream()
+                .map(chunk -> executor.submit(() -> verifyChunk(chunk)))
+                .collect(Collectors.toList());
+        try {
+            List<VerifiedEntry> verifiedEntries = new ArrayList<>(protectedStorageEntries.size());
+            Futures.allAsList(futures).get().forEach(verifiedEntries::addAll);
+            return verifiedEntries;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            log.warn("Parallel verification of protectedStorageEntries got interrupted. We verify them on the calling thread.");
+            return verifyChunk(protectedStorageEntries);
+        } catch (ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    // Does not depend on our state, so it can be called from any thread
+    private static VerifiedEntry verifyEntry(ProtectedStorageEntry protectedStorageEntry) {
+        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStorageEntry.getProtectedStoragePayload());
+        return new VerifiedEntry(protectedStorageEntry, hashOfPayload, protectedStorageEntry.isValidForAddOperation());
+    }
+
+    // Skips the signature verification depending on our state, so our state must not change until the result is
+    // applied.
+    private List<VerifiedEntry> verifyChunk(List<ProtectedStorageEntry> protectedStorageEntries) {
+        List<VerifiedEntry> verifiedEntries = new ArrayList<>(protectedStorageEntries.size());
+        protectedStorageEntries.forEach(protectedStorageEntry -> {
+            ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStorageEntry.getProtectedStoragePayload());
+            // We skip the signature verification if the entry will be rejected anyway. That is the common case for
+            // the responses of the second seed node. The entries of the response can only increase the stored
+            // sequence numbers, so the entry stays rejected when the checks are applied.
+            boolean isValidForAddOperation = !(map.containsKey(hashOfPayload) &&
+                    !hasSequenceNrIncreased(protectedStorageEntry.getSequenceNumber(), hashOfPayload)) &&
+                    protectedStorageEntry.isValidForAddOperation();
+            verifiedEntries.add(new VerifiedEntry(protectedStorageEntry, hashOfPayload, isValidForAddOperation));
+        });
+        return verifiedEntries;
+    }
+
+    private ListeningExecutorService getVerificationExecutor() {
+        if (verificationExecutor == null) {
+            // We submit more chunks than we have threads, so we need an unbounded queue. The threads time out if idle.
+            verificationExecutor = Utilities.getListeningExecutorService("P2PDataStorageVerification-%d",
+                    VERIFICATION_POOL_SIZE,
+                    VERIFICATION_POOL_SIZE,
+                    30,
+                    new LinkedBlockingQueue<>());
+        }
+        return verificationExecutor;
+    }
+
     private void removeFromMapAndDataStore(ProtectedStorageEntry protectedStorageEntry, ByteArray hashOfPayload) {
         removeFromMapAndDataStore(Collections.singletonList(Maps.immutableEntry(hashOfPayload, protectedStorageEntry)));
     }
@@ -1042,8 +1305,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
     private boolean hasSequenceNrIncreased(int newSequenceNumber, ByteArray hashOfData) {
-        if (sequenceNumberMap.containsKey(hashOfData)) {
-            int storedSequenceNumber = sequenceNumberMap.get(hashOfData).sequenceNr;
+        // We read the value only once as we get called from the dispatcher thread as well.
+        MapValue storedValue = sequenceNumberMap.get(hashOfData);
+        if (storedValue != null) {
+            int storedSequenceNumber = storedValue.sequenceNr;
             if (newSequenceNumber > storedSequenceNumber) {
                 /*log.debug("Sequence number has increased (>). sequenceNumber = "
                         + newSequenceNumber + " / storedSequenceNumber=" + storedSequenceNumber + " / hashOfData=" + hashOfData.toString());*/
@@ -1139,6 +1404,14 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * @return Hash of data
      */
     public static byte[] get32ByteHash(NetworkPayload data) {
+        if (data instanceof HashCachingPayload) {
+            // We return a copy as the callers might modify the array
+            return ((HashCachingPayload) data).getCachedHash().get(() -> compute32ByteHash(data)).clone();
+        }
+        return compute32ByteHash(data);
+    }
+
+    private static byte[] compute32ByteHash(NetworkPayload data) {
         return Hash.getSha256Hash(data.toProtoMessage().toByteArray());
     }
 
@@ -1249,4 +1522,19 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             return new MapValue(proto.getSequenceNr(), proto.getTimeStamp());
         }
     }
+
+    // Result of the verification done off the UserThread
+    private static final class VerifiedEntry {
+        private final ProtectedStorageEntry protectedStorageEntry;
+        private final ByteArray hashOfPayload;
+        private final boolean isValidForAddOperation;
+
+        private VerifiedEntry(ProtectedStorageEntry protectedStorageEntry,
+                              ByteArray hashOfPayload,
+                              boolean isValidForAddOperation) {
+            this.protectedStorageEntry = protectedStorageEntry;
+            this.hashOfPayload = hashOfPayload;
+            this.isValidForAddOperation = isValidForAddOperation;
+        }
+    }
 }
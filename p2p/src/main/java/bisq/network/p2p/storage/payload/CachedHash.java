@@ -0,0 +1,45 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.payload;
+
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * Lazily computed hash of a HashCachingPayload. Concurrent callers might compute the hash more than once, but as
+ * the payload has not changed they all get the same result.
+ */
+public final class CachedHash {
+    @Nullable
+    private volatile byte[] hash;
+
+    public byte[] get(Supplier<byte[]> hashSupplier) {
+        byte[] result = hash;
+        if (result == null) {
+            result = hashSupplier.get();
+            hash = result;
+        }
+        return result;
+    }
+
+    // Needs to be called if a field of the payload which is part of the hash got changed
+    public void reset() {
+        hash = null;
+    }
+}
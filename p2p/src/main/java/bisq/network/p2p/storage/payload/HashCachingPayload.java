@@ -0,0 +1,31 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.payload;
+
+import bisq.common.proto.network.NetworkPayload;
+
+/**
+ * Payload which caches the hash used as key in the maps of the P2PDataStorage. Without it the payload gets
+ * serialized and hashed at each add, remove, refresh and lookup.
+ *
+ * Only suitable for payloads which do not change once they got hashed, or which reset the cached hash if they do.
+ * The cached hash must not be included in equals, hashCode or the json representation, so it should be transient.
+ */
+public interface HashCachingPayload extends NetworkPayload {
+    CachedHash getCachedHash();
+}
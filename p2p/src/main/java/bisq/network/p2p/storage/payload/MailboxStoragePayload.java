@@ -53,7 +53,8 @@ import javax.annotation.Nullable;
 @Getter
 @EqualsAndHashCode
 @Slf4j
-public final class MailboxStoragePayload implements ProtectedStoragePayload, ExpirablePayload, AddOncePayload {
+public final class MailboxStoragePayload implements ProtectedStoragePayload, ExpirablePayload, AddOncePayload,
+        HashCachingPayload {
     public static final long TTL = TimeUnit.DAYS.toMillis(15);
 
     // Added in 1.5.5
@@ -72,6 +73,9 @@ public final class MailboxStoragePayload implements ProtectedStoragePayload, Exp
     @Nullable
     private Map<String, String> extraDataMap;
 
+    // The payload does not change after construction
+    private final transient CachedHash cachedHash = new CachedHash();
+
     public MailboxStoragePayload(PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage,
                                  @NotNull PublicKey senderPubKeyForAddOperation,
                                  PublicKey ownerPubKey,
@@ -87,6 +87,11 @@ public class AppendOnlyDataStoreService {
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
+    // Avoids the creation of the map of all data at getMap.
+    public boolean containsKey(P2PDataStorage.ByteArray hashAsByteArray) {
+        return services.stream().anyMatch(service -> service.containsKey(hashAsByteArray));
+    }
+
     public void put(P2PDataStorage.ByteArray hashAsByteArray, PersistableNetworkPayload payload) {
         services.stream()
                 .filter(service -> service.canHandle(payload))
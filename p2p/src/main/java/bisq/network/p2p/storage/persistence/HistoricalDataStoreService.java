@@ -23,17 +23,24 @@ import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.common.app.DevEnv;
 import bisq.common.app.Version;
 import bisq.common.persistence.PersistenceManager;
+import bisq.common.proto.ProtoResolver;
 
 import com.google.common.collect.ImmutableMap;
 
 import java.io.File;
+import java.io.IOException;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 /**
  * Manages historical data stores tagged with the release versions.
  * New data is added to the default map in the store (live data). Historical data is created from resource files.
@@ -42,9 +49,13 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public abstract class HistoricalDataStoreService<T extends PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> extends MapStoreService<T, PersistableNetworkPayload> {
-    private ImmutableMap<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion;
-    // Cache to avoid that we have to recreate the historical data at each request
-    private ImmutableMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads;
+    // The historical data of each version. If possible we use a memory-mapped segment created from the resource file,
+    // which keeps the data off the heap and decodes payloads only when accessed.
+    private ImmutableMap<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> storesByVersion = ImmutableMap.of();
+    // The live data never contains historical data as we check the historical stores at put and prune the live data
+    // after loading them. If the historical stores do not overlap either, the views over them are disjoint and their
+    // size does not need to be counted.
+    private boolean historicalStoresDisjoint = true;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -60,11 +71,12 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    // We give back a map of our live map and all historical maps newer than the requested version.
+    // We give back a view of our live map and all historical maps newer than the requested version.
     // If requestersVersion is null we return all historical data.
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapSinceVersion(String requestersVersion) {
         // We add all our live data
-        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(store.getMap());
+        List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
+        maps.add(store.getMap());
 
         // If we have a store with a newer version than the requesters version we will add those as well.
         storesByVersion.entrySet().stream()
@@ -87,22 +99,29 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
                             requestersVersion, storeVersion, details);
                     return newVersion;
                 })
-                .map(e -> e.getValue().getMap())
-                .forEach(result::putAll);
+                .map(Map.Entry::getValue)
+                .forEach(maps::add);
 
-        log.info("We found {} entries since requesters version {}",
-                result.size(), requestersVersion);
-        return result;
+        log.info("We found {} historical stores since requesters version {}",
+                maps.size() - 1, requestersVersion);
+        return createMergedMapView(maps);
     }
 
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapOfLiveData() {
         return store.getMap();
     }
 
+    // Read-only view of the live data and all historical data. The historical payloads get only decoded if the
+    // values or entries are accessed, so clients which only need the keys should use getKeySetOfAllData.
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapOfAllData() {
-        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(getMapOfLiveData());
-        result.putAll(allHistoricalPayloads);
-        return result;
+        List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
+        maps.add(getMapOfLiveData());
+        maps.addAll(storesByVersion.values());
+        return createMergedMapView(maps);
+    }
+
+    public Set<P2PDataStorage.ByteArray> getKeySetOfAllData() {
+        return getMapOfAllData().keySet();
     }
 
 
@@ -114,7 +133,12 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMap() {
         DevEnv.logErrorAndThrowIfDevMode("HistoricalDataStoreService.getMap should not be used by domain " +
                 "clients but rather the custom methods getMapOfAllData, getMapOfLiveData or getMapSinceVersion");
-        return getMapOfAllData();
+        return new HashMap<>(getMapOfAllData());
+    }
+
+    @Override
+    public boolean containsKey(P2PDataStorage.ByteArray hash) {
+        return anyMapContainsKey(hash);
     }
 
     @Override
@@ -124,7 +148,7 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         }
 
         getMapOfLiveData().put(hash, payload);
-        requestPersistence();
+        appendToLog(hash, payload);
     }
 
     @Override
@@ -137,7 +161,7 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         // So it will be always null. We still keep the return type as we override the method from MapStoreService which
         // follow the Map.putIfAbsent signature.
         getMapOfLiveData().put(hash, payload);
-        requestPersistence();
+        appendToLog(hash, payload);
         return null;
     }
 
@@ -149,17 +173,15 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
                     getFileName(), getMapOfLiveData().size());
 
             // Now we add our historical data stores.
-            Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads = new HashMap<>();
-            Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion = new HashMap<>();
+            Map<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> storesByVersion = new HashMap<>();
             AtomicInteger numFiles = new AtomicInteger(Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.size());
             Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.forEach(version -> readHistoricalStoreFromResources(version,
                     postFix,
-                    allHistoricalPayloads,
                     storesByVersion,
                     () -> {
                         if (numFiles.decrementAndGet() == 0) {
                             // At last iteration we set the immutable map
-                            this.allHistoricalPayloads = ImmutableMap.copyOf(allHistoricalPayloads);
+                            historicalStoresDisjoint = isDisjoint(new ArrayList<>(storesByVersion.values()));
                             this.storesByVersion = ImmutableMap.copyOf(storesByVersion);
                             completeHandler.run();
                         }
@@ -172,43 +194,112 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> createMergedMapView(
+            List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps) {
+        return historicalStoresDisjoint ? MergedMapView.ofDisjointMaps(maps) : new MergedMapView<>(maps);
+    }
+
+    // We check once after loading as the historical stores do not change afterwards. Only the keys get read.
+    private boolean isDisjoint(List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps) {
+        for (int i = 1; i < maps.size(); i++) {
+            List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> precedingMaps = maps.subList(0, i);
+            boolean hasDuplicateKey = maps.get(i).keySet().stream()
+                    .anyMatch(key -> precedingMaps.stream().anyMatch(map -> map.containsKey(key)));
+            if (hasDuplicateKey) {
+                log.warn("The historical data stores of {} contain the same data. We need to count the entries " +
+                        "at each size call of the merged data.", getFileName());
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void readHistoricalStoreFromResources(String version,
                                                   String postFix,
-                                                  Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads,
-                                                  Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion,
+                                                  Map<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> storesByVersion,
                                                   Runnable completeHandler) {
 
         String fileName = getFileName() + "_" + version;
         boolean wasCreatedFromResources = makeFileFromResourceFile(fileName, postFix);
 
+        // If we have created the segment at a previous start-up we use it and do not need to parse the store.
+        File storeFile = new File(absolutePathOfStorageDir, fileName);
+        File segmentFile = new File(absolutePathOfStorageDir, fileName + MappedPayloadSegment.FILE_POSTFIX);
+        ProtoResolver protoResolver = persistenceManager.getPersistenceProtoResolver();
+        byte[] sourceFileHash = protoResolver != null ? hashSourceFile(storeFile) : null;
+        if (sourceFileHash != null) {
+            MappedPayloadSegment segment = MappedPayloadSegment.open(segmentFile, sourceFileHash, protoResolver);
+            if (segment != null) {
+                storesByVersion.put(version, segment);
+                log.info("We have mapped from {} {} historical items.", segmentFile.getName(), segment.size());
+                pruneStore(segment, version);
+                completeHandler.run();
+                return;
+            }
+        }
+
         // If resource file does not exist we do not create a new store as it would never get filled.
         persistenceManager.readPersisted(fileName, persisted -> {
-                    storesByVersion.put(version, persisted);
-                    allHistoricalPayloads.putAll(persisted.getMap());
-                    log.info("We have read from {} {} historical items.", fileName, persisted.getMap().size());
-                    pruneStore(persisted, version);
+                    Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> historicalMap = persisted.getMap();
+                    log.info("We have read from {} {} historical items.", fileName, historicalMap.size());
+                    if (sourceFileHash != null) {
+                        try {
+                            MappedPayloadSegment.write(segmentFile, historicalMap, sourceFileHash);
+                            MappedPayloadSegment segment = MappedPayloadSegment.open(segmentFile, sourceFileHash, protoResolver);
+                            if (segment != null) {
+                                historicalMap = segment;
+                            }
+                        } catch (Throwable t) {
+                            log.warn("Creating segment file {} failed. We keep the historical data on the heap. {}",
+                                    segmentFile.getName(), t.toString());
+                        }
+                    }
+                    storesByVersion.put(version, historicalMap);
+                    pruneStore(historicalMap, version);
                     completeHandler.run();
                 },
                 completeHandler::run);
     }
 
-    private void pruneStore(PersistableNetworkPayloadStore<? extends PersistableNetworkPayload> historicalStore,
+    private void pruneStore(Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> historicalMap,
                             String version) {
         Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> mapOfLiveData = getMapOfLiveData();
         int preLive = mapOfLiveData.size();
-        mapOfLiveData.keySet().removeAll(historicalStore.getMap().keySet());
+        // We iterate the live data as the historical map might be a segment with an efficient containsKey lookup.
+        mapOfLiveData.keySet().removeIf(historicalMap::containsKey);
         int postLive = mapOfLiveData.size();
         if (preLive > postLive) {
             log.info("We pruned data from our live data store which are already contained in the historical data store with version {}. " +
                             "The live map had {} entries before pruning and has {} entries afterwards.",
                     version, preLive, postLive);
+            requestPersistence();
         } else {
             log.info("No pruning from historical data store with version {} was applied", version);
         }
-        requestPersistence();
+    }
+
+    @Nullable
+    private byte[] hashSourceFile(File storeFile) {
+        if (!storeFile.exists()) {
+            return null;
+        }
+        try {
+            return MappedPayloadSegment.hashSourceFile(storeFile);
+        } catch (IOException e) {
+            log.warn("Hashing {} failed. We do not use a segment file. {}", storeFile.getName(), e.toString());
+            return null;
+        }
+    }
+
+    // We only persist the new payload instead of the whole live data store.
+    private void appendToLog(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
+        T logEntry = createStore();
+        logEntry.getMap().put(hash, payload);
+        persistenceManager.appendToLog(logEntry);
     }
 
     private boolean anyMapContainsKey(P2PDataStorage.ByteArray hash) {
-        return getMapOfLiveData().containsKey(hash) || allHistoricalPayloads.containsKey(hash);
+        return getMapOfLiveData().containsKey(hash) ||
+                storesByVersion.values().stream().anyMatch(map -> map.containsKey(hash));
     }
 }
@@ -0,0 +1,386 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import bisq.common.proto.ProtoResolver;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Read-only map of historical PersistableNetworkPayloads backed by a memory-mapped segment file. Only the sorted hash
+ * index gets searched at containsKey, and payloads get decoded lazily at get or iteration, so the historical data does
+ * not need to be kept on the heap.
+ * <p>
+ * File layout:
+ * <pre>
+ * header:  int magic, int formatVersion, byte[32] sourceFileHash, int hashLength, int numEntries
+ * index:   numEntries x (byte[hashLength] hash, int dataOffset, int dataLength), sorted by unsigned hash bytes
+ * data:    serialized protobuf.PersistableNetworkPayload of each entry
+ * </pre>
+ * The sourceFileHash is the SHA-256 hash of the resource store file the segment was created from. It is used to detect
+ * if the segment is outdated.
+ */
+@Slf4j
+public final class MappedPayloadSegment extends AbstractMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+    public static final String FILE_POSTFIX = ".segment";
+
+    private static final int MAGIC = 0x48565347;
+    private static final int FORMAT_VERSION = 2;
+    private static final int SOURCE_FILE_HASH_LENGTH = 32;
+    private static final int HEADER_SIZE = 4 + 4 + SOURCE_FILE_HASH_LENGTH + 4 + 4;
+
+    private final ByteBuffer buffer;
+    private final ProtoResolver protoResolver;
+    private final int hashLength;
+    private final int numEntries;
+    private final int indexEntrySize;
+    private Set<P2PDataStorage.ByteArray> keySetView;
+    private Set<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> entrySet;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return The SHA-256 hash of the file content which is used to detect if a segment is outdated.
+     */
+    public static byte[] hashSourceFile(File sourceFile) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(sourceFile))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Writes a segment file for the given map. All hashes need to have the same length.
+     */
+    public static void write(File file,
+                             Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map,
+                             byte[] sourceFileHash) throws IOException {
+        if (sourceFileHash.length != SOURCE_FILE_HASH_LENGTH) {
+            throw new IOException("Invalid length of source file hash");
+        }
+
+        List<P2PDataStorage.ByteArray> sortedHashes = new ArrayList<>(map.keySet());
+        sortedHashes.sort((o1, o2) -> Arrays.compareUnsigned(o1.bytes, o2.bytes));
+        int hashLength = sortedHashes.isEmpty() ? 0 : sortedHashes.get(0).bytes.length;
+
+        List<byte[]> serializedPayloads = new ArrayList<>(sortedHashes.size());
+        for (P2PDataStorage.ByteArray hash : sortedHashes) {
+            if (hash.bytes.length != hashLength) {
+                throw new IOException("Hashes of different length cannot be stored in a segment");
+            }
+            serializedPayloads.add(map.get(hash).toProtoMessage().toByteArray());
+        }
+
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.write(sourceFileHash);
+            out.writeInt(hashLength);
+            out.writeInt(sortedHashes.size());
+
+            long dataOffset = HEADER_SIZE + (long) sortedHashes.size() * (hashLength + 8);
+            for (int i = 0; i < sortedHashes.size(); i++) {
+                int dataLength = serializedPayloads.get(i).length;
+                if (dataOffset + dataLength > Integer.MAX_VALUE) {
+                    throw new IOException("Segment exceeds max. size");
+                }
+                out.write(sortedHashes.get(i).bytes);
+                out.writeInt((int) dataOffset);
+                out.writeInt(dataLength);
+                dataOffset += dataLength;
+            }
+            for (byte[] serializedPayload : serializedPayloads) {
+                out.write(serializedPayload);
+            }
+        }
+
+        if (!tempFile.renameTo(file)) {
+            tempFile.delete();
+            throw new IOException("Renaming " + tempFile.getName() + " failed");
+        }
+    }
+
+    /**
+     * @return The segment or null if the file does not exist, is corrupted or was created from a different source file.
+     */
+    @Nullable
+    public static MappedPayloadSegment open(File file, byte[] expectedSourceFileHash, ProtoResolver protoResolver) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel got closed.
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE ||
+                    buffer.getInt(0) != MAGIC ||
+                    buffer.getInt(4) != FORMAT_VERSION ||
+                    !hasSourceFileHash(buffer, expectedSourceFileHash)) {
+                log.info("Segment file {} is outdated or not valid", file.getName());
+                return null;
+            }
+
+            int hashLength = buffer.getInt(8 + SOURCE_FILE_HASH_LENGTH);
+            int numEntries = buffer.getInt(12 + SOURCE_FILE_HASH_LENGTH);
+            if (numEntries < 0 || hashLength < 0 ||
+                    HEADER_SIZE + (long) numEntries * (hashLength + 8) > buffer.capacity()) {
+                log.warn("Segment file {} is corrupted", file.getName());
+                return null;
+            }
+            return new MappedPayloadSegment(buffer, protoResolver, hashLength, numEntries);
+        } catch (IOException e) {
+            log.warn("Opening segment file {} failed. {}", file.getName(), e.toString());
+            return null;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private MappedPayloadSegment(ByteBuffer buffer, ProtoResolver protoResolver, int hashLength, int numEntries) {
+        this.buffer = buffer;
+        this.protoResolver = protoResolver;
+        this.hashLength = hashLength;
+        this.numEntries = numEntries;
+        this.indexEntrySize = hashLength + 8;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Map
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public int size() {
+        return numEntries;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public PersistableNetworkPayload get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? decodePayload(index) : null;
+    }
+
+    // We override the keySet as the default implementation iterates the entrySet, which would decode all payloads.
+    @Override
+    public Set<P2PDataStorage.ByteArray> keySet() {
+        if (keySetView == null) {
+            keySetView = new AbstractSet<>() {
+                @Override
+                public Iterator<P2PDataStorage.ByteArray> iterator() {
+                    return new Iterator<>() {
+                        private int index = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < numEntries;
+                        }
+
+                        @Override
+                        public P2PDataStorage.ByteArray next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            return getHash(index++);
+                        }
+                    };
+                }
+
+                @Override
+                public boolean contains(Object key) {
+                    return containsKey(key);
+                }
+
+                @Override
+                public int size() {
+                    return numEntries;
+                }
+            };
+        }
+        return keySetView;
+    }
+
+    @Override
+    public Set<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> iterator() {
+                    return new Iterator<>() {
+                        private int index = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < numEntries;
+                        }
+
+                        @Override
+                        public Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload> entry =
+                                    new SimpleImmutableEntry<>(getHash(index), decodePayload(index));
+                            index++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return numEntries;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static boolean hasSourceFileHash(ByteBuffer buffer, byte[] expectedSourceFileHash) {
+        if (expectedSourceFileHash.length != SOURCE_FILE_HASH_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < SOURCE_FILE_HASH_LENGTH; i++) {
+            if (buffer.get(8 + i) != expectedSourceFileHash[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof P2PDataStorage.ByteArray)) {
+            return -1;
+        }
+        byte[] hash = ((P2PDataStorage.ByteArray) key).bytes;
+        if (hash.length != hashLength) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = numEntries - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareHashAt(mid, hash);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compareHashAt(int index, byte[] hash) {
+        int position = HEADER_SIZE + index * indexEntrySize;
+        for (int i = 0; i < hashLength; i++) {
+            int cmp = Byte.toUnsignedInt(buffer.get(position + i)) - Byte.toUnsignedInt(hash[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private P2PDataStorage.ByteArray getHash(int index) {
+        return new P2PDataStorage.ByteArray(getBytes(HEADER_SIZE + index * indexEntrySize, hashLength));
+    }
+
+    private PersistableNetworkPayload decodePayload(int index) {
+        int position = HEADER_SIZE + index * indexEntrySize + hashLength;
+        byte[] serialized = getBytes(buffer.getInt(position), buffer.getInt(position + 4));
+        try {
+            return PersistableNetworkPayload.fromProto(protobuf.PersistableNetworkPayload.parseFrom(serialized),
+                    protoResolver);
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException("Decoding payload from segment failed", e);
+        }
+    }
+
+    // We use a duplicate as the position of a shared buffer is not thread safe.
+    private byte[] getBytes(int position, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(position);
+        duplicate.get(bytes);
+        return bytes;
+    }
+}
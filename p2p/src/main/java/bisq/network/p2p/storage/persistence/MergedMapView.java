@@ -0,0 +1,153 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import com.google.common.collect.Iterators;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-only view of the union of the given maps. A key contained in multiple maps is exposed only once with the
+ * value of the first map containing it. Nothing gets copied, so values of a {@link MappedPayloadSegment} get only
+ * decoded if they are accessed.
+ *
+ * If the maps are known to be disjoint use {@link #ofDisjointMaps}, so the size is the sum of the sizes of the maps
+ * and the iteration does not need to look up each key in the preceding maps. Otherwise the size has to be counted at
+ * each call, which is expensive for large maps.
+ */
+public final class MergedMapView<K, V> extends AbstractMap<K, V> {
+    private final List<Map<K, V>> maps;
+    private final boolean disjoint;
+    private Set<K> keySet;
+    private Set<Entry<K, V>> entrySet;
+
+    public MergedMapView(List<Map<K, V>> maps) {
+        this(maps, false);
+    }
+
+    // The caller has to guarantee that no key is contained in more than one of the maps
+    public static <K, V> MergedMapView<K, V> ofDisjointMaps(List<Map<K, V>> maps) {
+        return new MergedMapView<>(maps, true);
+    }
+
+    private MergedMapView(List<Map<K, V>> maps, boolean disjoint) {
+        this.maps = new ArrayList<>(maps);
+        this.disjoint = disjoint;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return maps.stream().anyMatch(map -> map.containsKey(key));
+    }
+
+    @Override
+    public V get(Object key) {
+        for (Map<K, V> map : maps) {
+            V value = map.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        if (disjoint) {
+            return maps.stream().mapToInt(Map::size).sum();
+        }
+        return Iterators.size(keySet().iterator());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return maps.stream().allMatch(Map::isEmpty);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        if (keySet == null) {
+            keySet = new AbstractSet<>() {
+                @Override
+                public Iterator<K> iterator() {
+                    return distinctIterator(map -> map.keySet().iterator(), key -> key);
+                }
+
+                @Override
+                public boolean contains(Object key) {
+                    return containsKey(key);
+                }
+
+                @Override
+                public int size() {
+                    return MergedMapView.this.size();
+                }
+            };
+        }
+        return keySet;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return distinctIterator(map -> map.entrySet().iterator(), Entry::getKey);
+                }
+
+                @Override
+                public int size() {
+                    return MergedMapView.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    // The returned iterator does not support remove as the filtered iterators are unmodifiable.
+    private <E> Iterator<E> distinctIterator(Function<Map<K, V>, Iterator<E>> iteratorOfMap,
+                                             Function<E, K> keyOfElement) {
+        if (disjoint) {
+            return Iterators.unmodifiableIterator(Iterators.concat(maps.stream().map(iteratorOfMap).iterator()));
+        }
+        List<Iterator<E>> iterators = new ArrayList<>(maps.size());
+        for (int i = 0; i < maps.size(); i++) {
+            int index = i;
+            iterators.add(Iterators.filter(iteratorOfMap.apply(maps.get(index)),
+                    element -> isFirstMapContaining(index, keyOfElement.apply(element))));
+        }
+        return Iterators.concat(iterators.iterator());
+    }
+
+    private boolean isFirstMapContaining(int index, K key) {
+        for (int i = 0; i < index; i++) {
+            if (maps.get(i).containsKey(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -20,6 +20,7 @@ package bisq.network.p2p.storage.persistence;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 
+import bisq.common.proto.persistable.AppendOnlyPersistableEnvelope;
 import bisq.common.proto.persistable.PersistableEnvelope;
 
 import java.util.Collection;
@@ -32,9 +33,10 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Store for PersistableNetworkPayload map entries with it's data hash as key.
+ * As the data is append-only, new entries can be persisted as log entries containing only the new items.
  */
 @Slf4j
-public abstract class PersistableNetworkPayloadStore<T extends PersistableNetworkPayload> implements PersistableEnvelope {
+public abstract class PersistableNetworkPayloadStore<T extends PersistableNetworkPayload> implements AppendOnlyPersistableEnvelope {
     @Getter
     protected final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new ConcurrentHashMap<>();
 
@@ -48,4 +50,13 @@ public abstract class PersistableNetworkPayloadStore<T extends PersistableNetwor
     public boolean containsKey(P2PDataStorage.ByteArray hash) {
         return map.containsKey(hash);
     }
+
+    @Override
+    public void mergeLogEntry(PersistableEnvelope logEntry) {
+        if (logEntry instanceof PersistableNetworkPayloadStore) {
+            map.putAll(((PersistableNetworkPayloadStore<?>) logEntry).getMap());
+        } else {
+            log.warn("Unexpected log entry {} for {}", logEntry.getClass().getSimpleName(), getClass().getSimpleName());
+        }
+    }
 }
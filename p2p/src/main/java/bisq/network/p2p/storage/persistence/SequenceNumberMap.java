@@ -27,7 +27,6 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
-import lombok.Setter;
 
 /**
  * This class was not generalized to HashMapPersistable (like we did with #ListPersistable) because
@@ -35,9 +34,9 @@ import lombok.Setter;
  * Hence this Persistable class.
  */
 public class SequenceNumberMap implements PersistableEnvelope {
+    // Volatile as P2PDataStorage reads it from the dispatcher threads of the connections as well.
     @Getter
-    @Setter
-    private Map<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> map = new ConcurrentHashMap<>();
+    private volatile Map<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> map = new ConcurrentHashMap<>();
 
     public SequenceNumberMap() {
     }
@@ -81,6 +80,10 @@ public class SequenceNumberMap implements PersistableEnvelope {
         return map.size();
     }
 
+    public void setMap(Map<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> map) {
+        this.map = new ConcurrentHashMap<>(map);
+    }
+
     public boolean containsKey(P2PDataStorage.ByteArray key) {
         return map.containsKey(key);
     }
@@ -0,0 +1,204 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.mailbox;
+
+import bisq.network.crypto.EncryptionService;
+import bisq.network.p2p.DecryptedMessageWithPubKey;
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.mocks.MockMailboxPayload;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.PeerManager;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.Encryption;
+import bisq.common.crypto.KeyRing;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.SealedAndSigned;
+import bisq.common.crypto.Sig;
+import bisq.common.persistence.PersistenceManager;
+
+import java.security.KeyPair;
+
+import java.time.Clock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// UserThread runs on the calling thread, as no executor is set in the tests.
+public class MailboxMessageServiceTest {
+    private static final NodeAddress SENDER_NODE_ADDRESS = new NodeAddress("sender:9999");
+
+    private PubKeyRing myPubKeyRing;
+    private EncryptionService encryptionService;
+    private PersistenceManager<IgnoredMailboxMap> ignoredMailboxPersistenceManager;
+    private IgnoredMailboxService ignoredMailboxService;
+    private MailboxMessageService mailboxMessageService;
+    private List<DecryptedMessageWithPubKey> receivedMessages;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        myPubKeyRing = new PubKeyRing(Sig.generateKeyPair().getPublic(), Encryption.generateKeyPair().getPublic());
+        KeyRing keyRing = mock(KeyRing.class);
+        when(keyRing.getPubKeyRing()).thenReturn(myPubKeyRing);
+        NetworkNode networkNode = mock(NetworkNode.class);
+        when(networkNode.getNodeAddress()).thenReturn(new NodeAddress("me:9999"));
+        encryptionService = mock(EncryptionService.class);
+        ignoredMailboxPersistenceManager = mock(PersistenceManager.class);
+        ignoredMailboxService = new IgnoredMailboxService(ignoredMailboxPersistenceManager);
+
+        mailboxMessageService = new MailboxMessageService(networkNode,
+                mock(PeerManager.class),
+                mock(P2PDataStorage.class),
+                encryptionService,
+                ignoredMailboxService,
+                mock(PersistenceManager.class),
+                keyRing,
+                Clock.systemDefaultZone(),
+                false);
+
+        receivedMessages = Collections.synchronizedList(new ArrayList<>());
+        mailboxMessageService.addDecryptedMailboxListener((decryptedMessageWithPubKey, senderAddress) ->
+                receivedMessages.add(decryptedMessageWithPubKey));
+    }
+
+    @After
+    public void tearDown() {
+        mailboxMessageService.shutDown();
+    }
+
+    @Test
+    public void testEntryWhichFailsToDecryptGetsIgnored() throws Exception {
+        ProtectedMailboxStorageEntry entry = buildEntryForUs();
+        when(encryptionService.decryptAndVerify(any())).thenThrow(new CryptoException("Not for us"));
+
+        mailboxMessageService.onAdded(Collections.singletonList(entry));
+
+        assertTrue(ignoredMailboxService.isIgnored(getUid(entry)));
+        assertTrue(receivedMessages.isEmpty());
+        verify(ignoredMailboxPersistenceManager, times(1)).requestPersistence();
+
+        // An ignored entry does not get decrypted again
+        mailboxMessageService.onAdded(Collections.singletonList(entry));
+        verify(encryptionService, times(1)).decryptAndVerify(any());
+    }
+
+    @Test
+    public void testEntryForUsGetsProcessed() throws Exception {
+        ProtectedMailboxStorageEntry entry = buildEntryForUs();
+        DecryptedMessageWithPubKey decryptedMessageWithPubKey = buildDecryptedMessage();
+        when(encryptionService.decryptAndVerify(any())).thenReturn(decryptedMessageWithPubKey);
+
+        mailboxMessageService.onAdded(Collections.singletonList(entry));
+
+        assertEquals(Collections.singletonList(decryptedMessageWithPubKey), receivedMessages);
+        assertFalse(ignoredMailboxService.isIgnored(getUid(entry)));
+        verify(ignoredMailboxPersistenceManager, never()).requestPersistence();
+    }
+
+    @Test
+    public void testBatchMarksIgnoredEntriesInOneTask() throws Exception {
+        ProtectedMailboxStorageEntry ignoredEntry1 = buildEntryForUs();
+        ProtectedMailboxStorageEntry ignoredEntry2 = buildEntryForUs();
+        ProtectedMailboxStorageEntry processedEntry = buildEntryForUs();
+        DecryptedMessageWithPubKey decryptedMessageWithPubKey = buildDecryptedMessage();
+        when(encryptionService.decryptAndVerify(any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) == getSealedAndSigned(processedEntry)) {
+                return decryptedMessageWithPubKey;
+            }
+            throw new CryptoException("Not for us");
+        });
+
+        CountDownLatch latch = new CountDownLatch(1);
+        mailboxMessageService.addDecryptedMailboxListener((message, senderAddress) -> latch.countDown());
+        List<ProtectedStorageEntry> entries = Arrays.asList(ignoredEntry1, ignoredEntry2, processedEntry);
+        mailboxMessageService.onAdded(entries);
+
+        // All entries fit into one chunk and the ignored entries get applied before the processed ones
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(decryptedMessageWithPubKey), receivedMessages);
+        assertTrue(ignoredMailboxService.isIgnored(getUid(ignoredEntry1)));
+        assertTrue(ignoredMailboxService.isIgnored(getUid(ignoredEntry2)));
+        assertFalse(ignoredMailboxService.isIgnored(getUid(processedEntry)));
+        verify(ignoredMailboxPersistenceManager, times(1)).requestPersistence();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private ProtectedMailboxStorageEntry buildEntryForUs() {
+        KeyPair senderKeys = Sig.generateKeyPair();
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(new byte[]{1},
+                new byte[]{2},
+                new byte[]{3},
+                senderKeys.getPublic());
+        MailboxStoragePayload mailboxStoragePayload = new MailboxStoragePayload(
+                new PrefixedSealedAndSignedMessage(SENDER_NODE_ADDRESS, sealedAndSigned),
+                senderKeys.getPublic(),
+                myPubKeyRing.getSignaturePubKey(),
+                MailboxStoragePayload.TTL);
+        return new ProtectedMailboxStorageEntry(mailboxStoragePayload,
+                senderKeys.getPublic(),
+                1,
+                new byte[0],
+                myPubKeyRing.getSignaturePubKey(),
+                Clock.systemDefaultZone());
+    }
+
+    private DecryptedMessageWithPubKey buildDecryptedMessage() {
+        return new DecryptedMessageWithPubKey(new MockMailboxPayload("msg", SENDER_NODE_ADDRESS),
+                Sig.generateKeyPair().getPublic());
+    }
+
+    private static PrefixedSealedAndSignedMessage getPrefixedSealedAndSignedMessage(ProtectedMailboxStorageEntry entry) {
+        return entry.getMailboxStoragePayload().getPrefixedSealedAndSignedMessage();
+    }
+
+    private static String getUid(ProtectedMailboxStorageEntry entry) {
+        return getPrefixedSealedAndSignedMessage(entry).getUid();
+    }
+
+    private static SealedAndSigned getSealedAndSigned(ProtectedMailboxStorageEntry entry) {
+        return getPrefixedSealedAndSignedMessage(entry).getSealedAndSigned();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.mailbox;
+
+import bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+
+import bisq.common.crypto.Encryption;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.Sig;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+import java.time.Clock;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+
+public class MailboxReceiverIndexTest {
+
+    private static PubKeyRing buildPubKeyRing() {
+        return new PubKeyRing(Sig.generateKeyPair().getPublic(), Encryption.generateKeyPair().getPublic());
+    }
+
+    private static ProtectedMailboxStorageEntry buildProtectedMailboxStorageEntry(PublicKey receiverKey) {
+        KeyPair senderKeys = Sig.generateKeyPair();
+        MailboxStoragePayload mailboxStoragePayload = new MailboxStoragePayload(
+                mock(PrefixedSealedAndSignedMessage.class),
+                senderKeys.getPublic(),
+                receiverKey,
+                MailboxStoragePayload.TTL);
+        return new ProtectedMailboxStorageEntry(mailboxStoragePayload,
+                senderKeys.getPublic(),
+                1,
+                new byte[0],
+                receiverKey,
+                Clock.systemDefaultZone());
+    }
+
+    // TESTCASE: An entry addressed to our signature key is a candidate
+    @Test
+    public void isCandidate_OwnReceiverKey() {
+        PubKeyRing myPubKeyRing = buildPubKeyRing();
+        MailboxReceiverIndex index = new MailboxReceiverIndex(myPubKeyRing);
+
+        Assert.assertTrue(index.isCandidate(buildProtectedMailboxStorageEntry(myPubKeyRing.getSignaturePubKey())));
+    }
+
+    // TESTCASE: An entry addressed to another key is not a candidate
+    @Test
+    public void isCandidate_ForeignReceiverKey() {
+        MailboxReceiverIndex index = new MailboxReceiverIndex(buildPubKeyRing());
+
+        Assert.assertFalse(index.isCandidate(buildProtectedMailboxStorageEntry(buildPubKeyRing().getSignaturePubKey())));
+    }
+
+    // TESTCASE: An entry becomes a candidate once the receiver key got added to the index
+    @Test
+    public void isCandidate_AfterAdd() {
+        MailboxReceiverIndex index = new MailboxReceiverIndex(buildPubKeyRing());
+        PubKeyRing otherPubKeyRing = buildPubKeyRing();
+        ProtectedMailboxStorageEntry entry = buildProtectedMailboxStorageEntry(otherPubKeyRing.getSignaturePubKey());
+        Assert.assertFalse(index.isCandidate(entry));
+
+        index.add(otherPubKeyRing);
+
+        Assert.assertTrue(index.isCandidate(entry));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.BundleOfEnvelopes;
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EncodedEnvelopeTest {
+
+    @Test
+    public void testEncodingMatchesProtobuf() throws IOException {
+        Ping ping = new Ping(42, 300);
+        EncodedEnvelope encodedEnvelope = EncodedEnvelope.of(ping);
+
+        assertArrayEquals(toDelimitedBytes(ping), toBytes(encodedEnvelope));
+        assertEquals(ping.toProtoNetworkEnvelope().getSerializedSize(), encodedEnvelope.getSerializedSize());
+    }
+
+    @Test
+    public void testBundleMatchesProtobuf() throws IOException {
+        List<NetworkEnvelope> envelopes = List.of(new Ping(1, 10), new Ping(2, 20), new Ping(Integer.MAX_VALUE, -1));
+        EncodedEnvelope encodedBundle = EncodedEnvelope.bundle(envelopes.stream()
+                .map(EncodedEnvelope::of)
+                .collect(Collectors.toList()));
+
+        BundleOfEnvelopes bundle = new BundleOfEnvelopes(envelopes);
+        assertEquals(bundle, encodedBundle.getEnvelope());
+        assertArrayEquals(toDelimitedBytes(bundle), toBytes(encodedBundle));
+        assertEquals(bundle.toProtoNetworkEnvelope().getSerializedSize(), encodedBundle.getSerializedSize());
+    }
+
+    @Test
+    public void testBundledSizeIsTrackedIncrementally() {
+        List<EncodedEnvelope> encodedEnvelopes = List.of(EncodedEnvelope.of(new Ping(1, 10)),
+                EncodedEnvelope.of(new Ping(2, 20)));
+        int size = EncodedEnvelope.getEmptyBundleSize() +
+                encodedEnvelopes.stream().mapToInt(EncodedEnvelope::getBundledSize).sum();
+
+        // The tracked size is an upper bound as the empty bundle size assumes the max. length of the size prefix
+        int serializedSize = EncodedEnvelope.bundle(encodedEnvelopes).getSerializedSize();
+        assertTrue(size >= serializedSize);
+        assertTrue(size - serializedSize <= 10);
+    }
+
+    private static byte[] toDelimitedBytes(NetworkEnvelope envelope) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        envelope.toProtoNetworkEnvelope().writeDelimitedTo(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] toBytes(EncodedEnvelope encodedEnvelope) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        encodedEnvelope.writeTo(outputStream);
+        return outputStream.toByteArray();
+    }
+}
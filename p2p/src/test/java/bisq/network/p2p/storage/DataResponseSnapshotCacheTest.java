@@ -0,0 +1,148 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.storage.mocks.PersistableNetworkPayloadStub;
+import bisq.network.p2p.storage.payload.DateSortedTruncatablePayload;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import com.google.common.collect.Lists;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DataResponseSnapshotCacheTest {
+    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> storeMap;
+    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> datedStoreMap;
+    private AtomicInteger numBuilds;
+    private DataResponseSnapshotCache cache;
+
+    @Before
+    public void setUp() {
+        storeMap = new HashMap<>();
+        PersistableNetworkPayload payload = new PersistableNetworkPayloadStub(new byte[]{1});
+        storeMap.put(new P2PDataStorage.ByteArray(payload.getHash()), payload);
+        datedStoreMap = new HashMap<>();
+        numBuilds = new AtomicInteger();
+        cache = new DataResponseSnapshotCache(version -> {
+            numBuilds.incrementAndGet();
+            return List.of(storeMap, datedStoreMap);
+        });
+    }
+
+    // TESTCASE: The snapshot for a version gets built only once
+    @Test
+    public void getMap_BuiltOncePerVersion() {
+        Assert.assertEquals(1, cache.getMap("1.0.0").size());
+        Assert.assertEquals(1, cache.getMap("1.0.0").size());
+        Assert.assertEquals(1, numBuilds.get());
+
+        cache.getMap(null);
+        Assert.assertEquals(2, numBuilds.get());
+    }
+
+    // TESTCASE: Added payloads get appended to existing snapshots without rebuilding them
+    @Test
+    public void onAdded_AppendsToSnapshots() {
+        cache.getMap("1.0.0");
+        cache.getMap("1.1.0");
+
+        PersistableNetworkPayload payload = new PersistableNetworkPayloadStub(new byte[]{2});
+        P2PDataStorage.ByteArray hash = new P2PDataStorage.ByteArray(payload.getHash());
+        cache.onAdded(hash, payload);
+
+        Assert.assertTrue(cache.getMap("1.0.0").containsKey(hash));
+        Assert.assertTrue(cache.getMap("1.1.0").containsKey(hash));
+        Assert.assertEquals(2, numBuilds.get());
+        Assert.assertFalse(storeMap.containsKey(hash));
+    }
+
+    // TESTCASE: Maps which have been handed out already do not get modified by added payloads
+    @Test
+    public void onAdded_DoesNotModifyHandedOutMaps() {
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = cache.getMap("1.0.0");
+
+        PersistableNetworkPayload payload = new PersistableNetworkPayloadStub(new byte[]{2});
+        P2PDataStorage.ByteArray hash = new P2PDataStorage.ByteArray(payload.getHash());
+        cache.onAdded(hash, payload);
+
+        Assert.assertFalse(map.containsKey(hash));
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals(2, cache.getMap("1.0.0").size());
+    }
+
+    // TESTCASE: The keys of DateSortedTruncatablePayloads are sorted by date, also if they got added later
+    @Test
+    public void getSnapshot_DateSortedTruncatableKeys() {
+        DatedPayloadStub payload2 = new DatedPayloadStub(new byte[]{2}, 200);
+        DatedPayloadStub payload3 = new DatedPayloadStub(new byte[]{3}, 100);
+        datedStoreMap.put(payload2.getByteArray(), payload2);
+        datedStoreMap.put(payload3.getByteArray(), payload3);
+
+        DataResponseSnapshotCache.Snapshot snapshot = cache.getSnapshot("1.0.0");
+        Assert.assertEquals(Arrays.asList(payload3.getByteArray(), payload2.getByteArray()),
+                snapshot.getDateSortedTruncatableKeys());
+        Assert.assertEquals(1, Lists.newArrayList(snapshot.getKeys()).size());
+
+        DatedPayloadStub payload4 = new DatedPayloadStub(new byte[]{4}, 150);
+        cache.onAdded(payload4.getByteArray(), payload4);
+
+        Assert.assertEquals(Arrays.asList(payload3.getByteArray(), payload4.getByteArray(), payload2.getByteArray()),
+                snapshot.getDateSortedTruncatableKeys());
+        Assert.assertEquals(4, snapshot.size());
+        Assert.assertEquals(payload4, snapshot.get(payload4.getByteArray()));
+        Assert.assertEquals(1, numBuilds.get());
+    }
+
+    // TESTCASE: The snapshot cannot be modified by clients
+    @Test(expected = UnsupportedOperationException.class)
+    public void getMap_Unmodifiable() {
+        cache.getMap("1.0.0").clear();
+    }
+
+    private static class DatedPayloadStub extends PersistableNetworkPayloadStub implements DateSortedTruncatablePayload {
+        private final long date;
+
+        DatedPayloadStub(byte[] hash, long date) {
+            super(hash);
+            this.date = date;
+        }
+
+        P2PDataStorage.ByteArray getByteArray() {
+            return new P2PDataStorage.ByteArray(getHash());
+        }
+
+        @Override
+        public Date getDate() {
+            return new Date(date);
+        }
+
+        @Override
+        public int maxItems() {
+            return 10;
+        }
+    }
+}
@@ -18,17 +18,31 @@
 package bisq.network.p2p.storage;
 
 import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.TestUtils;
 import bisq.network.p2p.mocks.MockPayload;
 import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.storage.messages.AddDataMessage;
 import bisq.network.p2p.storage.messages.AddPersistableNetworkPayloadMessage;
 import bisq.network.p2p.storage.messages.BroadcastMessage;
+import bisq.network.p2p.storage.messages.RemoveDataMessage;
 import bisq.network.p2p.storage.mocks.PersistableNetworkPayloadStub;
+import bisq.network.p2p.storage.mocks.ProtectedStoragePayloadStub;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 
 import bisq.common.proto.network.NetworkEnvelope;
 
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+
+import java.time.Clock;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -39,8 +53,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
- * Tests of the P2PDataStore MessageListener interface failure cases. The success cases are covered in the
- * PersistableNetworkPayloadTest and ProtectedStorageEntryTest tests,
+ * Tests of the P2PDataStore MessageListener interface failure cases and of the dispatching of messages to the
+ * UserThread. The success cases are covered in the PersistableNetworkPayloadTest and ProtectedStorageEntryTest tests,
  */
 public class P2PDataStorageOnMessageHandlerTest {
     private TestState testState;
@@ -96,4 +110,74 @@ public class P2PDataStorageOnMessageHandlerTest {
         verify(this.testState.appendOnlyDataStoreListener, never()).onAdded(any(PersistableNetworkPayload.class));
         verify(this.testState.mockBroadcaster, never()).broadcast(any(BroadcastMessage.class), any(NodeAddress.class));
     }
+
+    // TESTCASE: An add which gets verified on the dispatcher is checked against our state once it gets applied on the
+    // UserThread. A remove which got applied in between rejects the add.
+    @Test
+    public void dispatchedAddAfterDispatchedRemove() throws NoSuchAlgorithmException {
+        ProtectedStoragePayload protectedStoragePayload = createProtectedStoragePayload();
+        ProtectedStorageEntry storedEntry = createProtectedStorageEntry(protectedStoragePayload, 1);
+        Assert.assertTrue(this.testState.mockedStorage.addProtectedStorageEntry(storedEntry,
+                TestState.getTestNodeAddress(), null));
+
+        List<Runnable> userThreadTasks = new ArrayList<>();
+        ProtectedStorageEntry entryForRemove = createProtectedStorageEntry(protectedStoragePayload, 3);
+        this.testState.mockedStorage.onMessage(new RemoveDataMessage(entryForRemove), createConnection(),
+                userThreadTasks::add);
+        ProtectedStorageEntry entryForAdd = createProtectedStorageEntry(protectedStoragePayload, 2);
+        this.testState.mockedStorage.onMessage(new AddDataMessage(entryForAdd), createConnection(),
+                userThreadTasks::add);
+
+        userThreadTasks.forEach(Runnable::run);
+
+        P2PDataStorage.ByteArray hashOfPayload = P2PDataStorage.get32ByteHashAsByteArray(protectedStoragePayload);
+        Assert.assertNull(this.testState.mockedStorage.getMap().get(hashOfPayload));
+    }
+
+    // TESTCASE: An add which is a duplicate of our stored entry when it gets verified on the dispatcher is accepted
+    // if the stored entry has expired until the add gets applied, the same as if it had been added on the UserThread.
+    @Test
+    public void dispatchedAddAfterExpiredStoredEntry() throws NoSuchAlgorithmException {
+        ProtectedStoragePayload protectedStoragePayload = createProtectedStoragePayload();
+        ProtectedStorageEntry storedEntry = createProtectedStorageEntry(protectedStoragePayload, 1);
+        Assert.assertTrue(this.testState.mockedStorage.addProtectedStorageEntry(storedEntry,
+                TestState.getTestNodeAddress(), null));
+
+        List<Runnable> userThreadTasks = new ArrayList<>();
+        ProtectedStorageEntry entryForAdd = createProtectedStorageEntry(protectedStoragePayload, 1);
+        this.testState.mockedStorage.onMessage(new AddDataMessage(entryForAdd), createConnection(),
+                userThreadTasks::add);
+
+        when(storedEntry.isExpired(any(Clock.class))).thenReturn(true);
+        this.testState.mockedStorage.removeExpiredEntries();
+
+        userThreadTasks.forEach(Runnable::run);
+
+        P2PDataStorage.ByteArray hashOfPayload = P2PDataStorage.get32ByteHashAsByteArray(protectedStoragePayload);
+        Assert.assertEquals(entryForAdd, this.testState.mockedStorage.getMap().get(hashOfPayload));
+    }
+
+    private static ProtectedStoragePayload createProtectedStoragePayload() throws NoSuchAlgorithmException {
+        KeyPair ownerKeys = TestUtils.generateKeyPair();
+        return new ProtectedStoragePayloadStub(ownerKeys.getPublic());
+    }
+
+    // Returns an entry which passes all validity checks for add and remove
+    private static ProtectedStorageEntry createProtectedStorageEntry(ProtectedStoragePayload protectedStoragePayload,
+                                                                     int sequenceNumber) {
+        ProtectedStorageEntry stub = mock(ProtectedStorageEntry.class);
+        when(stub.getOwnerPubKey()).thenReturn(protectedStoragePayload.getOwnerPubKey());
+        when(stub.isValidForAddOperation()).thenReturn(true);
+        when(stub.isValidForRemoveOperation()).thenReturn(true);
+        when(stub.matchesRelevantPubKey(any(ProtectedStorageEntry.class))).thenReturn(true);
+        when(stub.getSequenceNumber()).thenReturn(sequenceNumber);
+        when(stub.getProtectedStoragePayload()).thenReturn(protectedStoragePayload);
+        return stub;
+    }
+
+    private static Connection createConnection() {
+        Connection mockedConnection = mock(Connection.class);
+        when(mockedConnection.getPeersNodeAddressOptional()).thenReturn(Optional.of(TestState.getTestNodeAddress()));
+        return mockedConnection;
+    }
 }
@@ -30,17 +30,24 @@ import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockitoAnnotations;
 
 public class P2PDataStorageProcessGetDataResponse {
@@ -260,4 +267,32 @@ public class P2PDataStorageProcessGetDataResponse {
         this.testState.verifyProtectedStorageAdd(
                 beforeState, protectedStorageEntry, true, true, false, true);
     }
+
+    // TESTCASE: Large GetDataResponse w/ missing PSEs is verified in parallel and listeners are signaled once
+    @Test
+    public void processGetDataResponse_manyNewPSEsUpdatesStateWithSingleListenerSignal() throws NoSuchAlgorithmException {
+        HashMapChangedListener listener = mock(HashMapChangedListener.class);
+        this.testState.mockedStorage.addHashMapChangedListener(listener);
+
+        List<ProtectedStorageEntry> validEntries = new ArrayList<>();
+        for (int i = 0; i < 2 * P2PDataStorage.MIN_PARALLEL_VERIFICATION_SIZE; i++) {
+            validEntries.add(getProtectedStorageEntryForAdd());
+        }
+        ProtectedStorageEntry invalidEntry = getProtectedStorageEntryForAdd();
+        when(invalidEntry.isValidForAddOperation()).thenReturn(false);
+
+        List<ProtectedStorageEntry> entries = new ArrayList<>(validEntries);
+        entries.add(invalidEntry);
+        GetDataResponse getDataResponse = buildGetDataResponse(entries, Collections.emptyList());
+        this.testState.mockedStorage.processGetDataResponse(getDataResponse, this.peerNodeAddress);
+
+        Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> map = this.testState.mockedStorage.getMap();
+        Assert.assertEquals(validEntries.size(), map.size());
+        Assert.assertTrue(map.values().containsAll(validEntries));
+        Assert.assertFalse(map.containsValue(invalidEntry));
+
+        ArgumentCaptor<Collection<ProtectedStorageEntry>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(listener, times(1)).onAdded(captor.capture());
+        Assert.assertEquals(new HashSet<>(validEntries), new HashSet<>(captor.getValue()));
+    }
 }
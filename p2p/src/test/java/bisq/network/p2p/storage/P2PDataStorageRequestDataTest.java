@@ -20,6 +20,7 @@ package bisq.network.p2p.storage;
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.TestUtils;
 import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
+import bisq.network.p2p.peers.getdata.messages.KnownHashesFilter;
 import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
 import bisq.network.p2p.storage.mocks.PersistableNetworkPayloadStub;
 import bisq.network.p2p.storage.mocks.ProtectedStoragePayloadStub;
@@ -170,4 +171,35 @@ public class P2PDataStorageRequestDataTest {
         Assert.assertTrue(byteSetContains(getDataRequest.getExcludedKeys(),
                 P2PDataStorage.get32ByteHash(toAdd4.getProtectedStoragePayload())));
     }
+
+    // TESTCASE: With the known hashes filter the PersistableNetworkPayload keys are only encoded in the filter and
+    // the ProtectedStorageEntry keys stay in the excluded keys.
+    @Test
+    public void buildPreliminaryGetDataRequest_FilledP2PDataStore_KnownHashesFilter() throws NoSuchAlgorithmException {
+        PersistableNetworkPayload toAdd1 = new PersistableNetworkPayloadStub(new byte[] { 1 });
+        PersistableNetworkPayload toAdd2 = new PersistableNetworkPayloadStub(new byte[] { 2 });
+        ProtectedStorageEntry toAdd3 = getProtectedStorageEntryForAdd();
+        ProtectedStorageEntry toAdd4 = getProtectedStorageEntryForAdd();
+
+        this.testState.mockedStorage.addPersistableNetworkPayload(toAdd1, this.localNodeAddress, false);
+        this.testState.mockedStorage.addPersistableNetworkPayload(toAdd2, this.localNodeAddress, false);
+
+        this.testState.mockedStorage.addProtectedStorageEntry(toAdd3, this.localNodeAddress, null);
+        this.testState.mockedStorage.addProtectedStorageEntry(toAdd4, this.localNodeAddress, null);
+
+        PreliminaryGetDataRequest getDataRequest =
+                this.testState.mockedStorage.buildPreliminaryGetDataRequest(1, true);
+
+        Assert.assertEquals(2, getDataRequest.getExcludedKeys().size());
+        Assert.assertTrue(byteSetContains(getDataRequest.getExcludedKeys(),
+                P2PDataStorage.get32ByteHash(toAdd3.getProtectedStoragePayload())));
+        Assert.assertTrue(byteSetContains(getDataRequest.getExcludedKeys(),
+                P2PDataStorage.get32ByteHash(toAdd4.getProtectedStoragePayload())));
+
+        KnownHashesFilter filter = KnownHashesFilter.fromProto(
+                getDataRequest.getKnownPayloadHashesFilter().toProtoMessage());
+        Assert.assertNotNull(filter);
+        Assert.assertTrue(filter.mightContain(toAdd1.getHash()));
+        Assert.assertTrue(filter.mightContain(toAdd2.getHash()));
+    }
 }
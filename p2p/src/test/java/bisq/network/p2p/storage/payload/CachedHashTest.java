@@ -0,0 +1,102 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.payload;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.crypto.Hash;
+
+import com.google.protobuf.Message;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CachedHashTest {
+    private static class HashCachingPayloadStub implements HashCachingPayload {
+        private final CachedHash cachedHash = new CachedHash();
+        private final Message message = mock(Message.class);
+        private byte[] bytes = new byte[]{1, 2, 3};
+        private int numSerializations;
+
+        HashCachingPayloadStub() {
+            when(message.toByteArray()).thenAnswer(invocation -> bytes);
+        }
+
+        void setBytes(byte[] bytes) {
+            this.bytes = bytes;
+            cachedHash.reset();
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            numSerializations++;
+            return message;
+        }
+
+        @Override
+        public CachedHash getCachedHash() {
+            return cachedHash;
+        }
+    }
+
+    private HashCachingPayloadStub payload;
+
+    @Before
+    public void setUp() {
+        payload = new HashCachingPayloadStub();
+    }
+
+    // TESTCASE: The cached hash is the same as the hash of the serialized payload
+    @Test
+    public void get32ByteHash_matchesHashOfSerializedPayload() {
+        Assert.assertArrayEquals(Hash.getSha256Hash(new byte[]{1, 2, 3}), P2PDataStorage.get32ByteHash(payload));
+    }
+
+    // TESTCASE: The payload is serialized only once
+    @Test
+    public void get32ByteHash_serializesOnce() {
+        byte[] hash = P2PDataStorage.get32ByteHash(payload);
+        Assert.assertArrayEquals(hash, P2PDataStorage.get32ByteHash(payload));
+        Assert.assertArrayEquals(hash, P2PDataStorage.get32ByteHashAsByteArray(payload).bytes);
+        Assert.assertEquals(1, payload.numSerializations);
+    }
+
+    // TESTCASE: Modifying the returned array does not modify the cached hash
+    @Test
+    public void get32ByteHash_returnsCopy() {
+        byte[] hash = P2PDataStorage.get32ByteHash(payload);
+        byte[] expected = Arrays.copyOf(hash, hash.length);
+        Arrays.fill(hash, (byte) 0);
+        Assert.assertArrayEquals(expected, P2PDataStorage.get32ByteHash(payload));
+    }
+
+    // TESTCASE: The hash gets computed again after a reset
+    @Test
+    public void get32ByteHash_afterReset() {
+        P2PDataStorage.get32ByteHash(payload);
+        payload.setBytes(new byte[]{4, 5, 6});
+        Assert.assertArrayEquals(Hash.getSha256Hash(new byte[]{4, 5, 6}), P2PDataStorage.get32ByteHash(payload));
+        Assert.assertEquals(2, payload.numSerializations);
+    }
+}
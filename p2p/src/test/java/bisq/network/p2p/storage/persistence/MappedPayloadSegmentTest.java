@@ -0,0 +1,171 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+
+import bisq.common.Payload;
+import bisq.common.proto.ProtoResolver;
+import bisq.common.proto.persistable.PersistablePayload;
+
+import com.google.protobuf.ByteString;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedPayloadSegmentTest {
+    private static final ProtoResolver PROTO_RESOLVER = new ProtoResolver() {
+        @Override
+        public Payload fromProto(protobuf.PaymentAccountPayload proto) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PersistablePayload fromProto(protobuf.PersistableNetworkPayload proto) {
+            return new WitnessPayload(proto.getAccountAgeWitness().getHash().toByteArray(),
+                    proto.getAccountAgeWitness().getDate());
+        }
+    };
+
+    private static final byte[] SOURCE_FILE_HASH = new byte[32];
+    private static final byte[] OTHER_SOURCE_FILE_HASH = new byte[32];
+
+    static {
+        Arrays.fill(SOURCE_FILE_HASH, (byte) 42);
+        Arrays.fill(OTHER_SOURCE_FILE_HASH, (byte) 43);
+    }
+
+    private File segmentFile;
+    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map;
+
+    @Before
+    public void setUp() throws IOException {
+        segmentFile = new File(Files.createTempDirectory("MappedPayloadSegmentTest").toFile(),
+                "Store_1.0.0" + MappedPayloadSegment.FILE_POSTFIX);
+        segmentFile.deleteOnExit();
+
+        map = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            WitnessPayload payload = new WitnessPayload(new byte[]{(byte) i, (byte) (255 - i), 7}, i * 1000L);
+            map.put(new P2PDataStorage.ByteArray(payload.getHash()), payload);
+        }
+    }
+
+    @Test
+    public void writeAndOpen() throws IOException {
+        MappedPayloadSegment.write(segmentFile, map, SOURCE_FILE_HASH);
+        MappedPayloadSegment segment = MappedPayloadSegment.open(segmentFile, SOURCE_FILE_HASH, PROTO_RESOLVER);
+
+        Assert.assertNotNull(segment);
+        Assert.assertEquals(map.size(), segment.size());
+        map.forEach((hash, payload) -> {
+            Assert.assertTrue(segment.containsKey(hash));
+            Assert.assertEquals(((WitnessPayload) payload).date, ((WitnessPayload) segment.get(hash)).date);
+        });
+        Assert.assertEquals(map.keySet(), new HashMap<>(segment).keySet());
+        Assert.assertEquals(map.keySet(), new HashSet<>(segment.keySet()));
+    }
+
+    @Test
+    public void containsKey_UnknownHash() throws IOException {
+        MappedPayloadSegment.write(segmentFile, map, SOURCE_FILE_HASH);
+        MappedPayloadSegment segment = MappedPayloadSegment.open(segmentFile, SOURCE_FILE_HASH, PROTO_RESOLVER);
+
+        Assert.assertNotNull(segment);
+        Assert.assertFalse(segment.containsKey(new P2PDataStorage.ByteArray(new byte[]{1, 1, 1})));
+        Assert.assertFalse(segment.containsKey(new P2PDataStorage.ByteArray(new byte[]{1})));
+        Assert.assertNull(segment.get(new P2PDataStorage.ByteArray(new byte[]{1, 1, 1})));
+    }
+
+    @Test
+    public void open_EmptyMap() throws IOException {
+        MappedPayloadSegment.write(segmentFile, new HashMap<>(), SOURCE_FILE_HASH);
+        MappedPayloadSegment segment = MappedPayloadSegment.open(segmentFile, SOURCE_FILE_HASH, PROTO_RESOLVER);
+
+        Assert.assertNotNull(segment);
+        Assert.assertTrue(segment.isEmpty());
+    }
+
+    @Test
+    public void open_OutdatedSourceFile() throws IOException {
+        MappedPayloadSegment.write(segmentFile, map, SOURCE_FILE_HASH);
+
+        Assert.assertNull(MappedPayloadSegment.open(segmentFile, OTHER_SOURCE_FILE_HASH, PROTO_RESOLVER));
+    }
+
+    @Test
+    public void hashSourceFile_SameLengthDifferentContent() throws IOException {
+        File sourceFile = new File(segmentFile.getParentFile(), "Store_1.0.0");
+        Files.write(sourceFile.toPath(), new byte[]{1, 2, 3});
+        byte[] hash = MappedPayloadSegment.hashSourceFile(sourceFile);
+        MappedPayloadSegment.write(segmentFile, map, hash);
+
+        Files.write(sourceFile.toPath(), new byte[]{1, 2, 4});
+
+        Assert.assertFalse(Arrays.equals(hash, MappedPayloadSegment.hashSourceFile(sourceFile)));
+        Assert.assertNull(MappedPayloadSegment.open(segmentFile, MappedPayloadSegment.hashSourceFile(sourceFile),
+                PROTO_RESOLVER));
+        Assert.assertNotNull(MappedPayloadSegment.open(segmentFile, hash, PROTO_RESOLVER));
+    }
+
+    @Test
+    public void open_MissingFile() {
+        Assert.assertNull(MappedPayloadSegment.open(segmentFile, SOURCE_FILE_HASH, PROTO_RESOLVER));
+    }
+
+    private static class WitnessPayload implements PersistableNetworkPayload {
+        private final byte[] hash;
+        private final long date;
+
+        WitnessPayload(byte[] hash, long date) {
+            this.hash = hash;
+            this.date = date;
+        }
+
+        @Override
+        public protobuf.PersistableNetworkPayload toProtoMessage() {
+            return protobuf.PersistableNetworkPayload.newBuilder()
+                    .setAccountAgeWitness(protobuf.AccountAgeWitness.newBuilder()
+                            .setHash(ByteString.copyFrom(hash))
+                            .setDate(date))
+                    .build();
+        }
+
+        @Override
+        public byte[] getHash() {
+            return hash;
+        }
+
+        @Override
+        public boolean verifyHashSize() {
+            return true;
+        }
+    }
+}
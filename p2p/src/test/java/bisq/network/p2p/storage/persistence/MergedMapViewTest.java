@@ -0,0 +1,66 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.network.p2p.storage.persistence;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MergedMapViewTest {
+
+    private static Map<String, Integer> map(Object... keysAndValues) {
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], (Integer) keysAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    // TESTCASE: A key contained in multiple maps is exposed once with the value of the first map
+    @Test
+    public void overlappingMaps() {
+        List<Map<String, Integer>> maps = Arrays.asList(map("a", 1, "b", 2), map("b", 3, "c", 4));
+        MergedMapView<String, Integer> view = new MergedMapView<>(maps);
+
+        Assert.assertEquals(3, view.size());
+        Assert.assertEquals(3, view.entrySet().size());
+        Assert.assertEquals(Integer.valueOf(2), view.get("b"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList(1, 2, 4)), new HashSet<>(view.values()));
+    }
+
+    // TESTCASE: The size of disjoint maps is the sum of their sizes and follows changes of the maps
+    @Test
+    public void disjointMaps() {
+        Map<String, Integer> liveMap = map("a", 1);
+        MergedMapView<String, Integer> view = MergedMapView.ofDisjointMaps(Arrays.asList(liveMap, map("b", 2, "c", 3)));
+
+        Assert.assertEquals(3, view.size());
+        Set<String> keys = new HashSet<>(view.keySet());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), keys);
+
+        liveMap.put("d", 4);
+        Assert.assertEquals(4, view.size());
+        Assert.assertTrue(view.containsKey("d"));
+        Assert.assertEquals(view, map("a", 1, "b", 2, "c", 3, "d", 4));
+    }
+}
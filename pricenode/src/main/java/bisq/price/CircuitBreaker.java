@@ -0,0 +1,83 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.price;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps a {@link PriceProvider} from being polled while its upstream API keeps failing.
+ * After {@code failureThreshold} consecutive failures the breaker opens and requests are
+ * skipped for the open duration. The first request after that is a trial: if it fails
+ * again the breaker reopens with twice the previous duration, up to the maximum.
+ */
+class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long minOpenDurationMs;
+    private final long maxOpenDurationMs;
+    private final LongSupplier clock;
+
+    private int numConsecutiveFailures;
+    private long openDurationMs;
+    private long openUntilTs;
+
+    CircuitBreaker(int failureThreshold, long minOpenDurationMs, long maxOpenDurationMs) {
+        this(failureThreshold, minOpenDurationMs, maxOpenDurationMs, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int failureThreshold, long minOpenDurationMs, long maxOpenDurationMs, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.minOpenDurationMs = minOpenDurationMs;
+        this.maxOpenDurationMs = maxOpenDurationMs;
+        this.clock = clock;
+    }
+
+    synchronized boolean allowRequest() {
+        return clock.getAsLong() >= openUntilTs;
+    }
+
+    synchronized boolean isOpen() {
+        return !allowRequest();
+    }
+
+    synchronized int getNumConsecutiveFailures() {
+        return numConsecutiveFailures;
+    }
+
+    synchronized void onSuccess() {
+        numConsecutiveFailures = 0;
+        openDurationMs = 0;
+        openUntilTs = 0;
+    }
+
+    /**
+     * @return the duration in ms the breaker got opened for, or 0 if it stays closed
+     */
+    synchronized long onFailure() {
+        numConsecutiveFailures++;
+        if (numConsecutiveFailures < failureThreshold)
+            return 0;
+
+        openDurationMs = openDurationMs == 0 ?
+                minOpenDurationMs :
+                Math.min(openDurationMs * 2, maxOpenDurationMs);
+        openUntilTs = clock.getAsLong() + openDurationMs;
+        return openDurationMs;
+    }
+}
@@ -17,15 +17,22 @@
 
 package bisq.price;
 
-import bisq.common.UserThread;
-
 import org.springframework.context.SmartLifecycle;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import java.time.Duration;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
@@ -33,13 +40,31 @@ import org.slf4j.LoggerFactory;
 
 public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
 
-    protected final Logger log = LoggerFactory.getLogger(this.getClass());
+    // All providers share one scheduler thread, which only triggers the refreshes and
+    // enforces the timeouts. The requests to the upstream APIs run on the request
+    // executor, so a slow provider does not delay the refresh of the others.
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("PriceProvider-scheduler").setDaemon(true).build());
+    private static final ExecutorService REQUEST_EXECUTOR = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("PriceProvider-request-%d").setDaemon(true).build());
 
-    private final Timer timer = new Timer(true);
+    private static final Duration MAX_TIMEOUT = Duration.ofMinutes(5);
+    private static final int CIRCUIT_BREAKER_FAILURE_THRESHOLD = 3;
+    private static final Duration CIRCUIT_BREAKER_MIN_OPEN_DURATION = Duration.ofMinutes(2);
+    private static final Duration CIRCUIT_BREAKER_MAX_OPEN_DURATION = Duration.ofMinutes(30);
+
+    protected final Logger log = LoggerFactory.getLogger(this.getClass());
 
     protected final Duration refreshInterval;
 
-    private T cachedResult;
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(CIRCUIT_BREAKER_FAILURE_THRESHOLD,
+            CIRCUIT_BREAKER_MIN_OPEN_DURATION.toMillis(),
+            CIRCUIT_BREAKER_MAX_OPEN_DURATION.toMillis());
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean();
+    private final List<Runnable> refreshListeners = new CopyOnWriteArrayList<>();
+
+    private volatile T cachedResult;
+    private ScheduledFuture<?> scheduledRefresh;
 
     public PriceProvider(Duration refreshInterval) {
         this.refreshInterval = refreshInterval;
@@ -51,40 +76,86 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
         return cachedResult;
     }
 
+    /**
+     * The listener gets called on a request thread after each successful refresh.
+     */
+    public void addRefreshListener(Runnable listener) {
+        refreshListeners.add(listener);
+    }
+
     @Override
-    public final void start() {
-        // do the initial refresh asynchronously
-        UserThread.runAfter(() -> {
+    public final synchronized void start() {
+        // The initial refresh runs immediately, but asynchronously
+        scheduledRefresh = SCHEDULER.scheduleAtFixedRate(this::maybeRefresh,
+                0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A request which did not complete within the timeout gets interrupted and counts as
+     * failure. Defaults to the refresh interval, as a longer request would overlap with
+     * the next refresh anyway.
+     */
+    protected Duration getTimeout() {
+        return refreshInterval.compareTo(MAX_TIMEOUT) < 0 ? refreshInterval : MAX_TIMEOUT;
+    }
+
+    private void maybeRefresh() {
+        if (!circuitBreaker.allowRequest()) {
+            log.debug("Skipping refresh as circuit breaker is open");
+            return;
+        }
+        if (!refreshInProgress.compareAndSet(false, true)) {
+            log.warn("Skipping refresh as previous refresh is still in progress");
+            return;
+        }
+
+        // Either the request or the timeout completes the refresh, whichever comes first
+        AtomicBoolean completed = new AtomicBoolean();
+        Future<?> future = REQUEST_EXECUTOR.submit(() -> {
             try {
-                refresh();
+                long ts = System.currentTimeMillis();
+                T result = doGet();
+                if (completed.compareAndSet(false, true)) {
+                    log.info("refresh took {} ms.", (System.currentTimeMillis() - ts));
+                    onRefreshSucceeded(result);
+                }
             } catch (Throwable t) {
-                log.warn("initial refresh failed", t);
+                if (completed.compareAndSet(false, true))
+                    onRefreshFailed(t);
             }
-        }, 1, TimeUnit.MILLISECONDS);
-
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    refresh();
-                } catch (Throwable t) {
-                    // we only log scheduled calls to refresh that fail to ensure that
-                    // the application does *not* halt, assuming the failure is temporary
-                    // and on the side of the upstream price provider, eg. BitcoinAverage
-                    log.warn("refresh failed", t);
-                }
+        });
+        Duration timeout = getTimeout();
+        SCHEDULER.schedule(() -> {
+            if (completed.compareAndSet(false, true)) {
+                future.cancel(true);
+                onRefreshFailed(new TimeoutException("refresh did not complete within " + timeout));
             }
-        }, refreshInterval.toMillis(), refreshInterval.toMillis());
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
     }
 
-    private void refresh() {
-        long ts = System.currentTimeMillis();
-
-        cachedResult = doGet();
-
-        log.info("refresh took {} ms.", (System.currentTimeMillis() - ts));
+    private void onRefreshSucceeded(T result) {
+        try {
+            cachedResult = result;
+            circuitBreaker.onSuccess();
+            onRefresh();
+            refreshListeners.forEach(Runnable::run);
+        } catch (Throwable t) {
+            log.warn("handling refresh result failed", t);
+        } finally {
+            refreshInProgress.set(false);
+        }
+    }
 
-        onRefresh();
+    private void onRefreshFailed(Throwable t) {
+        // we only log failed refreshes to ensure that the application does *not* halt,
+        // assuming the failure is temporary and on the side of the upstream price
+        // provider, eg. BitcoinAverage. We keep serving the last result in the meantime.
+        log.warn("refresh failed", t);
+        long openDurationMs = circuitBreaker.onFailure();
+        if (openDurationMs > 0)
+            log.warn("{} consecutive refreshes failed. Pausing refresh for {}",
+                    circuitBreaker.getNumConsecutiveFailures(), Duration.ofMillis(openDurationMs));
+        refreshInProgress.set(false);
     }
 
     protected abstract T doGet();
@@ -93,8 +164,11 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
     }
 
     @Override
-    public void stop() {
-        timer.cancel();
+    public synchronized void stop() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
     }
 
     @Override
@@ -0,0 +1,229 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.price.spot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * Aggregates the {@link ExchangeRate}s of all providers to one rate per currency.
+ *
+ * Rates older than the max rate age are not taken into account, so a provider which
+ * stopped updating cannot skew the aggregate. If all rates of a currency are stale we
+ * still deliver the most recent one, as the clients check the timestamp themselves.
+ *
+ * The aggregates are computed incrementally: an update of a provider only marks the
+ * currencies it delivered as dirty, and only dirty currencies and currencies with a rate
+ * which became stale in the meantime get recomputed.
+ *
+ * Not thread safe, the caller has to synchronize the access.
+ */
+class ExchangeRateAggregator {
+    static final String AGGREGATE_PROVIDER_NAME = "Bisq-Aggregate";
+
+    enum Mode {
+        MEAN,
+        MEDIAN,
+        // Drops the highest and lowest TRIM_FRACTION of the rates, but at least one on
+        // each side if there are 3 or more rates
+        TRIMMED_MEAN,
+        // Weighted mean, where the weight of a rate halves every FRESHNESS_HALF_LIFE
+        FRESHNESS_WEIGHTED
+    }
+
+    static final double TRIM_FRACTION = 0.2;
+    static final long FRESHNESS_HALF_LIFE = TimeUnit.MINUTES.toMillis(2);
+
+    private static class Aggregate {
+        private final ExchangeRate exchangeRate;
+        // Time when the oldest rate used for the aggregate becomes stale
+        private final long staleAtTs;
+
+        private Aggregate(ExchangeRate exchangeRate, long staleAtTs) {
+            this.exchangeRate = exchangeRate;
+            this.staleAtTs = staleAtTs;
+        }
+    }
+
+    private final Mode mode;
+    private final long maxRateAge;
+
+    // key = provider name
+    private final Map<String, Set<ExchangeRate>> ratesByProvider = new HashMap<>();
+    // key = currency code, value = rates by provider name
+    private final Map<String, Map<String, ExchangeRate>> ratesByCurrency = new HashMap<>();
+    private final Map<String, Aggregate> aggregates = new HashMap<>();
+    private final Set<String> dirtyCurrencies = new HashSet<>();
+
+    /**
+     * @param maxRateAge max age of a rate in ms to be taken into account
+     */
+    ExchangeRateAggregator(Mode mode, long maxRateAge) {
+        this.mode = mode;
+        this.maxRateAge = maxRateAge;
+    }
+
+    Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Replaces the rates of the provider. Passing the same set again is a no-op.
+     */
+    void update(String providerName, @Nullable Set<ExchangeRate> exchangeRates) {
+        Set<ExchangeRate> previous = exchangeRates == null ?
+                ratesByProvider.remove(providerName) :
+                ratesByProvider.put(providerName, exchangeRates);
+        if (previous == exchangeRates)
+            return;
+
+        if (previous != null) {
+            previous.forEach(exchangeRate -> {
+                String currencyCode = exchangeRate.getCurrency();
+                Map<String, ExchangeRate> rates = ratesByCurrency.get(currencyCode);
+                if (rates != null && rates.remove(providerName) != null) {
+                    dirtyCurrencies.add(currencyCode);
+                    if (rates.isEmpty())
+                        ratesByCurrency.remove(currencyCode);
+                }
+            });
+        }
+        if (exchangeRates != null) {
+            exchangeRates.forEach(exchangeRate -> {
+                String currencyCode = exchangeRate.getCurrency();
+                ratesByCurrency.computeIfAbsent(currencyCode, k -> new HashMap<>()).put(providerName, exchangeRate);
+                dirtyCurrencies.add(currencyCode);
+            });
+        }
+    }
+
+    /**
+     * @return Aggregate {@link ExchangeRate}s indexed by currency code
+     */
+    Map<String, ExchangeRate> getAggregateExchangeRates(long now) {
+        aggregates.forEach((currencyCode, aggregate) -> {
+            if (now >= aggregate.staleAtTs)
+                dirtyCurrencies.add(currencyCode);
+        });
+        dirtyCurrencies.forEach(currencyCode -> {
+            Map<String, ExchangeRate> rates = ratesByCurrency.get(currencyCode);
+            if (rates == null)
+                aggregates.remove(currencyCode);
+            else
+                aggregates.put(currencyCode, aggregate(currencyCode, rates.values(), now));
+        });
+        dirtyCurrencies.clear();
+
+        Map<String, ExchangeRate> result = new HashMap<>(aggregates.size() * 2);
+        aggregates.forEach((currencyCode, aggregate) -> result.put(currencyCode, aggregate.exchangeRate));
+        return result;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Aggregate aggregate(String currencyCode, Collection<ExchangeRate> exchangeRates, long now) {
+        List<ExchangeRate> freshRates = new ArrayList<>(exchangeRates.size());
+        long oldestTs = Long.MAX_VALUE;
+        for (ExchangeRate exchangeRate : exchangeRates) {
+            if (now - exchangeRate.getTimestamp() <= maxRateAge) {
+                freshRates.add(exchangeRate);
+                oldestTs = Math.min(oldestTs, exchangeRate.getTimestamp());
+            }
+        }
+
+        if (freshRates.isEmpty()) {
+            // Stays as it is until a provider delivers a new rate for the currency
+            ExchangeRate mostRecent = exchangeRates.stream()
+                    .max(Comparator.comparingLong(ExchangeRate::getTimestamp))
+                    .orElseThrow(IllegalStateException::new);
+            return new Aggregate(mostRecent, Long.MAX_VALUE);
+        }
+
+        long staleAtTs = oldestTs + maxRateAge + 1;
+        if (freshRates.size() == 1) {
+            // If a single provider has a rate for this currency, then aggregate = rate
+            // from that provider
+            return new Aggregate(freshRates.get(0), staleAtTs);
+        }
+
+        double price;
+        switch (mode) {
+            case MEDIAN:
+                price = getMedian(getSortedPrices(freshRates));
+                break;
+            case TRIMMED_MEAN:
+                price = getTrimmedMean(getSortedPrices(freshRates));
+                break;
+            case FRESHNESS_WEIGHTED:
+                price = getFreshnessWeightedMean(freshRates, now);
+                break;
+            case MEAN:
+            default:
+                price = freshRates.stream().mapToDouble(ExchangeRate::getPrice).average()
+                        .orElseThrow(IllegalStateException::new);
+        }
+        // timestamp = time when the aggregate is calculated
+        return new Aggregate(new ExchangeRate(currencyCode, price, now, AGGREGATE_PROVIDER_NAME), staleAtTs);
+    }
+
+    private static double[] getSortedPrices(List<ExchangeRate> exchangeRates) {
+        return exchangeRates.stream().mapToDouble(ExchangeRate::getPrice).sorted().toArray();
+    }
+
+    private static double getMedian(double[] sortedPrices) {
+        int middle = sortedPrices.length / 2;
+        return sortedPrices.length % 2 == 1 ?
+                sortedPrices[middle] :
+                (sortedPrices[middle - 1] + sortedPrices[middle]) / 2;
+    }
+
+    private static double getTrimmedMean(double[] sortedPrices) {
+        int n = sortedPrices.length;
+        int numTrimmed = n < 3 ? 0 : Math.max(1, (int) (n * TRIM_FRACTION));
+        double sum = 0;
+        for (int i = numTrimmed; i < n - numTrimmed; i++) {
+            sum += sortedPrices[i];
+        }
+        return sum / (n - 2 * numTrimmed);
+    }
+
+    private static double getFreshnessWeightedMean(List<ExchangeRate> exchangeRates, long now) {
+        double weightedSum = 0;
+        double sumOfWeights = 0;
+        for (ExchangeRate exchangeRate : exchangeRates) {
+            long age = Math.max(0, now - exchangeRate.getTimestamp());
+            double weight = Math.pow(0.5, (double) age / FRESHNESS_HALF_LIFE);
+            weightedSum += weight * exchangeRate.getPrice();
+            sumOfWeights += weight;
+        }
+        return weightedSum / sumOfWeights;
+    }
+}
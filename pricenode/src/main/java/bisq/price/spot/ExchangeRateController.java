@@ -19,11 +19,11 @@ package bisq.price.spot;
 
 import bisq.price.PriceController;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
-
 @RestController
 class ExchangeRateController extends PriceController {
 
@@ -33,8 +33,17 @@ class ExchangeRateController extends PriceController {
         this.exchangeRateService = exchangeRateService;
     }
 
+    /**
+     * Serves the pre-serialized snapshot. Spring compares the ETag with the
+     * If-None-Match header of the request and responds with 304 Not Modified if the
+     * client already has the current snapshot.
+     */
     @GetMapping(path = "/getAllMarketPrices")
-    public Map<String, Object> getAllMarketPrices() {
-        return exchangeRateService.getAllMarketPrices();
+    public ResponseEntity<byte[]> getAllMarketPrices() {
+        MarketPricesSnapshot snapshot = exchangeRateService.getSnapshot();
+        return ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getJson());
     }
 }
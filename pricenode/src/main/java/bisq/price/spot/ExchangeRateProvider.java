@@ -53,7 +53,7 @@ import java.util.stream.Stream;
  * are marked with the {@link org.springframework.stereotype.Component} annotation in
  * order to be discovered via classpath scanning. If multiple
  * {@link ExchangeRateProvider}s retrieve rates for the same currency, then the
- * {@link ExchangeRateService} will average them out and expose an aggregate rate.
+ * {@link ExchangeRateService} will aggregate them and expose an aggregate rate.
  *
  * @see ExchangeRateService#getAllMarketPrices()
  */
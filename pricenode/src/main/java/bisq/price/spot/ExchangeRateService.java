@@ -17,25 +17,26 @@
 
 package bisq.price.spot;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.Date;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.OptionalDouble;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static java.util.Arrays.asList;
-
 /**
  * High-level {@link ExchangeRate} data operations.
  */
@@ -43,7 +44,13 @@ import static java.util.Arrays.asList;
 class ExchangeRateService {
     protected final Logger log = LoggerFactory.getLogger(this.getClass());
 
+    private static final long DEFAULT_MAX_RATE_AGE_MINUTES = 60;
+
     private final List<ExchangeRateProvider> providers;
+    private final ObjectMapper objectMapper;
+    private final ExchangeRateAggregator aggregator;
+
+    private volatile MarketPricesSnapshot snapshot;
 
     /**
      * Construct an {@link ExchangeRateService} with a list of all
@@ -53,12 +60,68 @@ class ExchangeRateService {
      *                  order of precedence
      */
     public ExchangeRateService(List<ExchangeRateProvider> providers) {
+        this(providers,
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT),
+                new ExchangeRateAggregator(ExchangeRateAggregator.Mode.MEAN,
+                        TimeUnit.MINUTES.toMillis(DEFAULT_MAX_RATE_AGE_MINUTES)));
+    }
+
+    /**
+     * @param objectMapper the mapper configured by Spring, so that the pre-serialized
+     *                     snapshot matches the format of the other endpoints
+     * @param env          provides the aggregation mode and the max rate age, see
+     *                     application.properties
+     */
+    @Autowired
+    public ExchangeRateService(List<ExchangeRateProvider> providers, ObjectMapper objectMapper, Environment env) {
+        this(providers, objectMapper, new ExchangeRateAggregator(
+                env.getProperty("bisq.price.spot.aggregationMode",
+                        ExchangeRateAggregator.Mode.class, ExchangeRateAggregator.Mode.MEAN),
+                TimeUnit.MINUTES.toMillis(env.getProperty("bisq.price.spot.maxRateAgeMinutes",
+                        Long.class, DEFAULT_MAX_RATE_AGE_MINUTES))));
+    }
+
+    ExchangeRateService(List<ExchangeRateProvider> providers,
+                        ObjectMapper objectMapper,
+                        ExchangeRateAggregator aggregator) {
         this.providers = providers;
+        this.objectMapper = objectMapper;
+        this.aggregator = aggregator;
+        providers.forEach(p -> p.addRefreshListener(this::updateSnapshot));
     }
 
     public Map<String, Object> getAllMarketPrices() {
+        return getSnapshot().getData();
+    }
+
+    /**
+     * @return the latest snapshot, which gets updated whenever a provider refreshes
+     */
+    public MarketPricesSnapshot getSnapshot() {
+        MarketPricesSnapshot current = snapshot;
+        return current != null ? current : updateSnapshot();
+    }
+
+    // Providers refresh on different threads, so we synchronize to not replace a newer
+    // snapshot with an older one
+    private synchronized MarketPricesSnapshot updateSnapshot() {
+        Map<String, Object> data = buildAllMarketPrices();
+        try {
+            snapshot = new MarketPricesSnapshot(data, objectMapper.writeValueAsBytes(data));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializing market prices failed", e);
+        }
+        return snapshot;
+    }
+
+    private Map<String, Object> buildAllMarketPrices() {
         Map<String, Object> metadata = new LinkedHashMap<>();
-        Map<String, ExchangeRate> aggregateExchangeRates = getAggregateExchangeRates();
+
+        // Only the rates of providers which refreshed since the last call get
+        // re-aggregated, see ExchangeRateAggregator
+        providers.forEach(p -> aggregator.update(p.getName(), p.get()));
+        Map<String, ExchangeRate> aggregateExchangeRates =
+                aggregator.getAggregateExchangeRates(System.currentTimeMillis());
 
         providers.forEach(p -> {
             if (p.get() == null)
@@ -78,80 +141,9 @@ class ExchangeRateService {
         // different price nodes easier
         List<ExchangeRate> values = new ArrayList<>(aggregateExchangeRates.values());
         values.sort(Comparator.comparing(ExchangeRate::getCurrency));
-        result.put("data", values);
-
-        return result;
-    }
+        result.put("data", Collections.unmodifiableList(values));
 
-    /**
-     * For each currency, create an aggregate {@link ExchangeRate} based on the currency's
-     * rates from all providers. If multiple providers have rates for the currency, then
-     * aggregate price = average of retrieved prices. If a single provider has rates for
-     * the currency, then aggregate price = the rate from that provider.
-     *
-     * @return Aggregate {@link ExchangeRate}s based on info from all providers, indexed
-     * by currency code
-     */
-    private Map<String, ExchangeRate> getAggregateExchangeRates() {
-        Map<String, ExchangeRate> aggregateExchangeRates = new HashMap<>();
-
-        // Query all providers and collect all exchange rates, grouped by currency code
-        // key = currency code
-        // value = list of exchange rates
-        Map<String, List<ExchangeRate>> currencyCodeToExchangeRates = getCurrencyCodeToExchangeRates();
-
-        // For each currency code, calculate aggregate rate
-        currencyCodeToExchangeRates.forEach((currencyCode, exchangeRateList) -> {
-            if (exchangeRateList.isEmpty()) {
-                // If the map was built incorrectly and this currency points to an empty
-                // list of rates, skip it
-                return;
-            }
-
-            ExchangeRate aggregateExchangeRate;
-            if (exchangeRateList.size() == 1) {
-                // If a single provider has rates for this currency, then aggregate = rate
-                // from that provider
-                aggregateExchangeRate = exchangeRateList.get(0);
-            } else {
-                // If multiple providers have rates for this currency, then
-                // aggregate = average of the rates
-                OptionalDouble opt = exchangeRateList.stream().mapToDouble(ExchangeRate::getPrice).average();
-                // List size > 1, so opt is always set
-                double priceAvg = opt.orElseThrow(IllegalStateException::new);
-
-                aggregateExchangeRate = new ExchangeRate(
-                        currencyCode,
-                        BigDecimal.valueOf(priceAvg),
-                        new Date(), // timestamp = time when avg is calculated
-                        "Bisq-Aggregate");
-            }
-            aggregateExchangeRates.put(aggregateExchangeRate.getCurrency(), aggregateExchangeRate);
-        });
-
-        return aggregateExchangeRates;
-    }
-
-    /**
-     * @return All {@link ExchangeRate}s from all providers, grouped by currency code
-     */
-    private Map<String, List<ExchangeRate>> getCurrencyCodeToExchangeRates() {
-        Map<String, List<ExchangeRate>> currencyCodeToExchangeRates = new HashMap<>();
-        for (ExchangeRateProvider p : providers) {
-            if (p.get() == null)
-                continue;
-            for (ExchangeRate exchangeRate : p.get()) {
-                String currencyCode = exchangeRate.getCurrency();
-                if (currencyCodeToExchangeRates.containsKey(currencyCode)) {
-                    List<ExchangeRate> l = new ArrayList<>(currencyCodeToExchangeRates.get(currencyCode));
-                    l.add(exchangeRate);
-                    currencyCodeToExchangeRates.put(currencyCode, l);
-                } else {
-                    currencyCodeToExchangeRates.put(currencyCode, asList(exchangeRate));
-                }
-            }
-        }
-        return currencyCodeToExchangeRates;
+        return Collections.unmodifiableMap(result);
     }
 
     private Map<String, Object> getMetadata(ExchangeRateProvider provider, Set<ExchangeRate> exchangeRates) {
@@ -0,0 +1,57 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.price.spot;
+
+import com.google.common.hash.Hashing;
+
+import java.util.Map;
+
+/**
+ * Immutable result of the aggregation of all {@link ExchangeRateProvider}s, together
+ * with its JSON representation and an ETag derived from it. A new snapshot is created
+ * whenever a provider refreshes, so requests are served without any aggregation or
+ * serialization work.
+ */
+class MarketPricesSnapshot {
+
+    private final Map<String, Object> data;
+    private final byte[] json;
+    private final String eTag;
+
+    MarketPricesSnapshot(Map<String, Object> data, byte[] json) {
+        this.data = data;
+        this.json = json;
+        this.eTag = "\"" + Hashing.murmur3_128().hashBytes(json) + "\"";
+    }
+
+    public Map<String, Object> getData() {
+        return data;
+    }
+
+    /**
+     * @return the serialized data. Must not be modified by the caller.
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+}
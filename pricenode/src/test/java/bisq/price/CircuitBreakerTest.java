@@ -0,0 +1,75 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.price;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CircuitBreakerTest {
+
+    private long now = 1_000_000;
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(3, 100, 300, () -> now);
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        assertEquals(0, circuitBreaker.onFailure());
+        assertEquals(0, circuitBreaker.onFailure());
+        assertTrue(circuitBreaker.allowRequest());
+
+        assertEquals(100, circuitBreaker.onFailure());
+        assertFalse(circuitBreaker.allowRequest());
+
+        now += 99;
+        assertFalse(circuitBreaker.allowRequest());
+        now += 1;
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    public void successResetsFailures() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+
+        assertEquals(0, circuitBreaker.onFailure());
+        assertEquals(0, circuitBreaker.onFailure());
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    public void failedTrialRequestReopensWithLongerDuration() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onFailure();
+        }
+        now += 100;
+        assertEquals(200, circuitBreaker.onFailure());
+        now += 200;
+        assertEquals(300, circuitBreaker.onFailure());
+        now += 300;
+        assertEquals(300, circuitBreaker.onFailure());
+
+        now += 300;
+        circuitBreaker.onSuccess();
+        assertTrue(circuitBreaker.allowRequest());
+        assertEquals(0, circuitBreaker.onFailure());
+    }
+}
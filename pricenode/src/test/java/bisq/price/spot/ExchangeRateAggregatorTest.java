@@ -0,0 +1,126 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package bisq.price.spot;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static bisq.price.spot.ExchangeRateAggregator.AGGREGATE_PROVIDER_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ExchangeRateAggregatorTest {
+
+    private static final long NOW = 1_000_000_000L;
+    private static final long MAX_RATE_AGE = 60_000;
+
+    @Test
+    public void mean() {
+        assertEquals(40, aggregate(ExchangeRateAggregator.Mode.MEAN, 10, 20, 30, 100), 1e-9);
+    }
+
+    @Test
+    public void median() {
+        assertEquals(20, aggregate(ExchangeRateAggregator.Mode.MEDIAN, 10, 20, 1000), 1e-9);
+        assertEquals(25, aggregate(ExchangeRateAggregator.Mode.MEDIAN, 10, 20, 30, 1000), 1e-9);
+    }
+
+    @Test
+    public void trimmedMean() {
+        // With 3 or 4 rates the highest and lowest rate get dropped
+        assertEquals(25, aggregate(ExchangeRateAggregator.Mode.TRIMMED_MEAN, 0.1, 20, 30, 1000), 1e-9);
+        // With 2 rates nothing can be trimmed
+        assertEquals(15, aggregate(ExchangeRateAggregator.Mode.TRIMMED_MEAN, 10, 20), 1e-9);
+    }
+
+    @Test
+    public void freshnessWeighted() {
+        ExchangeRateAggregator aggregator = new ExchangeRateAggregator(
+                ExchangeRateAggregator.Mode.FRESHNESS_WEIGHTED, 10 * ExchangeRateAggregator.FRESHNESS_HALF_LIFE);
+        aggregator.update("A", Set.of(new ExchangeRate("USD", 10, NOW, "A")));
+        aggregator.update("B", Set.of(new ExchangeRate("USD", 40, NOW - ExchangeRateAggregator.FRESHNESS_HALF_LIFE, "B")));
+
+        // Weights are 1 and 0.5
+        assertEquals(20, aggregator.getAggregateExchangeRates(NOW).get("USD").getPrice(), 1e-9);
+    }
+
+    @Test
+    public void staleRatesAreIgnored() {
+        ExchangeRateAggregator aggregator = new ExchangeRateAggregator(ExchangeRateAggregator.Mode.MEAN, MAX_RATE_AGE);
+        ExchangeRate fresh = new ExchangeRate("USD", 10, NOW, "A");
+        aggregator.update("A", Set.of(fresh));
+        aggregator.update("B", Set.of(new ExchangeRate("USD", 1000, NOW - MAX_RATE_AGE - 1, "B")));
+
+        assertSame(fresh, aggregator.getAggregateExchangeRates(NOW).get("USD"));
+    }
+
+    @Test
+    public void aggregateIsRecomputedWhenRateBecomesStale() {
+        ExchangeRateAggregator aggregator = new ExchangeRateAggregator(ExchangeRateAggregator.Mode.MEAN, MAX_RATE_AGE);
+        aggregator.update("A", Set.of(new ExchangeRate("USD", 10, NOW, "A")));
+        ExchangeRate newer = new ExchangeRate("USD", 30, NOW + 1000, "B");
+        aggregator.update("B", Set.of(newer));
+
+        ExchangeRate aggregate = aggregator.getAggregateExchangeRates(NOW + 1000).get("USD");
+        assertEquals(20, aggregate.getPrice(), 1e-9);
+        assertEquals(AGGREGATE_PROVIDER_NAME, aggregate.getProvider());
+
+        // Without any update the rate of A becomes stale
+        assertSame(newer, aggregator.getAggregateExchangeRates(NOW + MAX_RATE_AGE + 1).get("USD"));
+    }
+
+    @Test
+    public void mostRecentRateIsUsedIfAllRatesAreStale() {
+        ExchangeRateAggregator aggregator = new ExchangeRateAggregator(ExchangeRateAggregator.Mode.MEAN, MAX_RATE_AGE);
+        ExchangeRate mostRecent = new ExchangeRate("USD", 10, NOW - MAX_RATE_AGE - 1, "A");
+        aggregator.update("A", Set.of(mostRecent));
+        aggregator.update("B", Set.of(new ExchangeRate("USD", 30, NOW - 2 * MAX_RATE_AGE, "B")));
+
+        assertSame(mostRecent, aggregator.getAggregateExchangeRates(NOW).get("USD"));
+    }
+
+    @Test
+    public void updateReplacesRatesOfProvider() {
+        ExchangeRateAggregator aggregator = new ExchangeRateAggregator(ExchangeRateAggregator.Mode.MEAN, MAX_RATE_AGE);
+        aggregator.update("A", Set.of(new ExchangeRate("USD", 10, NOW, "A"),
+                new ExchangeRate("EUR", 9, NOW, "A")));
+        aggregator.update("B", Set.of(new ExchangeRate("USD", 30, NOW, "B")));
+        assertEquals(20, aggregator.getAggregateExchangeRates(NOW).get("USD").getPrice(), 1e-9);
+
+        aggregator.update("A", Set.of(new ExchangeRate("USD", 50, NOW, "A")));
+        Map<String, ExchangeRate> aggregates = aggregator.getAggregateExchangeRates(NOW);
+        assertEquals(40, aggregates.get("USD").getPrice(), 1e-9);
+        assertFalse(aggregates.containsKey("EUR"));
+
+        aggregator.update("B", null);
+        assertEquals(50, aggregator.getAggregateExchangeRates(NOW).get("USD").getPrice(), 1e-9);
+    }
+
+    private static double aggregate(ExchangeRateAggregator.Mode mode, double... prices) {
+        ExchangeRateAggregator aggregator = new ExchangeRateAggregator(mode, MAX_RATE_AGE);
+        for (int i = 0; i < prices.length; i++) {
+            String provider = "P" + i;
+            aggregator.update(provider, Set.of(new ExchangeRate("USD", prices[i], NOW, provider)));
+        }
+        return aggregator.getAggregateExchangeRates(NOW).get("USD").getPrice();
+    }
+}
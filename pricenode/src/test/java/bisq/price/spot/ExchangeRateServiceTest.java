@@ -22,6 +22,8 @@ import com.google.common.collect.Sets;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.RandomUtils;
 
+import java.nio.charset.StandardCharsets;
+
 import java.time.Duration;
 
 import java.util.ArrayList;
@@ -49,6 +51,8 @@ import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ExchangeRateServiceTest {
@@ -156,6 +160,28 @@ public class ExchangeRateServiceTest {
         assertNotEquals(0L, retrievedData.get(dummyProvider2.getPrefix() + "Ts"));
     }
 
+    @Test
+    public void getSnapshot_isUpdatedWhenProviderRefreshes() throws InterruptedException {
+        ExchangeRateProvider dummyProvider = buildDummyExchangeRateProvider(2);
+        ExchangeRateService service = new ExchangeRateService(Collections.singletonList(dummyProvider));
+
+        // Without a refresh, the same pre-serialized snapshot is served
+        MarketPricesSnapshot snapshot = service.getSnapshot();
+        assertSame(snapshot, service.getSnapshot());
+        assertSame(snapshot.getData(), service.getAllMarketPrices());
+        assertTrue(new String(snapshot.getJson(), StandardCharsets.UTF_8)
+                .contains("\"" + dummyProvider.getPrefix() + "Ts\""));
+
+        // The refresh creates new random rates, so the snapshot and its ETag change
+        dummyProvider.start();
+        sleep(1000);
+        dummyProvider.stop();
+
+        MarketPricesSnapshot updatedSnapshot = service.getSnapshot();
+        assertNotSame(snapshot, updatedSnapshot);
+        assertNotEquals(snapshot.getETag(), updatedSnapshot.getETag());
+    }
+
     /**
      * Performs generic sanity checks on the response format and contents.
      *